@@ -32,6 +32,10 @@ public abstract class FunctionalHandler<T> {
     public void initializeLogic() throws Exception {
         initializeLogic(getFunctionContext(), getLogic());
     }
+    
+    protected void initializeLogic(T logicInstance) throws Exception {
+        initializeLogic(getFunctionContext(), logicInstance);
+    }
         
     private static void initializeLogic(FunctionContext context, Object logicInstance) throws Exception {
         for (;;) {
@@ -6,6 +6,7 @@ package com.ibm.streamsx.topology.internal.functional;
 
 import java.io.File;
 import java.net.MalformedURLException;
+import java.util.List;
 import java.util.logging.Logger;
 
 import com.ibm.streams.operator.AbstractOperator;
@@ -43,12 +44,35 @@ public class FunctionalHelper {
     public static <T> SPLMapping<T> getOutputMapping(AbstractOperator operator,
             int port, String serializer) throws ClassNotFoundException {
         
+        final boolean byReference = passByReference(operator, port);
+        
         if (serializer != null && !serializer.isEmpty()) {
-            return (SPLMapping<T>) Schemas.getObjectMapping(serializer);
+            return (SPLMapping<T>) Schemas.getObjectMapping(serializer, byReference);
         }
         
         return (SPLMapping<T>) Schemas.getSPLMapping(operator.getOutput(port)
-                .getStreamSchema());
+                .getStreamSchema(), byReference);
+    }
+    
+    /**
+     * Can tuples be passed by reference on an output port.
+     * The optimizer sets {@code outputConnections} when the job uses
+     * the manual threading model and all the port's connections are
+     * to Java functional operators that convert a tuple to its object
+     * on arrival, without a queue in between. It is only used
+     * when the port is not connected to a PE output port,
+     * as tuples leaving the PE are serialized.
+     */
+    private static boolean passByReference(AbstractOperator operator, int port) {
+        if (port != 0)
+            return false;
+        
+        List<String> oc = operator.getOperatorContext().getParameterValues(
+                FunctionalOpProperties.OUTPUT_CONNECTIONS_PARAM);
+        if (oc == null || oc.isEmpty() || Integer.parseInt(oc.get(0)) <= 0)
+            return false;
+        
+        return !operator.getOutput(port).isConnectedToPEPort();
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,128 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Histogram of non-negative {@code long} values,
+ * such as latencies, published as metrics.
+ * <P>
+ * Each power of two is divided into eight buckets, so a
+ * percentile is the upper bound of a bucket and is within 12.5%
+ * of the recorded value. Values less than eight are recorded exactly.
+ * </P>
+ * <P>
+ * Recording a value increments a single bucket count without
+ * locking. The counts are striped by thread so that threads
+ * recording values concurrently rarely contend.
+ * </P>
+ */
+public final class MetricHistogram implements LongConsumer {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int SUB_BITS = 3;
+
+    /**
+     * Number of buckets, the largest positive {@code long}
+     * has a base two logarithm of 62.
+     */
+    static final int BUCKETS = SUB_BUCKETS * 61;
+
+    private static final int STRIPES;
+    static {
+        int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors());
+        STRIPES = Math.max(1, Math.min(8, stripes));
+    }
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+
+    public MetricHistogram() {
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * Record a value, negative values are recorded as zero.
+     */
+    @Override
+    public void accept(long value) {
+        final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        stripes[stripe].incrementAndGet(bucket(Math.max(0, value)));
+    }
+
+    /**
+     * Snapshot of the count of values recorded in each bucket.
+     */
+    public long[] counts() {
+        final long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++)
+                counts[i] += stripe.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Number of values recorded.
+     */
+    public long count() {
+        long count = 0;
+        for (long c : counts())
+            count += c;
+        return count;
+    }
+
+    /**
+     * Percentile of the values recorded.
+     * @param percentile Percentile between 0 and 100, 100 for the maximum.
+     * @return Percentile of the values recorded, zero if no values have been recorded.
+     */
+    public long percentile(double percentile) {
+        return percentile(counts(), percentile);
+    }
+
+    /**
+     * Percentile of a snapshot of bucket counts.
+     * @param counts Bucket counts.
+     * @param percentile Percentile between 0 and 100, 100 for the maximum.
+     * @return Percentile of the counts, zero if the counts are all zero.
+     */
+    public static long percentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long c : counts)
+            total += c;
+        if (total == 0)
+            return 0;
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return upper(i);
+        }
+        return upper(counts.length - 1);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        final int log2 = 63 - Long.numberOfLeadingZeros(value);
+        return SUB_BUCKETS * (log2 - SUB_BITS + 1)
+                + (int) ((value >>> (log2 - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Largest value recorded in a bucket.
+     */
+    static long upper(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lower = ((long) SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
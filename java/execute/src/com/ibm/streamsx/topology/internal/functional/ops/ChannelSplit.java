@@ -0,0 +1,133 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.streams.operator.AbstractOperator;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingInput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.metrics.Metric.Kind;
+import com.ibm.streams.operator.model.CustomMetric;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.InputPorts;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.OutputPorts;
+import com.ibm.streams.operator.model.Parameter;
+
+/**
+ * Start of a parallel region expanded by embedded execution.
+ * <P>
+ * Each output port is a channel of the region, tuples are
+ * submitted to each channel from its own thread through a
+ * bounded queue. Tuples are routed as in distributed mode:
+ * <UL>
+ * <LI>{@code ROUND_ROBIN} - to each channel in turn.</LI>
+ * <LI>{@code BROADCAST} - to all channels.</LI>
+ * <LI>{@code KEY_PARTITIONED}, {@code HASH_PARTITIONED} - by the
+ * {@code __spl_hash} attribute so that tuples with the same key are always
+ * processed by the same channel.</LI>
+ * </UL>
+ * Window punctuation and final markers are sent to all channels.
+ * </P>
+ */
+@InputPorts(@InputPortSet(cardinality = 1))
+@OutputPorts(@OutputPortSet(cardinality = -1))
+public class ChannelSplit extends AbstractOperator {
+
+    static final String HASH_ATTRIBUTE = "__spl_hash";
+
+    private String routing = "ROUND_ROBIN";
+    private int queueSize = 1000;
+
+    private TupleQueue[] channels;
+    private int hashIndex = -1;
+    private boolean broadcast;
+    private int next;
+
+    private Metric queueDepth;
+
+    @Parameter(optional = true)
+    public void setRouting(String routing) {
+        this.routing = routing;
+    }
+
+    @Parameter(optional = true)
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public Metric getQueueDepth() {
+        return queueDepth;
+    }
+
+    @CustomMetric(kind = Kind.GAUGE, description = "Number of tuples waiting in the queues of all channels.")
+    public void setQueueDepth(Metric queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    @Override
+    public synchronized void initialize(OperatorContext context) throws Exception {
+        super.initialize(context);
+
+        switch (routing) {
+        case "BROADCAST":
+            broadcast = true;
+            break;
+        case "KEY_PARTITIONED":
+        case "HASH_PARTITIONED":
+            hashIndex = getInput(0).getStreamSchema().getAttributeIndex(HASH_ATTRIBUTE);
+            break;
+        }
+
+        final AtomicLong depth = new AtomicLong();
+        channels = new TupleQueue[context.getNumberOfStreamingOutputs()];
+        for (int c = 0; c < channels.length; c++)
+            channels[c] = new TupleQueue(context, queueSize, getOutput(c), depth, queueDepth);
+    }
+
+    @Override
+    public void process(StreamingInput<Tuple> stream, Tuple tuple) throws Exception {
+        if (broadcast) {
+            for (TupleQueue channel : channels)
+                channel.put(tuple);
+            return;
+        }
+
+        final int c;
+        if (hashIndex >= 0)
+            c = Math.floorMod(tuple.getInt(hashIndex), channels.length);
+        else
+            c = nextChannel();
+        channels[c].put(tuple);
+    }
+
+    private synchronized int nextChannel() {
+        final int c = next;
+        next = (c + 1) % channels.length;
+        return c;
+    }
+
+    @Override
+    public void processPunctuation(StreamingInput<Tuple> stream, Punctuation mark) throws Exception {
+        for (TupleQueue channel : channels)
+            channel.put(mark);
+        // Final marker is forwarded to all channels once processPunctuation returns.
+        if (mark == Punctuation.FINAL_MARKER) {
+            for (TupleQueue channel : channels)
+                channel.awaitDrained();
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() throws Exception {
+        for (TupleQueue channel : channels)
+            channel.stop();
+        super.shutdown();
+    }
+}
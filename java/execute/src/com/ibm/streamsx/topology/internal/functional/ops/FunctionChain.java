@@ -0,0 +1,189 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.model.Icons;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streams.operator.model.PrimitiveOperator;
+import com.ibm.streamsx.topology.function.Consumer;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+/**
+ * Chain of Filter, Map, FlatMap and ForEach functions
+ * created by the optimizer from a linear pipeline of
+ * functional operators in the same PE.
+ * <BR>
+ * Each function is called directly with the object returned
+ * by the previous function, so the tuple is only converted
+ * from SPL on input and to SPL on output.
+ * <BR>
+ * The first function is {@code functionalLogic}, subsequent
+ * functions are in {@code chainLogic}. {@code chainKinds}
+ * has the operator kind of every function.
+ */
+@PrimitiveOperator(name="Chain")
+@InputPortSet(cardinality = 1)
+@OutputPortSet(cardinality = 1, optional = true)
+@Icons(location16 = "opt/icons/functor_16.gif", location32 = "opt/icons/functor_32.gif")
+public class FunctionChain extends FunctionQueueableFunctor {
+
+    private String[] chainLogic;
+    private String[] chainKinds;
+
+    private final List<FunctionalHandler<?>> handlers = new ArrayList<>();
+    private StreamingOutput<OutputTuple> output;
+    private Stage head;
+    private FunctionOperatorMetrics metrics;
+
+    /**
+     * A function in the chain.
+     */
+    private interface Stage {
+        void tuple(Object value) throws Exception;
+    }
+
+    @Parameter(optional = true)
+    public void setChainLogic(String[] chainLogic) {
+        this.chainLogic = chainLogic;
+    }
+
+    @Parameter
+    public void setChainKinds(String[] chainKinds) {
+        this.chainKinds = chainKinds;
+    }
+
+    @Override
+    public synchronized void initialize(OperatorContext context)
+            throws Exception {
+        super.initialize(context);
+        metrics = getOperatorMetrics();
+
+        Stage next = null;
+        if (context.getNumberOfStreamingOutputs() != 0) {
+            output = getOutput(0);
+            final SPLMapping<Object> outputMapping = getOutputMapping(this, 0);
+            next = value -> {
+                long time = metrics.sample();
+                Tuple tuple = outputMapping.convertTo(value);
+                time = metrics.conversion(time);
+                output.submit(tuple);
+                metrics.tupleOut(time);
+            };
+        }
+
+        // Build the chain from its end.
+        for (int i = chainKinds.length - 1; i >= 0; i--) {
+            String logic = i == 0 ? getFunctionalLogic() : chainLogic[i - 1];
+            next = stage(chainKinds[i], logic, next);
+        }
+        head = next;
+    }
+
+    private Stage stage(String kind, String logic, Stage next) throws Exception {
+        switch (kind) {
+        case "Filter": {
+            final FunctionalHandler<Predicate<Object>> handler = createHandler(logic);
+            return value -> {
+                final long time = metrics.sample();
+                final Predicate<Object> filter = handler.getLogic();
+                boolean passed;
+                synchronized (filter) {
+                    passed = filter.test(value);
+                }
+                metrics.logic(time);
+                if (passed)
+                    next.tuple(value);
+            };
+        }
+        case "Map": {
+            final FunctionalHandler<Function<Object, Object>> handler = createHandler(logic);
+            return value -> {
+                final long time = metrics.sample();
+                final Function<Object, Object> transform = handler.getLogic();
+                Object modValue;
+                synchronized (transform) {
+                    modValue = transform.apply(value);
+                }
+                metrics.logic(time);
+                if (modValue != null)
+                    next.tuple(modValue);
+            };
+        }
+        case "FlatMap": {
+            final FunctionalHandler<Function<Object, Iterable<Object>>> handler = createHandler(logic);
+            return value -> {
+                final long time = metrics.sample();
+                final Function<Object, Iterable<Object>> transform = handler.getLogic();
+                Iterable<Object> modValues;
+                synchronized (transform) {
+                    modValues = transform.apply(value);
+                }
+                metrics.logic(time);
+                if (modValues != null) {
+                    for (Object modValue : modValues) {
+                        if (modValue != null)
+                            next.tuple(modValue);
+                    }
+                }
+            };
+        }
+        case "ForEach": {
+            final FunctionalHandler<Consumer<Object>> handler = createHandler(logic);
+            return value -> {
+                metrics.traced();
+                final long time = metrics.sample();
+                final Consumer<Object> sinker = handler.getLogic();
+                synchronized (sinker) {
+                    sinker.accept(value);
+                }
+                metrics.logic(time);
+            };
+        }
+        default:
+            throw new IllegalStateException(kind);
+        }
+    }
+
+    private <T> FunctionalHandler<T> createHandler(String logic) throws Exception {
+        FunctionalHandler<T> handler = FunctionalOpUtils.createFunctionHandler(
+                getOperatorContext(), getFunctionContext(), logic,
+                getKeyGroups(), handlers.size());
+        handlers.add(handler);
+        return handler;
+    }
+
+    @Override
+    public void tuple(Object value) throws Exception {
+        head.tuple(value);
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        if (output != null)
+            output.punctuate(mark);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FunctionalHandler<?> handler : handlers)
+            handler.close();
+    }
+}
@@ -42,14 +42,20 @@ public class FunctionFilter extends FunctionFunctor {
     @Override
     public void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
+        final FunctionOperatorMetrics metrics = getOperatorMetrics();
+        long time = metrics.tupleIn();
         Object value = mapping.convertFrom(tuple);
+        time = metrics.conversion(time);
 
         final Predicate<Object> filter = filterHandler.getLogic();
         boolean submitTuple;
         synchronized (filter) {
             submitTuple = filter.test(value);
         }
-        if (submitTuple)
+        time = metrics.logic(time);
+        if (submitTuple) {
             passed.submit(tuple);
+            metrics.tupleOut(time);
+        }
     }
 }
@@ -26,6 +26,7 @@ import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHelper;
 import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
 import com.ibm.streamsx.topology.internal.functional.SubmissionParameterManager;
+import com.ibm.streamsx.topology.internal.spljava.Tracing;
 
 /**
  * 
@@ -47,8 +48,15 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private int outputConnections = -1;
+    private int keyGroups;
+    private int channel = -1;
+    private int maxChannels;
+    private int metricsSample;
+    private int traceSample;
     
     private FunctionOperatorContext functionContext;
+    private FunctionOperatorMetrics metrics = FunctionOperatorMetrics.NONE;
     
     /**
      * Logic (function) used by this operator,
@@ -92,6 +100,81 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
         this.submissionParamValues = SubmissionParamValues;
     }
 
+    public final int getOutputConnections() {
+        return outputConnections;
+    }
+
+    /**
+     * Set by the optimizer when tuples can be passed by reference,
+     * read through the operator context when creating the output mapping.
+     */
+    @Parameter(optional = true)
+    public final void setOutputConnections(int outputConnections) {
+        this.outputConnections = outputConnections;
+    }
+
+    public final int getKeyGroups() {
+        return keyGroups;
+    }
+
+    /**
+     * Set by the optimizer for operators in a partitioned parallel region
+     * whose state is divided into key groups.
+     */
+    @Parameter(optional = true)
+    public final void setKeyGroups(int keyGroups) {
+        this.keyGroups = keyGroups;
+    }
+
+    public final int getChannel() {
+        return channel;
+    }
+
+    /**
+     * Set by embedded execution for operators in a parallel region
+     * that has been expanded into channels, overriding the channel
+     * returned by the operator context.
+     */
+    @Parameter(optional = true)
+    public final void setChannel(int channel) {
+        this.channel = channel;
+    }
+
+    public final int getMaxChannels() {
+        return maxChannels;
+    }
+
+    @Parameter(optional = true)
+    public final void setMaxChannels(int maxChannels) {
+        this.maxChannels = maxChannels;
+    }
+
+    public final int getMetricsSample() {
+        return metricsSample;
+    }
+
+    /**
+     * Set when operator metrics are enabled, the interval
+     * in tuples at which timings are sampled.
+     */
+    @Parameter(optional = true)
+    public final void setMetricsSample(int metricsSample) {
+        this.metricsSample = metricsSample;
+    }
+
+    public final int getTraceSample() {
+        return traceSample;
+    }
+
+    /**
+     * Set when tuple tracing is enabled, the interval in
+     * tuples at which sources trace tuples.
+     */
+    @Parameter(optional = true)
+    public final void setTraceSample(int traceSample) {
+        this.traceSample = traceSample;
+    }
+
     @Override
     public synchronized void initialize(OperatorContext context)
             throws Exception {
@@ -99,12 +182,28 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
         FunctionalHelper.addLibraries(this, getJar());
         FunctionFunctor.initializeSubmissionParameters(context);
         functionContext = new FunctionOperatorContext(context);
+        if (getChannel() >= 0)
+            functionContext.setChannel(getChannel(), getMaxChannels());
+        if (getTraceSample() > 0)
+            Tracing.enable();
+        // Sinks publish the latency of traced tuples.
+        final boolean traced = getTraceSample() > 0
+                && context.getNumberOfStreamingOutputs() == 0;
+        if (getMetricsSample() > 0 || traced)
+            metrics = new FunctionOperatorMetrics(context, getMetricsSample(), traced);
     }
     
     protected FunctionContext getFunctionContext() {
         return functionContext;
     }
     
+    /**
+     * Built-in metrics of this operator, never null.
+     */
+    public final FunctionOperatorMetrics getOperatorMetrics() {
+        return metrics;
+    }
+    
     /* Ensure any custom metric collection is completed when the operator
      * has no more work to do.
      */
@@ -114,8 +213,10 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
     public void processPunctuation(StreamingInput<Tuple> stream, Punctuation mark) throws Exception {
         if (mark == Punctuation.FINAL_MARKER) {
             int totalFinals = finalMarks.incrementAndGet();
-            if (totalFinals == getOperatorContext().getNumberOfStreamingInputs())
+            if (totalFinals == getOperatorContext().getNumberOfStreamingInputs()) {
                 functionContext.finalMarkers();
+                metrics.finalMarkers();
+            }
         }
     }
     @Override
@@ -126,6 +227,7 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
     
     @Override
     public synchronized void shutdown() throws Exception {
+        metrics.finalMarkers();
         close();
         
         if (logicHandler != null)
@@ -138,7 +240,8 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
     
     public <T> FunctionalHandler<T> createLogicHandler() throws Exception {
         FunctionalHandler<T> handler = FunctionalOpUtils.createFunctionHandler(
-                getOperatorContext(), getFunctionContext(), getFunctionalLogic());
+                getOperatorContext(), getFunctionContext(), getFunctionalLogic(),
+                getKeyGroups(), 0);
         this.logicHandler = handler;
         return handler;
     }
@@ -10,6 +10,7 @@ import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.OutputTuple;
 import com.ibm.streams.operator.StreamingData.Punctuation;
 import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Icons;
 import com.ibm.streams.operator.model.InputPortSet;
 import com.ibm.streams.operator.model.OutputPortSet;
@@ -42,15 +43,23 @@ public class FunctionMultiTransform extends FunctionQueueableFunctor {
     public void tuple(Object tuple)
             throws Exception {
         
+        final FunctionOperatorMetrics metrics = getOperatorMetrics();
+        long time = metrics.sample();
+        
         final Function<Object, Iterable<Object>> transform = transformHandler.getLogic();
         Iterable<Object> modValues;
         synchronized (transform) {
             modValues = transform.apply(tuple);
         }
+        time = metrics.logic(time);
         if (modValues != null) {
             for (Object modValue : modValues) {
-                if (modValue != null)
-                    output.submit(outputMapping.convertTo(modValue));
+                if (modValue != null) {
+                    Tuple outTuple = outputMapping.convertTo(modValue);
+                    time = metrics.conversion(time);
+                    output.submit(outTuple);
+                    time = metrics.tupleOut(time);
+                }
             }
         }
     }
@@ -7,15 +7,16 @@ package com.ibm.streamsx.topology.internal.functional.ops;
 import static java.util.Objects.requireNonNull;
 
 import java.net.MalformedURLException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 import java.util.function.LongSupplier;
 
 import com.ibm.streams.operator.OperatorContext;
@@ -23,12 +24,16 @@ import com.ibm.streams.operator.metrics.Metric;
 import com.ibm.streams.operator.metrics.Metric.Kind;
 import com.ibm.streamsx.topology.function.FunctionContainer;
 import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.internal.functional.MetricHistogram;
 
 class FunctionOperatorContext implements FunctionContext {
     
     private final OperatorContext context;
     private final FunctionContainer container;
     
+    private int channel = -1;
+    private int maxChannels;
+    
     private List<MetricSetter> metrics;
     private ScheduledFuture<?> metricsGetter;
     
@@ -62,14 +67,23 @@ class FunctionOperatorContext implements FunctionContext {
         return context.getThreadFactory();
     }
 
+    /**
+     * Set the channel when the parallel region is not
+     * known to the operator context.
+     */
+    void setChannel(int channel, int maxChannels) {
+        this.channel = channel;
+        this.maxChannels = maxChannels;
+    }
+
     @Override
     public int getChannel() {
-        return context.getChannel();
+        return channel >= 0 ? channel : context.getChannel();
     }
 
     @Override
     public int getMaxChannels() {
-        return context.getMaxChannels();
+        return channel >= 0 ? maxChannels : context.getMaxChannels();
     }
 
     @Override
@@ -96,18 +110,16 @@ class FunctionOperatorContext implements FunctionContext {
             // if so we use the existing metric and effectively rebind it to
             // the new value supplier.
             if (metrics != null) {
-                synchronized (metrics) {
-                    for (MetricSetter ms : metrics)
-                        if (ms.metric.getName().equals(name))
-                            throw e;
-                }
+                for (MetricSetter ms : metrics)
+                    if (ms.metric.getName().equals(name))
+                        throw e;
             }
             cm = context.getMetrics().getCustomMetric(name);           
         }
         cm.setValue(supplier.getAsLong());
         
         if (metrics == null) {
-            metrics = Collections.synchronizedList(new ArrayList<>());
+            metrics = new CopyOnWriteArrayList<>();
             
             metricsGetter = getScheduledExecutorService().scheduleWithFixedDelay(this::updateMetrics,
                     1, 1, TimeUnit.SECONDS);
@@ -116,11 +128,14 @@ class FunctionOperatorContext implements FunctionContext {
         metrics.add(new MetricSetter(cm, value));
     }
     
+    /**
+     * Update all the metrics in a single pass without
+     * locking, metrics are rarely added once the
+     * function has been initialized.
+     */
     private void updateMetrics() {
-        synchronized (metrics) {
-            for (MetricSetter ms : metrics)
-                ms.metric.setValue(ms.value.getAsLong());
-        }
+        for (MetricSetter ms : metrics)
+            ms.metric.setValue(ms.value.getAsLong());
     }
     
     void clearMetrics() {
@@ -138,6 +153,29 @@ class FunctionOperatorContext implements FunctionContext {
         }
     }
     
+    @Override
+    public LongConsumer createHistogramMetric(String name, String description, double... percentiles) {
+        if (percentiles.length == 0)
+            percentiles = new double[] {50, 90, 99};
+        for (double percentile : percentiles) {
+            if (!(percentile > 0 && percentile < 100))
+                throw new IllegalArgumentException("percentile: " + percentile);
+        }
+        
+        final MetricHistogram histogram = new MetricHistogram();
+        createCustomMetric(name + ".count", "Number of values: " + description,
+                "counter", histogram::count);
+        createCustomMetric(name + ".max", "Maximum: " + description,
+                "gauge", () -> histogram.percentile(100));
+        for (double percentile : percentiles) {
+            final String p = percentile == Math.rint(percentile)
+                    ? Long.toString((long) percentile) : Double.toString(percentile);
+            createCustomMetric(name + ".p" + p, p + "th percentile: " + description,
+                    "gauge", () -> histogram.percentile(percentile));
+        }
+        return histogram;
+    }
+    
     @Override
     public Set<String> getCustomMetricNames() {
         // TODO Auto-generated method stub
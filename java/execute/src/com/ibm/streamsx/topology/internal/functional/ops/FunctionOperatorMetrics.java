@@ -0,0 +1,271 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.metrics.Metric.Kind;
+import com.ibm.streams.operator.metrics.OperatorMetrics;
+import com.ibm.streamsx.topology.internal.functional.MetricHistogram;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionOperatorContext.MetricSetter;
+import com.ibm.streamsx.topology.internal.spljava.Tracing;
+
+/**
+ * Built-in metrics of a functional operator,
+ * see {@code ContextProperties.OPERATOR_METRICS}
+ * and {@code ContextProperties.TUPLE_TRACING}.
+ * <P>
+ * Tuples in and out are counted for every tuple. One in every
+ * {@code sample} tuples is timed, each timing method is passed the
+ * value returned by the previous one, which is zero when the tuple
+ * is not being sampled. The sampling counters are not synchronized,
+ * concurrent threads may change which tuples are sampled
+ * but not the rate. Time metrics are percentiles of the samples
+ * taken since the previous update, so metrics are updated once a second
+ * by a background task rather than by the threads processing tuples.
+ * </P>
+ * <P>
+ * An operator without metrics uses {@link #NONE} whose methods
+ * return immediately.
+ * </P>
+ */
+public final class FunctionOperatorMetrics {
+
+    static final FunctionOperatorMetrics NONE = new FunctionOperatorMetrics();
+
+    private final OperatorContext context;
+    private final int sample;
+    private int inCount;
+    private int sampleCount;
+
+    private final LongAdder nIn;
+    private final LongAdder nOut;
+
+    private final Timer logic;
+    private final Timer conversion;
+    private final Timer submit;
+
+    private final LongAdder nTraced;
+    private final Timer traceLatency;
+
+    private final List<MetricSetter> metrics = new ArrayList<>();
+    private ScheduledFuture<?> updater;
+
+    private FunctionOperatorMetrics() {
+        context = null;
+        sample = 0;
+        nIn = nOut = null;
+        logic = conversion = submit = null;
+        nTraced = null;
+        traceLatency = null;
+    }
+
+    /**
+     * @param sample Interval in tuples at which times are sampled,
+     * zero for no operator metrics.
+     * @param traced True to publish the latency of traced tuples,
+     * only for sinks.
+     */
+    FunctionOperatorMetrics(OperatorContext context, int sample, boolean traced) {
+        this.context = context;
+        this.sample = sample;
+
+        OperatorMetrics om = context.getMetrics();
+        if (sample != 0) {
+            nIn = new LongAdder();
+            nOut = new LongAdder();
+            logic = new Timer(om, "logicTimeNanos", "time taken by the function");
+            conversion = new Timer(om, "conversionTimeNanos", "time taken to convert a tuple to or from its object");
+            submit = new Timer(om, "submitTimeNanos", "time taken to submit a tuple");
+
+            metrics.add(new MetricSetter(om.createCustomMetric("nTuplesIn",
+                    "Number of tuples processed.", Kind.COUNTER), nIn::sum));
+            metrics.add(new MetricSetter(om.createCustomMetric("nTuplesOut",
+                    "Number of tuples submitted.", Kind.COUNTER), nOut::sum));
+        } else {
+            nIn = nOut = null;
+            logic = conversion = submit = null;
+        }
+
+        if (traced) {
+            nTraced = new LongAdder();
+            traceLatency = new Timer(om, "traceLatencyNanos", "latency of traced tuples from their source");
+            metrics.add(new MetricSetter(om.createCustomMetric("nTracedTuples",
+                    "Number of traced tuples processed.", Kind.COUNTER), nTraced::sum));
+        } else {
+            nTraced = null;
+            traceLatency = null;
+        }
+
+        updater = context.getScheduledExecutorService().scheduleWithFixedDelay(
+                this::update, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * True if this operator publishes metrics.
+     */
+    public boolean isEnabled() {
+        return sample != 0;
+    }
+
+    /**
+     * Publish a gauge, updated with the other metrics.
+     */
+    public synchronized void gauge(String name, String description, LongSupplier value) {
+        if (!isEnabled())
+            return;
+        metrics.add(new MetricSetter(
+                context.getMetrics().createCustomMetric(name, description, Kind.GAUGE), value));
+    }
+
+    /**
+     * Count a tuple arriving at the operator.
+     * @return Start time if the tuple is sampled, otherwise zero.
+     */
+    public long tupleIn() {
+        if (sample == 0)
+            return 0;
+        nIn.increment();
+        if (++inCount < sample)
+            return 0;
+        inCount = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Start of a timing that is not started by {@link #tupleIn()},
+     * such as a call to the function after the tuple has been queued.
+     * @return Start time if the timing is sampled, otherwise zero.
+     */
+    public long sample() {
+        if (sample == 0)
+            return 0;
+        if (++sampleCount < sample)
+            return 0;
+        sampleCount = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * End of a call to the function.
+     * @return End time if the call is sampled, otherwise zero.
+     */
+    public long logic(long start) {
+        return start == 0 ? 0 : logic.record(start);
+    }
+
+    /**
+     * End of the conversion of a tuple.
+     * @return End time if the conversion is sampled, otherwise zero.
+     */
+    public long conversion(long start) {
+        return start == 0 ? 0 : conversion.record(start);
+    }
+
+    /**
+     * Count a tuple submitted by the operator.
+     * @return End time if the submission is sampled, otherwise zero.
+     */
+    public long tupleOut(long start) {
+        if (sample == 0)
+            return 0;
+        nOut.increment();
+        return start == 0 ? 0 : submit.record(start);
+    }
+
+    /**
+     * Record the latency of a tuple arriving at a sink
+     * if it is traced.
+     */
+    public void traced() {
+        if (traceLatency == null)
+            return;
+        final long stamp = Tracing.current();
+        if (stamp == 0)
+            return;
+        nTraced.increment();
+        traceLatency.add(Tracing.now() - stamp);
+    }
+
+    private synchronized void update() {
+        if (sample != 0) {
+            logic.update();
+            conversion.update();
+            submit.update();
+        }
+        if (traceLatency != null)
+            traceLatency.update();
+        for (MetricSetter ms : metrics)
+            ms.metric.setValue(ms.value.getAsLong());
+    }
+
+    /**
+     * Stop the periodic update after a final update of the metrics.
+     */
+    synchronized void finalMarkers() {
+        if (updater != null) {
+            updater.cancel(false);
+            updater = null;
+            update();
+        }
+    }
+
+    /**
+     * Histogram of sampled times, publishing the
+     * percentiles of the times sampled since the last update.
+     */
+    private static final class Timer {
+
+        private final MetricHistogram histogram = new MetricHistogram();
+        private long[] previous = new long[0];
+        private final Metric p50;
+        private final Metric p99;
+        private final Metric max;
+
+        Timer(OperatorMetrics om, String name, String description) {
+            p50 = om.createCustomMetric(name + ".p50", "Median " + description + ".", Kind.GAUGE);
+            p99 = om.createCustomMetric(name + ".p99", "99th percentile " + description + ".", Kind.GAUGE);
+            max = om.createCustomMetric(name + ".max", "Maximum " + description + ".", Kind.GAUGE);
+        }
+
+        long record(long start) {
+            final long end = System.nanoTime();
+            add(end - start);
+            return end;
+        }
+
+        void add(long nanos) {
+            histogram.accept(nanos);
+        }
+
+        /**
+         * Publish the percentiles of the times sampled since
+         * the last update, leaving the metrics unchanged
+         * if no times were sampled.
+         */
+        void update() {
+            final long[] counts = histogram.counts();
+            final long[] sampled = counts.clone();
+            boolean any = false;
+            for (int i = 0; i < previous.length; i++)
+                sampled[i] -= previous[i];
+            previous = counts;
+            for (long c : sampled)
+                any |= c != 0;
+            if (!any)
+                return;
+            p50.setValue(MetricHistogram.percentile(sampled, 50));
+            p99.setValue(MetricHistogram.percentile(sampled, 99));
+            max.setValue(MetricHistogram.percentile(sampled, 100));
+        }
+    }
+}
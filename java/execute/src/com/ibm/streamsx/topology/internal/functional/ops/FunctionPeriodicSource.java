@@ -39,6 +39,9 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private int outputConnections = -1;
+    private int traceSample;
+    private SourceTracer tracer;
     private StreamingOutput<OutputTuple> output;
     
     private FunctionContext functionContext;
@@ -53,6 +56,7 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
         functionContext = new FunctionOperatorContext(context);
         
         output = getOutput(0);
+        tracer = new SourceTracer(getTraceSample());
         mapping = getOutputMapping(this, 0);
         
         dataHandler = FunctionalOpUtils.createFunctionHandler(
@@ -98,6 +102,32 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
     public final void setSubmissionParamValues(String[] SubmissionParamValues) {
         this.submissionParamValues = SubmissionParamValues;
     }
+
+    public final int getOutputConnections() {
+        return outputConnections;
+    }
+
+    /**
+     * Set by the optimizer when tuples can be passed by reference,
+     * read through the operator context when creating the output mapping.
+     */
+    @Parameter(optional = true)
+    public final void setOutputConnections(int outputConnections) {
+        this.outputConnections = outputConnections;
+    }
+
+    public final int getTraceSample() {
+        return traceSample;
+    }
+
+    /**
+     * Set when tuple tracing is enabled, the interval
+     * in tuples at which submitted tuples are traced.
+     */
+    @Parameter(optional = true)
+    public final void setTraceSample(int traceSample) {
+        this.traceSample = traceSample;
+    }
     
     @Override
     protected void fetchTuples() throws Exception {
@@ -107,8 +137,10 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
                 return;
             if (tuple == null)
                 continue;
+            tracer.next();
             output.submit(mapping.convertTo(tuple));
         }
+        tracer.end();
     }
     
     @Override
@@ -28,6 +28,7 @@ abstract class FunctionQueueableFunctor extends FunctionFunctor implements Strea
     
     private SPLMapping<?> inputMapping;
     private StreamHandler<Object> handler;
+    private FunctionOperatorMetrics metrics;
     
     @Override
     public synchronized void initialize(OperatorContext context)
@@ -36,14 +37,21 @@ abstract class FunctionQueueableFunctor extends FunctionFunctor implements Strea
         inputMapping = getInputMapping(this, 0);
         if (getQueueSize() <=0 || getInput(0).isConnectedToPEPort())
             handler = this; // not queued
-        else
-            handler = new FunctionalQueue<Object>(context, getQueueSize(), this);
+        else {
+            FunctionalQueue<Object> queue = new FunctionalQueue<Object>(context, getQueueSize(), this);
+            getOperatorMetrics().gauge("queueDepth",
+                    "Number of tuples waiting in the queue.", queue::size);
+            handler = queue;
+        }
+        metrics = getOperatorMetrics();
     }
     
     @Override
     public final void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
+        final long start = metrics.tupleIn();
         Object value = inputMapping.convertFrom(tuple);
+        metrics.conversion(start);
         handler.tuple(value);
     }
     
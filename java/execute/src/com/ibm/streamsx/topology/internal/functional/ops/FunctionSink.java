@@ -42,10 +42,15 @@ public abstract class FunctionSink extends FunctionFunctor {
     @Override
     public void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
+        final FunctionOperatorMetrics metrics = getOperatorMetrics();
+        long time = metrics.tupleIn();
         Object value = mapping.convertFrom(tuple);
+        time = metrics.conversion(time);
+        metrics.traced();
         final Consumer<Object> sinker = sinkerHandler.getLogic();
         synchronized (sinker) {
             sinker.accept(value);
         }
+        metrics.logic(time);
     }
 }
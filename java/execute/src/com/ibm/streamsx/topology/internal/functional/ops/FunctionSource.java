@@ -39,6 +39,9 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private int outputConnections = -1;
+    private int traceSample;
+    private SourceTracer tracer;
     private StreamingOutput<OutputTuple> output;
      
     private FunctionOperatorContext functionContext;
@@ -55,6 +58,7 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
             functionContext = new FunctionOperatorContext(context);
             
             output = getOutput(0);
+            tracer = new SourceTracer(getTraceSample());
                 
             mapping = getOutputMapping(this, 0, outputSerializer);
             
@@ -111,6 +115,32 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
     public final void setSubmissionParamValues(String[] SubmissionParamValues) {
         this.submissionParamValues = SubmissionParamValues;
     }
+
+    public final int getOutputConnections() {
+        return outputConnections;
+    }
+
+    /**
+     * Set by the optimizer when tuples can be passed by reference,
+     * read through the operator context when creating the output mapping.
+     */
+    @Parameter(optional = true)
+    public final void setOutputConnections(int outputConnections) {
+        this.outputConnections = outputConnections;
+    }
+
+    public final int getTraceSample() {
+        return traceSample;
+    }
+
+    /**
+     * Set when tuple tracing is enabled, the interval
+     * in tuples at which submitted tuples are traced.
+     */
+    @Parameter(optional = true)
+    public final void setTraceSample(int traceSample) {
+        this.traceSample = traceSample;
+    }
     
     @Parameter(optional=true)
     public final void setOutputSerializer(String outputSerializer) {
@@ -127,8 +157,10 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
                     return;
                 if (tuple == null)
                     continue;
+                tracer.next();
                 output.submit(mapping.convertTo(tuple));
             }
+            tracer.end();
         } catch (Exception e) {
             throw throwError(exception(e));
         } finally {
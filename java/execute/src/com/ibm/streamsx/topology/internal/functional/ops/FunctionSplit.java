@@ -48,15 +48,20 @@ public class FunctionSplit extends FunctionFunctor {
     @Override
     public void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
+        final FunctionOperatorMetrics metrics = getOperatorMetrics();
+        long time = metrics.tupleIn();
         Object value = mapping.convertFrom(tuple);
-
+        time = metrics.conversion(time);
         
         final ToIntFunction<Object> splitter = splitterHandler.getLogic();
         int r;
         synchronized (splitter) {
             r = splitter.applyAsInt(value);
         }
-        if (r >= 0)
+        time = metrics.logic(time);
+        if (r >= 0) {
             oports.get(r % n).submit(tuple);
+            metrics.tupleOut(time);
+        }
     }
 }
@@ -10,6 +10,7 @@ import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.OutputTuple;
 import com.ibm.streams.operator.StreamingData.Punctuation;
 import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Icons;
 import com.ibm.streams.operator.model.InputPortSet;
 import com.ibm.streams.operator.model.OutputPortSet;
@@ -39,14 +40,20 @@ public class FunctionTransform extends FunctionQueueableFunctor {
     }
     
     public void tuple(Object value) throws Exception {
+        final FunctionOperatorMetrics metrics = getOperatorMetrics();
+        long time = metrics.sample();
 
         Object modValue;
         Function<Object, Object> transform = transformHandler.getLogic();
         synchronized (transform) {
             modValue = transform.apply(value);
         }
+        time = metrics.logic(time);
         if (modValue != null) {
-            output.submit(outputMapping.convertTo(modValue));
+            Tuple tuple = outputMapping.convertTo(modValue);
+            time = metrics.conversion(time);
+            output.submit(tuple);
+            metrics.tupleOut(time);
         }
     }
     
@@ -24,6 +24,17 @@ import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 class FunctionalOpUtils {
     
     static <T> FunctionalHandler<T> createFunctionHandler(OperatorContext context, FunctionContext functionContext, String functionalLogic) throws Exception {
+        return createFunctionHandler(context, functionContext, functionalLogic, 0, 0);
+    }
+    
+    /**
+     * Create the handler for functional logic.
+     * @param keyGroups Number of key groups when the operator is in a partitioned parallel region
+     * whose state is divided into key groups, otherwise zero.
+     * @param index Index of the logic within the operator.
+     */
+    static <T> FunctionalHandler<T> createFunctionHandler(OperatorContext context, FunctionContext functionContext, String functionalLogic,
+            int keyGroups, int index) throws Exception {
 
         final T initialLogic = getLogicObject(functionalLogic);
                
@@ -55,6 +66,19 @@ class FunctionalOpUtils {
                 // Close it just in case it does something in its deserialization.
                 FunctionalHandler.closeLogic(initialLogic); 
                                 
+                // State of a partitioned region within a consistent region
+                // is kept per key group so it can move between channels.
+                if (keyGroups > 0 && crc != null && context.getChannel() >= 0) {
+                    if (trace.isLoggable(Level.FINE))
+                        trace.fine("Key group stateful function:" + initialLogic.getClass().getName() + " groups:" + keyGroups);
+                    KeyGroupFunctionalHandler<T> handler =
+                            new KeyGroupFunctionalHandler<T>(context, functionContext, functionalLogic, index);
+                    context.registerStateHandler(handler);
+                    if (context.getPE().getRelaunchCount() == 0)
+                        handler.resetToInitialState();
+                    return handler;
+                }
+                
                 StatefulFunctionalHandler<T> handler =
                         new StatefulFunctionalHandler<T>(functionContext, functionalLogic);
                 
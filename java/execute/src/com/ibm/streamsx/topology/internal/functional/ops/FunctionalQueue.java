@@ -12,10 +12,18 @@ import java.util.concurrent.BlockingQueue;
 import com.ibm.streams.flow.handlers.StreamHandler;
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streamsx.topology.internal.spljava.Tracing;
 
+/**
+ * Queue of objects processed by a separate thread.
+ * <BR>
+ * A traced object is queued with its latency stamp,
+ * which is set for the reader thread while the object
+ * is processed, see {@link Tracing}.
+ */
 class FunctionalQueue<T> implements StreamHandler<T>, Runnable {
 
-    private BlockingQueue<T> queue;
+    private BlockingQueue<Object> queue;
     
     private final StreamHandler<T> handler;
     private final Thread reader;
@@ -33,8 +41,7 @@ class FunctionalQueue<T> implements StreamHandler<T>, Runnable {
     public void run() {
         while (!Thread.interrupted()) {
             try {
-                T tuple = queue.take();
-                handler.tuple(tuple);
+                process(queue.take());
 
             } catch (InterruptedException e) {
                 return;
@@ -48,7 +55,30 @@ class FunctionalQueue<T> implements StreamHandler<T>, Runnable {
     
     @Override
     public synchronized void tuple(T tuple) throws Exception {
-        queue.put(tuple);
+        final long stamp = Tracing.current();
+        queue.put(stamp == 0 ? tuple : new Traced(tuple, stamp));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void process(Object queued) throws Exception {
+        if (queued instanceof Traced) {
+            Traced traced = (Traced) queued;
+            Tracing.set(traced.stamp);
+            handler.tuple((T) traced.tuple);
+        } else {
+            Tracing.set(0);
+            handler.tuple((T) queued);
+        }
+    }
+    
+    private static final class Traced {
+        final Object tuple;
+        final long stamp;
+        
+        Traced(Object tuple, long stamp) {
+            this.tuple = tuple;
+            this.stamp = stamp;
+        }
     }
        
     /**
@@ -58,17 +88,24 @@ class FunctionalQueue<T> implements StreamHandler<T>, Runnable {
     @Override
     public void mark(Punctuation mark) throws Exception {
         if (!queue.isEmpty()) {
-            List<T> drained = new ArrayList<T>(queue.size());
+            List<Object> drained = new ArrayList<>(queue.size());
             queue.drainTo(drained);
             if (!drained.isEmpty()) {
-                for (T tuple : drained)
-                    handler.tuple(tuple);
+                for (Object tuple : drained)
+                    process(tuple);
             }
         }
         
         handler.mark(mark);
     }
     
+    /**
+     * Number of tuples waiting in the queue.
+     */
+    int size() {
+        return queue.size();
+    }
+    
     void start() {
         reader.start();
     }
@@ -55,10 +55,14 @@ public abstract class HashAdder extends FunctionFunctor {
     public void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
         // Take the hash code, add it to the tuple, and submit.
+        // With key groups the channel is chosen by the key group
+        // so that all keys in a group are processed by one channel.
         Object value = mapping.convertFrom(tuple);
         OutputTuple ot = output.newTuple();
         ot.setObject(0, tuple.getObject(0));
-        ot.setInt(1, hasher.applyAsInt(value));
+        final int hash = hasher.applyAsInt(value);
+        final int keyGroups = getKeyGroups();
+        ot.setInt(1, keyGroups > 0 ? KeyGroups.group(hash, keyGroups) : hash);
         output.submit(ot);
     }
 }
@@ -29,12 +29,23 @@ public abstract class HashRemover extends FunctionFunctor {
 
     /**
      * Removes the __spl_hash attribute at the start of a parallel region.
+     * With key groups the attribute is the tuple's key group which
+     * is set for the thread while the tuple is submitted.
      */
     public void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
         OutputTuple out_t = output.newTuple();
         out_t.setObject(0, tuple.getObject(0));
-        output.submit(out_t);
+        if (getKeyGroups() <= 0) {
+            output.submit(out_t);
+            return;
+        }
+        final int previous = KeyGroups.set(tuple.getInt(1));
+        try {
+            output.submit(out_t);
+        } finally {
+            KeyGroups.set(previous);
+        }
     }
     
     /**
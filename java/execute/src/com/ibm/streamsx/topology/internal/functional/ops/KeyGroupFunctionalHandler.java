@@ -0,0 +1,222 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.state.Checkpoint;
+import com.ibm.streams.operator.state.StateHandler;
+import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+
+/**
+ * Functional logic handler used for stateful logic in a partitioned
+ * parallel region within a consistent region when the state is
+ * divided into key groups.
+ * <P>
+ * Each key group has its own instance of the logic. At a checkpoint
+ * every key group held by the channel is written to a store in the
+ * application's data directory, shared by all channels, as a file
+ * named by the checkpoint's sequence identifier. When the region is reset,
+ * for example after its width has been changed, the key groups are discarded
+ * and each is restored from the store when the channel first processes a
+ * tuple in it. Thus state follows its keys when they are routed to a
+ * different channel.
+ * </P>
+ * <P>
+ * Tuples whose key group is not known use a single instance
+ * of the logic for the channel, checkpointed with the operator.
+ * </P>
+ */
+class KeyGroupFunctionalHandler<T> extends FunctionalHandler<T> implements StateHandler {
+
+    static final String STORE_DIR = "keyGroups";
+
+    private final String initialLogic;
+    private final File store;
+
+    private T logic;
+    private final Map<Integer, T> groups = new HashMap<>();
+
+    /**
+     * Sequence identifier of the checkpoint the
+     * logic was reset to, -1 for the initial state.
+     */
+    private long resetId = -1;
+
+    KeyGroupFunctionalHandler(OperatorContext context, FunctionContext functionContext,
+            String initialLogic, int index) throws Exception {
+        super(functionContext);
+        this.initialLogic = initialLogic;
+
+        File opStore = new File(new File(context.getPE().getDataDirectory(), STORE_DIR),
+                context.getLogicalName());
+        this.store = new File(opStore, Integer.toString(index));
+    }
+
+    @Override
+    public synchronized T getLogic() {
+        final int group = KeyGroups.current();
+        if (group < 0)
+            return logic;
+        T groupLogic = groups.get(group);
+        if (groupLogic == null) {
+            try {
+                groupLogic = restoreGroup(group);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            groups.put(group, groupLogic);
+        }
+        return groupLogic;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T restoreGroup(int group) throws Exception {
+        T groupLogic = null;
+        File groupFile = latest(group, resetId);
+        if (groupFile != null) {
+            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(groupFile))) {
+                groupLogic = (T) in.readObject();
+            }
+        } else {
+            groupLogic = getLogicObject(initialLogic);
+        }
+        initializeLogic(groupLogic);
+        return groupLogic;
+    }
+
+    /**
+     * Newest state of a group at or before a checkpoint.
+     */
+    private File latest(int group, long id) {
+        if (id < 0)
+            return null;
+        File[] files = new File(store, Integer.toString(group)).listFiles();
+        if (files == null)
+            return null;
+        File latest = null;
+        long latestId = -1;
+        for (File file : files) {
+            long fileId = sequenceId(file);
+            if (fileId > latestId && fileId <= id) {
+                latest = file;
+                latestId = fileId;
+            }
+        }
+        return latest;
+    }
+
+    private static long sequenceId(File file) {
+        try {
+            return Long.parseLong(file.getName());
+        } catch (NumberFormatException e) {
+            // Partially written state.
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeAll();
+    }
+
+    private synchronized void closeAll() {
+        // Clear mapping of custom metrics to any objects in the logic.
+        ((FunctionOperatorContext) getFunctionContext()).clearMetrics();
+        if (logic != null) {
+            closeLogic(logic);
+            logic = null;
+        }
+        for (T groupLogic : groups.values())
+            closeLogic(groupLogic);
+        groups.clear();
+    }
+
+    @Override
+    public void resetToInitialState() throws Exception {
+        closeAll();
+        synchronized (this) {
+            resetId = -1;
+            logic = getLogicObject(initialLogic);
+        }
+        initializeLogic();
+    }
+
+    @Override
+    public synchronized void checkpoint(Checkpoint checkpoint) throws Exception {
+        synchronized (logic) {
+            checkpoint.getOutputStream().writeObject(logic);
+        }
+
+        final String id = Long.toString(checkpoint.getSequenceId());
+        for (Map.Entry<Integer, T> entry : groups.entrySet()) {
+            File groupDir = new File(store, entry.getKey().toString());
+            groupDir.mkdirs();
+            File tmp = new File(groupDir, id + ".tmp");
+            final T groupLogic = entry.getValue();
+            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(tmp))) {
+                synchronized (groupLogic) {
+                    out.writeObject(groupLogic);
+                }
+            }
+            Files.move(tmp.toPath(), new File(groupDir, id).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public void drain() throws Exception {
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void reset(Checkpoint checkpoint) throws Exception {
+        closeAll();
+        synchronized (this) {
+            resetId = checkpoint.getSequenceId();
+            logic = (T) checkpoint.getInputStream().readObject();
+        }
+        initializeLogic();
+    }
+
+    /**
+     * Remove state of key groups that has been superseded
+     * by state at or before the retired checkpoint. State of a group
+     * that has not been modified since an earlier checkpoint is kept.
+     */
+    @Override
+    public void retireCheckpoint(long id) throws Exception {
+        File[] groupDirs = store.listFiles();
+        if (groupDirs == null)
+            return;
+        for (File groupDir : groupDirs) {
+            File latest = latest(Integer.parseInt(groupDir.getName()), id);
+            if (latest == null)
+                continue;
+            final long latestId = sequenceId(latest);
+            File[] files = groupDir.listFiles();
+            if (files == null)
+                continue;
+            for (File file : files) {
+                long fileId = sequenceId(file);
+                if (fileId != -1 && fileId < latestId)
+                    file.delete();
+            }
+        }
+    }
+}
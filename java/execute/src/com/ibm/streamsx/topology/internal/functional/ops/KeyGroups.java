@@ -0,0 +1,47 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+/**
+ * Key group of the tuple being processed by the current thread.
+ * <P>
+ * In a partitioned parallel region whose state is divided
+ * into key groups {@code HashAdder} routes each tuple using its
+ * key group and {@code HashRemover} sets the key group for the thread
+ * while the tuple is submitted. Downstream operators fused into the
+ * channel process the tuple on the same thread and so see its key group.
+ * </P>
+ */
+final class KeyGroups {
+
+    private KeyGroups() {}
+
+    private static final ThreadLocal<int[]> CURRENT = ThreadLocal.withInitial(() -> new int[] {-1});
+
+    /**
+     * Key group of a key's hash.
+     */
+    static int group(int hash, int keyGroups) {
+        return Math.floorMod(hash, keyGroups);
+    }
+
+    /**
+     * Key group of the tuple being processed, -1 if not known.
+     */
+    static int current() {
+        return CURRENT.get()[0];
+    }
+
+    /**
+     * Set the key group of the tuple being processed.
+     * @return Previous key group.
+     */
+    static int set(int group) {
+        final int[] current = CURRENT.get();
+        final int previous = current[0];
+        current[0] = group;
+        return previous;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.streams.operator.AbstractOperator;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingInput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.metrics.Metric.Kind;
+import com.ibm.streams.operator.model.CustomMetric;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.InputPorts;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.OutputPorts;
+import com.ibm.streams.operator.model.Parameter;
+
+/**
+ * Pass through that submits tuples from its own thread,
+ * used by embedded execution for thread boundaries
+ * such as {@code isolate()}.
+ * <P>
+ * Tuples and window punctuation are passed through a bounded
+ * queue so that a full queue blocks the upstream thread.
+ * A final marker is only processed once all
+ * queued tuples have been submitted.
+ * </P>
+ */
+@InputPorts(@InputPortSet(cardinality = 1))
+@OutputPorts(@OutputPortSet(cardinality = 1))
+public class QueuedPassThrough extends AbstractOperator {
+
+    private int queueSize = 1000;
+
+    private TupleQueue queue;
+
+    private Metric queueDepth;
+
+    @Parameter(optional = true)
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public Metric getQueueDepth() {
+        return queueDepth;
+    }
+
+    @CustomMetric(kind = Kind.GAUGE, description = "Number of tuples waiting in the queue.")
+    public void setQueueDepth(Metric queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    @Override
+    public synchronized void initialize(OperatorContext context) throws Exception {
+        super.initialize(context);
+        queue = new TupleQueue(context, queueSize, getOutput(0), new AtomicLong(), queueDepth);
+    }
+
+    @Override
+    public void process(StreamingInput<Tuple> stream, Tuple tuple) throws Exception {
+        queue.put(tuple);
+    }
+
+    @Override
+    public void processPunctuation(StreamingInput<Tuple> stream, Punctuation mark) throws Exception {
+        queue.put(mark);
+        // Final marker is forwarded once processPunctuation returns.
+        if (mark == Punctuation.FINAL_MARKER)
+            queue.awaitDrained();
+    }
+
+    @Override
+    public synchronized void shutdown() throws Exception {
+        queue.stop();
+        super.shutdown();
+    }
+}
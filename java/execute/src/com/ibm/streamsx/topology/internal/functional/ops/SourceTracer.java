@@ -0,0 +1,46 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import com.ibm.streamsx.topology.internal.spljava.Tracing;
+
+/**
+ * Traces one in every {@code sample} tuples submitted by a source,
+ * see {@code ContextProperties.TUPLE_TRACING}.
+ */
+final class SourceTracer {
+
+    private final int sample;
+    private int count;
+
+    SourceTracer(int sample) {
+        this.sample = sample;
+        if (sample > 0)
+            Tracing.enable();
+    }
+
+    /**
+     * Called before each tuple is submitted, stamps
+     * the tuple if it is sampled.
+     */
+    void next() {
+        if (sample <= 0)
+            return;
+        if (++count < sample) {
+            Tracing.set(0);
+            return;
+        }
+        count = 0;
+        Tracing.set(Tracing.now());
+    }
+
+    /**
+     * Called once the source has submitted its tuples.
+     */
+    void end() {
+        if (sample > 0)
+            Tracing.set(0);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streamsx.topology.internal.spljava.Tracing;
+
+/**
+ * Bounded queue of tuples and window punctuation
+ * submitted to an output port by its own thread.
+ * <P>
+ * A full queue blocks the thread adding to it. A final marker is
+ * not submitted, instead {@link #awaitDrained()} returns once
+ * all items queued before it have been submitted.
+ * </P>
+ * <P>
+ * If submitting an item fails the queue is discarded and
+ * the failure is thrown to threads adding to the queue
+ * or waiting for it to drain.
+ * </P>
+ * <P>
+ * A traced tuple is queued with the latency stamp of the
+ * thread adding it, which is set for the reader thread while
+ * the tuple is submitted, see {@link Tracing}. Thus the stamp
+ * crosses the queue whatever the tuple's schema.
+ * </P>
+ */
+class TupleQueue implements Runnable {
+
+    private final BlockingQueue<Object> queue;
+    private final StreamingOutput<OutputTuple> out;
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private final Thread reader;
+
+    /**
+     * Number of items in all queues sharing the metric.
+     */
+    private final AtomicLong depth;
+    private final Metric depthMetric;
+
+    /**
+     * Failure submitting from the queue, the reader has stopped.
+     */
+    private volatile Exception failure;
+
+    TupleQueue(OperatorContext context, int size, StreamingOutput<OutputTuple> out,
+            AtomicLong depth, Metric depthMetric) {
+        this.queue = new ArrayBlockingQueue<>(size);
+        this.out = out;
+        this.depth = depth;
+        this.depthMetric = depthMetric;
+
+        reader = context.getThreadFactory().newThread(this);
+        reader.setDaemon(false);
+        reader.start();
+    }
+
+    private static final class Traced {
+        final Tuple tuple;
+        final long stamp;
+
+        Traced(Tuple tuple, long stamp) {
+            this.tuple = tuple;
+            this.stamp = stamp;
+        }
+    }
+
+    void put(Tuple tuple) throws Exception {
+        final long stamp = Tracing.current();
+        offer(stamp == 0 ? tuple : new Traced(tuple, stamp));
+    }
+
+    void put(Punctuation mark) throws Exception {
+        offer(mark);
+    }
+
+    private void offer(Object item) throws Exception {
+        // Waits in intervals so a thread blocked on
+        // a full queue sees a failure of the reader.
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS))
+            checkFailure();
+        depthMetric.setValue(depth.incrementAndGet());
+        checkFailure();
+    }
+
+    void awaitDrained() throws Exception {
+        drained.await();
+        checkFailure();
+    }
+
+    private void checkFailure() throws Exception {
+        final Exception e = failure;
+        if (e != null)
+            throw e;
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (;;) {
+                Object item = queue.take();
+                depthMetric.setValue(depth.decrementAndGet());
+                if (item == Punctuation.FINAL_MARKER) {
+                    drained.countDown();
+                    return;
+                }
+                if (item instanceof Punctuation) {
+                    out.punctuate((Punctuation) item);
+                } else if (item instanceof Traced) {
+                    Traced traced = (Traced) item;
+                    Tracing.set(traced.stamp);
+                    out.submit(traced.tuple);
+                } else {
+                    Tracing.set(0);
+                    out.submit((Tuple) item);
+                }
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (Exception e) {
+            failure = e;
+            final int discarded = queue.drainTo(new ArrayList<>());
+            depthMetric.setValue(depth.addAndGet(-discarded));
+            drained.countDown();
+        }
+    }
+
+    void stop() {
+        reader.interrupt();
+        drained.countDown();
+    }
+}
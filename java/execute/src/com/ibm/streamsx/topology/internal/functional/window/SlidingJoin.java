@@ -48,15 +48,20 @@ public class SlidingJoin<T, U, J> extends SlidingSet<U, J> {
 
     public void port1Join(Tuple splTuple) throws Exception {
         final BiFunction<T, List<U>, J> joiner = joinerHandler.getLogic();
+        long time = metrics.tupleIn();
         J jTuple;
         synchronized (this) {
             T tTuple = input1Mapping.convertFrom(splTuple);
+            time = metrics.conversion(time);
             LinkedList<U> tuples = getPartitionState(getPort1PartitionKey(tTuple));
             jTuple = joiner.apply(tTuple, tuples);
+            time = metrics.logic(time);
         }
         if (jTuple != null) {
             Tuple splOutTuple = outputMapping.convertTo(jTuple);
+            time = metrics.conversion(time);
             output.submit(splOutTuple);
+            metrics.tupleOut(time);
         }
     }
 
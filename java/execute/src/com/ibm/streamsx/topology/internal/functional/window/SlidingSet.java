@@ -8,12 +8,14 @@ import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.get
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
 
 import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.ibm.streams.operator.StreamingOutput;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.window.StatefulWindowListener;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streams.operator.window.StreamWindowEvent;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionOperatorMetrics;
 import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
 import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
@@ -33,6 +35,13 @@ public abstract class SlidingSet<I, O> extends
 
     protected final SPLMapping<O> outputMapping;
     protected final StreamingOutput<?> output;
+    protected final FunctionOperatorMetrics metrics;
+
+    /**
+     * Number of tuples in the window across all partitions,
+     * only maintained when operator metrics are enabled.
+     */
+    private final AtomicLong windowSize = new AtomicLong();
 
     protected SlidingSet(FunctionWindow op, StreamWindow<Tuple> window)
             throws ClassNotFoundException {
@@ -41,6 +50,8 @@ public abstract class SlidingSet<I, O> extends
         inputMapping = getInputMapping(op, 0);
         output = op.getOutput(0);
         outputMapping = getOutputMapping(op, 0);
+        metrics = op.getOperatorMetrics();
+        metrics.gauge("windowSize", "Number of tuples in the window.", windowSize::get);
     }
 
     @Override
@@ -52,8 +63,12 @@ public abstract class SlidingSet<I, O> extends
         switch (event.getType()) {
         case INSERTION:
             for (Tuple splTuple : event.getTuples()) {
+                final long time = metrics.tupleIn();
                 I tuple = inputMapping.convertFrom(splTuple);
+                metrics.conversion(time);
                 tuples.addLast(tuple);
+                if (metrics.isEnabled())
+                    windowSize.incrementAndGet();
             }
 
             break;
@@ -62,9 +77,13 @@ public abstract class SlidingSet<I, O> extends
             // means any eviction is always the oldest N tuples.
             for (@SuppressWarnings("unused") Tuple splTuple : event.getTuples()) {
                 tuples.removeFirst();
+                if (metrics.isEnabled())
+                    windowSize.decrementAndGet();
             }
             break;
         case PARTITION_EVICTION:
+            if (metrics.isEnabled())
+                windowSize.addAndGet(-tuples.size());
             op.getnPartitions().incrementValue(-1);
             break;
         default:
@@ -36,11 +36,15 @@ public abstract class SlidingSetAggregator<I, O> extends SlidingSet<I, O> {
 
     protected void aggregate(Object partition, LinkedList<I> tuples)
             throws Exception {
+        long time = metrics.sample();
         final Function<List<I>, O> aggregator = aggregatorHandler.getLogic();
         O aggregation = aggregator.apply(tuples);
+        time = metrics.logic(time);
         if (aggregation != null) {
             Tuple splTuple = outputMapping.convertTo(aggregation);
+            time = metrics.conversion(time);
             output.submit(splTuple);
+            metrics.tupleOut(time);
         }
     }
 }
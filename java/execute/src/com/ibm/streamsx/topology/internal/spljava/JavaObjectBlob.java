@@ -18,17 +18,37 @@ public class JavaObjectBlob implements Blob {
     private final TupleSerializer serializer;
     private byte[] data;
     private int len;
-    private final Object object;
+    private Object object;
+    private long stamp;
 
-    JavaObjectBlob(TupleSerializer serializer, Object object) {
+    JavaObjectBlob(TupleSerializer serializer, Object object, long stamp) {
         this.serializer = serializer;
         this.object = object;
+        this.stamp = stamp;
     }
 
     Object getObject() {
         return object;
     }
 
+    /**
+     * Latency stamp of the tuple, zero if it is not traced.
+     */
+    long getStamp() {
+        return stamp;
+    }
+
+    /**
+     * Replace the object, only used when the blob is
+     * passed by reference and is reused for every tuple.
+     */
+    synchronized void setObject(Object object, long stamp) {
+        this.object = object;
+        this.stamp = stamp;
+        data = null;
+        len = 0;
+    }
+
     @Override
     public long getLength() {
         if (data == null)
@@ -85,6 +105,11 @@ public class JavaObjectBlob implements Blob {
             AB baos = new AB();
             
             serializer.serialize(object, baos);
+            if (stamp != 0) {
+                ByteBuffer trailer = ByteBuffer.allocate(Tracing.TRAILER);
+                Tracing.writeTrailer(trailer, stamp);
+                baos.write(trailer.array());
+            }
             len = baos.size();
             data = baos.data();
 
@@ -4,7 +4,9 @@
  */
 package com.ibm.streamsx.topology.internal.spljava;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Tuple;
@@ -16,6 +18,12 @@ import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
  * Like Java at runtime (the schema) we have no knowledge of
  * the actual type of the Java object, the info for
  *  generic parameter of TStream<T> is not needed. 
+ * <BR>
+ * When passing by reference each thread reuses a single
+ * tuple (and blob) holding the object being submitted.
+ * This is only valid when every consumer is in the same PE
+ * and converts the tuple to its object on arrival without
+ * retaining the tuple, see the {@code outputConnections} parameter.
  */
 class SPLJavaObject extends SPLMapping<Object> {
 
@@ -25,14 +33,24 @@ class SPLJavaObject extends SPLMapping<Object> {
     public static final String SPL_JAVA_OBJECT = "__spl_jo";
     
     private final TupleSerializer serializer;
+    private final ThreadLocal<Tuple> references;
 
     SPLJavaObject(StreamSchema schema) {
         this(schema, TupleSerializer.JAVA_SERIALIZER);
     }
     
     SPLJavaObject(StreamSchema schema, TupleSerializer serializer) {
+        this(schema, serializer, false);
+    }
+
+    SPLJavaObject(StreamSchema schema, TupleSerializer serializer, boolean byReference) {
         super(schema);
         this.serializer = serializer;
+        this.references = byReference ? ThreadLocal.withInitial(this::newReference) : null;
+    }
+
+    private Tuple newReference() {
+        return getSchema().getTuple(new Blob[] { new JavaObjectBlob(serializer, null, 0) });
     }
 
     @Override
@@ -41,10 +59,13 @@ class SPLJavaObject extends SPLMapping<Object> {
 
         if (blob instanceof JavaObjectBlob) {
             JavaObjectBlob jblob = (JavaObjectBlob) blob;
+            Tracing.set(jblob.getStamp());
             return jblob.getObject();
         }
         
         try {
+            if (Tracing.isEnabled())
+                return deserializeTraced(blob);
             return serializer.deserialize(blob.getInputStream());
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -53,10 +74,36 @@ class SPLJavaObject extends SPLMapping<Object> {
         }
     }
 
+    /**
+     * Deserialize an object that may have a trailer
+     * with its latency stamp.
+     */
+    private Object deserializeTraced(Blob blob) throws IOException, ClassNotFoundException {
+        final long len = blob.getLength();
+        long stamp = 0;
+        if (len >= Tracing.TRAILER)
+            stamp = Tracing.readTrailer(blob.getByteBuffer(len - Tracing.TRAILER, Tracing.TRAILER));
+        Tracing.set(stamp);
+        if (stamp == 0)
+            return serializer.deserialize(blob.getInputStream());
+
+        ByteBuffer data = blob.getByteBuffer(0, (int) (len - Tracing.TRAILER));
+        byte[] object = new byte[data.remaining()];
+        data.get(object);
+        return serializer.deserialize(new ByteArrayInputStream(object));
+    }
+
     @Override
     public Tuple convertTo(Object tuple) {
 
-        JavaObjectBlob jblob = new JavaObjectBlob(serializer, tuple);
+        final long stamp = Tracing.current();
+        if (references != null) {
+            Tuple reference = references.get();
+            ((JavaObjectBlob) reference.getBlob(0)).setObject(tuple, stamp);
+            return reference;
+        }
+
+        JavaObjectBlob jblob = new JavaObjectBlob(serializer, tuple, stamp);
         return getSchema().getTuple(new Blob[] { jblob });
     }
 }
@@ -44,17 +44,34 @@ public class Schemas {
     }
     
     public static SPLMapping<?> getObjectMapping(String tupleSerializer) throws ClassNotFoundException {
+        return getObjectMapping(tupleSerializer, false);
+    }
+
+    /**
+     * Get the mapping for a Java object using a specific serializer.
+     * @param byReference True if tuples can be passed by reference.
+     */
+    public static SPLMapping<?> getObjectMapping(String tupleSerializer, boolean byReference) throws ClassNotFoundException {
         TupleSerializer serializer = (TupleSerializer) deserializeLogic(tupleSerializer);
-        return new SPLJavaObject(JAVA_OBJECT, serializer);
+        return new SPLJavaObject(JAVA_OBJECT, serializer, byReference);
     }
 
     public static SPLMapping<?> getSPLMapping(StreamSchema schema) {
+        return getSPLMapping(schema, false);
+    }
+
+    /**
+     * Get the mapping for a schema.
+     * @param byReference True if tuples can be passed by reference,
+     * only used for a Java object schema.
+     */
+    public static SPLMapping<?> getSPLMapping(StreamSchema schema, boolean byReference) {
 
         if (STRING.equals(schema)) {
             return SPLMapping.JavaString;
         }
         if (JAVA_OBJECT.equals(schema)) {
-            return new SPLJavaObject(schema);
+            return new SPLJavaObject(schema, TupleSerializer.JAVA_SERIALIZER, byReference);
         }
         if (BLOB.equals(schema)) {
             return SPLMapping.JavaBlob;
@@ -0,0 +1,107 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Latency stamps carried by sampled Java object tuples,
+ * see {@code ContextProperties.TUPLE_TRACING}.
+ * <P>
+ * A source sets the stamp of the current thread while it submits
+ * a sampled tuple. Converting an object to a tuple on a thread with
+ * a stamp attaches the stamp to the tuple's {@code __spl_jo} blob and
+ * converting a tuple to its object sets the stamp of the current thread
+ * from its blob. Thus the stamp follows each tuple through the operators
+ * fused on the thread and through any operator that submits
+ * objects derived from it. When a blob is serialized, for example
+ * to be sent to another PE, the stamp is appended as a trailer
+ * after the serialized object.
+ * </P>
+ * <P>
+ * Nothing is done until an operator in the JVM enables tracing,
+ * so tracing has no cost when it is not enabled.
+ * </P>
+ */
+public final class Tracing {
+
+    private Tracing() {}
+
+    /**
+     * Marks the trailer of a serialized object with a stamp.
+     */
+    private static final long MAGIC = 0x5F5F73706C5F7473L; // "__spl_ts"
+
+    /**
+     * Length in bytes of the trailer, the stamp followed by the marker.
+     */
+    static final int TRAILER = 16;
+
+    private static volatile boolean enabled;
+
+    private static final ThreadLocal<long[]> CURRENT = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Epoch time in nanoseconds when {@link #BASE_NANO} was read,
+     * so that stamps from JVMs on hosts with synchronized
+     * clocks can be compared.
+     */
+    private static final long BASE_EPOCH = System.currentTimeMillis() * 1_000_000L;
+    private static final long BASE_NANO = System.nanoTime();
+
+    /**
+     * Enable tracing in this JVM.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Current time in epoch nanoseconds, with the
+     * resolution of {@code System.nanoTime()}.
+     */
+    public static long now() {
+        return BASE_EPOCH + (System.nanoTime() - BASE_NANO);
+    }
+
+    /**
+     * Stamp of the tuple being processed by the current thread.
+     * @return Stamp of the tuple, zero if the tuple is not traced
+     * or tracing is not enabled.
+     */
+    public static long current() {
+        return enabled ? CURRENT.get()[0] : 0;
+    }
+
+    /**
+     * Set the stamp of the tuple being processed by the current thread.
+     * @param stamp Stamp of the tuple, zero if the tuple is not traced.
+     */
+    public static void set(long stamp) {
+        if (enabled)
+            CURRENT.get()[0] = stamp;
+    }
+
+    /**
+     * Write the trailer for a stamp.
+     */
+    static void writeTrailer(ByteBuffer trailer, long stamp) {
+        trailer.putLong(stamp);
+        trailer.putLong(MAGIC);
+    }
+
+    /**
+     * Read the stamp from the trailer of a serialized object.
+     * @return Stamp, zero if the trailer is not present.
+     */
+    static long readTrailer(ByteBuffer trailer) {
+        final long stamp = trailer.getLong();
+        return trailer.getLong() == MAGIC ? stamp : 0;
+    }
+}
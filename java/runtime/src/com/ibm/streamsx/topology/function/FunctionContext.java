@@ -8,6 +8,9 @@ import java.net.MalformedURLException;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
 import java.util.function.LongSupplier;
 
 /**
@@ -208,6 +211,104 @@ public interface FunctionContext {
      */       
     void createCustomMetric(String name, String description, String kind, LongSupplier value);
     
+    /**
+     * Create a custom counter metric whose value is the sum of a {@code LongAdder}.
+     * <BR>
+     * A {@code LongAdder} spreads its updates across cells so threads
+     * incrementing the counter concurrently, for example for every tuple,
+     * do not contend as they would with an {@code AtomicLong}, e.g.:
+     * <pre>
+     * <code>
+     *     this.nRequests = functionContext.createCounterMetric("nRequests", "Number of requests.");
+     * </code>
+     * </pre>
+     * Subsequently the counter is incremented using:
+     * <pre>
+     * <code>
+     *     this.nRequests.increment();
+     * </code>
+     * </pre>
+     * The metric is updated with the sum of the counter as described by
+     * {@link #createCustomMetric(String, String, String, LongSupplier)}.
+     * 
+     * @param name Name of the metric.
+     * @param description Description of the metric.
+     * @return Counter whose sum is the value of the metric.
+     * 
+     * @throws IllegalStateException A metric with {@code name} already exists.
+     * 
+     * @since 2.2
+     */
+    default LongAdder createCounterMetric(String name, String description) {
+        final LongAdder counter = new LongAdder();
+        createCustomMetric(name, description, "counter", counter::sum);
+        return counter;
+    }
+    
+    /**
+     * Create a custom gauge metric whose value is the value of an {@code AtomicLong}.
+     * <BR>
+     * The metric is updated with the value of the gauge as described by
+     * {@link #createCustomMetric(String, String, String, LongSupplier)}.
+     * 
+     * @param name Name of the metric.
+     * @param description Description of the metric.
+     * @return Gauge whose value is the value of the metric.
+     * 
+     * @throws IllegalStateException A metric with {@code name} already exists.
+     * 
+     * @since 2.2
+     */
+    default AtomicLong createGaugeMetric(String name, String description) {
+        final AtomicLong gauge = new AtomicLong();
+        createCustomMetric(name, description, "gauge", gauge::get);
+        return gauge;
+    }
+    
+    /**
+     * Create custom metrics for a histogram of values, such as latencies.
+     * <BR>
+     * Values are recorded with {@code LongConsumer.accept(value)},
+     * which increments a bucket count without locking, so values can be
+     * recorded for every tuple, e.g.:
+     * <pre>
+     * <code>
+     *     this.requestTime = functionContext.createHistogramMetric("requestTimeMs",
+     *               "Request time in milliseconds.", 50, 99, 99.9);
+     *     ...
+     *     this.requestTime.accept(System.currentTimeMillis() - start);
+     * </code>
+     * </pre>
+     * These metrics are created:
+     * <UL>
+     * <LI>{@code name.count} - Counter of the number of values recorded.</LI>
+     * <LI>{@code name.max} - Maximum value recorded.</LI>
+     * <LI>{@code name.pN} - One for each requested percentile, for example
+     * {@code requestTimeMs.p50} and {@code requestTimeMs.p99.9}.</LI>
+     * </UL>
+     * Each power of two is divided into eight buckets, so a percentile
+     * is within 12.5% of a recorded value. Percentiles are of all
+     * values recorded since the metrics were created. Negative values
+     * are recorded as zero.
+     * <BR>
+     * The metrics are updated as described by
+     * {@link #createCustomMetric(String, String, String, LongSupplier)}.
+     * 
+     * @param name Name prefix of the metrics.
+     * @param description Description of the values.
+     * @param percentiles Percentiles to create metrics for, each greater than 0
+     * and less than 100. If none are given the 50th, 90th and 99th
+     * percentiles are created.
+     * @return Consumer that records values into the histogram.
+     * 
+     * @throws IllegalStateException A metric with the name of one of the
+     * histogram's metrics already exists.
+     * @throws IllegalArgumentException A percentile is not valid.
+     * 
+     * @since 2.2
+     */
+    LongConsumer createHistogramMetric(String name, String description, double... percentiles);
+    
     /**
      * Get the set of custom metric names created in this context.
      * 
@@ -18,4 +18,21 @@ public interface FunctionalOpProperties {
     String JOIN_KEY_GETTER_PARAM = "joinKeyGetter";
     
     String WINDOW_KEY_GETTER_PARAM = "keyGetter";
+    
+    /** Functional logic of the second and subsequent functions of a chain. */
+    String CHAIN_LOGIC_PARAM = "chainLogic";
+    /** Kind (e.g. Map) of each function of a chain. */
+    String CHAIN_KINDS_PARAM = "chainKinds";
+    /** Number of connections of an output port whose tuples can be passed by reference. */
+    String OUTPUT_CONNECTIONS_PARAM = "outputConnections";
+    /** Number of key groups the state of a partitioned parallel region is divided into. */
+    String KEY_GROUPS_PARAM = "keyGroups";
+    /** Channel of an operator in a parallel region expanded by embedded execution. */
+    String CHANNEL_PARAM = "channel";
+    /** Width of a parallel region expanded by embedded execution. */
+    String MAX_CHANNELS_PARAM = "maxChannels";
+    /** Interval in tuples at which operator metrics sample timings, zero when not published. */
+    String METRICS_SAMPLE_PARAM = "metricsSample";
+    /** Interval in tuples at which sources trace tuples, zero when tuples are not traced. */
+    String TRACE_SAMPLE_PARAM = "traceSample";
 }
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.fluent.Executor;
 
 import com.google.gson.GsonBuilder;
@@ -106,6 +107,14 @@ abstract class AbstractStreamsConnection {
         return StreamsRestUtils.getResponseString(executor, getAuthorization(), inputString);
     }
 
+    /**
+     * Gets a response to an HTTP call, passing it to {@code handler}
+     * as it is read.
+     */
+    <T> T getStreamingResponse(String url, ResponseHandler<T> handler) throws IOException {
+        return StreamsRestUtils.getStreamingResponse(executor, getAuthorization(), url, handler);
+    }
+
     /* (non-Javadoc)
      * @see com.ibm.streamsx.rest.StreamsConnection#getInstances()
      */
@@ -50,6 +50,13 @@ public class InputPort extends Element {
         return indexWithinOperator;
     }
 
+    /**
+     * URL of the metrics resource.
+     */
+    String metricsUri() {
+        return metrics;
+    }
+
     /**
      * Gets the {@link Metric metrics} for this input port
      * 
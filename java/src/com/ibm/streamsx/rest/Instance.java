@@ -13,6 +13,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import com.google.gson.JsonObject;
@@ -270,6 +271,25 @@ public class Instance extends Element {
         return Job.createJobList(this, jobs);
     }
     
+    /**
+     * Gets a snapshot of the metrics of jobs in this instance.
+     * <BR>
+     * The snapshot contains the metrics of all operators, operator ports,
+     * processing elements and processing element ports of the jobs,
+     * retrieved concurrently with one request per element.
+     * 
+     * @param jobs Jobs to include in the snapshot, if {@code null} then all
+     * jobs in this instance are included.
+     * @return Snapshot of the jobs' metrics.
+     * @throws IOException Error communicating with Streams.
+     * 
+     * @see Job#getMetricsSnapshot()
+     * @since 2.2
+     */
+    public MetricsSnapshot getMetricsSnapshot(Collection<Job> jobs) throws IOException {
+        return MetricsSnapshot.of(jobs == null ? getJobs() : jobs);
+    }
+
     /**
      * Gets a list of {@link ProcessingElement processing elements} for this instance.
      * 
@@ -7,13 +7,18 @@ package com.ibm.streamsx.rest;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import com.google.gson.JsonObject;
 import com.google.gson.annotations.Expose;
+import com.ibm.streamsx.rest.MetricsSnapshot.OwnerType;
 
 /**
  * An object describing an IBM Streams Job submitted within a specified instance
@@ -346,6 +351,125 @@ public class Job extends Element {
     	return fn;
     }
 
+    /**
+     * Gets a snapshot of the metrics of this job.
+     * <BR>
+     * The snapshot contains the metrics of all operators, operator ports,
+     * processing elements and processing element ports of this job,
+     * retrieved concurrently with one request per element.
+     * 
+     * @return Snapshot of this job's metrics.
+     * @throws IOException Error communicating with Streams.
+     * 
+     * @since 2.2
+     */
+    public MetricsSnapshot getMetricsSnapshot() throws IOException {
+        return MetricsSnapshot.of(Collections.singletonList(this));
+    }
+
+    /**
+     * Gets the metrics of this job that have changed since a previous snapshot.
+     * <BR>
+     * Equivalent to {@code getMetricsSnapshot().changedSince(previous)}.
+     * 
+     * @param previous Previous snapshot of this job's metrics.
+     * @return Snapshot of this job's metrics that have been updated since {@code previous}.
+     * @throws IOException Error communicating with Streams.
+     * 
+     * @see MetricsSnapshot#changedSince(MetricsSnapshot)
+     * @since 2.2
+     */
+    public MetricsSnapshot getMetricsSnapshot(MetricsSnapshot previous) throws IOException {
+        return getMetricsSnapshot().changedSince(previous);
+    }
+
+    /**
+     * Gets an operator cost profile of this job for placing
+     * the operators of a topology into processing elements.
+     * <BR>
+     * The cost of an operator is the CPU time of its PE
+     * ({@code nCpuMilliseconds}) apportioned to the PE's operators
+     * by the number of tuples each has processed, or submitted for a source.
+     * The bytes of an operator are the tuple bytes submitted by its
+     * output ports ({@code nTupleBytesSubmitted}).
+     * Operators are identified by their {@link Operator#getLogicalName() logical name}
+     * so the values of the channels of a parallel region are combined.
+     * The PE count of the profile is this job's number of PEs.
+     * <BR>
+     * Both values are cumulative so the profile covers the time
+     * since the job was submitted.
+     * 
+     * @return Profile suitable for {@code ContextProperties.PLACEMENT_PROFILE}.
+     * @throws IOException Error communicating with Streams.
+     * 
+     * @see com.ibm.streamsx.topology.context.ContextProperties#PLACEMENT_PROFILE
+     * @since 2.2
+     */
+    public JsonObject getPlacementProfile() throws IOException {
+        final List<Operator> operators = getOperators();
+        final List<ProcessingElement> pes = getPes();
+        final MetricsSnapshot metrics = getMetricsSnapshot();
+
+        Map<String, Long> processed = new HashMap<>();
+        Map<String, Long> submitted = new HashMap<>();
+        Map<String, Long> bytes = new HashMap<>();
+        for (int i = 0; i < metrics.size(); i++) {
+            final OwnerType type = metrics.getOwnerType(i);
+            final String name = metrics.getName(i);
+            if (type == OwnerType.OPERATOR_INPUT_PORT && "nTuplesProcessed".equals(name))
+                processed.merge(metrics.getOwner(i), metrics.getValue(i), Long::sum);
+            else if (type == OwnerType.OPERATOR_OUTPUT_PORT && "nTuplesSubmitted".equals(name))
+                submitted.merge(metrics.getOwner(i), metrics.getValue(i), Long::sum);
+            else if (type == OwnerType.OPERATOR_OUTPUT_PORT && "nTupleBytesSubmitted".equals(name))
+                bytes.merge(metrics.getOwner(i), metrics.getValue(i), Long::sum);
+        }
+
+        // Tuples handled by each operator and in total by each PE.
+        Map<String, String> peIds = new HashMap<>();
+        for (ProcessingElement pe : pes)
+            peIds.put(pe.self(), pe.getId());
+        Map<Operator, Long> work = new HashMap<>();
+        Map<String, Long> peWork = new HashMap<>();
+        Map<String, Integer> peOperators = new HashMap<>();
+        for (Operator op : operators) {
+            Long tuples = processed.get(op.getName());
+            if (tuples == null)
+                tuples = submitted.getOrDefault(op.getName(), 0L);
+            work.put(op, tuples);
+            String peId = peIds.get(op.peUri());
+            peWork.merge(peId, tuples, Long::sum);
+            peOperators.merge(peId, 1, Integer::sum);
+        }
+
+        JsonObject ops = new JsonObject();
+        for (Operator op : operators) {
+            final String peId = peIds.get(op.peUri());
+            double cost = 0;
+            int index = peId == null ? -1 : metrics.indexOf(getId(), OwnerType.PE, peId, -1, "nCpuMilliseconds");
+            if (index != -1) {
+                long total = peWork.get(peId);
+                double share = total == 0 ? 1.0 / peOperators.get(peId) : (double) work.get(op) / total;
+                cost = metrics.getValue(index) * share;
+            }
+
+            final String name = op.getLogicalName();
+            JsonObject values = ops.getAsJsonObject(name);
+            if (values == null) {
+                values = new JsonObject();
+                values.addProperty("cost", 0.0);
+                values.addProperty("bytes", 0L);
+                ops.add(name, values);
+            }
+            values.addProperty("cost", values.get("cost").getAsDouble() + cost);
+            values.addProperty("bytes", values.get("bytes").getAsLong() + bytes.getOrDefault(op.getName(), 0L));
+        }
+
+        JsonObject profile = new JsonObject();
+        profile.addProperty("peCount", pes.size());
+        profile.add("operators", ops);
+        return profile;
+    }
+
     private static class JobArray  extends ElementArray<Job> {
         @Expose
         private ArrayList<Job> jobs;
@@ -0,0 +1,432 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Snapshot of the metrics of one or more jobs.
+ * <BR>
+ * A snapshot contains the metrics of every operator, operator port,
+ * processing element and processing element port of its jobs.
+ * Metrics are held in arrays of primitive values and
+ * accessed by index, from {@code 0} to {@code size()-1}, rather
+ * than as {@link Metric} objects.
+ * <P>
+ * Metrics for each element are retrieved with a single request
+ * and requests for multiple elements are made concurrently
+ * over the shared REST connection pool. Responses are parsed
+ * as they are read, only the name, value and retrieval time
+ * of each metric are kept.
+ * </P>
+ * <P>
+ * Since a scraper is typically interested only in metrics that
+ * have been updated, {@link #changedSince(MetricsSnapshot)} returns
+ * the metrics whose {@link #getLastTimeRetrieved(int) retrieval time}
+ * differs from a previous snapshot.
+ * </P>
+ *
+ * @see Job#getMetricsSnapshot()
+ * @see Instance#getMetricsSnapshot(Collection)
+ * @since 2.2
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * Type of element that owns a metric.
+     */
+    public enum OwnerType {
+        /** Operator, owner is the operator name. */
+        OPERATOR,
+        /** Operator input port, owner is the operator name. */
+        OPERATOR_INPUT_PORT,
+        /** Operator output port, owner is the operator name. */
+        OPERATOR_OUTPUT_PORT,
+        /** Processing element, owner is the PE identifier. */
+        PE,
+        /** Processing element input port, owner is the PE identifier. */
+        PE_INPUT_PORT,
+        /** Processing element output port, owner is the PE identifier. */
+        PE_OUTPUT_PORT,
+    }
+
+    private static final OwnerType[] OWNER_TYPES = OwnerType.values();
+
+    /**
+     * Maximum number of concurrent requests made to create a snapshot.
+     */
+    private static final int CONCURRENCY = 8;
+
+    private static final ExecutorService REQUESTS = Executors.newFixedThreadPool(CONCURRENCY, r -> {
+        Thread t = new Thread(r, "streamsx.rest.metrics");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long timestamp;
+    private final int size;
+    private final String[] jobIds;
+    private final byte[] ownerTypes;
+    private final String[] owners;
+    private final int[] ports;
+    private final String[] names;
+    private final long[] values;
+    private final long[] times;
+
+    private MetricsSnapshot(long timestamp, int size, String[] jobIds, byte[] ownerTypes, String[] owners,
+            int[] ports, String[] names, long[] values, long[] times) {
+        this.timestamp = timestamp;
+        this.size = size;
+        this.jobIds = jobIds;
+        this.ownerTypes = ownerTypes;
+        this.owners = owners;
+        this.ports = ports;
+        this.names = names;
+        this.values = values;
+        this.times = times;
+    }
+
+    /**
+     * Get the number of metrics in this snapshot.
+     * @return Number of metrics.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the time this snapshot was created.
+     * @return Epoch time in milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get the identifier of the job of a metric.
+     * @param index Index of the metric.
+     * @return Job identifier.
+     */
+    public String getJobId(int index) {
+        return jobIds[checkIndex(index)];
+    }
+
+    /**
+     * Get the type of element that owns a metric.
+     * @param index Index of the metric.
+     * @return Type of the owning element.
+     */
+    public OwnerType getOwnerType(int index) {
+        return OWNER_TYPES[ownerTypes[checkIndex(index)]];
+    }
+
+    /**
+     * Get the element that owns a metric, the operator name
+     * for operators and their ports and the PE identifier
+     * for processing elements and their ports.
+     * @param index Index of the metric.
+     * @return Name or identifier of the owning element.
+     */
+    public String getOwner(int index) {
+        return owners[checkIndex(index)];
+    }
+
+    /**
+     * Get the index of the port that owns a metric.
+     * @param index Index of the metric.
+     * @return Index of the port within its operator or PE,
+     * or {@code -1} if the metric is not owned by a port.
+     */
+    public int getPortIndex(int index) {
+        return ports[checkIndex(index)];
+    }
+
+    /**
+     * Get the name of a metric.
+     * @param index Index of the metric.
+     * @return Name of the metric.
+     */
+    public String getName(int index) {
+        return names[checkIndex(index)];
+    }
+
+    /**
+     * Get the value of a metric.
+     * @param index Index of the metric.
+     * @return Value of the metric.
+     */
+    public long getValue(int index) {
+        return values[checkIndex(index)];
+    }
+
+    /**
+     * Get the Epoch time when a metric was most recently retrieved
+     * by IBM Streams.
+     * @param index Index of the metric.
+     * @return Epoch time in milliseconds.
+     * @see Metric#getLastTimeRetrieved()
+     */
+    public long getLastTimeRetrieved(int index) {
+        return times[checkIndex(index)];
+    }
+
+    /**
+     * Find a metric in this snapshot.
+     * @param jobId Identifier of the job.
+     * @param ownerType Type of element that owns the metric.
+     * @param owner Operator name or PE identifier.
+     * @param port Index of the port, or {@code -1} if the owner is not a port.
+     * @param name Name of the metric.
+     * @return Index of the metric or {@code -1} if it is not in this snapshot.
+     */
+    public int indexOf(String jobId, OwnerType ownerType, String owner, int port, String name) {
+        for (int i = 0; i < size; i++) {
+            if (ownerTypes[i] == ownerType.ordinal() && ports[i] == port
+                    && names[i].equals(name) && owners[i].equals(owner)
+                    && jobIds[i].equals(jobId))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Return the metrics in this snapshot that have changed
+     * since a previous snapshot.
+     * <BR>
+     * A metric has changed if its {@link #getLastTimeRetrieved(int) retrieval time}
+     * differs from the same metric in {@code previous}, or if it is not
+     * in {@code previous}.
+     *
+     * @param previous Previous snapshot, if {@code null} then this snapshot is returned.
+     * @return Snapshot containing the changed metrics.
+     */
+    public MetricsSnapshot changedSince(MetricsSnapshot previous) {
+        if (previous == null)
+            return this;
+
+        Map<String, Long> previousTimes = new HashMap<>(previous.size * 2);
+        for (int i = 0; i < previous.size; i++)
+            previousTimes.put(previous.key(i), previous.times[i]);
+
+        Builder changed = new Builder();
+        for (int i = 0; i < size; i++) {
+            Long previousTime = previousTimes.get(key(i));
+            if (previousTime == null || previousTime != times[i])
+                changed.add(jobIds[i], ownerTypes[i], owners[i], ports[i], names[i], values[i], times[i]);
+        }
+        return changed.build(timestamp);
+    }
+
+    private String key(int index) {
+        return jobIds[index] + '\0' + ownerTypes[index] + '\0' + owners[index]
+                + '\0' + ports[index] + '\0' + names[index];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        return index;
+    }
+
+    /**
+     * Create a snapshot of the metrics of {@code jobs}.
+     */
+    static MetricsSnapshot of(Collection<Job> jobs) throws IOException {
+        final long timestamp = System.currentTimeMillis();
+
+        // Each task retrieves the metrics of an element
+        // and its ports into its own builder.
+        List<Future<Builder>> tasks = new ArrayList<>();
+        for (Job job : jobs) {
+            submitOperators(job, tasks);
+            submitPEs(job, tasks);
+        }
+
+        Builder snapshot = new Builder();
+        for (Future<Builder> task : tasks)
+            snapshot.addAll(get(task));
+        return snapshot.build(timestamp);
+    }
+
+    private static void submitOperators(Job job, List<Future<Builder>> tasks) throws IOException {
+        final String jobId = job.getId();
+        for (Operator op : job.getOperators()) {
+            tasks.add(REQUESTS.submit(() -> {
+                AbstractStreamsConnection sc = op.connection();
+                Builder metrics = new Builder();
+                String name = op.getName();
+                metrics.read(sc, op.metricsUri(), jobId, OwnerType.OPERATOR, name, -1);
+                for (InputPort port : op.getInputPorts())
+                    metrics.read(sc, port.metricsUri(), jobId, OwnerType.OPERATOR_INPUT_PORT,
+                            name, (int) port.getIndexWithinOperator());
+                for (OutputPort port : op.getOutputPorts())
+                    metrics.read(sc, port.metricsUri(), jobId, OwnerType.OPERATOR_OUTPUT_PORT,
+                            name, (int) port.getIndexWithinOperator());
+                return metrics;
+            }));
+        }
+    }
+
+    private static void submitPEs(Job job, List<Future<Builder>> tasks) throws IOException {
+        final String jobId = job.getId();
+        for (ProcessingElement pe : job.getPes()) {
+            tasks.add(REQUESTS.submit(() -> {
+                AbstractStreamsConnection sc = pe.connection();
+                Builder metrics = new Builder();
+                String id = pe.getId();
+                metrics.read(sc, pe.metricsUri(), jobId, OwnerType.PE, id, -1);
+                for (PEInputPort port : pe.getInputPorts())
+                    metrics.read(sc, port.metricsUri(), jobId, OwnerType.PE_INPUT_PORT,
+                            id, (int) port.getIndexWithinPE());
+                for (PEOutputPort port : pe.getOutputPorts())
+                    metrics.read(sc, port.metricsUri(), jobId, OwnerType.PE_OUTPUT_PORT,
+                            id, (int) port.getIndexWithinPE());
+                return metrics;
+            }));
+        }
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Growable arrays of metrics.
+     */
+    private static final class Builder {
+        private int size;
+        private String[] jobIds = new String[16];
+        private byte[] ownerTypes = new byte[16];
+        private String[] owners = new String[16];
+        private int[] ports = new int[16];
+        private String[] names = new String[16];
+        private long[] values = new long[16];
+        private long[] times = new long[16];
+
+        void add(String jobId, byte ownerType, String owner, int port, String name, long value, long time) {
+            if (size == names.length)
+                grow(size * 2);
+            jobIds[size] = jobId;
+            ownerTypes[size] = ownerType;
+            owners[size] = owner;
+            ports[size] = port;
+            names[size] = name;
+            values[size] = value;
+            times[size] = time;
+            size++;
+        }
+
+        void addAll(Builder other) {
+            for (int i = 0; i < other.size; i++)
+                add(other.jobIds[i], other.ownerTypes[i], other.owners[i], other.ports[i],
+                        other.names[i], other.values[i], other.times[i]);
+        }
+
+        private void grow(int capacity) {
+            jobIds = Arrays.copyOf(jobIds, capacity);
+            ownerTypes = Arrays.copyOf(ownerTypes, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            ports = Arrays.copyOf(ports, capacity);
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+
+        /**
+         * Read the metrics of an element, parsing the
+         * {@code metrics} array of the response as it is read.
+         */
+        void read(AbstractStreamsConnection sc, String uri, String jobId,
+                OwnerType ownerType, String owner, int port) throws IOException {
+            // Assume not supported if no associated URI.
+            if (uri == null)
+                return;
+            final byte type = (byte) ownerType.ordinal();
+            sc.getStreamingResponse(uri, response -> {
+                try (JsonReader reader = new JsonReader(
+                        new InputStreamReader(response.getEntity().getContent(), UTF_8))) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (!"metrics".equals(reader.nextName())) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        reader.beginArray();
+                        while (reader.hasNext())
+                            readMetric(reader, jobId, type, owner, port);
+                        reader.endArray();
+                    }
+                    reader.endObject();
+                }
+                return null;
+            });
+        }
+
+        private void readMetric(JsonReader reader, String jobId, byte type,
+                String owner, int port) throws IOException {
+            String name = null;
+            long value = 0;
+            long time = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "value":
+                    value = reader.peek() == JsonToken.NULL ? skipNull(reader) : reader.nextLong();
+                    break;
+                case "lastTimeRetrieved":
+                    time = reader.peek() == JsonToken.NULL ? skipNull(reader) : reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (name != null)
+                add(jobId, type, owner, port, name, value, time);
+        }
+
+        private static long skipNull(JsonReader reader) throws IOException {
+            reader.nextNull();
+            return 0;
+        }
+
+        MetricsSnapshot build(long timestamp) {
+            if (size != names.length)
+                grow(size);
+            return new MetricsSnapshot(timestamp, size, jobIds, ownerTypes, owners, ports, names, values, times);
+        }
+    }
+}
@@ -65,6 +65,20 @@ public class Operator extends Element {
         return logicalName == null ? name : logicalName;
     }
 
+    /**
+     * URL of the metrics resource.
+     */
+    String metricsUri() {
+        return metrics;
+    }
+
+    /**
+     * URL of the PE resource.
+     */
+    String peUri() {
+        return pe;
+    }
+
     /**
      * Gets a list of {@link Metric metrics} for this operator
      * 
@@ -52,6 +52,13 @@ public class OutputPort extends Element {
         return indexWithinOperator;
     }
 
+    /**
+     * URL of the metrics resource.
+     */
+    String metricsUri() {
+        return metrics;
+    }
+
     /**
      * Gets the {@link Metric metrics} for this output port
      * 
@@ -49,6 +49,13 @@ public class PEOutputPort extends Element {
         return indexWithinPE;
     }
 
+    /**
+     * URL of the metrics resource.
+     */
+    String metricsUri() {
+        return metrics;
+    }
+
     /**
      * Gets the {@link Metric metrics} for this output port
      * 
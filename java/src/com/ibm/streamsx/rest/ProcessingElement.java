@@ -78,6 +78,13 @@ public class ProcessingElement extends Element {
         return createList(sc, pes, ProcessingElementArray.class);
     }
 
+    /**
+     * URL of the metrics resource.
+     */
+    String metricsUri() {
+        return metrics;
+    }
+
     /**
      * Gets a list of {@link Metric metrics} for this processing element
      * 
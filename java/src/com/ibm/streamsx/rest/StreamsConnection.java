@@ -13,7 +13,9 @@ import java.util.function.Function;
 
 import org.apache.http.client.fluent.Executor;
 
+import com.google.gson.JsonObject;
 import com.ibm.streamsx.rest.internal.RestUtils;
+import com.ibm.streamsx.rest.internal.SharedHttpClients;
 import com.ibm.streamsx.topology.internal.streams.Util;
 
 /**
@@ -118,6 +120,27 @@ public class StreamsConnection {
         return delegate().isVerify();
     }
 
+    /**
+     * Get metrics for the HTTP requests made by all REST connections
+     * in this virtual machine.
+     * <BR>
+     * REST requests share pooled, keep-alive HTTP connections. The pool
+     * size and keep-alive time are set with the system properties
+     * {@code streamsx.rest.maxConnectionsPerRoute} (default 20),
+     * {@code streamsx.rest.maxConnections} (default 100) and
+     * {@code streamsx.rest.keepAliveSeconds} (default 30).
+     * <BR>
+     * The returned object contains the number of requests, responses
+     * and error responses, the total, mean and maximum request latency
+     * in milliseconds and the number of leased and available connections.
+     * 
+     * @return Snapshot of the request metrics.
+     * @since 2.2
+     */
+    public static JsonObject getRequestMetrics() {
+        return SharedHttpClients.getMetrics();
+    }
+
     /**
      * Gets a specific {@link Instance instance} identified by the instanceId at
      * this IBM Streams connection
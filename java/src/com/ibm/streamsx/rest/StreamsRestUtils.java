@@ -24,6 +24,7 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.auth.AUTH;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.fluent.Executor;
 import org.apache.http.client.fluent.Request;
 import org.apache.http.client.fluent.Response;
@@ -177,6 +178,38 @@ class StreamsRestUtils {
         return sReturn;
     }
     
+    /**
+     * Gets a JSON response to an HTTP call, passing the response
+     * to {@code handler} as it is read rather than buffering it.
+     * <BR>
+     * Errors are handled as for {@link #getResponseString(Executor, String, String)}.
+     */
+    static <T> T getStreamingResponse(Executor executor,
+            String auth, String url, ResponseHandler<T> handler) throws IOException {
+        TRACE.fine("HTTP GET: " + url);
+        Request request = Request
+                .Get(url)
+                .addHeader("accept", ContentType.APPLICATION_JSON.getMimeType())
+                .useExpectContinue();
+        if (null != auth) {
+            request = request.addHeader(AUTH.WWW_AUTH_RESP, auth);
+        }
+
+        return executor.execute(request).handleResponse(hResponse -> {
+            int rcResponse = hResponse.getStatusLine().getStatusCode();
+            if (HttpStatus.SC_OK == rcResponse)
+                return handler.handleResponse(hResponse);
+
+            if (HttpStatus.SC_NOT_FOUND == rcResponse) {
+                String sReturn = EntityUtils.toString(hResponse.getEntity());
+                if (sReturn != null && !sReturn.isEmpty())
+                    throw RESTException.create(rcResponse, sReturn);
+            }
+            String httpError = "HttpStatus is " + rcResponse + " for url " + url;
+            throw new RESTException(rcResponse, httpError);
+        });
+    }
+
     private static InputStream rawStreamingGet(Executor executor,
             String auth, String url) throws IOException {
         TRACE.fine("HTTP GET: " + url);
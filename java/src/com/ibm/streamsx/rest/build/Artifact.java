@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.annotations.Expose;
 
@@ -77,6 +78,19 @@ public class Artifact extends Element {
     	File location = directory == null ? new File(getName()) : new File(directory, getName());
     	return StreamsRestUtils.getFile(connection().getExecutor(), connection().getAuthorization(), getURL(), location);
     }
+
+    /**
+     * Download this artifact asynchronously.
+     * <BR>
+     * Multiple artifacts can be downloaded concurrently.
+     * @param directory Directory to download into, if {@code null}
+     * the current directory is used.
+     * @return Future completed with the downloaded file.
+     * @since 2.2
+     */
+    public CompletableFuture<File> downloadAsync(File directory) {
+        return StreamsRestUtils.async(() -> download(directory));
+    }
     
     private static class ArtifactArray  extends ElementArray<Artifact> {
         @Expose
@@ -6,8 +6,9 @@ package com.ibm.streamsx.rest.build;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.http.client.fluent.Request;
 import org.apache.http.entity.ContentType;
@@ -140,24 +141,88 @@ public class Build extends Element {
     	return this;
     }
     
+    /**
+     * Initial interval between status checks of a build.
+     */
+    static final long MIN_POLL_MILLIS = 250;
+    
+    /**
+     * Maximum interval between status checks of a build.
+     */
+    static final long MAX_POLL_MILLIS = 5000;
+    
     public Build uploadArchiveAndBuild(File archive) throws IOException, InterruptedException {
         
         metrics.addProperty(SubmissionResultsKeys.SUBMIT_ARCHIVE_SIZE, archive.length());
         
     	uploadArchive(archive);
     	
-        final long startBuildTime = System.currentTimeMillis();
-        long lastCheckTime = startBuildTime;
-
-    	
     	submit();
     	
+    	final String status;
+    	try {
+    	    status = waitForBuild();
+    	} catch (InterruptedException e) {
+    	    try {
+    	        delete();
+    	    } catch (IOException ie) {
+    	    }
+    	    throw e;
+    	}
+    	
+    	if (!"built".equals(status)) {
+            StreamsRestUtils.TRACE.severe("The submitted archive " + archive.getName() + " failed to build with status " + getStatus() + ".");
+            List<String> errorMessages = getLogMessages();
+            for (String line : errorMessages) {
+                StreamsRestUtils.TRACE.severe(line);
+            }
+    	}
+    	
+    	return this;
+    }
+    
+    /**
+     * Upload an archive and build it asynchronously.
+     * <BR>
+     * The returned future completes when the build has
+     * completed, successfully or not, {@link #getStatus()}
+     * returns the final status.
+     * @param archive Archive to upload.
+     * @return Future completed with this build.
+     * @since 2.2
+     */
+    public CompletableFuture<Build> uploadArchiveAndBuildAsync(File archive) {
+        return StreamsRestUtils.async(() -> uploadArchiveAndBuild(archive));
+    }
+    
+    /**
+     * Wait for a submitted build to complete.
+     * <BR>
+     * The status is checked with an increasing interval,
+     * starting at {@value #MIN_POLL_MILLIS}ms and doubling up
+     * to {@value #MAX_POLL_MILLIS}ms, so that short builds
+     * complete quickly without frequent requests
+     * for long builds. The time spent in each build state
+     * and the total build time are added to the {@link #getMetrics() metrics}.
+     * <BR>
+     * If the waiting thread is interrupted {@code InterruptedException}
+     * is thrown and the build is left in place, the caller decides
+     * whether to delete it.
+     * 
+     * @return Final status of the build.
+     * @since 2.2
+     */
+    public String waitForBuild() throws IOException, InterruptedException {
+        final long startBuildTime = System.currentTimeMillis();
+        long lastCheckTime = startBuildTime;
+        long pollMillis = MIN_POLL_MILLIS;
+        
 		do {			
 			refresh();
 			if ("built".equals(getStatus())) {
 	            final long endBuildTime = System.currentTimeMillis();
 	            metrics.addProperty(SubmissionResultsKeys.SUBMIT_TOTAL_BUILD_TIME, (endBuildTime - startBuildTime));
-				return this;
+				return getStatus();
 			}
 			
             String mkey = SubmissionResultsKeys.buildStateMetricKey(getStatus());
@@ -172,24 +237,11 @@ public class Build extends Element {
             metrics.addProperty(mkey, duration);
             lastCheckTime = now;
             
-			try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                try {
-                    delete();
-                } catch (IOException ie) {
-                }
-                throw e;
-            }
+            Thread.sleep(pollMillis);
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
 		} while ("building".equals(getStatus()) || "waiting".equals(getStatus()) || "submitted".equals(getStatus()));
 		
-		StreamsRestUtils.TRACE.severe("The submitted archive " + archive.getName() + " failed to build with status " + getStatus() + ".");
-		List<String> errorMessages = getLogMessages();
-		for (String line : errorMessages) {
-			StreamsRestUtils.TRACE.severe(line);
-        }
-    	
-    	return this;
+		return getStatus();
     }
     
     public List<String> getLogMessages() throws IOException, InterruptedException {
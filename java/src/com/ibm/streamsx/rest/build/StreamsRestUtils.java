@@ -11,6 +11,11 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 import org.apache.http.HttpEntity;
@@ -42,6 +47,30 @@ class StreamsRestUtils {
     static final int STREAMING_GET_SO_TIMEOUT_MILLIS = 60000;   // socket read timeout
     private StreamsRestUtils() {}
 
+    /**
+     * Executor for asynchronous build service requests.
+     * Requests block on I/O so a cached pool of daemon
+     * threads is used rather than the common fork-join pool.
+     */
+    static final ExecutorService ASYNC = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "streamsx.rest.build.async");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Run a blocking request asynchronously.
+     */
+    static <T> CompletableFuture<T> async(Callable<T> request) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return request.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, ASYNC);
+    }
+
 
     /**
      * Gets a JSON response to an HTTP call
@@ -110,28 +110,44 @@ public interface RestUtils {
         return sb.toString();
     }
 
+    /**
+     * Create an executor using the HTTP client shared by all
+     * REST connections, see {@link SharedHttpClients}.
+     */
     static Executor createExecutor() {
-        return Executor.newInstance(createHttpClient(false));
+        return createExecutor(false);
     }
 
     static Executor createExecutor(boolean allowInsecure) {
-        return Executor.newInstance(createHttpClient(allowInsecure));
+        return Executor.newInstance(SharedHttpClients.client(allowInsecure));
     }
 
+    /**
+     * Create a new HTTP client that is not shared, the caller
+     * is responsible for closing it.
+     */
     static CloseableHttpClient createHttpClient() {
         return createHttpClient(false);
     }
 
     static CloseableHttpClient createHttpClient(boolean allowInsecure) {
-        CloseableHttpClient client = null;
-        RequestConfig requestConfig = RequestConfig.custom()
+        return HttpClients.custom()
+                .setSSLSocketFactory(createSocketFactory(allowInsecure))
+                .setDefaultRequestConfig(createRequestConfig())
+                .build();
+    }
+    
+    static RequestConfig createRequestConfig() {
+        return RequestConfig.custom()
                 .setConnectTimeout(CONNECT_TIMEOUT_MILLISECONDS) // timeout to connect with server
                 // we don't change the socket (receive) timeout as it affects ALL REST requests
                 // system defaults would be used when setting to -1, system defaults are usually 0, however.
 //                .setSocketTimeout(-1)             // socket idle timeout between data packages
 //                .setConnectionRequestTimeout(0)   // timeout for a connection manager to obtain a connection
                 .build();
-        
+    }
+    
+    static SSLConnectionSocketFactory createSocketFactory(boolean allowInsecure) {
         if (allowInsecure) {
             try {
                 SSLContext sslContext = SSLContexts.custom()
@@ -152,25 +168,15 @@ public interface RestUtils {
                                 new String[] {"TLSv1", "TLSv1.1","TLSv1.2"},
                                 null,
                                 NoopHostnameVerifier.INSTANCE);
-                client = HttpClients.custom()
-                        .setSSLSocketFactory(factory)
-                        .setDefaultRequestConfig(requestConfig)
-                        .build();
                 TRACE.warning("Insecure host connections enabled.");
+                return factory;
             } catch (KeyStoreException | KeyManagementException | NoSuchAlgorithmException e) {
                 TRACE.warning("Unable to allow insecure host connections.");
             }
         }
-        if (null == client) {
-            // Obtain default SSL socket factory with an SSL context based on system properties
-            // as described in Java Secure Socket Extension (JSSE) Reference Guide.
-            SSLConnectionSocketFactory factory = SSLConnectionSocketFactory.getSystemSocketFactory();
-            client = HttpClients.custom()
-                    .setSSLSocketFactory(factory)
-                    .setDefaultRequestConfig(requestConfig)
-                    .build();
-        }
-        return client;
+        // Obtain default SSL socket factory with an SSL context based on system properties
+        // as described in Java Secure Socket Extension (JSSE) Reference Guide.
+        return SSLConnectionSocketFactory.getSystemSocketFactory();
     }
     
     /**
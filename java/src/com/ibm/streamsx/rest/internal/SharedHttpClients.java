@@ -0,0 +1,197 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.rest.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import com.google.gson.JsonObject;
+
+/**
+ * HTTP clients shared by all REST connections in a JVM.
+ * <P>
+ * Each client has a pooled connection manager so that persistent
+ * connections to a REST server are kept alive and reused by every
+ * request made through the REST object model ({@code StreamsConnection},
+ * {@code Instance}, {@code Job}, {@code Metric} etc.),
+ * rather than each connection having its own client.
+ * A secure and an insecure client exist so that
+ * {@code allowInsecureHosts} selects a client without creating one.
+ * </P>
+ * <P>
+ * Cookie management is disabled, as the clients are shared by
+ * connections to different servers and with different credentials,
+ * so that no session cookie from one connection is sent by another.
+ * Requests authenticate through their {@code Authorization} header.
+ * </P>
+ * <P>
+ * The pools are configured through system properties:
+ * <UL>
+ * <LI>{@value #MAX_CONNECTIONS_PER_ROUTE} - Maximum connections per route (host), defaults to {@value #DEFAULT_MAX_CONNECTIONS_PER_ROUTE}.</LI>
+ * <LI>{@value #MAX_CONNECTIONS} - Maximum connections per client, defaults to {@value #DEFAULT_MAX_CONNECTIONS}.</LI>
+ * <LI>{@value #KEEP_ALIVE_SECONDS} - Time an idle connection is kept alive, unless the server
+ * requests a shorter time, defaults to {@value #DEFAULT_KEEP_ALIVE_SECONDS}.</LI>
+ * </UL>
+ * </P>
+ * <P>
+ * Request, response and error counts and latency
+ * are recorded for every request, see {@link #getMetrics()}.
+ * </P>
+ */
+public final class SharedHttpClients {
+
+    public static final String MAX_CONNECTIONS_PER_ROUTE = "streamsx.rest.maxConnectionsPerRoute";
+    public static final String MAX_CONNECTIONS = "streamsx.rest.maxConnections";
+    public static final String KEEP_ALIVE_SECONDS = "streamsx.rest.keepAliveSeconds";
+
+    static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    static final int DEFAULT_MAX_CONNECTIONS = 100;
+    static final int DEFAULT_KEEP_ALIVE_SECONDS = 30;
+
+    private static final String START_TIME = "streamsx.rest.startTime";
+
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder responses = new LongAdder();
+    private static final LongAdder errors = new LongAdder();
+    private static final LongAdder latencyNanos = new LongAdder();
+    private static final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    private static CloseableHttpClient secureClient;
+    private static PoolingHttpClientConnectionManager securePool;
+    private static CloseableHttpClient insecureClient;
+    private static PoolingHttpClientConnectionManager insecurePool;
+
+    private SharedHttpClients() {
+    }
+
+    /**
+     * Get the shared client.
+     * @param allowInsecure True for the client that does not verify certificates.
+     */
+    static synchronized CloseableHttpClient client(boolean allowInsecure) {
+        if (allowInsecure) {
+            if (insecureClient == null) {
+                insecurePool = createPool(true);
+                insecureClient = createClient(insecurePool);
+            }
+            return insecureClient;
+        }
+        if (secureClient == null) {
+            securePool = createPool(false);
+            secureClient = createClient(securePool);
+        }
+        return secureClient;
+    }
+
+    private static PoolingHttpClientConnectionManager createPool(boolean allowInsecure) {
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory> create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", RestUtils.createSocketFactory(allowInsecure))
+                .build();
+
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager(registry);
+        pool.setDefaultMaxPerRoute(Integer.getInteger(MAX_CONNECTIONS_PER_ROUTE, DEFAULT_MAX_CONNECTIONS_PER_ROUTE));
+        pool.setMaxTotal(Integer.getInteger(MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS));
+        // Check a connection is still open if it has been idle,
+        // the server may have closed it.
+        pool.setValidateAfterInactivity(2000);
+        return pool;
+    }
+
+    private static CloseableHttpClient createClient(PoolingHttpClientConnectionManager pool) {
+        final long keepAliveMillis = TimeUnit.SECONDS.toMillis(
+                Integer.getInteger(KEEP_ALIVE_SECONDS, DEFAULT_KEEP_ALIVE_SECONDS));
+
+        // Use the server's keep-alive timeout if it is shorter.
+        ConnectionKeepAliveStrategy keepAlive = (response, context) -> {
+            long serverMillis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverMillis > 0 ? Math.min(serverMillis, keepAliveMillis) : keepAliveMillis;
+        };
+
+        HttpRequestInterceptor start = (request, context) -> {
+            requests.increment();
+            context.setAttribute(START_TIME, System.nanoTime());
+        };
+        HttpResponseInterceptor end = (response, context) -> {
+            Object startTime = context.getAttribute(START_TIME);
+            if (startTime instanceof Long) {
+                long latency = System.nanoTime() - (Long) startTime;
+                latencyNanos.add(latency);
+                maxLatencyNanos.accumulate(latency);
+            }
+            responses.increment();
+            if (response.getStatusLine().getStatusCode() >= 400)
+                errors.increment();
+        };
+
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .setKeepAliveStrategy(keepAlive)
+                .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+                .setDefaultRequestConfig(RestUtils.createRequestConfig())
+                .disableCookieManagement()
+                .addInterceptorFirst(start)
+                .addInterceptorLast(end)
+                .build();
+    }
+
+    /**
+     * Get metrics for requests made through the shared clients.
+     * <UL>
+     * <LI>{@code requests} - Number of requests sent.</LI>
+     * <LI>{@code responses} - Number of responses received, requests that failed without
+     * a response or are in progress are not included.</LI>
+     * <LI>{@code errorResponses} - Number of responses with an HTTP error status.</LI>
+     * <LI>{@code totalLatencyMillis} - Total time from sending a request to receiving its response headers.</LI>
+     * <LI>{@code meanLatencyMillis} - Mean time from sending a request to receiving its response headers.</LI>
+     * <LI>{@code maxLatencyMillis} - Maximum time from sending a request to receiving its response headers.</LI>
+     * <LI>{@code leasedConnections} - Number of connections currently in use.</LI>
+     * <LI>{@code availableConnections} - Number of idle connections kept alive.</LI>
+     * </UL>
+     */
+    public static JsonObject getMetrics() {
+        final long nRequests = requests.sum();
+        final long nResponses = responses.sum();
+        final long totalNanos = latencyNanos.sum();
+
+        JsonObject metrics = new JsonObject();
+        metrics.addProperty("requests", nRequests);
+        metrics.addProperty("responses", nResponses);
+        metrics.addProperty("errorResponses", errors.sum());
+        metrics.addProperty("totalLatencyMillis", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+        metrics.addProperty("meanLatencyMillis",
+                nResponses == 0 ? 0.0 : (totalNanos / 1e6) / nResponses);
+        metrics.addProperty("maxLatencyMillis", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+
+        int leased = 0;
+        int available = 0;
+        synchronized (SharedHttpClients.class) {
+            for (PoolingHttpClientConnectionManager pool : new PoolingHttpClientConnectionManager[] {securePool, insecurePool}) {
+                if (pool != null) {
+                    PoolStats stats = pool.getTotalStats();
+                    leased += stats.getLeased();
+                    available += stats.getAvailable();
+                }
+            }
+        }
+        metrics.addProperty("leasedConnections", leased);
+        metrics.addProperty("availableConnections", available);
+        return metrics;
+    }
+}
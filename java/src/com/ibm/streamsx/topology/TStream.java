@@ -1318,6 +1318,25 @@ public interface TStream<T> extends TopologyElement, Placeable<TStream<T>>  {
      */
     TStream<T> endLowLatency();
 
+    /**
+     * Hint the relative processing cost of the operation that produces this stream.
+     * <BR>
+     * The cost is relative to the cost hints of other operations in the topology,
+     * for example the average CPU time to process a tuple. It is used when
+     * threaded ports are automatically added to expensive operators,
+     * see {@link com.ibm.streamsx.topology.context.ContextProperties#AUTO_THREADING}.
+     * <br>
+     * Only applies for distributed and standalone contexts.
+     * 
+     * @param cost Relative cost of the operation, must not be negative.
+     * @return this
+     * 
+     * @throws IllegalArgumentException {@code cost} is negative.
+     * 
+     * @since 2.2
+     */
+    TStream<T> costHint(double cost);
+
 
     /**
      * Throttle a stream by ensuring any tuple is submitted with least
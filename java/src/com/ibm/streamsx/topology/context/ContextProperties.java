@@ -199,5 +199,276 @@ public interface ContextProperties {
      */
     String SC_OPTIONS = "topology.sc.options";
 
+    /**
+     * Location of the local dependency cache.
+     * <BR>
+     * Jar dependencies and classes directories of a topology are
+     * placed into the generated toolkit on every submission.
+     * To avoid re-copying and re-creating jars for unchanged
+     * dependencies they are stored once in a local cache keyed
+     * by a hash of their contents and then linked into the generated toolkit.
+     * <BR>
+     * The value is a {@code String} that is the absolute path
+     * of the cache directory. If not set then dependencies are
+     * not cached, unless {@link #REUSE_BUNDLE} is set in which case a directory
+     * under {@code java.io.tmpdir} is used. Setting the value
+     * to an empty string disables the cache.
+     * <BR>
+     * The cache has no size limit and only ever adds files, the directory may be
+     * deleted at any time when no submission is in progress.
+     *
+     * @since 2.2
+     */
+    String DEPENDENCY_CACHE_DIR = "topology.dependencyCacheDir";
+
+    /**
+     * Reuse a previously built Streams application bundle.
+     * <BR>
+     * When set to {@code true} a fingerprint of the generated SPL
+     * application, its dependencies, the toolkits it uses and the
+     * compile options is calculated. If a bundle built
+     * from a matching fingerprint exists in the local cache then it is used
+     * and compilation is skipped, otherwise the bundle built
+     * by the submission is added to the cache.
+     * <BR>
+     * Submission parameters and job configuration are not part of
+     * the fingerprint, so redeploying with different values reuses the bundle.
+     * <BR>
+     * Bundles are cached in the directory set by {@link #DEPENDENCY_CACHE_DIR},
+     * or a directory under {@code java.io.tmpdir} when it is not set.
+     * <BR>
+     * Argument is a {@code Boolean}, defaulting to {@code false}.
+     *
+     * @since 2.2
+     */
+    String REUSE_BUNDLE = "topology.reuseBundle";
+
+    /**
+     * Operator cost profile used to place operators into processing elements (PEs).
+     * <BR>
+     * When set, operators are fused into {@code peCount} PEs, balancing
+     * the cost of each PE while minimizing the tuple bytes sent between PEs.
+     * The plan respects explicit {@link Placeable#colocate(Placeable...) colocation},
+     * {@link com.ibm.streamsx.topology.TStream#isolate() isolation} and
+     * {@link com.ibm.streamsx.topology.TStream#lowLatency() low latency} regions.
+     * Operators in parallel regions are not placed by the plan.
+     * Compile time fusion is then disabled so that the compiler
+     * does not change the plan.
+     * <BR>
+     * The profile is a JSON object:
+     * <pre>
+     * <code>
+     * {
+     *   "peCount": 4,
+     *   "operators": {
+     *     "Map_3": { "cost": 120.5, "bytes": 1048576 },
+     *     ...
+     *   }
+     * }
+     * </code>
+     * </pre>
+     * where {@code cost} is the relative CPU cost of an operator
+     * and {@code bytes} the number of tuple bytes it submits, both
+     * measured over the same interval. Operators are identified by
+     * their name, operators missing from the profile have no cost.
+     * <BR>
+     * A profile can be obtained from a running job
+     * using {@link com.ibm.streamsx.rest.Job#getPlacementProfile()}.
+     * <BR>
+     * Argument is a {@code com.google.gson.JsonObject} or
+     * a {@code String} or {@code File} that is the path of a JSON file.
+     *
+     * @since 2.2
+     */
+    String PLACEMENT_PROFILE = "topology.placementProfile";
+
+    /**
+     * Automatically add threaded ports to operators.
+     * <BR>
+     * When set to {@code true} each operator whose cost is a significant
+     * share of the cost of the operators it is fused with is given its own thread,
+     * so that a PE containing several expensive operators uses multiple cores.
+     * An operator with a single input port is given a threaded input port,
+     * an operator with multiple input ports uses the {@code dynamic} threading model.
+     * <BR>
+     * Operator costs are taken from {@link com.ibm.streamsx.topology.TStream#costHint(double) cost hints}
+     * and then from the {@link #PLACEMENT_PROFILE placement profile}.
+     * Operators in {@link com.ibm.streamsx.topology.TStream#lowLatency() low latency} regions
+     * are not given threaded ports.
+     * <BR>
+     * Argument is a {@code Boolean}, defaulting to {@code false}.
+     *
+     * @since 2.2
+     */
+    String AUTO_THREADING = "topology.autoThreading";
+
+    /**
+     * Divide the state of partitioned parallel regions into key groups
+     * so that it follows its keys when the width of a region changes.
+     * <BR>
+     * When set, each stateful function in a
+     * {@link com.ibm.streamsx.topology.TStream#parallel(com.ibm.streamsx.topology.function.Supplier, com.ibm.streamsx.topology.function.Function) partitioned parallel region}
+     * within a {@link com.ibm.streamsx.topology.consistent.ConsistentRegionConfig consistent region}
+     * has an instance for each key group, where a key's group is the hash of its key
+     * modulo the number of key groups. All keys in a group are routed to the same channel.
+     * At each checkpoint the state of every key group is written to the job's
+     * {@link com.ibm.streamsx.topology.jobconfig.JobConfig#setDataDirectory(String) data directory},
+     * which must be shared by all hosts running the region.
+     * When the width of the region is changed while the job is running the
+     * region is reset and each channel restores the key groups routed to it from the
+     * last checkpoint, rather than every channel's state being lost.
+     * <BR>
+     * The number of key groups is the maximum useful width of a region.
+     * Functions see the key group of a tuple only when fused into the same
+     * PE as the start of the channel without a threaded port between them,
+     * otherwise they have a single instance for the channel.
+     * Functions in key groups must not create custom metrics.
+     * Windowed operations keep their state per channel.
+     * <BR>
+     * Argument is an {@code Integer}, the number of key groups.
+     *
+     * @since 2.2
+     */
+    String KEY_GROUPS = "topology.keyGroups";
+
+    /**
+     * Remove application functions whose results are never used.
+     * <BR>
+     * When set to {@code true} a {@link com.ibm.streamsx.topology.TStream#filter(com.ibm.streamsx.topology.function.Predicate) filter},
+     * {@link com.ibm.streamsx.topology.TStream#map(com.ibm.streamsx.topology.function.Function) map}
+     * or {@link com.ibm.streamsx.topology.TStream#flatMap(com.ibm.streamsx.topology.function.Function) flatMap}
+     * whose stream, directly or through further such operations, does not reach
+     * a sink is removed from the topology when it is submitted. Only set this
+     * when these functions have no side effects, as they are never called.
+     * <BR>
+     * Conversions added by the topology library are always removed
+     * when their results are not used.
+     * <BR>
+     * Argument is a {@code Boolean}, defaulting to {@code false}.
+     *
+     * @since 2.2
+     */
+    String PRUNE_DEAD_BRANCHES = "topology.pruneDeadBranches";
+
+    /**
+     * Execute {@link StreamsContext.Type#EMBEDDED embedded} topologies
+     * with a thread for each region.
+     * <BR>
+     * By default an embedded topology is executed synchronously
+     * on the threads of its sources, so a slow operator delays every
+     * upstream operator. When set the streams at
+     * {@link com.ibm.streamsx.topology.TStream#isolate() isolate()},
+     * {@link com.ibm.streamsx.topology.TStream#parallel(int) parallel()}
+     * and {@link com.ibm.streamsx.topology.TStream#endParallel() endParallel()}
+     * are passed through a bounded queue to a thread
+     * that executes the downstream operators, as they would be executed
+     * in a separate PE in a distributed job. When a queue is full the upstream
+     * thread waits, so a slow region applies backpressure to its upstream regions.
+     * No queues are added within a {@link com.ibm.streamsx.topology.TStream#lowLatency() low latency} region.
+     * <BR>
+     * When set, parallel regions are also executed with a thread for each channel.
+     * Each channel has its own copy of the region's operators and tuples are
+     * routed to channels through its queue as in a distributed job.
+     * A nested parallel region, or a parallel region with
+     * inputs from outside the region, is executed as a single channel.
+     * <BR>
+     * Each queue has a custom metric {@code queueDepth}
+     * with the number of tuples waiting in the queue.
+     * <BR>
+     * Argument is an {@code Integer}, the capacity of each queue in tuples.
+     *
+     * @since 2.2
+     */
+    String EMBEDDED_QUEUE_SIZE = "topology.embedded.queueSize";
+    
+    /**
+     * Optimize Java functional operators in {@link StreamsContext.Type#EMBEDDED embedded}
+     * topologies for execution within a single JVM.
+     * <BR>
+     * When set to {@code true} linear pipelines of {@link com.ibm.streamsx.topology.TStream#filter(com.ibm.streamsx.topology.function.Predicate) filter},
+     * {@link com.ibm.streamsx.topology.TStream#map(com.ibm.streamsx.topology.function.Function) map},
+     * {@link com.ibm.streamsx.topology.TStream#flatMap(com.ibm.streamsx.topology.function.Function) flatMap}
+     * and {@link com.ibm.streamsx.topology.TStream#forEach(com.ibm.streamsx.topology.function.Consumer) forEach}
+     * are executed as a single operator that calls each function directly with
+     * the object returned by the previous function, without creating a tuple
+     * for each stream. Other Java functional operators pass their output
+     * objects by reference where every consumer is a Java functional operator.
+     * <BR>
+     * When not set, or set to {@code false}, every functional
+     * operator is executed with tuples, as declared by the topology.
+     * <BR>
+     * Argument is a {@code Boolean}, defaults to {@code false}.
+     *
+     * @since 2.2
+     */
+    String EMBEDDED_OPTIMIZE = "topology.embedded.optimize";
+
+    /**
+     * Publish operator metrics from Java functional operators.
+     * <BR>
+     * When set each Java functional operator applying a function to
+     * its input tuples ({@code filter}, {@code map}, {@code flatMap},
+     * {@code split}, {@code forEach}, {@code join} and windowed aggregation)
+     * publishes these custom metrics:
+     * <UL>
+     * <LI>{@code nTuplesIn}, {@code nTuplesOut} - number of tuples
+     * processed by and submitted by the operator.</LI>
+     * <LI>{@code logicTimeNanos.p50}, {@code logicTimeNanos.p99}, {@code logicTimeNanos.max} -
+     * time taken by the function.</LI>
+     * <LI>{@code conversionTimeNanos.p50}, {@code conversionTimeNanos.p99}, {@code conversionTimeNanos.max} -
+     * time taken to convert a tuple to or from its Java object.</LI>
+     * <LI>{@code submitTimeNanos.p50}, {@code submitTimeNanos.p99}, {@code submitTimeNanos.max} -
+     * time taken to submit a tuple, which includes the time taken by downstream
+     * operators executed on the same thread.</LI>
+     * <LI>{@code queueDepth} - number of tuples waiting in the operator's
+     * input queue, only when the operator has a queue.</LI>
+     * <LI>{@code windowSize} - number of tuples in the operator's window
+     * across all partitions, only for windowed operators.</LI>
+     * </UL>
+     * Times are sampled, one tuple in every <em>N</em> tuples is timed, and each
+     * time metric is an approximate percentile, within 12.5%, of the times sampled
+     * in the last second. Metrics are updated once a second.
+     * <BR>
+     * Argument is an {@code Integer}, the interval <em>N</em> in tuples
+     * at which times are sampled. A value of 100 or more
+     * keeps the cost of sampling well below one percent.
+     *
+     * @since 2.2
+     */
+    String OPERATOR_METRICS = "topology.operatorMetrics";
+
+    /**
+     * Trace the latency of sampled tuples from Java functional
+     * sources to Java functional sinks.
+     * <BR>
+     * When set one in every <em>N</em> tuples submitted by each
+     * {@link com.ibm.streamsx.topology.Topology#source(com.ibm.streamsx.topology.function.Supplier) source}
+     * or {@link com.ibm.streamsx.topology.Topology#periodicSource(com.ibm.streamsx.topology.function.Supplier, long, java.util.concurrent.TimeUnit) periodic source}
+     * is stamped with the time it was submitted. The stamp follows the tuple
+     * through Java functional operators, and across threads and parallel channels
+     * within a PE or an {@link StreamsContext.Type#EMBEDDED embedded} topology.
+     * Between PEs only tuples of streams of Java objects, which carry the object
+     * in their {@code __spl_jo} blob, carry the stamp. Tuples of streams of strings,
+     * JSON or SPL tuples lose their stamp when they are sent to another PE.
+     * Each tuple submitted by a Java functional
+     * operator while processing a stamped tuple carries the same stamp.
+     * Each {@link com.ibm.streamsx.topology.TStream#forEach(com.ibm.streamsx.topology.function.Consumer) forEach}
+     * sink publishes these custom metrics:
+     * <UL>
+     * <LI>{@code nTracedTuples} - number of stamped tuples processed by the sink.</LI>
+     * <LI>{@code traceLatencyNanos.p50}, {@code traceLatencyNanos.p99}, {@code traceLatencyNanos.max} -
+     * time from the submission of a stamped tuple by its source to its
+     * arrival at the sink, as an approximate percentile, within 12.5%,
+     * of the stamped tuples that arrived in the last second.</LI>
+     * </UL>
+     * A stamp does not pass through SPL or Python operators. Latency between
+     * PEs on different hosts depends on the synchronization of the hosts' clocks.
+     * <BR>
+     * Argument is an {@code Integer}, the interval <em>N</em> in tuples.
+     *
+     * @since 2.2
+     */
+    String TUPLE_TRACING = "topology.tupleTracing";
+
     String _SPLMM_OPTIONS = "topology.internal.splmm_options";
 }
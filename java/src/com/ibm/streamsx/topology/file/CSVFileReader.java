@@ -0,0 +1,191 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.file;
+
+import java.nio.charset.StandardCharsets;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Type.MetaType;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streams.operator.model.PrimitiveOperator;
+
+/**
+ * Reads CSV records from each file named by an input tuple,
+ * submitting a tuple for each record.
+ * <P>
+ * Each field is converted to the type of the output attribute
+ * at the same position, an empty or missing field leaves
+ * the attribute's default value. Fields for attributes that
+ * are not strings are trimmed, so a field of only whitespace
+ * is empty for them. A value out of the range of its
+ * attribute's type fails the conversion. Fields may be quoted with
+ * {@code '"'}, a quote within a quoted field is doubled.
+ * A record may not contain a line separator and empty
+ * lines are skipped.
+ * </P>
+ * <P>
+ * Files are read as {@link TextFileReader} reads them,
+ * so large files can be read in parallel and compressed
+ * files are decompressed as they are read.
+ * </P>
+ */
+@PrimitiveOperator
+@InputPortSet(cardinality = 1)
+@OutputPortSet(cardinality = 1)
+public class CSVFileReader extends TextFileReader {
+
+    /**
+     * Sets an attribute from a non-empty field.
+     */
+    private interface FieldSetter {
+        void set(OutputTuple tuple, int index, String field);
+    }
+
+    private String separator = ",";
+    private boolean header;
+
+    private char sep;
+    private FieldSetter[] setters;
+
+    public String getSeparator() {
+        return separator;
+    }
+
+    @Parameter(optional = true)
+    public void setSeparator(String separator) {
+        this.separator = separator;
+    }
+
+    public boolean isHeader() {
+        return header;
+    }
+
+    @Parameter(optional = true)
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    @Override
+    public void initialize(OperatorContext context) throws Exception {
+        super.initialize(context);
+
+        if (separator.length() != 1)
+            throw new IllegalArgumentException("Separator must be a single character: " + separator);
+        sep = separator.charAt(0);
+
+        final StreamSchema schema = getOutput(0).getStreamSchema();
+        setters = new FieldSetter[schema.getAttributeCount()];
+        for (int i = 0; i < setters.length; i++)
+            setters[i] = setter(schema.getAttribute(i).getType().getMetaType());
+    }
+
+    private static FieldSetter setter(MetaType type) {
+        switch (type) {
+        case BOOLEAN:
+            return trimmed((t, i, f) -> t.setBoolean(i, Boolean.parseBoolean(f)));
+        case INT8:
+            return trimmed((t, i, f) -> t.setByte(i, Byte.parseByte(f)));
+        case UINT8:
+            return trimmed((t, i, f) -> t.setByte(i, (byte) parseUnsigned(f, 8)));
+        case INT16:
+            return trimmed((t, i, f) -> t.setShort(i, Short.parseShort(f)));
+        case UINT16:
+            return trimmed((t, i, f) -> t.setShort(i, (short) parseUnsigned(f, 16)));
+        case INT32:
+            return trimmed((t, i, f) -> t.setInt(i, Integer.parseInt(f)));
+        case UINT32:
+            return trimmed((t, i, f) -> t.setInt(i, Integer.parseUnsignedInt(f)));
+        case INT64:
+            return trimmed((t, i, f) -> t.setLong(i, Long.parseLong(f)));
+        case UINT64:
+            return trimmed((t, i, f) -> t.setLong(i, Long.parseUnsignedLong(f)));
+        case FLOAT32:
+            return trimmed((t, i, f) -> t.setFloat(i, Float.parseFloat(f)));
+        case FLOAT64:
+            return trimmed((t, i, f) -> t.setDouble(i, Double.parseDouble(f)));
+        case RSTRING:
+        case USTRING:
+            return (t, i, f) -> t.setString(i, f);
+        default:
+            throw new IllegalArgumentException("Unsupported CSV attribute type: " + type);
+        }
+    }
+
+    /**
+     * Setter for the trimmed field, the attribute is
+     * left unset if the trimmed field is empty.
+     */
+    private static FieldSetter trimmed(FieldSetter setter) {
+        return (t, i, f) -> {
+            final String value = f.trim();
+            if (!value.isEmpty())
+                setter.set(t, i, value);
+        };
+    }
+
+    /**
+     * Parse an unsigned value that fits in {@code bits} bits.
+     */
+    private static int parseUnsigned(String field, int bits) {
+        final int value = Integer.parseInt(field);
+        if (value < 0 || value >= 1 << bits)
+            throw new NumberFormatException("Value out of range for uint" + bits + ": " + field);
+        return value;
+    }
+
+    @Override
+    protected boolean hasHeader() {
+        return header;
+    }
+
+    @Override
+    protected OutputTuple toTuple(StreamingOutput<OutputTuple> out, byte[] line) throws Exception {
+        return toTuple(out, new String(line, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected OutputTuple toTuple(StreamingOutput<OutputTuple> out, String line) throws Exception {
+        if (line.isEmpty())
+            return null;
+
+        final OutputTuple tuple = out.newTuple();
+        final StringBuilder field = new StringBuilder();
+        final int len = line.length();
+        int attr = 0;
+        int pos = 0;
+        while (attr < setters.length && pos <= len) {
+            field.setLength(0);
+            if (pos < len && line.charAt(pos) == '"') {
+                pos++;
+                while (pos < len) {
+                    final char c = line.charAt(pos++);
+                    if (c == '"') {
+                        if (pos < len && line.charAt(pos) == '"')
+                            pos++;
+                        else
+                            break;
+                    }
+                    field.append(c);
+                }
+                while (pos < len && line.charAt(pos) != sep)
+                    pos++;
+            } else {
+                final int end = line.indexOf(sep, pos);
+                field.append(line, pos, end == -1 ? len : end);
+                pos = end == -1 ? len : end;
+            }
+            if (field.length() != 0)
+                setters[attr].set(tuple, attr, field.toString());
+            attr++;
+            pos++;
+        }
+        return tuple;
+    }
+}
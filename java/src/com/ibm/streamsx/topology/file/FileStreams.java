@@ -4,11 +4,18 @@
  */
 package com.ibm.streamsx.topology.file;
 
+import static com.ibm.streamsx.topology.logic.Value.of;
+
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.TStream.Routing;
 import com.ibm.streamsx.topology.TopologyElement;
 import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.function.Supplier;
+import com.ibm.streamsx.topology.spl.FileSPLStreams.Compression;
 import com.ibm.streamsx.topology.spl.JavaPrimitive;
 import com.ibm.streamsx.topology.spl.SPLSchemas;
 import com.ibm.streamsx.topology.spl.SPLStream;
@@ -92,4 +99,124 @@ public class FileStreams {
                 TextFileReader.class, tupleInput, SPLSchemas.STRING, null);
         return lines.toStringStream();
     }
+
+    /**
+     * Returns a Stream that reads each compressed file named on its input
+     * stream, outputting a tuple for each line read. Each file is
+     * decompressed as it is read and is assumed to be encoded using UTF-8.
+     * The lines are output in the order they appear in each file.
+     * 
+     * @param input
+     *            Stream containing files to read.
+     * @param compression
+     *            Compression of the files, {@code gzip} or {@code zlib}.
+     * @return Stream contains lines from input files.
+     * 
+     * @since 2.2
+     */
+    public static TStream<String> textFileReader(TStream<String> input,
+            Compression compression) {
+        if (compression == Compression.bzip2)
+            throw new IllegalArgumentException(compression.name());
+
+        SPLStream tupleInput = SPLStreams.stringToSPLStream(input);
+        SPLStream lines = JavaPrimitive.invokeJavaPrimitive(
+                TextFileReader.class, tupleInput, SPLSchemas.STRING,
+                Collections.singletonMap("compression", compression.name()));
+        return lines.toStringStream();
+    }
+
+    /**
+     * Returns a Stream that reads each file named on its input stream
+     * using multiple threads, outputting a tuple for each line read.
+     * All files are assumed to be encoded using UTF-8.
+     * <P>
+     * Each file is memory-mapped and split at line boundaries into
+     * chunks that are decoded in parallel by {@code parallelism} threads.
+     * Lines are separated by {@code '\n'}, a {@code '\r'} preceding
+     * the separator is removed.
+     * </P>
+     * <P>
+     * When {@code ordered} is {@code true} lines are output in the
+     * order they appear in each file. Otherwise the lines of each chunk
+     * are output in order as soon as the chunk is decoded, so lines from
+     * different chunks of a file are interleaved. In either case all lines
+     * of a file are output before any line of the next file.
+     * </P>
+     * 
+     * @param input
+     *            Stream containing files to read.
+     * @param parallelism
+     *            Number of threads decoding each file.
+     * @param ordered
+     *            {@code true} to output lines in file order.
+     * @return Stream contains lines from input files.
+     * 
+     * @since 2.2
+     */
+    public static TStream<String> textFileReader(TStream<String> input,
+            int parallelism, boolean ordered) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException(Integer.toString(parallelism));
+
+        Map<String,Object> params = new HashMap<>();
+        params.put("parallelism", parallelism);
+        params.put("ordered", ordered);
+
+        SPLStream tupleInput = SPLStreams.stringToSPLStream(input);
+        SPLStream lines = JavaPrimitive.invokeJavaPrimitive(
+                TextFileReader.class, tupleInput, SPLSchemas.STRING, params);
+        return lines.toStringStream();
+    }
+
+    /**
+     * Returns a Stream that reads each file named on its input stream
+     * in a parallel region of {@code width} channels, outputting a tuple
+     * for each line read. All files are assumed to be encoded using UTF-8.
+     * <P>
+     * Each file name is broadcast to every channel and each channel
+     * reads a contiguous share of the file, split at line boundaries,
+     * as {@link #textFileReader(TStream, int, boolean)} does.
+     * So the channels can be placed in different processing elements
+     * and each channel can be followed by further processing within
+     * the region before it is ended.
+     * </P>
+     * <P>
+     * When {@code ordered} is {@code true} each channel outputs its lines
+     * in file order. Lines from different channels are interleaved.
+     * </P>
+     * 
+     * @param input
+     *            Stream containing files to read.
+     * @param width
+     *            Number of channels.
+     * @param parallelism
+     *            Number of threads decoding each channel's share of a file.
+     * @param ordered
+     *            {@code true} for each channel to output lines in file order.
+     * @return Stream within the parallel region containing lines
+     *            from input files.
+     *            
+     * @see TStream#parallel(Supplier, Routing)
+     * @since 2.2
+     */
+    public static TStream<String> textFileReader(TStream<String> input,
+            int width, int parallelism, boolean ordered) {
+        if (width < 1)
+            throw new IllegalArgumentException(Integer.toString(width));
+        if (parallelism < 1)
+            throw new IllegalArgumentException(Integer.toString(parallelism));
+
+        Map<String,Object> params = new HashMap<>();
+        params.put("parallelism", parallelism);
+        params.put("ordered", ordered);
+        params.put("channelChunks", true);
+
+        TStream<String> channels = input.parallel(of(width), Routing.BROADCAST);
+
+        SPLStream tupleInput = SPLStreams.stringToSPLStream(channels);
+        SPLStream lines = JavaPrimitive.invokeJavaPrimitive(
+                TextFileReader.class, tupleInput, SPLSchemas.STRING, params);
+        return lines.toStringStream();
+    }
 }
@@ -7,8 +7,29 @@ package com.ibm.streamsx.topology.file;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import com.ibm.streams.operator.AbstractOperator;
 import com.ibm.streams.operator.OperatorContext;
@@ -22,14 +43,54 @@ import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.types.RString;
 
+/**
+ * Reads each file named by an input tuple, submitting
+ * a tuple for each line.
+ * <P>
+ * By default a file is read sequentially using a {@code BufferedReader}.
+ * When {@code parallelism} is set the file is memory-mapped and split
+ * at line boundaries into chunks that are decoded by {@code parallelism}
+ * threads. Lines are only split at {@code '\n'}, a trailing {@code '\r'}
+ * is removed. With {@code ordered} the lines are submitted in file order,
+ * otherwise each thread submits the lines of its chunk as it decodes them.
+ * UTF-8 lines are submitted as their bytes without being decoded into a
+ * {@code String}.
+ * </P>
+ * <P>
+ * When {@code channelChunks} is set and the operator is in a parallel
+ * region, each channel reads only its share of each file. The file
+ * names must be broadcast to all channels.
+ * </P>
+ * <P>
+ * With {@code compression} set to {@code gzip} or {@code zlib}
+ * each file is decompressed as it is read. Compressed files
+ * are always read sequentially, with {@code channelChunks}
+ * only the first channel reads them.
+ * </P>
+ */
 @PrimitiveOperator
 @InputPortSet(cardinality = 1)
 @OutputPortSet(cardinality = 1)
 public class TextFileReader extends AbstractOperator {
 
+    /**
+     * Smallest and largest chunk decoded by a single thread.
+     */
+    static final long MIN_CHUNK = 1024 * 1024;
+    static final long MAX_CHUNK = 64 * 1024 * 1024;
+
     private String encoding = "UTF-8";
     private Charset charset;
 
+    private int parallelism;
+    private boolean ordered = true;
+    private boolean channelChunks;
+    private String compression;
+    private int channel = -1;
+    private int maxChannels;
+
+    private ExecutorService decoders;
+
     public String getEncoding() {
         return encoding;
     }
@@ -39,11 +100,98 @@ public class TextFileReader extends AbstractOperator {
         this.encoding = encoding;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Parameter(optional = true)
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Parameter(optional = true)
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public boolean isChannelChunks() {
+        return channelChunks;
+    }
+
+    @Parameter(optional = true)
+    public void setChannelChunks(boolean channelChunks) {
+        this.channelChunks = channelChunks;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    @Parameter(optional = true)
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public int getChannel() {
+        return channel;
+    }
+
+    /**
+     * Channel of this copy of the operator when embedded execution
+     * expands its parallel region, the operator context is
+     * not aware of the expanded channels.
+     */
+    @Parameter(optional = true)
+    public void setChannel(int channel) {
+        this.channel = channel;
+    }
+
+    public int getMaxChannels() {
+        return maxChannels;
+    }
+
+    /**
+     * Width of the parallel region expanded by embedded execution.
+     */
+    @Parameter(optional = true)
+    public void setMaxChannels(int maxChannels) {
+        this.maxChannels = maxChannels;
+    }
+
+    private int channel() {
+        return channel >= 0 ? channel : getOperatorContext().getChannel();
+    }
+
+    private int maxChannels() {
+        return channel >= 0 ? maxChannels : getOperatorContext().getMaxChannels();
+    }
+
     @Override
     public void initialize(OperatorContext context) throws Exception {
         super.initialize(context);
 
+        if (compression != null && !"gzip".equals(compression) && !"zlib".equals(compression))
+            throw new IllegalArgumentException("Unsupported compression: " + compression);
+
         charset = Charset.forName(getEncoding());
+
+        if (channelChunks && parallelism <= 0)
+            parallelism = 1;
+
+        if (parallelism > 0) {
+            // Lines are split at the '\n' byte, which must not occur
+            // within a character and must be the encoding of '\n'.
+            if (!StandardCharsets.UTF_8.equals(charset)
+                    && (charset.newEncoder().maxBytesPerChar() != 1.0f
+                        || !Arrays.equals("\n".getBytes(charset), new byte[] {'\n'})))
+                throw new IllegalArgumentException(
+                        "Parallel reading is not supported for encoding: " + encoding);
+            decoders = Executors.newFixedThreadPool(parallelism, context.getThreadFactory());
+        }
     }
 
     @Override
@@ -61,17 +209,36 @@ public class TextFileReader extends AbstractOperator {
                     fileName);
         }
 
+        if (decoders != null) {
+            if (compression == null) {
+                readMapped(file, out);
+                return;
+            }
+            if (channelChunks && channel() > 0)
+                return;
+        }
+
         FileInputStream fis = new FileInputStream(file);
         try {
+            InputStream in = fis;
+            if ("gzip".equals(compression))
+                in = new GZIPInputStream(fis, 64 * 1024);
+            else if ("zlib".equals(compression))
+                in = new InflaterInputStream(fis, new Inflater(), 64 * 1024);
 
-            BufferedReader br = new BufferedReader(new InputStreamReader(fis,
+            BufferedReader br = new BufferedReader(new InputStreamReader(in,
                     charset), 128 * 1024);
 
+            if (hasHeader())
+                br.readLine();
+
             for (;;) {
                 String line = br.readLine();
                 if (line == null)
                     break;
-                out.submitAsTuple(new RString(line));
+                OutputTuple lineTuple = toTuple(out, line);
+                if (lineTuple != null)
+                    out.submit(lineTuple);
             }
             br.close();
 
@@ -79,4 +246,155 @@ public class TextFileReader extends AbstractOperator {
             fis.close();
         }
     }
+
+    /**
+     * True if the first line of each file is a header that is skipped.
+     */
+    protected boolean hasHeader() {
+        return false;
+    }
+
+    /**
+     * Create the tuple for a line.
+     * @return Tuple for the line, or null if the line is skipped.
+     */
+    protected OutputTuple toTuple(StreamingOutput<OutputTuple> out, String line) throws Exception {
+        OutputTuple tuple = out.newTuple();
+        tuple.setObject(0, new RString(line));
+        return tuple;
+    }
+
+    /**
+     * Create the tuple for a line from its UTF-8 bytes.
+     * @return Tuple for the line, or null if the line is skipped.
+     */
+    protected OutputTuple toTuple(StreamingOutput<OutputTuple> out, byte[] line) throws Exception {
+        OutputTuple tuple = out.newTuple();
+        tuple.setObject(0, new RString(line));
+        return tuple;
+    }
+
+    /**
+     * Read a file by decoding its chunks in parallel.
+     * At most two chunks per thread are in flight
+     * to bound the memory held by ordered lines.
+     */
+    private void readMapped(File file, StreamingOutput<OutputTuple> out) throws Exception {
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            final long size = fc.size();
+            long start = 0;
+            long end = size;
+
+            final int channels = maxChannels();
+            if (channelChunks && channels > 1) {
+                final int channel = channel();
+                start = lineStart(fc, size * channel / channels);
+                end = lineStart(fc, size * (channel + 1) / channels);
+            }
+            if (start == 0 && hasHeader())
+                start = lineStart(fc, 1);
+
+            final long chunk = Math.max(MIN_CHUNK,
+                    Math.min(MAX_CHUNK, (end - start) / (parallelism * 4L)));
+
+            final Deque<Future<List<OutputTuple>>> inflight = new ArrayDeque<>();
+            while (start < end) {
+                final long chunkStart = start;
+                final long chunkEnd = end - start <= chunk ? end
+                        : lineStart(fc, start + chunk);
+                if (chunkEnd - chunkStart > Integer.MAX_VALUE)
+                    throw new IOException("Line exceeds 2GB in file: " + file);
+
+                final MappedByteBuffer buffer = fc.map(MapMode.READ_ONLY,
+                        chunkStart, chunkEnd - chunkStart);
+
+                if (inflight.size() >= parallelism * 2)
+                    submit(inflight.removeFirst(), out);
+                inflight.addLast(decoders.submit(() -> decode(buffer, ordered ? null : out)));
+
+                start = chunkEnd;
+            }
+            while (!inflight.isEmpty())
+                submit(inflight.removeFirst(), out);
+        }
+    }
+
+    private static void submit(Future<List<OutputTuple>> lines, StreamingOutput<OutputTuple> out) throws Exception {
+        try {
+            for (OutputTuple line : lines.get())
+                out.submit(line);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Offset of the first line starting at or after {@code position}.
+     */
+    static long lineStart(FileChannel fc, long position) throws IOException {
+        if (position == 0)
+            return 0;
+        final long size = fc.size();
+        final ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        long offset = position - 1;
+        while (offset < size) {
+            buf.clear();
+            final int n = fc.read(buf, offset);
+            if (n <= 0)
+                break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n')
+                    return offset + i + 1;
+            }
+            offset += n;
+        }
+        return size;
+    }
+
+    /**
+     * Decode the lines in a chunk.
+     * @param out Port to submit the lines to, or null to return them.
+     * @return Tuples for the lines in the chunk, empty when they were submitted.
+     */
+    private List<OutputTuple> decode(ByteBuffer chunk, StreamingOutput<OutputTuple> out) throws Exception {
+        final StreamingOutput<OutputTuple> port = getOutput(0);
+        final boolean utf8 = StandardCharsets.UTF_8.equals(charset);
+        final List<OutputTuple> lines = out == null ? new ArrayList<>() : Collections.emptyList();
+        final int limit = chunk.limit();
+        int start = 0;
+        while (start < limit) {
+            int eol = start;
+            while (eol < limit && chunk.get(eol) != '\n')
+                eol++;
+
+            int len = eol - start;
+            if (len > 0 && chunk.get(eol - 1) == '\r')
+                len--;
+
+            final byte[] bytes = new byte[len];
+            chunk.position(start);
+            chunk.get(bytes);
+
+            final OutputTuple line = utf8 ? toTuple(port, bytes) : toTuple(port, new String(bytes, charset));
+            if (line != null) {
+                if (out == null)
+                    lines.add(line);
+                else
+                    out.submit(line);
+            }
+
+            start = eol + 1;
+        }
+        return lines;
+    }
+
+    @Override
+    public void shutdown() throws Exception {
+        if (decoders != null)
+            decoders.shutdownNow();
+        super.shutdown();
+    }
 }
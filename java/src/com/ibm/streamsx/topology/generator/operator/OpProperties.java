@@ -117,6 +117,29 @@ public interface OpProperties {
      */
     String CONSISTENT = "consistent";
     
+    /**
+     * Relative cost of the operator, a number
+     * set by {@code TStream.costHint()}.
+     */
+    String COST_HINT = "costHint";
+    
+    /**
+     * Name of the conversion performed by a Java functional
+     * operator whose function only converts its input tuple,
+     * such as serializing a JSON object. Allows the optimizer
+     * to remove identities and conversions immediately
+     * followed by their inverse.
+     */
+    String CONVERSION = "conversion";
+    
+    String CONVERSION_IDENTITY = "identity";
+    String CONVERSION_JSON_SERIALIZE = "jsonSerialize";
+    String CONVERSION_JSON_DESERIALIZE = "jsonDeserialize";
+    String CONVERSION_JSON_TO_SPL = "jsonToSPL";
+    String CONVERSION_SPL_TO_JSON = "splToJSON";
+    String CONVERSION_STRING_TO_SPL = "stringToSPL";
+    String CONVERSION_SPL_TO_STRING = "splToString";
+    
 	/** 
 	 * Top-level boolean parameter indicating whether the operator is the start of a 
 	 * parallel region.
@@ -0,0 +1,218 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.generator.spl;
+
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONFIG;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.COST_HINT;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT_COLOCATE_KEY;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT_COLOCATE_TAGS;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT_ISOLATE_REGION_ID;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jobject;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.objectCreate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.ibm.streamsx.topology.context.ContextProperties;
+
+/**
+ * Automatic threading of expensive operators,
+ * see {@code ContextProperties.AUTO_THREADING}.
+ * <P>
+ * Operators are grouped by the PE they will be fused into,
+ * as far as it is known at generation time (resolved colocation,
+ * otherwise the isolate region). An operator whose cost is at least
+ * {@link #COST_SHARE} of its group's cost is given its own thread.
+ * With a single input port a threaded port is added, otherwise
+ * the operator uses the {@code dynamic} threading model.
+ * </P>
+ * <P>
+ * Costs are taken from the operator's cost hint and otherwise
+ * from the placement profile. Operators in low latency regions
+ * or with existing threading are left unchanged.
+ * </P>
+ * <P>
+ * Must be called after colocation tags are resolved and
+ * before the optimizer, so that threaded operators
+ * are not chained with their upstream operators.
+ * </P>
+ */
+class AutoThreading {
+
+    /**
+     * Minimum share of a group's cost for an operator to be threaded.
+     */
+    static final double COST_SHARE = 0.2;
+
+    /**
+     * Maximum number of operators threaded in a group.
+     */
+    static final int MAX_THREADED = 4;
+
+    static final String CONGESTION_POLICY = "Sys.Wait";
+    static final String QUEUE_SIZE = "1000";
+
+    private final JsonObject graph;
+    private final JsonObject profile;
+
+    AutoThreading(JsonObject graph) {
+        this.graph = graph;
+        this.profile = jobject(object(graph, CONFIG), ContextProperties.PLACEMENT_PROFILE);
+    }
+
+    void insert() {
+        if (!jboolean(object(graph, CONFIG), ContextProperties.AUTO_THREADING))
+            return;
+
+        final Map<String, Double> groupCosts = new HashMap<>();
+        final Map<String, List<JsonObject>> candidates = new LinkedHashMap<>();
+        final Map<JsonObject, Double> costs = new HashMap<>();
+
+        operators(graph, op -> {
+            if (kind(op).startsWith("$"))
+                return;
+            final double cost = cost(op);
+            if (cost <= 0)
+                return;
+            final String group = group(op);
+            groupCosts.merge(group, cost, Double::sum);
+            costs.put(op, cost);
+            if (isCandidate(op))
+                candidates.computeIfAbsent(group, k -> new ArrayList<>()).add(op);
+        });
+
+        // Threading only modifies configuration so the index remains valid.
+        final GraphIndex index = new GraphIndex(graph);
+        for (String group : candidates.keySet()) {
+            final double threshold = groupCosts.get(group) * COST_SHARE;
+            List<JsonObject> ops = candidates.get(group);
+            ops.sort((a, b) -> Double.compare(costs.get(b), costs.get(a)));
+
+            int threaded = 0;
+            for (JsonObject op : ops) {
+                if (threaded == MAX_THREADED || costs.get(op) < threshold)
+                    break;
+                if (!fedFromGroup(index, op, group))
+                    continue;
+                addThreading(op);
+                threaded++;
+            }
+        }
+    }
+
+    private double cost(JsonObject op) {
+        if (op.has(COST_HINT))
+            return op.get(COST_HINT).getAsDouble();
+        if (profile == null)
+            return 0;
+        JsonObject ops = jobject(profile, "operators");
+        if (ops == null)
+            return 0;
+        String name = jstring(op, "name");
+        JsonObject values = jobject(ops, name);
+        if (values == null)
+            values = jobject(ops, SPLGenerator.getSPLCompatibleName(name));
+        if (values == null || !values.has("cost"))
+            return 0;
+        return values.get("cost").getAsDouble();
+    }
+
+    /**
+     * Key of the group of operators expected to be fused with op.
+     */
+    private static String group(JsonObject op) {
+        JsonObject placement = object(op, CONFIG, PLACEMENT);
+        if (placement == null)
+            return "";
+        String key = jstring(placement, PLACEMENT_COLOCATE_KEY);
+        if (key != null)
+            return "colocate:" + key;
+        String region = jstring(placement, PLACEMENT_ISOLATE_REGION_ID);
+        if (region != null)
+            return "isolate:" + region;
+        return "";
+    }
+
+    private static boolean isCandidate(JsonObject op) {
+        JsonArray inputs = array(op, "inputs");
+        if (inputs == null || inputs.size() == 0)
+            return false;
+        if (op.has("threading"))
+            return false;
+        JsonObject config = jobject(op, CONFIG);
+        if (config != null && config.has("queue"))
+            return false;
+
+        JsonObject placement = object(op, CONFIG, PLACEMENT);
+        if (placement != null) {
+            JsonArray tags = array(placement, PLACEMENT_COLOCATE_TAGS);
+            if (tags != null) {
+                for (JsonElement tag : tags)
+                    if (tag.getAsString().startsWith(PEPlacement.LOW_LATENCY_TAG_PREFIX))
+                        return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An operator only receiving tuples from other PEs
+     * already has its own thread.
+     */
+    private static boolean fedFromGroup(GraphIndex index, JsonObject op, String group) {
+        for (JsonObject up : index.upstream(op)) {
+            if (Objects.equals(group, group(up)))
+                return true;
+        }
+        return false;
+    }
+
+    private static void addThreading(JsonObject op) {
+        JsonArray inputs = array(op, "inputs");
+        if (inputs.size() == 1) {
+            String portName = portName(inputs.get(0).getAsJsonObject());
+            if (portName != null) {
+                JsonObject queue = new JsonObject();
+                queue.addProperty("inputPortName", portName);
+                queue.addProperty("congestionPolicy", CONGESTION_POLICY);
+                queue.addProperty("queueSize", QUEUE_SIZE);
+                objectCreate(op, CONFIG).add("queue", queue);
+                return;
+            }
+        }
+
+        JsonObject threading = new JsonObject();
+        threading.addProperty("model", "dynamic");
+        op.add("threading", threading);
+    }
+
+    /**
+     * SPL name of an input port, null if the
+     * port has multiple streams and no alias.
+     */
+    private static String portName(JsonObject input) {
+        String alias = jstring(input, "alias");
+        if (alias != null)
+            return SPLGenerator.getSPLCompatibleName(alias);
+        JsonArray conns = array(input, "connections");
+        if (conns.size() != 1)
+            return null;
+        return SPLGenerator.getSPLCompatibleName(conns.get(0).getAsString());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.generator.spl;
+
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.inputConnections;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.outputs;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Index of the operators of a graph by port name.
+ * <P>
+ * Finding the operators adjacent to an operator by searching
+ * the graph is linear in the number of operators, so traversals
+ * that repeatedly search are quadratic. The index is built once
+ * in linear time and then each lookup is proportional to the
+ * number of connections of the operator.
+ * </P>
+ * <P>
+ * Lookups return the same operators as {@link GraphUtilities#getDownstream(JsonObject, JsonObject)}
+ * and {@link GraphUtilities#getUpstream(JsonObject, JsonObject)}.
+ * The index is a snapshot, it must not be used once operators,
+ * ports or connections in the graph have been modified.
+ * </P>
+ */
+class GraphIndex {
+
+    /**
+     * Operator owning each output port.
+     */
+    private final Map<String, JsonObject> producers = new HashMap<>();
+
+    /**
+     * Operators with an input port connected to each output port.
+     */
+    private final Map<String, List<JsonObject>> consumers = new HashMap<>();
+
+    GraphIndex(JsonObject graph) {
+        operators(graph, op -> {
+            outputs(op, output -> producers.put(jstring(output, "name"), op));
+            inputConnections(op, name ->
+                consumers.computeIfAbsent(name, k -> new ArrayList<>()).add(op));
+        });
+    }
+
+    /**
+     * Get all operators immediately downstream of {@code op}.
+     */
+    Set<JsonObject> downstream(JsonObject op) {
+        Set<JsonObject> children = new HashSet<>();
+        outputs(op, output -> {
+            List<JsonObject> ops = consumers.get(jstring(output, "name"));
+            if (ops != null)
+                children.addAll(ops);
+        });
+        return children;
+    }
+
+    /**
+     * Get all operators immediately upstream of {@code op}.
+     */
+    Set<JsonObject> upstream(JsonObject op) {
+        Set<JsonObject> parents = new HashSet<>();
+        inputConnections(op, name -> {
+            JsonObject parent = producers.get(name);
+            if (parent != null)
+                parents.add(parent);
+        });
+        return parents;
+    }
+}
@@ -13,9 +13,11 @@ import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.objectArray;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.stringArray;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -398,15 +400,18 @@ public class GraphUtilities {
             Set<JsonObject> starts, JsonObject graph,
             Consumer<JsonObject> consumer) {
         Set<JsonObject> visited = new HashSet<>();
-        List<JsonObject> unvisited = new ArrayList<>();
+        Deque<JsonObject> unvisited = new ArrayDeque<>();
         if (visitController == null)
             visitController = new VisitController();
 
+        // Visiting does not modify the graph's connections
+        // so a single index is used for the whole traversal.
+        final GraphIndex index = new GraphIndex(graph);
 
         unvisited.addAll(starts);
 
         while (unvisited.size() > 0) {
-            JsonObject op = unvisited.get(0);
+            JsonObject op = unvisited.peekFirst();
             // Modify and THEN add to hashSet as to not break the hashCode of
             // the object in the hashSet.
             if (visitController.stopped())
@@ -414,8 +419,8 @@ public class GraphUtilities {
             consumer.accept(op);
             visited.add(op);  
             GraphUtilities.getUnvisitedAdjacentNodes(visitController, visited,
-                    unvisited, op, graph);
-            unvisited.remove(0);
+                    unvisited, op, index);
+            unvisited.removeFirst();
         }
     }
 
@@ -430,12 +435,20 @@ public class GraphUtilities {
             VisitController visitController,
             Collection<JsonObject> visited, Collection<JsonObject> unvisited,
             JsonObject op, JsonObject graph) {
+        getUnvisitedAdjacentNodes(visitController, visited, unvisited, op,
+                new GraphIndex(graph));
+    }
+
+    private static void getUnvisitedAdjacentNodes(
+            VisitController visitController,
+            Collection<JsonObject> visited, Collection<JsonObject> unvisited,
+            JsonObject op, GraphIndex index) {
         
         Direction direction = visitController.direction();
         Set<BVirtualMarker> boundaries = visitController.markerBoundaries();
         
-        Set<JsonObject> parents = getUpstream(op, graph);
-        Set<JsonObject> children = getDownstream(op, graph);
+        Set<JsonObject> parents = index.upstream(op);
+        Set<JsonObject> children = index.downstream(op);
         removeVisited(parents, visited);
         removeVisited(children, visited);
 
@@ -446,7 +459,7 @@ public class GraphUtilities {
             for (JsonObject parent : parents) {
                 if (equalsAny(boundaries, jstring(parent, OpProperties.KIND))) {
                     operatorParents.add(parent);
-                    allOperatorChildren.addAll(getDownstream(parent, graph));
+                    allOperatorChildren.addAll(index.downstream(parent));
                 }
             }
             visited.addAll(operatorParents);
@@ -465,7 +478,7 @@ public class GraphUtilities {
             for (JsonObject child : children) {
                 if (equalsAny(boundaries, jstring(child, "kind"))) {
                     childrenToRemove.add(child);
-                    allOperatorParents.addAll(getUpstream(child, graph));
+                    allOperatorParents.addAll(index.upstream(child));
                 }
             }
             visited.addAll(childrenToRemove);
@@ -1015,11 +1015,7 @@ class OperatorGenerator {
                 sbPlacement.append(")\n");
             }
 
-            Set<String> uniqueResourceTags = new HashSet<>();
-            GsonUtilities.stringArray(placement, OpProperties.PLACEMENT_RESOURCE_TAGS, tag -> {
-                if (!tag.isEmpty())
-                    uniqueResourceTags.add(tag);
-            });
+            Set<String> uniqueResourceTags = resourceTags(placement);
             if (!uniqueResourceTags.isEmpty()) {
                 String hostPool = getHostPoolName(graphConfig, uniqueResourceTags);
                 if (sbPlacement.length() != 0)
@@ -1042,6 +1038,30 @@ class OperatorGenerator {
         }
     }
 
+    private static Set<String> resourceTags(JsonObject placement) {
+        Set<String> uniqueResourceTags = new HashSet<>();
+        GsonUtilities.stringArray(placement, OpProperties.PLACEMENT_RESOURCE_TAGS, tag -> {
+            if (!tag.isEmpty())
+                uniqueResourceTags.add(tag);
+        });
+        return uniqueResourceTags;
+    }
+    
+    /**
+     * Create any host pool used by the operator's placement.
+     * Called for every operator before generation so that
+     * generating an operator does not modify the graph config,
+     * allowing operators to be generated concurrently.
+     */
+    static void addHostPool(JsonObject graphConfig, JsonObject op) {
+        JsonObject placement = object(op, OpProperties.CONFIG, PLACEMENT);
+        if (placement == null)
+            return;
+        Set<String> uniqueResourceTags = resourceTags(placement);
+        if (!uniqueResourceTags.isEmpty())
+            getHostPoolName(graphConfig, uniqueResourceTags);
+    }
+
     /**
      * Gets or creates a host pool at the graphConfig level corresponding to the
      * unique set of tags.
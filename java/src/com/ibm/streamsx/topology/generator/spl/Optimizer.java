@@ -4,23 +4,68 @@
  */
 package com.ibm.streamsx.topology.generator.spl;
 
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONFIG;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_IDENTITY;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_JSON_DESERIALIZE;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_JSON_SERIALIZE;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_JSON_TO_SPL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_SPL_TO_JSON;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_SPL_TO_STRING;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_STRING_TO_SPL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.COST_HINT;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.KIND;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.KIND_CLASS;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.LANGUAGE;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT;
+import static com.ibm.streamsx.topology.generator.operator.WindowProperties.TYPE_NOT_WINDOWED;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.findOperatorsByKinds;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getDownstream;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.CHAIN_KINDS_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.CHAIN_LOGIC_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.KEY_GROUPS_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.METRICS_SAMPLE_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.OUTPUT_CONNECTIONS_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.TRACE_SAMPLE_PARAM;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jobject;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.ibm.streamsx.topology.builder.BVirtualMarker;
+import com.ibm.streamsx.topology.context.ContextProperties;
+import com.ibm.streamsx.topology.generator.spl.GraphUtilities.Direction;
+import com.ibm.streamsx.topology.generator.spl.GraphUtilities.VisitController;
+import com.ibm.streamsx.topology.internal.core.JavaFunctionalOps;
+import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
+import com.ibm.streamsx.topology.spi.builder.SourceInfo;
 
 /**
  * Optimize takes the preprocessed graph and adds any optimization.
  */
-class Optimizer {
+public class Optimizer {
 
     private final JsonObject graph;
 
@@ -29,9 +74,681 @@ class Optimizer {
     }
 
     void optimize() {
+        removeConversions();
+        pruneDeadBranches();
+        javaChain();
+        keyGroups();
+        operatorMetrics();
+        tupleTracing();
+        if (manualThreading())
+            javaPassByRef();
         pyPassByRef();
     }
 
+    /**
+     * Optimize the operators of a topology executed in embedded mode.
+     * 
+     * The topology is executed within a single JVM so linear pipelines
+     * of Java functional operators are chained, calling each function
+     * directly with the previous function's object, and the remaining
+     * Java functional operators pass tuples by reference.
+     * 
+     * @param ops Operators of the topology, chained operators
+     * are removed from the list.
+     */
+    public static void optimizeEmbedded(List<JsonObject> ops) {
+        JsonArray operators = new JsonArray();
+        for (JsonObject op : ops)
+            operators.add(op);
+        JsonObject graph = new JsonObject();
+        graph.add("operators", operators);
+
+        Optimizer optimizer = new Optimizer(graph);
+        optimizer.javaChain();
+        optimizer.javaPassByRef();
+
+        ops.clear();
+        for (JsonElement op : operators)
+            ops.add(op.getAsJsonObject());
+    }
+
+    /**
+     * Pairs of conversions where the second conversion applied
+     * to the output of the first returns a value equal
+     * to the input of the first.
+     */
+    private static final Map<String, String> ROUND_TRIPS = new HashMap<>();
+    static {
+        ROUND_TRIPS.put(CONVERSION_IDENTITY, CONVERSION_IDENTITY);
+        ROUND_TRIPS.put(CONVERSION_JSON_SERIALIZE, CONVERSION_JSON_DESERIALIZE);
+        ROUND_TRIPS.put(CONVERSION_JSON_TO_SPL, CONVERSION_SPL_TO_JSON);
+        ROUND_TRIPS.put(CONVERSION_STRING_TO_SPL, CONVERSION_SPL_TO_STRING);
+        ROUND_TRIPS.put(CONVERSION_SPL_TO_STRING, CONVERSION_STRING_TO_SPL);
+    }
+
+    /**
+     * Configuration that does not prevent an operator being removed.
+     */
+    private static final Set<String> REMOVABLE_CONFIG = new HashSet<>(Arrays.asList(
+            PLACEMENT, "streamViewability"));
+
+    /**
+     * Remove Java functional conversions that have no effect.
+     * 
+     * An identity conversion whose input and output types are the
+     * same is removed. A conversion whose output is only consumed by
+     * its inverse conversion is removed together with the inverse,
+     * when the input type of the first matches the output type of
+     * the second, for example a JSON object serialized to a String
+     * and immediately parsed back to a JSON object.
+     * 
+     * Conversions adjacent to virtual markers are not removed
+     * so that a region is never left empty.
+     */
+    private void removeConversions() {
+        List<JsonObject> conversions = new ArrayList<>();
+        operators(graph, op -> {
+            if (op.has(CONVERSION))
+                conversions.add(op);
+        });
+
+        Set<JsonObject> removed = new HashSet<>();
+        for (JsonObject op : conversions) {
+            if (removed.contains(op) || !isRemovable(op))
+                continue;
+
+            final String conversion = jstring(op, CONVERSION);
+            final String inputType = portType(op, "inputs");
+
+            if (CONVERSION_IDENTITY.equals(conversion)
+                    && inputType.equals(portType(op, "outputs"))) {
+                GraphUtilities.removeOperator(op, graph);
+                removed.add(op);
+                continue;
+            }
+
+            JsonObject inverse = singleConsumer(op);
+            if (inverse == null || removed.contains(inverse) || !isRemovable(inverse))
+                continue;
+            if (!Objects.equals(ROUND_TRIPS.get(conversion), jstring(inverse, CONVERSION)))
+                continue;
+            if (!inputType.equals(portType(inverse, "outputs")))
+                continue;
+
+            GraphUtilities.removeOperator(inverse, graph);
+            GraphUtilities.removeOperator(op, graph);
+            removed.add(inverse);
+            removed.add(op);
+        }
+    }
+
+    private boolean isRemovable(JsonObject op) {
+        if (!onlyKeys(op, JAVA_CHAIN_ATTRS))
+            return false;
+        JsonObject config = jobject(op, CONFIG);
+        if (config != null && !onlyKeys(config, REMOVABLE_CONFIG))
+            return false;
+
+        JsonArray inputs = array(op, "inputs");
+        if (inputs == null || inputs.size() != 1)
+            return false;
+        if (array(inputs.get(0).getAsJsonObject(), "connections").size() != 1)
+            return false;
+        JsonArray outputs = array(op, "outputs");
+        if (outputs == null || outputs.size() != 1)
+            return false;
+
+        for (JsonObject up : GraphUtilities.getUpstream(op, graph))
+            if (kind(up).startsWith("$"))
+                return false;
+        for (JsonObject down : getDownstream(op, graph))
+            if (kind(down).startsWith("$"))
+                return false;
+        return true;
+    }
+
+    private static String portType(JsonObject op, String ports) {
+        return jstring(array(op, ports).get(0).getAsJsonObject(), "type");
+    }
+
+    /**
+     * Get the only operator consuming op's single output port,
+     * null if there is not exactly one consumer.
+     */
+    private JsonObject singleConsumer(JsonObject op) {
+        JsonObject output = array(op, "outputs").get(0).getAsJsonObject();
+        if (array(output, "connections").size() != 1)
+            return null;
+        Set<JsonObject> downs = getDownstream(op, graph);
+        if (downs.size() != 1)
+            return null;
+        JsonObject down = downs.iterator().next();
+        return down == op ? null : down;
+    }
+
+    /**
+     * Functional operators that only produce their output
+     * stream and so can be removed if the stream is not consumed.
+     * Their functions are supplied by the application so
+     * are only removed when {@code ContextProperties.PRUNE_DEAD_BRANCHES}
+     * is set, as a function may have side effects.
+     */
+    private static final Set<String> JAVA_PRUNABLE_OPS = new HashSet<>(Arrays.asList(
+            JavaFunctionalOps.FILTER_KIND, JavaFunctionalOps.MAP_KIND,
+            JavaFunctionalOps.FLAT_MAP_KIND, JavaFunctionalOps.CONVERT_SPL_KIND));
+
+    /**
+     * Operators added by the library that only produce their
+     * output stream, always removed if the stream is not consumed.
+     */
+    private static final Set<String> LIBRARY_PRUNABLE_OPS = new HashSet<>(Arrays.asList(
+            JavaFunctionalOps.HASH_ADDER_KIND, JavaFunctionalOps.HASH_REMOVER_KIND));
+
+    /**
+     * Remove branches of the graph that do not reach a sink.
+     * 
+     * A conversion added by the library, or a hash adder or remover,
+     * whose output stream has no connections is removed, repeatedly
+     * so that the whole branch is removed. When
+     * {@code ContextProperties.PRUNE_DEAD_BRANCHES} is set a Java functional
+     * Filter, Map, FlatMap or conversion to SPL operator is also removed.
+     * Operators with a view, or that start a consistent
+     * or parallel region are kept, as are operators
+     * directly downstream of a virtual marker.
+     */
+    private void pruneDeadBranches() {
+        final boolean functions = jboolean(object(graph, CONFIG), ContextProperties.PRUNE_DEAD_BRANCHES);
+        List<JsonObject> dead = new ArrayList<>();
+        do {
+            dead.clear();
+            operators(graph, op -> {
+                if (isDead(op, functions))
+                    dead.add(op);
+            });
+            GraphUtilities.removeOperators(dead, graph);
+        } while (!dead.isEmpty());
+    }
+
+    private boolean isDead(JsonObject op, boolean functions) {
+        if (!op.has(CONVERSION) && !LIBRARY_PRUNABLE_OPS.contains(kind(op))
+                && !(functions && JAVA_PRUNABLE_OPS.contains(kind(op))))
+            return false;
+        if (!onlyKeys(op, JAVA_CHAIN_ATTRS))
+            return false;
+        JsonObject config = jobject(op, CONFIG);
+        if (config != null && !onlyKeys(config, REMOVABLE_CONFIG))
+            return false;
+
+        JsonArray outputs = array(op, "outputs");
+        if (outputs == null || outputs.size() == 0)
+            return false;
+        for (JsonElement output : outputs)
+            if (array(output.getAsJsonObject(), "connections").size() != 0)
+                return false;
+
+        for (JsonObject up : GraphUtilities.getUpstream(op, graph))
+            if (kind(up).startsWith("$"))
+                return false;
+        return true;
+    }
+
+    private static final Set<String> JAVA_CHAIN_OPS = new HashSet<>(Arrays.asList(
+            JavaFunctionalOps.FILTER_KIND, JavaFunctionalOps.MAP_KIND,
+            JavaFunctionalOps.FLAT_MAP_KIND, JavaFunctionalOps.FOR_EACH_KIND));
+
+    /**
+     * Operator attributes that do not prevent chaining.
+     */
+    private static final Set<String> JAVA_CHAIN_ATTRS = new HashSet<>(Arrays.asList(
+            "name", KIND, KIND_CLASS, MODEL, LANGUAGE, "parameters", "inputs", "outputs",
+            CONFIG, SourceInfo.SOURCE_LOCATIONS, "layout", CONVERSION, COST_HINT));
+
+    /**
+     * Operator configuration that does not prevent chaining,
+     * {@code viewConfigs} is only allowed on the last operator.
+     */
+    private static final Set<String> JAVA_CHAIN_CONFIG = new HashSet<>(Arrays.asList(
+            PLACEMENT, "streamViewability", "viewConfigs"));
+
+    /**
+     * Parameters that do not prevent chaining, {@code queueSize}
+     * is only allowed on the first operator.
+     */
+    private static final Set<String> JAVA_CHAIN_PARAMS = new HashSet<>(Arrays.asList(
+            FUNCTIONAL_LOGIC_PARAM, "jar", "queueSize"));
+
+    /**
+     * Fuse linear pipelines of Java functional Filter, Map, FlatMap
+     * and ForEach operators into a single Chain operator.
+     * 
+     * An operator is chained to its downstream operator when its single
+     * output port has a single connection to the downstream operator's
+     * single input port, which has no other connections.
+     * Both operators must have the same placement (so that chaining does not
+     * cross an isolate or colocation boundary) and must only have
+     * configuration that can be carried by the chain, so the start
+     * of a consistent region or a parallel region is never chained.
+     * Virtual markers are not chainable kinds so a chain never
+     * crosses a region boundary.
+     * 
+     * The chain replaces the first operator, keeping its name and
+     * input port and taking the output port of the last operator,
+     * the other operators are removed from the graph.
+     */
+    private void javaChain() {
+        Set<JsonObject> candidates = findOperatorsByKinds(graph, JAVA_CHAIN_OPS);
+        candidates.removeIf(op -> !isChainable(op));
+        if (candidates.size() < 2)
+            return;
+
+        Map<String, JsonObject> byInputPort = new HashMap<>();
+        for (JsonObject op : candidates) {
+            JsonObject input = array(op, "inputs").get(0).getAsJsonObject();
+            byInputPort.put(jstring(input, "name"), op);
+        }
+
+        Map<JsonObject, JsonObject> next = new HashMap<>();
+        Set<JsonObject> chained = new HashSet<>();
+        for (JsonObject op : candidates) {
+            JsonObject down = chainNext(op, byInputPort);
+            if (down != null) {
+                next.put(op, down);
+                chained.add(down);
+            }
+        }
+
+        // Walk the graph in order so that generation is repeatable.
+        List<List<JsonObject>> chains = new ArrayList<>();
+        operators(graph, op -> {
+            if (!next.containsKey(op) || chained.contains(op))
+                return;
+            List<JsonObject> chain = new ArrayList<>();
+            for (JsonObject c = op; c != null; c = next.get(c))
+                chain.add(c);
+            chains.add(chain);
+        });
+
+        for (List<JsonObject> chain : chains)
+            fuse(chain);
+    }
+
+    private static boolean isChainable(JsonObject op) {
+        if (!onlyKeys(op, JAVA_CHAIN_ATTRS))
+            return false;
+
+        JsonObject config = jobject(op, CONFIG);
+        if (config != null && !onlyKeys(config, JAVA_CHAIN_CONFIG))
+            return false;
+
+        JsonObject params = jobject(op, "parameters");
+        if (params == null || !params.has(FUNCTIONAL_LOGIC_PARAM)
+                || !onlyKeys(params, JAVA_CHAIN_PARAMS))
+            return false;
+
+        JsonArray inputs = array(op, "inputs");
+        return inputs != null && inputs.size() == 1;
+    }
+
+    private static boolean onlyKeys(JsonObject object, Set<String> keys) {
+        for (Entry<String, JsonElement> e : object.entrySet())
+            if (!keys.contains(e.getKey()))
+                return false;
+        return true;
+    }
+
+    /**
+     * Get the operator {@code op} can be chained to.
+     */
+    private static JsonObject chainNext(JsonObject op, Map<String, JsonObject> byInputPort) {
+        JsonArray outputs = array(op, "outputs");
+        if (outputs == null || outputs.size() != 1)
+            return null;
+        JsonArray conns = array(outputs.get(0).getAsJsonObject(), "connections");
+        if (conns == null || conns.size() != 1)
+            return null;
+
+        // The operator's output stream is removed.
+        JsonObject config = jobject(op, CONFIG);
+        if (config != null && config.has("viewConfigs"))
+            return null;
+
+        JsonObject down = byInputPort.get(conns.get(0).getAsString());
+        if (down == null || down == op)
+            return null;
+
+        // A queue is a thread boundary.
+        if (object(down, "parameters").has("queueSize"))
+            return null;
+        JsonObject downConfig = jobject(down, CONFIG);
+        if (downConfig != null && downConfig.has("queue"))
+            return null;
+
+        JsonObject input = array(down, "inputs").get(0).getAsJsonObject();
+        if (array(input, "connections").size() != 1)
+            return null;
+
+        if (!Objects.equals(object(op, CONFIG, PLACEMENT), object(down, CONFIG, PLACEMENT)))
+            return null;
+
+        return down;
+    }
+
+    private void fuse(List<JsonObject> chain) {
+        final JsonObject head = chain.get(0);
+        final JsonObject tail = chain.get(chain.size() - 1);
+
+        JsonArray kinds = new JsonArray();
+        JsonArray logic = new JsonArray();
+        Set<String> jars = new LinkedHashSet<>();
+        JsonArray sourceLocations = new JsonArray();
+
+        for (JsonObject op : chain) {
+            String kind = kind(op);
+            kinds.add(new JsonPrimitive(kind.substring(kind.lastIndexOf(':') + 1)));
+
+            JsonObject params = object(op, "parameters");
+            if (op != head)
+                logic.add(params.getAsJsonObject(FUNCTIONAL_LOGIC_PARAM).get("value"));
+            JsonObject opJars = jobject(params, "jar");
+            if (opJars != null)
+                for (JsonElement jar : array(opJars, "value"))
+                    jars.add(jar.getAsString());
+
+            JsonArray opLocations = array(op, SourceInfo.SOURCE_LOCATIONS);
+            if (opLocations != null)
+                sourceLocations.addAll(opLocations);
+        }
+
+        head.addProperty(KIND, JavaFunctionalOps.CHAIN_KIND);
+        head.addProperty(KIND_CLASS, JavaFunctionalOps.CHAIN);
+
+        JsonObject value = new JsonObject();
+        value.add("value", kinds);
+        GraphUtilities.addOpParameter(head, CHAIN_KINDS_PARAM, value);
+        value = new JsonObject();
+        value.add("value", logic);
+        GraphUtilities.addOpParameter(head, CHAIN_LOGIC_PARAM, value);
+        if (!jars.isEmpty()) {
+            JsonArray jarArray = new JsonArray();
+            for (String jar : jars)
+                jarArray.add(new JsonPrimitive(jar));
+            value = new JsonObject();
+            value.add("value", jarArray);
+            GraphUtilities.addOpParameter(head, "jar", value);
+        }
+
+        if (sourceLocations.size() != 0)
+            head.add(SourceInfo.SOURCE_LOCATIONS, sourceLocations);
+
+        // The chain's output is the last operator's output.
+        if (tail.has("outputs"))
+            head.add("outputs", tail.get("outputs"));
+        else
+            head.remove("outputs");
+
+        JsonObject headConfig = jobject(head, CONFIG);
+        JsonObject tailConfig = jobject(tail, CONFIG);
+        if (headConfig != null) {
+            headConfig.remove("streamViewability");
+            headConfig.remove("viewConfigs");
+        }
+        if (tailConfig != null) {
+            for (Entry<String, JsonElement> e : tailConfig.entrySet()) {
+                if (!PLACEMENT.equals(e.getKey()))
+                    GsonUtilities.objectCreate(head, CONFIG).add(e.getKey(), e.getValue());
+            }
+        }
+
+        JsonArray ops = array(graph, "operators");
+        for (JsonObject op : chain.subList(1, chain.size()))
+            ops.remove(op);
+    }
+
+    /**
+     * Functional operators whose logic can be divided into key groups.
+     */
+    private static final Set<String> KEY_GROUP_OPS = new HashSet<>(Arrays.asList(
+            JavaFunctionalOps.FILTER_KIND, JavaFunctionalOps.MAP_KIND,
+            JavaFunctionalOps.FLAT_MAP_KIND, JavaFunctionalOps.FOR_EACH_KIND,
+            JavaFunctionalOps.SPLIT_KIND, JavaFunctionalOps.CHAIN_KIND));
+
+    /**
+     * Divide the state of partitioned parallel regions into key groups,
+     * see {@code ContextProperties.KEY_GROUPS}.
+     * 
+     * Sets the keyGroups parameter of each HashAdder, which then routes
+     * by key group, each HashRemover starting a channel and each
+     * functional operator in the channel up to the end of the region
+     * or a nested region.
+     * 
+     * Does not modify the structure of the graph.
+     */
+    private void keyGroups() {
+        JsonObject config = jobject(graph, CONFIG);
+        if (config == null || !config.has(ContextProperties.KEY_GROUPS))
+            return;
+        final int keyGroups = config.get(ContextProperties.KEY_GROUPS).getAsInt();
+        if (keyGroups <= 0)
+            return;
+
+        JsonObject value = new JsonObject();
+        value.addProperty("value", keyGroups);
+
+        Set<JsonObject> starts = new HashSet<>();
+        operators(graph, op -> {
+            if (GraphUtilities.isHashAdder(op))
+                GraphUtilities.addOpParameter(op, KEY_GROUPS_PARAM, value);
+            else if (JavaFunctionalOps.HASH_REMOVER_KIND.equals(kind(op)))
+                starts.add(op);
+        });
+        if (starts.isEmpty())
+            return;
+
+        Set<BVirtualMarker> boundaries = EnumSet.of(BVirtualMarker.PARALLEL, BVirtualMarker.END_PARALLEL);
+        GraphUtilities.visitOnce(new VisitController(Direction.DOWNSTREAM, boundaries),
+                starts, graph, op -> {
+                    String kind = kind(op);
+                    if (JavaFunctionalOps.HASH_REMOVER_KIND.equals(kind) || KEY_GROUP_OPS.contains(kind))
+                        GraphUtilities.addOpParameter(op, KEY_GROUPS_PARAM, value);
+                });
+    }
+
+    /**
+     * Enable operator metrics for Java functional operators,
+     * see {@code ContextProperties.OPERATOR_METRICS}.
+     * 
+     * Sets the metricsSample parameter of each Java functional
+     * operator that applies a function to its input tuples.
+     * 
+     * Does not modify the structure of the graph.
+     */
+    private void operatorMetrics() {
+        samplingParameter(ContextProperties.OPERATOR_METRICS, METRICS_SAMPLE_PARAM,
+                JavaFunctionalOps::hasOperatorMetrics);
+    }
+
+    /**
+     * Enable tuple tracing for Java functional operators,
+     * see {@code ContextProperties.TUPLE_TRACING}.
+     * 
+     * Sets the traceSample parameter of each Java functional
+     * source, each of which traces tuples, and of each Java
+     * functional operator that processes tuples, so that stamps
+     * are read from tuples arriving from other PEs and sinks
+     * publish the latency of traced tuples.
+     * 
+     * Does not modify the structure of the graph.
+     */
+    private void tupleTracing() {
+        samplingParameter(ContextProperties.TUPLE_TRACING, TRACE_SAMPLE_PARAM,
+                JavaFunctionalOps::hasTupleTracing);
+    }
+
+    /**
+     * Set a parameter to the sampling interval of a
+     * configuration property for operators of the selected kinds.
+     */
+    private void samplingParameter(String property, String param, Predicate<String> kinds) {
+        JsonObject config = jobject(graph, CONFIG);
+        if (config == null || !config.has(property))
+            return;
+        final int sample = config.get(property).getAsInt();
+        if (sample <= 0)
+            return;
+
+        JsonObject value = new JsonObject();
+        value.addProperty("value", sample);
+
+        operators(graph, op -> {
+            if (kinds.test(kind(op)))
+                GraphUtilities.addOpParameter(op, param, value);
+        });
+    }
+
+    /**
+     * Java functional operators that submit tuples through
+     * an object mapping.
+     */
+    private static final Set<String> JAVA_BY_REF_PRODUCERS = new HashSet<>(Arrays.asList(
+            JavaFunctionalOps.SOURCE_KIND, JavaFunctionalOps.PERIODIC_MULTI_SOURCE_KIND,
+            JavaFunctionalOps.MAP_KIND, JavaFunctionalOps.FLAT_MAP_KIND,
+            JavaFunctionalOps.CHAIN_KIND));
+
+    /**
+     * Java functional operators that convert an arriving tuple to
+     * its object and never retain or submit the tuple itself.
+     * Filter and Split submit the arriving tuple so are not included.
+     * Such an operator still retains the tuple if it is queued
+     * before it is converted, see {@link #queuesTuples(JsonObject)}.
+     */
+    private static final Set<String> JAVA_BY_REF_CONSUMERS = new HashSet<>(Arrays.asList(
+            JavaFunctionalOps.MAP_KIND, JavaFunctionalOps.FLAT_MAP_KIND,
+            JavaFunctionalOps.FOR_EACH_KIND, JavaFunctionalOps.CHAIN_KIND));
+
+    /**
+     * Setup Java operators to allow pass by reference.
+     * 
+     * Finds Java functional operators submitting Java objects and sets
+     * the outputConnections parameter to the number of connections
+     * when every connected operator is a Java functional operator
+     * that does not retain tuples and tuples are not queued
+     * on their way to it. At runtime the operator then reuses
+     * a single tuple per thread rather than creating a tuple for each
+     * object, unless its output is connected to a PE output port.
+     * 
+     * If pass by reference cannot be used outputConnections will not be set.
+     * <BR>
+     * For a distributed topology this is only called when the job is
+     * compiled with the manual threading model, see {@link #manualThreading()}.
+     * An embedded topology only queues tuples at its virtual markers,
+     * which are not Java functional operators.
+     * 
+     * Does not modify the structure of the graph.
+     * Assumes the graph's structure will not be subsequently modified.
+     */
+    private void javaPassByRef() {
+        Set<JsonObject> javaops = findOperatorsByKinds(graph, JAVA_BY_REF_PRODUCERS);
+        if (javaops.isEmpty())
+            return;
+
+        GraphIndex index = new GraphIndex(graph);
+        for (JsonObject javaop : javaops) {
+            JsonArray outputs = array(javaop, "outputs");
+            if (outputs == null || outputs.size() != 1)
+                continue;
+
+            JsonObject output = outputs.get(0).getAsJsonObject();
+            if (!"tuple<blob __spl_jo>".equals(jstring(output, "type")))
+                continue;
+
+            JsonArray conns = array(output, "connections");
+            if (conns == null || conns.size() == 0)
+                continue;
+
+            // A view serializes the tuples.
+            JsonObject config = jobject(javaop, CONFIG);
+            if (config != null && config.has("viewConfigs"))
+                continue;
+
+            boolean canPassByRef = true;
+            for (JsonObject connectedOp : index.downstream(javaop)) {
+                if (!JAVA_BY_REF_CONSUMERS.contains(kind(connectedOp))) {
+                    canPassByRef = false;
+                    break;
+                }
+                if (queuesTuples(connectedOp)) {
+                    canPassByRef = false;
+                    break;
+                }
+            }
+
+            if (canPassByRef) {
+                JsonObject value = new JsonObject();
+                value.addProperty("value", conns.size());
+                GraphUtilities.addOpParameter(javaop, OUTPUT_CONNECTIONS_PARAM, value);
+            }
+        }
+    }
+
+    /**
+     * Is the job explicitly compiled with the manual threading model
+     * through {@link ContextProperties#SC_OPTIONS}.
+     * The default automatic threading model may switch to the dynamic
+     * threading model, which queues tuples at any input port, so
+     * tuples are only reused when the option is given. The last
+     * {@code --threading-model} option wins, as with {@code sc}.
+     */
+    private boolean manualThreading() {
+        JsonObject config = jobject(graph, CONFIG);
+        if (config == null || !config.has(ContextProperties.SC_OPTIONS))
+            return false;
+
+        List<String> options = new ArrayList<>();
+        JsonElement opts = config.get(ContextProperties.SC_OPTIONS);
+        if (opts.isJsonArray()) {
+            for (JsonElement e : opts.getAsJsonArray())
+                options.add(e.getAsString());
+        } else {
+            options.add(opts.getAsString());
+        }
+
+        String model = null;
+        for (int i = 0; i < options.size(); i++) {
+            String option = options.get(i).trim();
+            if (option.startsWith(THREADING_MODEL_OPTION + "="))
+                model = option.substring(THREADING_MODEL_OPTION.length() + 1);
+            else if (option.equals(THREADING_MODEL_OPTION) && i + 1 < options.size())
+                model = options.get(++i).trim();
+        }
+        return "manual".equals(model);
+    }
+
+    private static final String THREADING_MODEL_OPTION = "--threading-model";
+
+    /**
+     * Are tuples arriving at an operator held beyond the submit
+     * of the operator feeding it. A threaded port or the
+     * dynamic threading model queues the tuple and a window
+     * retains it, so a reused tuple would be modified
+     * before it is processed.
+     */
+    private static boolean queuesTuples(JsonObject op) {
+        JsonObject config = jobject(op, CONFIG);
+        if (config != null && config.has("queue"))
+            return true;
+        if (op.has("threading"))
+            return true;
+        JsonArray inputs = array(op, "inputs");
+        if (inputs != null) {
+            for (JsonElement input : inputs) {
+                JsonObject window = jobject(input.getAsJsonObject(), "window");
+                if (window != null && !TYPE_NOT_WINDOWED.equals(jstring(window, "type")))
+                    return true;
+            }
+        }
+        return false;
+    }
+
     private static final String PY_OP_NS = "com.ibm.streamsx.topology.functional.python";
     private static final Set<String> PY_FUNC_OPS = new HashSet<>();
 
@@ -59,6 +776,7 @@ class Optimizer {
         if (pyops.isEmpty())
             return;
 
+        GraphIndex index = new GraphIndex(graph);
         for (JsonObject pyop : pyops) {
             JsonArray outputs = array(pyop, "outputs");
             if (outputs == null || outputs.size() == 0)
@@ -88,7 +806,7 @@ class Optimizer {
                 
                 boolean canPassByRef = true;
                 // TOOD - downstream for a specific port
-                Set<JsonObject> connected = getDownstream(pyop, graph);
+                Set<JsonObject> connected = index.downstream(pyop);
                 for (JsonObject connectedOp : connected) {
                     if (!PY_FUNC_OPS.contains(kind(connectedOp))) {
                         canPassByRef = false;
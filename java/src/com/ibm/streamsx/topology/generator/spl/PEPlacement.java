@@ -21,7 +21,9 @@ import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_COLOCATE_IDS;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_COLOCATE_TAG_MAPPING;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_HAS_ISOLATE;
+import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_HAS_PROFILED_PLACEMENT;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jobject;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.objectCreate;
@@ -38,6 +40,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.ibm.streamsx.topology.builder.BVirtualMarker;
+import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.function.Consumer;
 import com.ibm.streamsx.topology.generator.spl.GraphUtilities.Direction;
 import com.ibm.streamsx.topology.generator.spl.GraphUtilities.VisitController;
@@ -45,6 +48,11 @@ import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
 
 class PEPlacement {
     
+    /**
+     * Prefix of the colocation tags of low latency regions.
+     */
+    static final String LOW_LATENCY_TAG_PREFIX = "__spl_lowLatency$";
+
     private final SPLGenerator generator;
     private final JsonObject graph;
 
@@ -199,7 +207,7 @@ class PEPlacement {
     private void assignLowLatency(JsonObject llStart, Direction direction) {
         
         final JsonPrimitive lowLatencyTag =
-            new JsonPrimitive("__spl_lowLatency$" + lowLatencyRegionCount++);
+            new JsonPrimitive(LOW_LATENCY_TAG_PREFIX + lowLatencyRegionCount++);
 
         Set<JsonObject> llStartChildren;
         Set<BVirtualMarker> boundaries;
@@ -232,6 +240,24 @@ class PEPlacement {
         }
     }
     
+    /**
+     * Colocate operators according to a fusion plan computed
+     * from the operator profile, if one was supplied.
+     * Must be called after isolate and low latency regions
+     * are tagged and before colocation tags are resolved.
+     * 
+     * @see ProfiledPlacement
+     */
+    void tagProfiledRegions() {
+        JsonObject config = object(graph, CONFIG);
+        JsonObject profile = jobject(config, ContextProperties.PLACEMENT_PROFILE);
+        if (profile == null)
+            return;
+        
+        if (new ProfiledPlacement(graph, profile).place())
+            config.addProperty(CFG_HAS_PROFILED_PLACEMENT, true);
+    }
+    
     /**
      * Goes through the graph and looks to merge all colocation tags to a
      * single value for the set of colocated operators.
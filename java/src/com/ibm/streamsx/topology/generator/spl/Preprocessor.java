@@ -51,7 +51,10 @@ class Preprocessor {
         
         AutonomousRegions.preprocessAutonomousRegions(graph);
         
+        pePlacementPreprocess.tagProfiledRegions();
         pePlacementPreprocess.resolveColocationTags();
+        
+        new AutoThreading(graph).insert();
 
         // Optimize phase.
         new Optimizer(graph).optimize();
@@ -0,0 +1,399 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.generator.spl;
+
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONFIG;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT_COLOCATE_TAGS;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT_ISOLATE_REGION_ID;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.addColocationTag;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.findOperatorByKind;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getDownstream;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jobject;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.ibm.streamsx.topology.builder.BVirtualMarker;
+import com.ibm.streamsx.topology.generator.spl.GraphUtilities.Direction;
+import com.ibm.streamsx.topology.generator.spl.GraphUtilities.VisitController;
+
+/**
+ * Cost based placement of operators into PEs using an
+ * operator profile, see {@code ContextProperties.PLACEMENT_PROFILE}.
+ * <P>
+ * Operators that must already be in the same PE (through explicit
+ * colocation or low latency regions) form a unit. Units are then
+ * merged into the target number of PEs, each merge picking the pair
+ * of groups with the most tuple bytes flowing between them whose
+ * combined cost stays within the capacity of a PE (the mean cost
+ * plus an allowed imbalance). A final pass moves single units between
+ * groups when that reduces the bytes crossing PEs.
+ * </P>
+ * <P>
+ * Units are only merged when they are in the same isolate region.
+ * Operators in parallel regions are not placed as colocating them
+ * with operators outside the region would remove the parallelism.
+ * </P>
+ * <P>
+ * The plan is expressed as colocation tags, so it is subsequently
+ * resolved with all other colocation tags.
+ * </P>
+ */
+class ProfiledPlacement {
+
+    /**
+     * Allowed imbalance of the cost of a PE over the mean cost.
+     */
+    private static final double IMBALANCE = 0.1;
+
+    /**
+     * Maximum number of refinement passes.
+     */
+    private static final int REFINE_PASSES = 4;
+
+    private final JsonObject graph;
+    private final JsonObject profile;
+
+    /**
+     * Operators that must be in the same PE.
+     */
+    private static final class Unit {
+        final List<JsonObject> ops = new ArrayList<>();
+        final Map<Unit, Double> bytes = new LinkedHashMap<>();
+        String isolateRegion;
+        double cost;
+        Group group;
+    }
+
+    /**
+     * Units planned to be in the same PE.
+     */
+    private static final class Group {
+        final List<Unit> units = new ArrayList<>();
+        final Map<Group, Double> bytes = new LinkedHashMap<>();
+        final String isolateRegion;
+        double cost;
+
+        Group(Unit unit) {
+            units.add(unit);
+            isolateRegion = unit.isolateRegion;
+            cost = unit.cost;
+            unit.group = this;
+        }
+    }
+
+    ProfiledPlacement(JsonObject graph, JsonObject profile) {
+        this.graph = graph;
+        this.profile = profile;
+    }
+
+    /**
+     * Compute the placement and add the colocation tags.
+     * @return True if any operators were colocated by the plan.
+     */
+    boolean place() {
+        final List<Unit> units = units();
+        if (units.size() < 2)
+            return false;
+
+        int peCount = profile.has("peCount") ? profile.get("peCount").getAsInt() : 1;
+        Set<String> regions = new HashSet<>();
+        for (Unit unit : units)
+            regions.add(unit.isolateRegion);
+        peCount = Math.max(peCount, Math.max(1, regions.size()));
+        if (peCount >= units.size())
+            return false;
+
+        double totalCost = 0;
+        double maxCost = 0;
+        for (Unit unit : units) {
+            totalCost += unit.cost;
+            maxCost = Math.max(maxCost, unit.cost);
+        }
+        final double capacity = Math.max(maxCost, (totalCost / peCount) * (1.0 + IMBALANCE));
+
+        List<Group> groups = new ArrayList<>();
+        for (Unit unit : units)
+            groups.add(new Group(unit));
+        for (Group group : groups) {
+            for (Entry<Unit, Double> e : group.units.get(0).bytes.entrySet())
+                group.bytes.put(e.getKey().group, e.getValue());
+        }
+
+        while (groups.size() > peCount) {
+            Group[] pair = heaviestPair(groups, capacity);
+            if (pair == null)
+                pair = lightestPair(groups);
+            if (pair == null)
+                break;
+            merge(pair[0], pair[1], groups);
+        }
+
+        refine(units, capacity);
+
+        boolean colocated = false;
+        int pe = 0;
+        for (Group group : groups) {
+            int opCount = 0;
+            for (Unit unit : group.units)
+                opCount += unit.ops.size();
+            if (opCount < 2)
+                continue;
+
+            JsonPrimitive tag = new JsonPrimitive("__spl_profiledPE$" + pe++);
+            for (Unit unit : group.units) {
+                for (JsonObject op : unit.ops)
+                    addColocationTag(op, tag);
+            }
+            colocated = true;
+        }
+        return colocated;
+    }
+
+    /**
+     * Create the units, the operators that can be placed
+     * grouped by their existing colocation tags.
+     */
+    private List<Unit> units() {
+        final Set<JsonObject> excluded = parallelOperators();
+
+        // Union of operators sharing a colocation tag.
+        final Map<JsonObject, JsonObject> parents = new IdentityHashMap<>();
+        final Map<String, JsonObject> tagged = new HashMap<>();
+        final List<JsonObject> all = new ArrayList<>();
+        operators(graph, op -> {
+            all.add(op);
+            parents.put(op, op);
+            JsonObject placement = object(op, CONFIG, PLACEMENT);
+            if (placement == null)
+                return;
+            JsonArray tags = array(placement, PLACEMENT_COLOCATE_TAGS);
+            if (tags == null)
+                return;
+            for (JsonElement tag : tags) {
+                JsonObject other = tagged.putIfAbsent(tag.getAsString(), op);
+                if (other != null)
+                    parents.put(root(parents, op), root(parents, other));
+            }
+        });
+
+        final Map<JsonObject, Unit> byRoot = new IdentityHashMap<>();
+        final Set<JsonObject> excludedRoots = new HashSet<>();
+        for (JsonObject op : excluded)
+            excludedRoots.add(root(parents, op));
+
+        final List<Unit> units = new ArrayList<>();
+        final Map<JsonObject, Unit> byOp = new IdentityHashMap<>();
+        for (JsonObject op : all) {
+            JsonObject root = root(parents, op);
+            if (excludedRoots.contains(root))
+                continue;
+            Unit unit = byRoot.get(root);
+            if (unit == null) {
+                unit = new Unit();
+                JsonObject placement = object(op, CONFIG, PLACEMENT);
+                if (placement != null)
+                    unit.isolateRegion = jstring(placement, PLACEMENT_ISOLATE_REGION_ID);
+                byRoot.put(root, unit);
+                units.add(unit);
+            }
+            unit.ops.add(op);
+            byOp.put(op, unit);
+            unit.cost += profileValue(op, "cost");
+        }
+
+        // Bytes flowing between units, a port's bytes
+        // are sent on each of its connections.
+        final GraphIndex index = new GraphIndex(graph);
+        for (Unit unit : units) {
+            for (JsonObject op : unit.ops) {
+                JsonArray outputs = array(op, "outputs");
+                if (outputs == null || outputs.size() == 0)
+                    continue;
+                final double portBytes = profileValue(op, "bytes") / outputs.size();
+                if (portBytes == 0)
+                    continue;
+                for (JsonObject down : index.downstream(op)) {
+                    Unit downUnit = byOp.get(down);
+                    if (downUnit == null || downUnit == unit)
+                        continue;
+                    unit.bytes.merge(downUnit, portBytes, Double::sum);
+                    downUnit.bytes.merge(unit, portBytes, Double::sum);
+                }
+            }
+        }
+        return units;
+    }
+
+    private static JsonObject root(Map<JsonObject, JsonObject> parents, JsonObject op) {
+        JsonObject parent;
+        while ((parent = parents.get(op)) != op)
+            op = parent;
+        return op;
+    }
+
+    /**
+     * Operators that are replicated by parallel regions
+     * and the virtual markers that remain in the graph.
+     */
+    private Set<JsonObject> parallelOperators() {
+        final Set<JsonObject> excluded = new HashSet<>();
+        operators(graph, op -> {
+            if (kind(op).startsWith("$") || jboolean(op, "parallelOperator"))
+                excluded.add(op);
+        });
+        Set<BVirtualMarker> boundaries = new HashSet<>();
+        boundaries.add(BVirtualMarker.END_PARALLEL);
+        for (JsonObject parallel : findOperatorByKind(BVirtualMarker.PARALLEL, graph)) {
+            GraphUtilities.visitOnce(
+                    new VisitController(Direction.DOWNSTREAM, boundaries),
+                    getDownstream(parallel, graph), graph, excluded::add);
+        }
+        return excluded;
+    }
+
+    private double profileValue(JsonObject op, String key) {
+        JsonObject ops = jobject(profile, "operators");
+        if (ops == null)
+            return 0;
+        String name = jstring(op, "name");
+        JsonObject values = jobject(ops, name);
+        if (values == null)
+            values = jobject(ops, SPLGenerator.getSPLCompatibleName(name));
+        if (values == null || !values.has(key))
+            return 0;
+        return values.get(key).getAsDouble();
+    }
+
+    /**
+     * Find the pair of connected groups with the most bytes
+     * between them that fit into a single PE.
+     */
+    private static Group[] heaviestPair(List<Group> groups, double capacity) {
+        Group[] pair = null;
+        double best = 0;
+        for (Group group : groups) {
+            for (Entry<Group, Double> e : group.bytes.entrySet()) {
+                Group other = e.getKey();
+                if (!Objects.equals(group.isolateRegion, other.isolateRegion))
+                    continue;
+                if (group.cost + other.cost > capacity)
+                    continue;
+                if (e.getValue() > best) {
+                    best = e.getValue();
+                    pair = new Group[] {group, other};
+                }
+            }
+        }
+        return pair;
+    }
+
+    /**
+     * Find the two groups with the lowest combined cost.
+     */
+    private static Group[] lightestPair(List<Group> groups) {
+        Group[] pair = null;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            for (int j = i + 1; j < groups.size(); j++) {
+                Group other = groups.get(j);
+                if (!Objects.equals(group.isolateRegion, other.isolateRegion))
+                    continue;
+                if (group.cost + other.cost < best) {
+                    best = group.cost + other.cost;
+                    pair = new Group[] {group, other};
+                }
+            }
+        }
+        return pair;
+    }
+
+    private static void merge(Group into, Group from, List<Group> groups) {
+        for (Unit unit : from.units) {
+            unit.group = into;
+            into.units.add(unit);
+        }
+        into.cost += from.cost;
+
+        into.bytes.remove(from);
+        for (Entry<Group, Double> e : from.bytes.entrySet()) {
+            Group other = e.getKey();
+            if (other == into)
+                continue;
+            other.bytes.remove(from);
+            into.bytes.merge(other, e.getValue(), Double::sum);
+            other.bytes.put(into, into.bytes.get(other));
+        }
+        groups.remove(from);
+    }
+
+    /**
+     * Move single units to a connected group when that reduces
+     * the bytes crossing PEs without exceeding the capacity.
+     * Group to group bytes are not maintained as they are no
+     * longer needed.
+     */
+    private static void refine(List<Unit> units, double capacity) {
+        for (int pass = 0; pass < REFINE_PASSES; pass++) {
+            boolean moved = false;
+            for (Unit unit : units) {
+                final Group current = unit.group;
+                if (current.units.size() == 1)
+                    continue;
+
+                Map<Group, Double> toGroups = new LinkedHashMap<>();
+                for (Entry<Unit, Double> e : unit.bytes.entrySet())
+                    toGroups.merge(e.getKey().group, e.getValue(), Double::sum);
+
+                final double internal = toGroups.getOrDefault(current, 0.0);
+                Group target = null;
+                double gain = 0;
+                for (Entry<Group, Double> e : toGroups.entrySet()) {
+                    Group other = e.getKey();
+                    if (other == current)
+                        continue;
+                    if (!Objects.equals(other.isolateRegion, current.isolateRegion))
+                        continue;
+                    if (other.cost + unit.cost > capacity)
+                        continue;
+                    if (e.getValue() - internal > gain) {
+                        gain = e.getValue() - internal;
+                        target = other;
+                    }
+                }
+                if (target != null) {
+                    current.units.remove(unit);
+                    current.cost -= unit.cost;
+                    target.units.add(unit);
+                    target.cost += unit.cost;
+                    unit.group = target;
+                    moved = true;
+                }
+            }
+            if (!moved)
+                break;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getUpstream
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
 import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.DEPLOYMENT_CONFIG;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_HAS_ISOLATE;
+import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_HAS_PROFILED_PLACEMENT;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_STREAMS_COMPILE_VERSION;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_STREAMS_VERSION;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.splAppNamespace;
@@ -31,6 +32,7 @@ import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.hasAny;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -46,6 +48,8 @@ import java.util.Stack;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -84,6 +88,25 @@ public class SPLGenerator {
     List<String> compEnds = new ArrayList<>();
     
     private final Map<String,String> compositePortRemaps = new HashMap<>();
+    
+    /**
+     * Number of operators at which SPL code is generated concurrently.
+     */
+    private static final int PARALLEL_GENERATION_OPS = 500;
+    
+    private final int parallelGenerationOps;
+    
+    public SPLGenerator() {
+        this(PARALLEL_GENERATION_OPS);
+    }
+    
+    /**
+     * Create a generator that generates the SPL code of a
+     * graph concurrently once it has {@code parallelGenerationOps} operators.
+     */
+    public SPLGenerator(int parallelGenerationOps) {
+        this.parallelGenerationOps = parallelGenerationOps;
+    }
 
     public String generateSPL(JsonObject graph) throws IOException {
         JsonObject graphConfig = getGraphConfig(graph);
@@ -620,13 +643,16 @@ public class SPLGenerator {
 
     private List<List<JsonObject> > findCompositeOpsOfAType(JsonObject graph, String startKind, String endKind, String opStartParam){
         
+        // The graph is not modified while searching.
+        final GraphIndex index = new GraphIndex(graph);
+        
         for(JsonElement jePotentialStart : graph.getAsJsonArray("operators")){
             JsonObject potentialStart = jePotentialStart.getAsJsonObject();
             
             // We've found a potential start to a composite. See if the composite doesn't contain another composite.   
             if(kind(potentialStart).equals(startKind) || 
                     isPhysicalStartOperatorOfAType(potentialStart, opStartParam)){
-                List<List<JsonObject> > startsEndsAndOperators = findCompositeOpsOfATypeGivenPotentialStart(graph, startKind, endKind, opStartParam, potentialStart);
+                List<List<JsonObject> > startsEndsAndOperators = findCompositeOpsOfATypeGivenPotentialStart(index, startKind, endKind, opStartParam, potentialStart);
                 if (startsEndsAndOperators != null) {
                     return startsEndsAndOperators;
                 }
@@ -636,42 +662,46 @@ public class SPLGenerator {
         return null;
     }
     
-    private List<List<JsonObject>> findCompositeOpsOfATypeGivenPotentialStart(JsonObject graph, String startKind, String endKind, String opStartParam, JsonObject potentialStart){
+    private List<List<JsonObject>> findCompositeOpsOfATypeGivenPotentialStart(GraphIndex index, String startKind, String endKind, String opStartParam, JsonObject potentialStart){
         Stack<JsonObject> unvisited = new Stack<>();
+        // Same contents as unvisited for fast lookup
+        Set<JsonObject> scheduled = new HashSet<>();
         
         // Operators we've visited before
-        List<JsonObject> visited = new ArrayList<>();
+        Set<JsonObject> visited = new HashSet<>();
         
         // The potential start operators, end operators, and operators of the composite
         List<JsonObject> potStarts = new ArrayList<>(), potEnds = new ArrayList<>(), potOperators = new ArrayList<>();      
         
         unvisited.push(potentialStart);
+        scheduled.add(potentialStart);
         while(unvisited.size() > 0){
             JsonObject op = unvisited.pop();
+            scheduled.remove(op);
             visited.add(op);
             Set<JsonObject> parents = new HashSet<>(), children = new HashSet<>();
             // Add the op to one of the lists containing the composite's operators
 
             if(kind(op).equals(startKind) || (op.has("config") && jboolean(object(op, "config"), opStartParam))){
                 potStarts.add(op);
-                children.addAll(getDownstream(op, graph));
+                children.addAll(index.downstream(op));
             }
             else if(kind(op).equals(endKind)){
                 potEnds.add(op);
-                parents.addAll(getUpstream(op,graph));
+                parents.addAll(index.upstream(op));
             }
             else{
                 potOperators.add(op);
-                children.addAll(getDownstream(op, graph));
-                parents.addAll(getUpstream(op,graph));
+                children.addAll(index.downstream(op));
+                parents.addAll(index.upstream(op));
             }
             
             // Remove ops we've seen before
             // and ops that are already scheduled to be visited
             children.removeIf(pOp -> visited.contains(pOp));
             parents.removeIf(pOp -> visited.contains(pOp)); 
-            children.removeIf(pOp -> unvisited.contains(pOp));
-            parents.removeIf(pOp -> unvisited.contains(pOp));
+            children.removeIf(pOp -> scheduled.contains(pOp));
+            parents.removeIf(pOp -> scheduled.contains(pOp));
             
             // Validate neighbors.
             
@@ -722,6 +752,8 @@ public class SPLGenerator {
             }         
             unvisited.addAll(parents);
             unvisited.addAll(children);
+            scheduled.addAll(parents);
+            scheduled.addAll(children);
 
         }
         
@@ -738,7 +770,7 @@ public class SPLGenerator {
      * Set any Job Config Overlay deployment options
      * based upon the graph.
      * Currently always sets fusion scheme legacy
-     * to ensure that isolation works.
+     * to ensure that isolation and profiled placement work.
      */
     private void setDeployment(JsonObject graph) {
         
@@ -750,7 +782,9 @@ public class SPLGenerator {
         
         boolean hasIsolate = jboolean(config, CFG_HAS_ISOLATE);
         
-        if (hasIsolate)     
+        // A profiled placement has determined the PEs
+        // so the compiler must not fuse further.
+        if (hasIsolate || jboolean(config, CFG_HAS_PROFILED_PLACEMENT))
             deploymentConfig.addProperty("fusionScheme", "legacy");
         else {
             
@@ -782,11 +816,35 @@ public class SPLGenerator {
 
         
 
-        for (int i = 0; i < composites.size(); i++) {
-            StringBuilder compBuilder = new StringBuilder();
-            generateComposite(graphConfig, composites.get(i), compBuilder);
-            sb.append(compBuilder.toString());
+        int operatorCount = 0;
+        for (JsonObject composite : composites) {
+            JsonArray ops = array(composite, "operators");
+            operatorCount += ops.size();
+            for (JsonElement op : ops)
+                OperatorGenerator.addHostPool(graphConfig, op.getAsJsonObject());
         }
+        
+        // Composites are independent so large applications
+        // generate them concurrently, keeping their order.
+        Stream<JsonObject> compositeStream = operatorCount >= parallelGenerationOps ?
+                composites.parallelStream() : composites.stream();
+        List<String> splComposites;
+        try {
+            splComposites = compositeStream.map(composite -> {
+                StringBuilder compBuilder = new StringBuilder();
+                try {
+                    generateComposite(graphConfig, composite, compBuilder);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return compBuilder.toString();
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        for (String splComposite : splComposites)
+            sb.append(splComposite);
     }
     
     private void breakoutVersion(JsonObject graphConfig) {
@@ -976,8 +1034,32 @@ public class SPLGenerator {
       
         OperatorGenerator opGenerator = new OperatorGenerator(this);
         JsonArray ops = array(graph, "operators");
-        for (JsonElement ope : ops) {
-            String splOp = opGenerator.generate(graphConfig, ope.getAsJsonObject());
+        if (ops.size() < parallelGenerationOps) {
+            for (JsonElement ope : ops) {
+                String splOp = opGenerator.generate(graphConfig, ope.getAsJsonObject());
+                sb.append(splOp);
+                sb.append("\n");
+            }
+            return;
+        }
+        
+        // Each operator only modifies itself so they are generated concurrently.
+        List<JsonObject> opList = new ArrayList<>(ops.size());
+        for (JsonElement ope : ops)
+            opList.add(ope.getAsJsonObject());
+        List<String> splOps;
+        try {
+            splOps = opList.parallelStream().map(op -> {
+                try {
+                    return opGenerator.generate(graphConfig, op);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (String splOp : splOps) {
             sb.append(splOp);
             sb.append("\n");
         }
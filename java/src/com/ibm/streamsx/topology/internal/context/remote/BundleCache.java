@@ -0,0 +1,168 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.context.remote;
+
+import static com.ibm.streamsx.topology.context.ContextProperties.REUSE_BUNDLE;
+import static com.ibm.streamsx.topology.context.ContextProperties.SC_OPTIONS;
+import static com.ibm.streamsx.topology.context.ContextProperties._SPLMM_OPTIONS;
+import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.BUNDLE_FINGERPRINT;
+import static com.ibm.streamsx.topology.internal.core.InternalProperties.TOOLKITS_JSON;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.ibm.streamsx.topology.internal.file.FileUtilities;
+import com.ibm.streamsx.topology.internal.graph.GraphKeys;
+
+/**
+ * Local cache of Streams application bundles keyed by a fingerprint
+ * of the generated application.
+ * <P>
+ * The fingerprint covers everything in the generated toolkit that
+ * is input to the SPL compiler (SPL code, dependency jars and other files),
+ * using the content hash of dependency jars placed through the
+ * dependency cache rather than reading them again,
+ * the toolkits the application depends on, the version of this toolkit
+ * and the compile options. It does not include the toolkit's {@code info.xml}
+ * (its version is a timestamp), submission parameter values or job configuration.
+ * </P>
+ * @see com.ibm.streamsx.topology.context.ContextProperties#REUSE_BUNDLE
+ */
+public class BundleCache {
+
+    private static final Logger TRACE = Logger.getLogger("com.ibm.streamsx.topology");
+
+    private final Path root;
+
+    private BundleCache(Path root) throws IOException {
+        this.root = Files.createDirectories(root);
+    }
+
+    /**
+     * Get the bundle cache for a submission.
+     * @param deploy Deploy object of the submission.
+     * @return Cache to use or {@code null} if bundle reuse is not enabled.
+     */
+    public static BundleCache cache(JsonObject deploy) throws IOException {
+        if (!jboolean(deploy, REUSE_BUNDLE))
+            return null;
+        Path root = DependencyCache.cacheRoot(deploy);
+        return root == null ? null : new BundleCache(root.resolve("sab"));
+    }
+
+    /**
+     * Calculate the fingerprint for a generated toolkit and save it
+     * in the deploy object if bundle reuse is enabled.
+     * @param cache Dependency cache that placed the toolkit's dependency jars,
+     * {@code null} if caching is disabled, and so bundle reuse.
+     */
+    static void setFingerprint(JsonObject deploy, JsonObject graph, File toolkitRoot,
+            DependencyCache cache) throws Exception {
+        if (!jboolean(deploy, REUSE_BUNDLE) || cache == null)
+            return;
+
+        MessageDigest md = DependencyCache.digest();
+
+        final Path tkPath = toolkitRoot.toPath();
+        // Exclude files created by a previous compile into the same directory.
+        final Path info = tkPath.resolve("info.xml");
+        final Path tkXml = tkPath.resolve("toolkit.xml");
+        final Path output = tkPath.resolve("output");
+        DependencyCache.updateDirectory(md, tkPath,
+                file -> !file.equals(info) && !file.equals(tkXml) && !file.startsWith(output),
+                cache::placedHash);
+
+        JsonObject config = object(graph, "config");
+        update(md, config.get(GraphKeys.CFG_STREAMS_VERSION));
+        update(md, config.get(GraphKeys.CFG_STREAMS_COMPILE_VERSION));
+        JsonObject splConfig = object(config, "spl");
+        if (splConfig != null)
+            update(md, splConfig.get(TOOLKITS_JSON));
+        update(md, deploy.get(SC_OPTIONS));
+        update(md, deploy.get(_SPLMM_OPTIONS));
+
+        // Contents of this toolkit's jar (or class directory), so that
+        // a rebuilt toolkit never reuses a bundle built with an older one.
+        Path jar = new File(FileUtilities.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toPath();
+        md.update(DependencyCache.hashContents(jar).getBytes(UTF_8));
+
+        deploy.addProperty(BUNDLE_FINGERPRINT, DependencyCache.toHex(md.digest()));
+    }
+
+    private static void update(MessageDigest md, JsonElement value) {
+        md.update((value == null ? "null" : value.toString()).getBytes(UTF_8));
+        md.update((byte) 0);
+    }
+
+    /**
+     * Get the key for a bundle in the cache.
+     * @param deploy Deploy object of the submission.
+     * @param variant Variant of the bundle, e.g. for standalone compilation.
+     * @return Key or {@code null} if no fingerprint was calculated.
+     */
+    public static String key(JsonObject deploy, String variant) {
+        String fingerprint = jstring(deploy, BUNDLE_FINGERPRINT);
+        if (fingerprint == null)
+            return null;
+        return variant == null ? fingerprint : fingerprint + "_" + variant;
+    }
+
+    /**
+     * Get a cached bundle.
+     * @return Path of the cached bundle or {@code null} if there is no cached bundle for {@code key}.
+     */
+    public Path lookup(String key) throws IOException {
+        Path dir = root.resolve(key);
+        if (!Files.isDirectory(dir))
+            return null;
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".sab"))
+                    .findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * Copy a cached bundle to {@code target}.
+     * The bundle is copied as the caller may delete it
+     * once it has been submitted.
+     * @param key Key of the bundle.
+     * @param target File to copy the bundle to.
+     * @return {@code target} or {@code null} if there is no cached bundle for {@code key}.
+     */
+    public File get(String key, File target) throws IOException {
+        Path cached = lookup(key);
+        if (cached == null)
+            return null;
+        Files.copy(cached, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        TRACE.info("Reusing Streams Application Bundle: " + cached);
+        return target;
+    }
+
+    /**
+     * Add a bundle to the cache.
+     */
+    public void put(String key, File bundle) throws IOException {
+        Path dir = Files.createDirectories(root.resolve(key));
+        Path tmp = Files.createTempFile(dir, bundle.getName(), ".tmp");
+        try {
+            Files.copy(bundle.toPath(), tmp, StandardCopyOption.REPLACE_EXISTING);
+            DependencyCache.store(tmp, dir.resolve(bundle.getName()));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.context.remote;
+
+import static com.ibm.streamsx.topology.context.ContextProperties.DEPENDENCY_CACHE_DIR;
+import static com.ibm.streamsx.topology.context.ContextProperties.REUSE_BUNDLE;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Local cache of dependency artifacts keyed by the hash of their contents.
+ * <P>
+ * A classes directory is converted to a jar once per unique content
+ * and a jar dependency is stored once per unique content. An artifact
+ * is placed into a generated toolkit as a hard link to the cached file,
+ * falling back to a copy when a link cannot be created, for example
+ * when the toolkit is on a different file system to the cache.
+ * </P>
+ * <P>
+ * A cached file is never modified once it has been created (it
+ * is written to a temporary file and atomically renamed), so the cache
+ * may be shared by concurrent submissions, including from
+ * multiple processes.
+ * </P>
+ * <P>
+ * The cache is only used when {@code DEPENDENCY_CACHE_DIR} or
+ * {@code REUSE_BUNDLE} is set, files are never removed from it.
+ * </P>
+ */
+class DependencyCache {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * Hashes of jar files keyed by path, size and modification
+     * time so that an unchanged jar is only read once per JVM.
+     */
+    private static final Map<String, String> JAR_HASHES = new ConcurrentHashMap<>();
+
+    private final Path root;
+
+    /**
+     * Hashes of the artifacts placed by this cache keyed by
+     * their absolute target path.
+     */
+    private final Map<Path, String> placed = new HashMap<>();
+
+    private DependencyCache(Path root) throws IOException {
+        this.root = Files.createDirectories(root);
+    }
+
+    /**
+     * Get the dependency cache for a submission.
+     * @param deploy Deploy object of the submission.
+     * @return Cache to use or {@code null} if caching is disabled.
+     */
+    static DependencyCache cache(JsonObject deploy) throws IOException {
+        Path root = cacheRoot(deploy);
+        return root == null ? null : new DependencyCache(root);
+    }
+
+    /**
+     * Get the root directory of the local cache for a submission.
+     * When the directory is not set a directory under {@code java.io.tmpdir}
+     * is only used if bundles are reused, so that the cache
+     * is never created without being requested.
+     * @return Root directory or {@code null} if caching is disabled.
+     */
+    static Path cacheRoot(JsonObject deploy) {
+        String dir = jstring(deploy, DEPENDENCY_CACHE_DIR);
+        if (dir == null) {
+            if (!jboolean(deploy, REUSE_BUNDLE))
+                return null;
+            return Paths.get(System.getProperty("java.io.tmpdir"),
+                    "streamsx.topology.depcache." + System.getProperty("user.name"));
+        }
+        if (dir.isEmpty())
+            return null;
+        return Paths.get(dir);
+    }
+
+    /**
+     * Place a jar created from {@code classes} at {@code target}.
+     */
+    void addClasses(Path classes, Path target) throws IOException {
+        String hash = hashDirectory(classes);
+        Path cached = root.resolve(hash + ".jar");
+        if (!Files.isRegularFile(cached)) {
+            Path tmp = Files.createTempFile(root, hash, ".tmp");
+            try {
+                ToolkitRemoteContext.createJarFile(classes, tmp);
+                store(tmp, cached);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        place(hash, cached, target);
+    }
+
+    /**
+     * Place a copy of the jar {@code jar} at {@code target}.
+     */
+    void addJar(Path jar, Path target) throws IOException {
+        String hash = hashJar(jar);
+        Path cached = root.resolve(hash + ".jar");
+        if (!Files.isRegularFile(cached)) {
+            Path tmp = Files.createTempFile(root, hash, ".tmp");
+            try {
+                Files.copy(jar, tmp, StandardCopyOption.REPLACE_EXISTING);
+                store(tmp, cached);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        place(hash, cached, target);
+    }
+
+    /**
+     * Get the hash of an artifact placed by this cache.
+     * @param file File in the generated toolkit.
+     * @return Hash of the artifact or {@code null} if {@code file} was not placed by this cache.
+     */
+    String placedHash(Path file) {
+        return placed.get(file.toAbsolutePath().normalize());
+    }
+
+    static void store(Path tmp, Path cached) throws IOException {
+        try {
+            Files.move(tmp, cached, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Created concurrently by another submission,
+            // it has the same contents.
+        }
+    }
+
+    private void place(String hash, Path cached, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, cached);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(cached, target);
+        }
+        placed.put(target.toAbsolutePath().normalize(), hash);
+    }
+
+    private static String hashJar(Path jar) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(jar, BasicFileAttributes.class);
+        String key = jar.toAbsolutePath() + ":" + attrs.size() + ":"
+                + attrs.lastModifiedTime().toMillis();
+        String hash = JAR_HASHES.get(key);
+        if (hash == null) {
+            MessageDigest md = digest();
+            update(md, jar);
+            JAR_HASHES.put(key, hash = toHex(md.digest()));
+        }
+        return hash;
+    }
+
+    /**
+     * Hash of the contents of a file or of every file in a directory.
+     * The hash of a file is only calculated once while it is unchanged.
+     */
+    static String hashContents(Path path) throws IOException {
+        if (Files.isDirectory(path))
+            return hashDirectory(path);
+        return hashJar(path);
+    }
+
+    /**
+     * Hash of a directory from the relative path and contents
+     * of every file, in a fixed order.
+     */
+    private static String hashDirectory(Path dir) throws IOException {
+        MessageDigest md = digest();
+        updateDirectory(md, dir, file -> true, file -> null);
+        return toHex(md.digest());
+    }
+
+    /**
+     * Update a digest with the relative path and contents
+     * of every file accepted by {@code filter} in a fixed order.
+     * A file with a known hash is represented by its hash rather
+     * than its contents so that it is not read.
+     * @param hashes Known hash of a file, or {@code null} to read its contents.
+     */
+    static void updateDirectory(MessageDigest md, Path dir, Predicate<Path> filter,
+            Function<Path, String> hashes) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(Files::isRegularFile).filter(filter).sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            md.update(dir.relativize(file).toString().getBytes(UTF_8));
+            final String hash = hashes.apply(file);
+            if (hash != null) {
+                md.update((byte) 1);
+                md.update(hash.getBytes(UTF_8));
+            } else {
+                md.update((byte) 0);
+                update(md, file);
+            }
+        }
+    }
+
+    private static void update(MessageDigest md, Path file) throws IOException {
+        final byte[] data = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int count; (count = in.read(data)) != -1;)
+                md.update(data, 0, count);
+        }
+    }
+
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] digest) {
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest)
+            sb.append(String.format("%02x", b & 0xff));
+        return sb.toString();
+    }
+}
@@ -63,6 +63,14 @@ public interface DeployKeys {
         return jboolean(deploy(submission), KEEP_ARTIFACTS);
     }
     
+    /**
+     * Fingerprint of the generated application used to
+     * reuse a previously built bundle, set during
+     * toolkit generation when {@code ContextProperties.REUSE_BUNDLE} is set.
+     * @see BundleCache
+     */
+    String BUNDLE_FINGERPRINT = "bundleFingerprint";
+    
     /**
      * Python information.
      * A JSON object with:
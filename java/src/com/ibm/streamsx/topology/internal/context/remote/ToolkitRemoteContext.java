@@ -4,7 +4,14 @@
  */
 package com.ibm.streamsx.topology.internal.context.remote;
 
+import static com.ibm.streamsx.topology.context.ContextProperties.AUTO_THREADING;
 import static com.ibm.streamsx.topology.context.ContextProperties.KEEP_ARTIFACTS;
+import static com.ibm.streamsx.topology.context.ContextProperties.KEY_GROUPS;
+import static com.ibm.streamsx.topology.context.ContextProperties.OPERATOR_METRICS;
+import static com.ibm.streamsx.topology.context.ContextProperties.PLACEMENT_PROFILE;
+import static com.ibm.streamsx.topology.context.ContextProperties.PRUNE_DEAD_BRANCHES;
+import static com.ibm.streamsx.topology.context.ContextProperties.SC_OPTIONS;
+import static com.ibm.streamsx.topology.context.ContextProperties.TUPLE_TRACING;
 import static com.ibm.streamsx.topology.context.ContextProperties.VMARGS;
 import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.DEPLOYMENT_CONFIG;
 import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.JOB_CONFIG_OVERLAYS;
@@ -29,6 +36,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
@@ -53,7 +61,9 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.remote.RemoteContext;
 import com.ibm.streamsx.topology.generator.spl.SPLGenerator;
@@ -129,10 +139,13 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
         
         addToolkitInfo(toolkitRoot, jsonGraph);
         
-        copyIncludes(toolkitRoot, jsonGraph);
+        final DependencyCache cache = DependencyCache.cache(deploy);
+        copyIncludes(toolkitRoot, jsonGraph, cache);
         
         generateSPL(toolkitRoot, jsonGraph);
         
+        BundleCache.setFingerprint(deploy, jsonGraph, toolkitRoot, cache);
+        
         if (keepToolkit || keepArtifacts(submission)) {
         	final JsonObject submissionResult = GsonUtilities.objectCreate(submission, RemoteContext.SUBMISSION_RESULTS);
         	submissionResult.addProperty(SubmissionResultsKeys.TOOLKIT_ROOT, toolkitRoot.getAbsolutePath());
@@ -292,13 +305,16 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
      * a list of JSON object representing files or directories to copy
      * into the toolkit, with source being the file or directory path
      * and target being the target directory relative to toolkitRoot.
+     * <BR>
+     * Dependency jars are placed using {@code cache} when it is not null.
      * @param toolkitRoot
      * @param json
+     * @param cache
      * @throws IOException
      * 
      * TODO add support for directories
      */
-    private void copyIncludes(File toolkitRoot, JsonObject graph) throws IOException {
+    private void copyIncludes(File toolkitRoot, JsonObject graph, DependencyCache cache) throws IOException {
         
         JsonObject config = object(graph, "config");
                 
@@ -324,7 +340,11 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
                     Path realPath = srcFile.toPath().toRealPath();
                     File realSrcFile = realPath.toFile();
                     if (realSrcFile.isFile()) {
-                        Files.copy(realSrcFile.toPath(), new File(targetDir, srcFile.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);                    	
+                        File dstFile = new File(targetDir, srcFile.getName());
+                        if (cache != null && isDependencyJar(target, srcFile))
+                            cache.addJar(realPath, dstFile.toPath());
+                        else
+                            Files.copy(realSrcFile.toPath(), dstFile.toPath(), StandardCopyOption.REPLACE_EXISTING);                    	
                     }
                     else if (realSrcFile.isDirectory()) {
                         String dirname = srcFile.getName();
@@ -333,8 +353,12 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
                     }
             	}
             	else {
-                    if (srcFile.isFile())
-                        copyFile(srcFile, targetDir);
+                    if (srcFile.isFile()) {
+                        if (cache != null && isDependencyJar(target, srcFile))
+                            cache.addJar(srcFile.toPath(), new File(targetDir, srcFile.getName()).toPath());
+                        else
+                            copyFile(srcFile, targetDir);
+                    }
                     else if (srcFile.isDirectory())
                         copyDirectoryToDirectory(toolkitRoot, srcFile, targetDir);
             	}
@@ -343,7 +367,12 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
             else if (inc.has("classes")) {
                 String classes = jstring(inc, "classes");
                 String name = jstring(inc, "name");
-                createJarFile(classes, name, targetDir);
+                assert name.endsWith(".jar");
+                Path jarPath = new File(targetDir, name).toPath();
+                if (cache != null)
+                    cache.addClasses(Paths.get(classes), jarPath);
+                else
+                    createJarFile(Paths.get(classes), jarPath);
             }
             // Create a file from the contents in the file.
             else if (inc.has("contents")) {
@@ -354,6 +383,14 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
         }
     }
 
+    /**
+     * Is the file a jar being placed into one of the dependency locations.
+     */
+    private static boolean isDependencyJar(String target, File srcFile) {
+        return (DEP_JAR_LOC.equals(target) || DEP_OP_JAR_LOC.equals(target))
+                && srcFile.getName().endsWith(".jar");
+    }
+
     private static void copyFile(File srcFile, File targetDir) throws IOException {
         Files.copy(srcFile.toPath(), 
                 new File(targetDir, srcFile.getName()).toPath(),
@@ -411,13 +448,9 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
     
     /**
      * Create a jar file from a classes directory,
-     * creating it directly in the toolkit.
+     * either directly in the toolkit or in the dependency cache.
      */
-    private static String createJarFile(String classes, String name, File toolkitLib) throws IOException {
-        assert name.endsWith(".jar");
-        
-        final Path classesPath = Paths.get(classes);
-        final Path jarPath = new File(toolkitLib, name).toPath();
+    static void createJarFile(final Path classesPath, final Path jarPath) throws IOException {
         try (final JarOutputStream jarOut =
                 new JarOutputStream(
                 new BufferedOutputStream(
@@ -474,8 +507,6 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
         });
         
         }
-        
-        return jarPath.getFileName().toString();
     }
     
     public static boolean deleteToolkit(File appDir, JsonObject deployConfig) throws IOException {       
@@ -495,10 +526,10 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
     static {
         
         // ContextProperties
-        Collections.addAll(GRAPH_CONFIG_KEYS, VMARGS);
+        Collections.addAll(GRAPH_CONFIG_KEYS, VMARGS, AUTO_THREADING, KEY_GROUPS, PRUNE_DEAD_BRANCHES, OPERATOR_METRICS, TUPLE_TRACING, SC_OPTIONS);
     }
     
-    private void addSelectDeployToGraphConfig(JsonObject submission) {
+    private void addSelectDeployToGraphConfig(JsonObject submission) throws IOException {
         
         JsonObject deploy = DeployKeys.deploy(submission);
         JsonObject graph = object(submission, SUBMISSION_GRAPH);
@@ -510,6 +541,16 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
             if (deploy.has(key))
                 graphConfig.add(key, deploy.get(key));
         }
+        
+        // Placement profile is an object or the path of a JSON file.
+        JsonElement profile = deploy.get(PLACEMENT_PROFILE);
+        if (profile != null && profile.isJsonPrimitive()) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(profile.getAsString()), UTF_8)) {
+                profile = new JsonParser().parse(reader);
+            }
+        }
+        if (profile != null && profile.isJsonObject())
+            graphConfig.add(PLACEMENT_PROFILE, profile);
     }
 
 
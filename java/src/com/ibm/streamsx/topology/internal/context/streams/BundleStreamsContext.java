@@ -28,6 +28,7 @@ import com.google.gson.JsonObject;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.context.remote.RemoteContext;
 import com.ibm.streamsx.topology.internal.context.ToolkitStreamsContext;
+import com.ibm.streamsx.topology.internal.context.remote.BundleCache;
 import com.ibm.streamsx.topology.internal.context.remote.SubmissionResultsKeys;
 import com.ibm.streamsx.topology.internal.context.remote.ToolkitRemoteContext;
 import com.ibm.streamsx.topology.internal.core.InternalProperties;
@@ -130,6 +131,19 @@ public class BundleStreamsContext extends ToolkitStreamsContext {
         String namespace = splAppNamespace(graph);
         String name = splAppName(graph);
 
+        final boolean haveNamespace = namespace != null && !namespace.isEmpty();
+        String bundleName = haveNamespace? namespace + "." + name + ".sab": name + ".sab";
+        File localBundle = new File(bundleName);
+
+        // Reuse a bundle built from the same application.
+        BundleCache cache = BundleCache.cache(deploy);
+        String cacheKey = cache == null ? null : BundleCache.key(deploy, standalone ? "standalone" : null);
+        if (cacheKey != null && cache.get(cacheKey, localBundle.getAbsoluteFile()) != null) {
+            if (!deleteToolkit(appDir, deploy))
+                trace.info("Keeping toolkit at: " + appDir.getAbsolutePath());
+            return new CompletedFuture<File>(localBundle);
+        }
+
         InvokeSc sc = new InvokeSc(deploy, standalone, namespace, name, appDir);
         
         // Add the toolkits
@@ -147,15 +161,14 @@ public class BundleStreamsContext extends ToolkitStreamsContext {
 
         sc.invoke();
 
-        final boolean haveNamespace = namespace != null && !namespace.isEmpty();
         File outputDir = new File(appDir, "output");
-        String bundleName = haveNamespace? namespace + "." + name + ".sab": name + ".sab";
         File bundle = new File(outputDir, bundleName);
 
-        File localBundle = new File(bundle.getName());
-
         Files.copy(bundle.toPath(), localBundle.toPath(),
                 StandardCopyOption.REPLACE_EXISTING);
+        
+        if (cacheKey != null)
+            cache.put(cacheKey, localBundle);
 
         if (!deleteToolkit(appDir, deploy))
             trace.info("Keeping toolkit at: " + appDir.getAbsolutePath());
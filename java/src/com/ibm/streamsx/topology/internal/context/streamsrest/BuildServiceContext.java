@@ -11,6 +11,12 @@ import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
@@ -20,6 +26,7 @@ import com.ibm.streamsx.rest.build.BuildService;
 import com.ibm.streamsx.rest.internal.RestUtils;
 import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.internal.context.remote.BuildRemoteContext;
+import com.ibm.streamsx.topology.internal.context.remote.BundleCache;
 import com.ibm.streamsx.topology.internal.context.remote.SubmissionResultsKeys;
 import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
 
@@ -95,6 +102,34 @@ public class BuildServiceContext extends BuildRemoteContext<BuildService> {
         setBuildName(buildName);
         buildName = getBuildName() + "_" + RestUtils.randomHex(16);
 
+        // Reuse a bundle built from the same application.
+        BundleCache cache = this.downloadArtifacts ? BundleCache.cache(deploy) : null;
+        String cacheKey = cache == null ? null : BundleCache.key(deploy, null);
+        Path cached = cacheKey == null ? null : cache.lookup(cacheKey);
+        if (cached != null) {
+            // Same file a download of the bundle's artifact is written to.
+            File sab = cache.get(cacheKey,
+                    new File(cached.getFileName().toString()).getAbsoluteFile());
+            if (sab != null) {
+                report("Reusing bundle");
+                this.build = null;
+                JsonObject result = new JsonObject();
+                JsonObject buildInfo = new JsonObject();
+                buildInfo.addProperty("reused", true);
+                result.add("build", buildInfo);
+                JsonArray artifacts = new JsonArray();
+                buildInfo.add("artifacts", artifacts);
+                JsonObject sabInfo = new JsonObject();
+                sabInfo.addProperty("name", sab.getName());
+                sabInfo.addProperty("size", sab.length());
+                sabInfo.addProperty("location", sab.getAbsolutePath());
+                artifacts.add(sabInfo);
+                addBundle(deploy, jco, result, sab.getAbsolutePath());
+                postBuildAction(deploy, jco, result);
+                return result;
+            }
+        }
+
         report("Building bundle");
         this.build = context.createBuild(buildName, buildConfig);
         try {
@@ -124,14 +159,26 @@ public class BuildServiceContext extends BuildRemoteContext<BuildService> {
                 else {
                     report("Downloading bundle");
                     final long startDownloadSabTime = System.currentTimeMillis();
+                    // Download all artifacts concurrently.
+                    List<CompletableFuture<JsonObject>> downloads = new ArrayList<>();
                     for (Artifact artifact : build.getArtifacts()) {
-                        File sab = artifact.download(null);
-                        JsonObject sabInfo = new JsonObject();
-                        sabInfo.addProperty("name", artifact.getName());
-                        sabInfo.addProperty("size", artifact.getSize());
-                        sabInfo.addProperty("location", sab.getAbsolutePath());
-                        sabInfo.addProperty("url", artifact.getURL());
-                        artifacts.add(sabInfo);
+                        downloads.add(artifact.downloadAsync(null).thenApply(sab -> {
+                            JsonObject sabInfo = new JsonObject();
+                            sabInfo.addProperty("name", artifact.getName());
+                            sabInfo.addProperty("size", artifact.getSize());
+                            sabInfo.addProperty("location", sab.getAbsolutePath());
+                            sabInfo.addProperty("url", artifact.getURL());
+                            return sabInfo;
+                        }));
+                    }
+                    for (CompletableFuture<JsonObject> download : downloads) {
+                        try {
+                            artifacts.add(download.get());
+                        } catch (ExecutionException e) {
+                            if (e.getCause() instanceof IOException)
+                                throw (IOException) e.getCause();
+                            throw e;
+                        }
                     }
                     final long endDownloadSabTime = System.currentTimeMillis();
                     build.getMetrics().addProperty(SubmissionResultsKeys.DOWNLOAD_SABS_TIME,
@@ -141,28 +188,9 @@ public class BuildServiceContext extends BuildRemoteContext<BuildService> {
                     if (artifacts.size() == 1) {
                         String location = GsonUtilities
                                 .jstring(artifacts.get(0).getAsJsonObject(), "location");
-
-                        result.addProperty(SubmissionResultsKeys.BUNDLE_PATH, location);
-
-                        // Create a Job Config Overlays file if this is creating
-                        // a sab for subsequent distributed deployment
-                        // or keepArtifacts is set.
-                        final File sabFile = new File(location);
-                        final String sabBaseName = sabFile.getName().substring(0, sabFile.getName().length()-4);
-                        final int lastDot = sabBaseName.lastIndexOf('.');
-                        final String namespace, name;
-                        if (lastDot == -1) {                      
-                            namespace = null;
-                            name = sabBaseName;
-                        } else {
-                            namespace = sabBaseName.substring(0, lastDot);
-                            name = sabBaseName.substring(lastDot+1);
-                        }
-                        if (getClass() == BuildServiceContext.class || jboolean(deploy, KEEP_ARTIFACTS)) {
-                            createJobConfigOverlayFile(sabFile.getParentFile(),
-                                    jco, namespace, name, result);
-                        }
-
+                        addBundle(deploy, jco, result, location);
+                        if (cacheKey != null)
+                            cache.put(cacheKey, new File(location));
                     }
 
                 }
@@ -178,6 +206,33 @@ public class BuildServiceContext extends BuildRemoteContext<BuildService> {
     }
 
 
+    /**
+     * Add the location of a single bundle to the result.
+     */
+    private void addBundle(JsonObject deploy, JsonObject jco, JsonObject result, String location) throws IOException {
+
+        result.addProperty(SubmissionResultsKeys.BUNDLE_PATH, location);
+
+        // Create a Job Config Overlays file if this is creating
+        // a sab for subsequent distributed deployment
+        // or keepArtifacts is set.
+        final File sabFile = new File(location);
+        final String sabBaseName = sabFile.getName().substring(0, sabFile.getName().length()-4);
+        final int lastDot = sabBaseName.lastIndexOf('.');
+        final String namespace, name;
+        if (lastDot == -1) {                      
+            namespace = null;
+            name = sabBaseName;
+        } else {
+            namespace = sabBaseName.substring(0, lastDot);
+            name = sabBaseName.substring(lastDot+1);
+        }
+        if (getClass() == BuildServiceContext.class || jboolean(deploy, KEEP_ARTIFACTS)) {
+            createJobConfigOverlayFile(sabFile.getParentFile(),
+                    jco, namespace, name, result);
+        }
+    }
+
     /**
      * Deletes Build from the build service.
      * <tt>topology.keepArtifacts</tt> is <i>not</i> evaluated here.
@@ -210,44 +210,11 @@ public class EdgeImageContext extends BuildServiceContext {
             String buildName = getApplicationBuild().getName() + "_img";
             imageBuild = imageBuilder.createBuild(buildName, null);
 
-            final long startBuildTime = System.currentTimeMillis();
-            long lastCheckTime = startBuildTime;
-
             //System.out.println("--- buildConfigOverrides="+buildConfigOverrides);
             imageBuild.submit("buildConfigOverrides", buildConfigOverrides);
 
-            String buildStatus;
-            JsonObject buildMetrics;
-            do {
-                imageBuild.refresh();
-                buildStatus = imageBuild.getStatus();
-                buildMetrics = imageBuild.getMetrics();
-                if ("built".equals(buildStatus)) {
-                    final long endBuildTime = System.currentTimeMillis();
-                    buildMetrics.addProperty(SubmissionResultsKeys.SUBMIT_TOTAL_BUILD_TIME, (endBuildTime - startBuildTime));
-                    // build done
-                    break;
-                }
-
-                String mkey = SubmissionResultsKeys.buildStateMetricKey(buildStatus);
-                long now = System.currentTimeMillis();
-                long duration;
-                if (buildMetrics.has(mkey)) {
-                    duration = buildMetrics.get(mkey).getAsLong();
-                } else {
-                    duration = 0;
-                }
-                duration += (now - lastCheckTime);
-                buildMetrics.addProperty(mkey, duration);
-                lastCheckTime = now;
-
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    throw e;
-                }
-                buildStatus = imageBuild.getStatus();
-            } while ("building".equals(buildStatus) || "waiting".equals(buildStatus) || "submitted".equals(buildStatus));
+            String buildStatus = imageBuild.waitForBuild();
+            JsonObject buildMetrics = imageBuild.getMetrics();
 
             TRACE.info("image build ended with status " + buildStatus);
             //System.out.println("INFO: imageBuild ended with status " + buildStatus);
@@ -4,6 +4,8 @@
  */
 package com.ibm.streamsx.topology.internal.core;
 
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_IDENTITY;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.LANGUAGE_JAVA;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_FUNCTIONAL;
 
@@ -27,6 +29,7 @@ import com.ibm.streamsx.topology.builder.BOutputPort;
 import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
 import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
 import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
+import com.ibm.streamsx.topology.logic.Identity;
 import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
 /**
@@ -69,12 +72,25 @@ public class JavaFunctional {
         params.put(FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM, logicString);
         BOperatorInvocation bop = te.builder().addOperator(name, kind, params);
         bop.setModel(MODEL_FUNCTIONAL, LANGUAGE_JAVA);
+        if (logic instanceof Identity && JavaFunctionalOps.MAP_KIND.equals(kind))
+            bop._json().addProperty(CONVERSION, CONVERSION_IDENTITY);
 
         addDependency(te, bop, logic);
 
         return bop;
     }
     
+    /**
+     * Declare that the operator producing {@code stream}
+     * only converts its input tuple.
+     * 
+     * @see com.ibm.streamsx.topology.generator.operator.OpProperties#CONVERSION
+     */
+    public static <S extends TStream<?>> S conversion(S stream, String conversion) {
+        stream.output().operator()._json().addProperty(CONVERSION, conversion);
+        return stream;
+    }
+    
     private static final Set<Class<?>> VIEWABLE_TYPES = new HashSet<>();
     static {
         VIEWABLE_TYPES.add(String.class);
@@ -16,6 +16,28 @@ public interface JavaFunctionalOps {
                 && MODEL_FUNCTIONAL.equals(jstring(op._json(), MODEL));
     }
     
+    /**
+     * Is the operator kind a Java functional operator
+     * that can publish operator metrics,
+     * see {@code ContextProperties.OPERATOR_METRICS}.
+     */
+    static boolean hasOperatorMetrics(String kind) {
+        return AGGREGATE_KIND.equals(kind) || CHAIN_KIND.equals(kind)
+                || FILTER_KIND.equals(kind) || FLAT_MAP_KIND.equals(kind)
+                || FOR_EACH_KIND.equals(kind) || JOIN_KIND.equals(kind)
+                || MAP_KIND.equals(kind) || SPLIT_KIND.equals(kind);
+    }
+    
+    /**
+     * Is the operator kind a Java functional operator
+     * that can trace tuples,
+     * see {@code ContextProperties.TUPLE_TRACING}.
+     */
+    static boolean hasTupleTracing(String kind) {
+        return hasOperatorMetrics(kind) || SOURCE_KIND.equals(kind)
+                || PERIODIC_MULTI_SOURCE_KIND.equals(kind);
+    }
+    
 
     /**
      * Default namespace for functional operators.
@@ -31,6 +53,9 @@ public interface JavaFunctionalOps {
     String AGGREGATE = PKG_O + "FunctionAggregate";
     String AGGREGATE_KIND = NS_COLON + "Aggregate";
     
+    String CHAIN = PKG_O + "FunctionChain";
+    String CHAIN_KIND = NS_COLON + "Chain";
+    
     String CONVERT_SPL = PKG_O + "FunctionConvertToSPL";
     String CONVERT_SPL_KIND = NS_COLON + "ToSPL";
     
@@ -61,6 +86,12 @@ public interface JavaFunctionalOps {
     
     String PASS_CLASS = PKG + "PassThrough";
     
+    /** Pass through with a queue and thread, only used by embedded execution. */
+    String QUEUED_PASS_CLASS = PKG_O + "QueuedPassThrough";
+    
+    /** Start of an expanded parallel region, only used by embedded execution. */
+    String CHANNEL_SPLIT_CLASS = PKG_O + "ChannelSplit";
+    
     static JsonObject kind2Class() {
         final JsonObject kinds = new JsonObject();
         
@@ -712,6 +712,17 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
 
     }
 
+    @Override
+    public TStream<T> costHint(double cost) {
+        if (!isPlaceable())
+            throw new IllegalStateException();
+        if (!(cost >= 0))
+            throw new IllegalArgumentException(Double.toString(cost));
+        
+        operator()._json().addProperty(OpProperties.COST_HINT, cost);
+        return this;
+    }
+
     @Override
     public List<TStream<T>> split(int n, ToIntFunction<T> splitter) {
         if (n <= 0)
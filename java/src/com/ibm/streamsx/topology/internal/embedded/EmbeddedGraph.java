@@ -24,27 +24,44 @@ import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_FUNCTIONAL;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_SPL;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_VIRTUAL;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.HASH_REMOVER_KIND;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.CHANNEL_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.MAX_CHANNELS_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.METRICS_SAMPLE_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.TRACE_SAMPLE_PARAM;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.NAME;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.NAMESPACE;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.addAll;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jisEmpty;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.objectArray;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.objectCreate;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.stringArray;
 import static com.ibm.streamsx.topology.spi.builder.Properties.Graph.CONFIG;
 import static com.ibm.streamsx.topology.spi.builder.Properties.Graph.Config.JAVA_OPS;
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.ibm.streams.flow.declare.InputPortDeclaration;
 import com.ibm.streams.flow.declare.OperatorGraph;
@@ -58,11 +75,15 @@ import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Type;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streamsx.topology.builder.BOperator;
+import com.ibm.streamsx.topology.builder.BVirtualMarker;
 import com.ibm.streamsx.topology.builder.GraphBuilder;
 import com.ibm.streamsx.topology.builder.JParamTypes;
 import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
+import com.ibm.streamsx.topology.file.TextFileReader;
 import com.ibm.streamsx.topology.generator.operator.OpProperties;
+import com.ibm.streamsx.topology.generator.port.PortProperties;
+import com.ibm.streamsx.topology.generator.spl.Optimizer;
 import com.ibm.streamsx.topology.internal.core.JavaFunctionalOps;
 import com.ibm.streamsx.topology.internal.functional.SubmissionParameterManager;
 import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
@@ -87,14 +108,72 @@ public class EmbeddedGraph {
     
     private final JavaOperatorTester jot = new JavaOperatorTester();
     
+    /**
+     * Capacity of the queue at each thread boundary,
+     * zero for synchronous execution.
+     */
+    private final int queueSize;
+    
+    /**
+     * True if Java functional operators are optimized
+     * for execution within a single JVM.
+     */
+    private final boolean optimize;
+    
+    /**
+     * Interval in tuples at which Java functional operators
+     * sample timings for operator metrics, zero for no metrics.
+     */
+    private final int metricsSample;
+    
+    /**
+     * Interval in tuples at which Java functional
+     * sources trace tuples, zero for no tracing.
+     */
+    private final int traceSample;
+    
+    /**
+     * Names of operators within low latency regions.
+     */
+    private final Set<String> lowLatencyOps = new HashSet<>();
+    
+    /**
+     * Names of parallel and end parallel markers of
+     * parallel regions expanded into channels.
+     */
+    private final Set<String> channelSplits = new HashSet<>();
+    private final Set<String> channelMerges = new HashSet<>();
+    
+    /**
+     * Names of the port of each channel for output ports
+     * within expanded parallel regions.
+     */
+    private final Map<String,List<String>> channelPorts = new HashMap<>();
+    
     public static void verifySupported(GraphBuilder builder) {
         new EmbeddedGraph(builder).verifySupported();
     }
    
     public EmbeddedGraph(GraphBuilder builder)  {
+        this(builder, Collections.emptyMap());
+    }
+    
+    public EmbeddedGraph(GraphBuilder builder, Map<String, Object> config)  {
         this.builder = builder;
         kind2Class = objectCreate(builder._json(), CONFIG, JAVA_OPS);
         addAll(kind2Class, JavaFunctionalOps.kind2Class());
+        
+        Object qs = config.get(ContextProperties.EMBEDDED_QUEUE_SIZE);
+        queueSize = qs == null ? 0 : ((Number) qs).intValue();
+        
+        Object opt = config.get(ContextProperties.EMBEDDED_OPTIMIZE);
+        optimize = opt != null && (Boolean) opt;
+        
+        Object ms = config.get(ContextProperties.OPERATOR_METRICS);
+        metricsSample = ms == null ? 0 : ((Number) ms).intValue();
+        
+        Object ts = config.get(ContextProperties.TUPLE_TRACING);
+        traceSample = ts == null ? 0 : ((Number) ts).intValue();
     }
     
     public void verifySupported() {        
@@ -124,9 +203,28 @@ public class EmbeddedGraph {
         
         graphDecl = OperatorGraphFactory.newGraph();
         
-        declareOps();
+        // Expansion modifies the operators so
+        // declare from a copy of the topology's graph.
+        List<JsonObject> ops = new ArrayList<>();
+        for (BOperator op : builder.getOps())
+            ops.add(copy(op._complete()));
         
-        declareConnections();
+        if (optimize)
+            Optimizer.optimizeEmbedded(ops);
+        
+        if (metricsSample > 0)
+            addSamplingParameter(ops, METRICS_SAMPLE_PARAM, metricsSample,
+                    JavaFunctionalOps::hasOperatorMetrics);
+        if (traceSample > 0)
+            addSamplingParameter(ops, TRACE_SAMPLE_PARAM, traceSample,
+                    JavaFunctionalOps::hasTupleTracing);
+        
+        if (queueSize > 0)
+            ops = expandParallelRegions(ops);
+        
+        declareOps(ops);
+        
+        declareConnections(ops);
                 
         return graphDecl;
     }
@@ -146,11 +244,286 @@ public class EmbeddedGraph {
         return execution;
     }
 
-    private void declareOps() throws Exception {
-        for (BOperator op : builder.getOps())
+    private void declareOps(List<JsonObject> ops) throws Exception {
+        if (queueSize > 0)
+            findLowLatencyOps(ops);
+        for (JsonObject op : ops)
             declareOp(op);
     }
     
+    /**
+     * Is the operator a thread boundary executed
+     * as a queue when the topology is executed with threads.
+     * The channels of an expanded parallel region are always
+     * merged through a queue, so that operators downstream
+     * of the region are executed by a single thread.
+     */
+    private boolean isQueued(JsonObject op) {
+        final String name = jstring(op, "name");
+        if (channelMerges.contains(name))
+            return true;
+        if (queueSize <= 0 || channelSplits.contains(name))
+            return false;
+        String kind = jstring(op, KIND);
+        if (!BVirtualMarker.ISOLATE.isThis(kind)
+                && !BVirtualMarker.PARALLEL.isThis(kind)
+                && !BVirtualMarker.END_PARALLEL.isThis(kind))
+            return false;
+        return !lowLatencyOps.contains(name);
+    }
+    
+    /**
+     * Set a sampling parameter, for operator metrics or tuple
+     * tracing, of the Java functional operators that support it.
+     */
+    private static void addSamplingParameter(List<JsonObject> ops, String name, int sample,
+            Predicate<String> kinds) {
+        for (JsonObject op : ops) {
+            if (MODEL_FUNCTIONAL.equals(jstring(op, MODEL)) && kinds.test(jstring(op, KIND))) {
+                JsonObject params = objectCreate(op, "parameters");
+                params.add(name, param(INT32, new JsonPrimitive(sample)));
+            }
+        }
+    }
+    
+    /**
+     * Expand each parallel region into a copy of its operators
+     * for each channel. The parallel marker is replaced by an
+     * operator that routes each tuple to a channel's queue, so that
+     * each channel is executed by its own thread. Only used when
+     * the topology is executed with threads, otherwise each region
+     * executes as a single channel on its upstream thread.
+     * <P>
+     * Nested parallel regions and regions with inputs from outside
+     * the region are not expanded and so execute as a single channel.
+     * </P>
+     */
+    private List<JsonObject> expandParallelRegions(List<JsonObject> ops) {
+        // Map of output port name to its operator
+        // and input port name to its operator.
+        Map<String,JsonObject> producers = new HashMap<>();
+        Map<String,JsonObject> consumers = new HashMap<>();
+        for (JsonObject op : ops) {
+            objectArray(op, "outputs", output -> producers.put(jstring(output, "name"), op));
+            objectArray(op, "inputs", input -> consumers.put(jstring(input, "name"), op));
+        }
+        
+        List<JsonObject> expanded = new ArrayList<>(ops);
+        for (JsonObject op : ops) {
+            if (BVirtualMarker.PARALLEL.isThis(jstring(op, KIND)))
+                expandParallelRegion(op, producers, consumers, expanded);
+        }
+        return expanded;
+    }
+    
+    private void expandParallelRegion(JsonObject parallel,
+            Map<String,JsonObject> producers, Map<String,JsonObject> consumers,
+            List<JsonObject> expanded) {
+        
+        final String parallelName = jstring(parallel, "name");
+        final JsonObject output = array(parallel, "outputs").get(0).getAsJsonObject();
+        final int width = width(output.get(PortProperties.WIDTH));
+        
+        // Find the region's operators and its end parallel markers.
+        Set<String> region = new HashSet<>();
+        Set<String> ends = new HashSet<>();
+        Deque<JsonObject> unvisited = new ArrayDeque<>();
+        unvisited.add(parallel);
+        while (!unvisited.isEmpty()) {
+            JsonObject op = unvisited.removeFirst();
+            JsonArray outputs = op.getAsJsonArray("outputs");
+            if (jisEmpty(outputs))
+                continue;
+            for (JsonElement o : outputs) {
+                JsonArray conns = o.getAsJsonObject().getAsJsonArray("connections");
+                if (jisEmpty(conns))
+                    continue;
+                for (JsonElement c : conns) {
+                    JsonObject down = requireNonNull(consumers.get(c.getAsString()));
+                    String kind = jstring(down, KIND);
+                    if (BVirtualMarker.PARALLEL.isThis(kind))
+                        return;
+                    if (BVirtualMarker.END_PARALLEL.isThis(kind))
+                        ends.add(jstring(down, "name"));
+                    else if (region.add(jstring(down, "name")))
+                        unvisited.add(down);
+                }
+            }
+        }
+        
+        List<JsonObject> regionOps = new ArrayList<>();
+        for (JsonObject op : expanded) {
+            if (region.contains(jstring(op, "name")))
+                regionOps.add(op);
+        }
+        for (JsonObject op : regionOps) {
+            JsonArray inputs = op.getAsJsonArray("inputs");
+            if (jisEmpty(inputs))
+                continue;
+            for (JsonElement i : inputs) {
+                JsonArray conns = i.getAsJsonObject().getAsJsonArray("connections");
+                if (jisEmpty(conns))
+                    continue;
+                for (JsonElement c : conns) {
+                    String producer = jstring(producers.get(c.getAsString()), "name");
+                    if (!parallelName.equals(producer) && !region.contains(producer))
+                        return;
+                }
+            }
+        }
+        
+        expanded.removeIf(op -> region.contains(jstring(op, "name")));
+        for (int channel = 0; channel < width; channel++) {
+            for (JsonObject op : regionOps)
+                expanded.add(channelCopy(op, channel, width, region, consumers));
+        }
+        
+        // Replace the marker with one output port per channel.
+        JsonArray channels = new JsonArray();
+        for (int channel = 0; channel < width; channel++) {
+            JsonObject port = copy(output);
+            port.addProperty("name", channelName(jstring(output, "name"), channel));
+            port.addProperty("index", channel);
+            final int c = channel;
+            JsonArray conns = new JsonArray();
+            stringArray(output, "connections",
+                    conn -> conns.add(new JsonPrimitive(channelName(conn, c))));
+            port.add("connections", conns);
+            channels.add(port);
+        }
+        parallel.add("outputs", channels);
+        parallel.addProperty(KIND_CLASS, JavaFunctionalOps.CHANNEL_SPLIT_CLASS);
+        JsonObject params = objectCreate(parallel, "parameters");
+        params.add("routing", param(RSTRING, new JsonPrimitive(jstring(output, PortProperties.ROUTING))));
+        params.add("queueSize", param(INT32, new JsonPrimitive(queueSize)));
+        
+        channelSplits.add(parallelName);
+        channelMerges.addAll(ends);
+    }
+    
+    /**
+     * Copy of an operator within a parallel region for a channel.
+     * Ports are renamed for the channel and connections within the region
+     * are to the channel's copies. Functional operators are passed
+     * their channel so that {@code FunctionContext.getChannel()}
+     * and {@code getMaxChannels()} return the same values
+     * as in distributed mode, as is a {@link TextFileReader}
+     * so that each channel reads its share of a file.
+     */
+    private JsonObject channelCopy(JsonObject op, int channel, int width,
+            Set<String> region, Map<String,JsonObject> consumers) {
+        JsonObject copy = copy(op);
+        copy.addProperty("name", channelName(jstring(op, "name"), channel));
+        
+        objectArray(copy, "inputs", input -> {
+            input.addProperty("name", channelName(jstring(input, "name"), channel));
+            JsonArray conns = new JsonArray();
+            stringArray(input, "connections",
+                    conn -> conns.add(new JsonPrimitive(channelName(conn, channel))));
+            input.add("connections", conns);
+        });
+        objectArray(copy, "outputs", output -> {
+            final String name = jstring(output, "name");
+            output.addProperty("name", channelName(name, channel));
+            channelPorts.computeIfAbsent(name, k -> new ArrayList<>()).add(channelName(name, channel));
+            JsonArray conns = new JsonArray();
+            stringArray(output, "connections", conn -> {
+                boolean inRegion = region.contains(jstring(consumers.get(conn), "name"));
+                conns.add(new JsonPrimitive(inRegion ? channelName(conn, channel) : conn));
+            });
+            output.add("connections", conns);
+        });
+        
+        if (isChannelAware(op)) {
+            JsonObject params = objectCreate(copy, "parameters");
+            params.add(CHANNEL_PARAM, param(INT32, new JsonPrimitive(channel)));
+            params.add(MAX_CHANNELS_PARAM, param(INT32, new JsonPrimitive(width)));
+        }
+        return copy;
+    }
+    
+    /**
+     * Does the operator accept the channel and maxChannels parameters.
+     */
+    private static boolean isChannelAware(JsonObject op) {
+        if (MODEL_FUNCTIONAL.equals(jstring(op, MODEL)) || HASH_REMOVER_KIND.equals(jstring(op, KIND)))
+            return true;
+        String opClassName = jstring(op, KIND_CLASS);
+        if (opClassName == null)
+            return false;
+        try {
+            return TextFileReader.class.isAssignableFrom(Class.forName(opClassName));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+    
+    private static String channelName(String name, int channel) {
+        return name + "[" + channel + "]";
+    }
+    
+    private static JsonObject copy(JsonObject json) {
+        return new JsonParser().parse(json.toString()).getAsJsonObject();
+    }
+    
+    private static JsonObject param(Type.MetaType type, JsonPrimitive value) {
+        JsonObject param = new JsonObject();
+        param.addProperty("type", type.name());
+        param.add("value", value);
+        return param;
+    }
+    
+    /**
+     * Width of a parallel region, either a
+     * constant or a submission parameter.
+     */
+    private static int width(JsonElement width) {
+        if (width.isJsonObject()) {
+            JsonObject value = object(width.getAsJsonObject(), "value");
+            Object sp = SubmissionParameterManager.getValue(
+                    jstring(value, "name"), jstring(value, "metaType"));
+            return ((Number) sp).intValue();
+        }
+        return width.getAsInt();
+    }
+    
+    /**
+     * Find all operators downstream of a low latency
+     * marker up to the end of its region.
+     */
+    private void findLowLatencyOps(List<JsonObject> ops) {
+        Map<String,JsonObject> consumers = new HashMap<>();
+        Deque<JsonObject> unvisited = new ArrayDeque<>();
+        for (JsonObject json : ops) {
+            JsonArray inputs = json.getAsJsonArray("inputs");
+            if (!jisEmpty(inputs)) {
+                for (JsonElement input : inputs)
+                    consumers.put(jstring(input.getAsJsonObject(), "name"), json);
+            }
+            if (BVirtualMarker.LOW_LATENCY.isThis(jstring(json, KIND)))
+                unvisited.add(json);
+        }
+        
+        while (!unvisited.isEmpty()) {
+            JsonObject op = unvisited.removeFirst();
+            JsonArray outputs = op.getAsJsonArray("outputs");
+            if (jisEmpty(outputs))
+                continue;
+            for (JsonElement output : outputs) {
+                JsonArray conns = output.getAsJsonObject().getAsJsonArray("connections");
+                if (jisEmpty(conns))
+                    continue;
+                for (JsonElement c : conns) {
+                    JsonObject down = consumers.get(c.getAsString());
+                    if (down == null || BVirtualMarker.END_LOW_LATENCY.isThis(jstring(down, KIND)))
+                        continue;
+                    if (lowLatencyOps.add(jstring(down, "name")))
+                        unvisited.add(down);
+                }
+            }
+        }
+    }
+    
     /**
      * Creates the complete operator declaration
      * from the JSON representation.
@@ -158,19 +531,23 @@ public class EmbeddedGraph {
      * @throws Exception
      */
     @SuppressWarnings("unchecked")
-    private void declareOp(BOperator op) throws Exception {
-        JsonObject json = op._complete();
+    private void declareOp(JsonObject json) throws Exception {
        
         if (!verifyOp(json))
             return;
         
+        final boolean queued = isQueued(json);
         String opClassName = jstring(json, KIND_CLASS);
-        if (opClassName == null) {
-            opClassName = requireNonNull(
-                    jstring(kind2Class, op.kind()), op.kind());
+        if (queued)
+            opClassName = JavaFunctionalOps.QUEUED_PASS_CLASS;
+        else if (opClassName == null) {
+            String kind = jstring(json, KIND);
+            opClassName = requireNonNull(jstring(kind2Class, kind), kind);
         }
         Class<? extends Operator> opClass = (Class<? extends Operator>) Class.forName(opClassName);
         OperatorInvocation<? extends Operator> opDecl = graphDecl.addOperator(opClass);
+        if (queued)
+            opDecl.setIntParameter("queueSize", queueSize);
         
         if (json.has("parameters")) {
             JsonObject params = json.getAsJsonObject("parameters");
@@ -287,9 +664,9 @@ public class EmbeddedGraph {
             port.partitioned();
     }
 
-    private void declareConnections() throws Exception {
-        for (BOperator op : builder.getOps())
-            declareOpConnections(op._complete());
+    private void declareConnections(List<JsonObject> ops) throws Exception {
+        for (JsonObject op : ops)
+            declareOpConnections(op);
     }
 
     private void declareOpConnections(JsonObject json) {
@@ -335,6 +712,8 @@ public class EmbeddedGraph {
                     type = BOOLEAN.name();
                 else if (pv.isString())
                     type = RSTRING.name();
+                else if (pv.isNumber())
+                    type = INT32.name();
             }               
         }
 
@@ -398,6 +777,20 @@ public class EmbeddedGraph {
         OutputPortDeclaration portDecl = outputPorts.get(name); 
         return Objects.requireNonNull(portDecl);
     }
+    
+    /**
+     * Get the declared ports for a stream, one for each
+     * channel when the stream is within an expanded parallel region.
+     */
+    public List<OutputPortDeclaration> getOutputPorts(String name) {
+        List<String> channels = channelPorts.get(name);
+        if (channels == null)
+            return Collections.singletonList(getOutputPort(name));
+        List<OutputPortDeclaration> ports = new ArrayList<>(channels.size());
+        for (String channel : channels)
+            ports.add(getOutputPort(channel));
+        return ports;
+    }
 
     /**
      * Initialize EMBEDDED submission parameter value information
@@ -127,6 +127,12 @@ public interface GraphKeys {
      */
     String CFG_HAS_ISOLATE = "hasIsolate";
     
+    /**
+     * Were operators placed into PEs using an operator profile.
+     * Boolean.
+     */
+    String CFG_HAS_PROFILED_PLACEMENT = "hasProfiledPlacement";
+    
     /**
      * Mapping of colocation keys to actual colocate tag.
      * Object containing string to string mapping. 
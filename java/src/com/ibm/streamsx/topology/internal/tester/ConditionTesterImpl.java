@@ -29,13 +29,16 @@ import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.JobProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
 import com.ibm.streamsx.topology.context.StreamsContext.Type;
+import com.ibm.streamsx.topology.function.Function;
 import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.internal.context.streams.DistributedTester;
 import com.ibm.streamsx.topology.internal.tester.TesterRuntime.TestState;
 import com.ibm.streamsx.topology.internal.tester.conditions.ContentsUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.CounterUserCondition;
+import com.ibm.streamsx.topology.internal.tester.conditions.LatencyUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.ResetterUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.StringPredicateUserCondition;
+import com.ibm.streamsx.topology.internal.tester.conditions.ThroughputUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.UserCondition;
 import com.ibm.streamsx.topology.internal.tester.embedded.EmbeddedTesterRuntime;
 import com.ibm.streamsx.topology.internal.tester.rest.RESTTesterRuntime;
@@ -168,6 +171,29 @@ public class ConditionTesterImpl implements Tester {
         return addCondition(stream, new ContentsUserCondition<String>(String.class, Arrays.asList(values), false));
     }
     
+    @Override
+    public Condition<Double> throughputAtLeast(TStream<?> stream, double tuplesPerSecond,
+            long window, TimeUnit unit) {
+        if (tuplesPerSecond <= 0)
+            throw new IllegalArgumentException(Double.toString(tuplesPerSecond));
+        if (window <= 0)
+            throw new IllegalArgumentException(Long.toString(window));
+        
+        return addCondition(stream, new ThroughputUserCondition(tuplesPerSecond, unit.toNanos(window)));
+    }
+    
+    @Override
+    public <T> Condition<Long> latencyPercentileBelow(TStream<T> stream, Function<T, Long> timestamp,
+            double percentile, long latency, TimeUnit unit) {
+        if (percentile <= 0 || percentile > 100)
+            throw new IllegalArgumentException(Double.toString(percentile));
+        final long latencyMs = unit.toMillis(latency);
+        if (latencyMs <= 0)
+            throw new IllegalArgumentException(latency + " " + unit);
+        
+        return addCondition(stream, new LatencyUserCondition<T>(timestamp, percentile, latencyMs));
+    }
+    
     @Override
     public Condition<Void> resetConsistentRegions(Integer minimumResets) {
         if (minimumResets != null && minimumResets <= 0) {
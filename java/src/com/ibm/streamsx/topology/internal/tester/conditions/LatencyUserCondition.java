@@ -0,0 +1,46 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.tester.fns.TupleLatency;
+
+public final class LatencyUserCondition<T> extends MeasureUserCondition<Long> {
+    
+    private final Function<T, Long> timestamp;
+    private final double percentile;
+    private final long expected;
+    
+    public LatencyUserCondition(Function<T, Long> timestamp, double percentile, long expected) {
+        super(-1L);
+        this.timestamp = timestamp;
+        this.percentile = percentile;
+        this.expected = expected;
+    }
+    
+    public double getPercentile() {
+        return percentile;
+    }
+    
+    /**
+     * Latency in milliseconds the percentile must be below.
+     */
+    public long getExpected() {
+        return expected;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public TStream<String> measure(TStream<?> stream) {
+        return ((TStream<T>) stream).transform(new TupleLatency<T>(timestamp));
+    }
+    
+    @Override
+    public String toString() {
+        return "Latency percentile " + getPercentile() + " below (ms): " + getExpected()
+                + ", measured: " + getResult();
+    }
+}
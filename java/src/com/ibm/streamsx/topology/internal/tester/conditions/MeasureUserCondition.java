@@ -0,0 +1,29 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions;
+
+import com.ibm.streamsx.topology.TStream;
+
+/**
+ * Condition on a measurement of a stream, such as its throughput,
+ * rather than on its tuples.
+ * 
+ * The measurement is made within the topology, next to
+ * the stream under test, so that it is not affected by
+ * how tuples are delivered to the tester.
+ */
+public abstract class MeasureUserCondition<R> extends UserCondition<R> {
+    
+    MeasureUserCondition(R noResult) {
+        super(noResult);
+    }
+
+    /**
+     * Add a stream of measurements of {@code stream} to the topology.
+     * Each measurement is a string tuple that is evaluated by
+     * the condition's implementation.
+     */
+    public abstract TStream<String> measure(TStream<?> stream);
+}
@@ -0,0 +1,36 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.internal.tester.fns.TupleThroughput;
+
+public final class ThroughputUserCondition extends MeasureUserCondition<Double> {
+    
+    private final double expected;
+    private final long windowNanos;
+    
+    public ThroughputUserCondition(double expected, long windowNanos) {
+        super(0.0);
+        this.expected = expected;
+        this.windowNanos = windowNanos;
+    }
+    
+    public double getExpected() {
+        return expected;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public TStream<String> measure(TStream<?> stream) {
+        return ((TStream<Object>) stream).transform(new TupleThroughput<Object>(windowNanos));
+    }
+    
+    @Override
+    public String toString() {
+        return "Throughput at least (tuples/s): " + getExpected()
+                + ", measured: " + getResult();
+    }
+}
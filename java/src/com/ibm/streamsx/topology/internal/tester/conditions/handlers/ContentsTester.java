@@ -0,0 +1,96 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.Tuple;
+
+/**
+ * Checks tuples against expected contents as each tuple arrives.
+ * <P>
+ * Ordered contents advance a cursor through the expected values,
+ * unordered contents remove each value from a multiset of the
+ * expected values. Each tuple is checked in constant time and
+ * the check fails at the first tuple that cannot be part of
+ * the expected contents.
+ * </P>
+ */
+class ContentsTester<T> implements StreamHandler<Tuple> {
+
+    private final List<T> expected;
+    private final Function<Tuple, T> value;
+
+    /**
+     * Remaining count of each expected value, null for ordered contents.
+     */
+    private final Map<T, int[]> remaining;
+
+    private final List<T> got = new ArrayList<>();
+    private boolean failed;
+
+    ContentsTester(List<T> expected, boolean ordered, Function<Tuple, T> value) {
+        this.expected = expected;
+        this.value = value;
+        if (ordered) {
+            remaining = null;
+        } else {
+            remaining = new HashMap<>();
+            for (T v : expected)
+                remaining.computeIfAbsent(v, k -> new int[1])[0]++;
+        }
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+    }
+
+    @Override
+    public synchronized void tuple(Tuple tuple) throws Exception {
+        final T v = value.apply(tuple);
+        final int index = got.size();
+        got.add(v);
+        if (failed)
+            return;
+
+        if (index >= expected.size()) {
+            failed = true;
+        } else if (remaining == null) {
+            failed = !Objects.equals(v, expected.get(index));
+        } else {
+            int[] count = remaining.get(v);
+            if (count == null || count[0] == 0)
+                failed = true;
+            else
+                count[0]--;
+        }
+    }
+
+    /**
+     * True once a tuple has been received that means
+     * the contents can never match.
+     */
+    synchronized boolean failed() {
+        return failed;
+    }
+
+    /**
+     * True when the tuples received exactly match the expected contents.
+     */
+    synchronized boolean valid() {
+        return !failed && got.size() == expected.size();
+    }
+
+    synchronized List<T> getTuples() {
+        return new ArrayList<>(got);
+    }
+}
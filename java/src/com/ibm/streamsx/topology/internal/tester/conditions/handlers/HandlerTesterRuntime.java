@@ -23,8 +23,11 @@ import com.ibm.streamsx.topology.internal.tester.ConditionTesterImpl;
 import com.ibm.streamsx.topology.internal.tester.TesterRuntime;
 import com.ibm.streamsx.topology.internal.tester.conditions.ContentsUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.CounterUserCondition;
+import com.ibm.streamsx.topology.internal.tester.conditions.LatencyUserCondition;
+import com.ibm.streamsx.topology.internal.tester.conditions.MeasureUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.NoStreamCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.StringPredicateUserCondition;
+import com.ibm.streamsx.topology.internal.tester.conditions.ThroughputUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.UserCondition;
 
 /**
@@ -45,6 +48,8 @@ public abstract class HandlerTesterRuntime extends TesterRuntime {
             Map<TStream<?>, Set<UserCondition<?>>> conditions) throws Exception {
         this.handlers.putAll(handlers);
         
+        conditions = addMeasures(conditions);
+        
         setupHandlersFromConditions(this.handlers, conditions);
         
         for (TStream<?> stream : conditions.keySet()) {
@@ -53,6 +58,29 @@ public abstract class HandlerTesterRuntime extends TesterRuntime {
         }
     }
 
+    /**
+     * Move conditions on measurements of a stream
+     * to a stream of the measurements.
+     */
+    private Map<TStream<?>, Set<UserCondition<?>>> addMeasures(
+            Map<TStream<?>, Set<UserCondition<?>>> conditions) {
+        
+        Map<TStream<?>, Set<UserCondition<?>>> measured = new HashMap<>();
+        for (TStream<?> stream : conditions.keySet()) {
+            for (UserCondition<?> userCondition : conditions.get(stream)) {
+                TStream<?> conditionStream = stream;
+                if (userCondition instanceof MeasureUserCondition)
+                    conditionStream = ((MeasureUserCondition<?>) userCondition).measure(stream);
+                
+                Set<UserCondition<?>> streamConditions = measured.get(conditionStream);
+                if (streamConditions == null)
+                    measured.put(conditionStream, streamConditions = new HashSet<>());
+                streamConditions.add(userCondition);
+            }
+        }
+        return measured;
+    }
+
     private void setupHandlersFromConditions(
             Map<TStream<?>, Set<StreamHandler<Tuple>>> handlers,
             Map<TStream<?>, Set<UserCondition<?>>> conditions) {
@@ -90,6 +118,10 @@ public abstract class HandlerTesterRuntime extends TesterRuntime {
                 handlerCondition = new StringHandlerCondition((ContentsUserCondition<String>) userCondition);
         } else if (userCondition instanceof StringPredicateUserCondition) {
             handlerCondition = new StringPredicateHandlerCondition((StringPredicateUserCondition) userCondition);
+        } else if (userCondition instanceof ThroughputUserCondition) {
+            handlerCondition = new ThroughputHandlerCondition((ThroughputUserCondition) userCondition);
+        } else if (userCondition instanceof LatencyUserCondition) {
+            handlerCondition = new LatencyHandlerCondition((LatencyUserCondition<?>) userCondition);
         }
         
         if (handlerCondition == null)
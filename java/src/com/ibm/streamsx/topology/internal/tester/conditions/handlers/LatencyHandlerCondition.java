@@ -0,0 +1,27 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
+
+import com.ibm.streamsx.topology.internal.tester.conditions.LatencyUserCondition;
+
+public class LatencyHandlerCondition extends HandlerCondition<Long, LatencyTester, LatencyUserCondition<?>> {
+    
+    public LatencyHandlerCondition(LatencyUserCondition<?> userCondition) {
+        super(userCondition, new LatencyTester(userCondition.getExpected()));
+    }
+    
+    @Override
+    public Long getResult() {
+        return handler.percentile(userCondition.getPercentile());
+    }
+
+    @Override
+    public boolean valid() {
+        if (failed())
+            return false;
+        
+        return handler.below(userCondition.getPercentile());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.Tuple;
+
+/**
+ * Maintains a histogram of the latencies measured for a stream.
+ * Each tuple is the latency of one tuple in milliseconds.
+ */
+class LatencyTester implements StreamHandler<Tuple> {
+    
+    private final long limit;
+    private final TreeMap<Long, long[]> histogram = new TreeMap<>();
+    private long count;
+    private long below;
+    
+    /**
+     * @param limit Latency in milliseconds to count tuples below.
+     */
+    LatencyTester(long limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+    }
+
+    @Override
+    public synchronized void tuple(Tuple tuple) throws Exception {
+        final long latency = Long.parseLong(tuple.getString(0));
+        long[] bucket = histogram.get(latency);
+        if (bucket == null)
+            histogram.put(latency, bucket = new long[1]);
+        bucket[0]++;
+        count++;
+        if (latency < limit)
+            below++;
+    }
+    
+    /**
+     * True if at least {@code percentile} percent of
+     * the tuples had a latency below the limit.
+     */
+    synchronized boolean below(double percentile) {
+        return count != 0 && below * 100.0 >= percentile * count;
+    }
+    
+    /**
+     * Latency at {@code percentile} using the nearest rank,
+     * -1 if no latencies have been measured.
+     */
+    synchronized long percentile(double percentile) {
+        if (count == 0)
+            return -1;
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (Map.Entry<Long, long[]> bucket : histogram.entrySet()) {
+            seen += bucket.getValue()[0];
+            if (seen >= rank)
+                return bucket.getKey();
+        }
+        return histogram.lastKey();
+    }
+}
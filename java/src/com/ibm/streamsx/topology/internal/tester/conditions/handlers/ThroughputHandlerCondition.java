@@ -0,0 +1,28 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
+
+import com.ibm.streamsx.topology.internal.tester.conditions.ThroughputUserCondition;
+
+public class ThroughputHandlerCondition extends HandlerCondition<Double, ThroughputTester, ThroughputUserCondition> {
+    
+    public ThroughputHandlerCondition(ThroughputUserCondition userCondition) {
+        super(userCondition, new ThroughputTester());
+    }
+    
+    @Override
+    public Double getResult() {
+        return handler.highest();
+    }
+
+    @Override
+    public boolean valid() {
+        if (failed())
+            return false;
+        
+        // NaN (no measurement) compares as false.
+        return handler.highest() >= userCondition.getExpected();
+    }
+}
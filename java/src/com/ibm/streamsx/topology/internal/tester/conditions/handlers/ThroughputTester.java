@@ -0,0 +1,37 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.Tuple;
+
+/**
+ * Tracks the highest throughput measured for a stream.
+ * Each tuple is the throughput in tuples per second
+ * over one window.
+ */
+class ThroughputTester implements StreamHandler<Tuple> {
+    
+    private double highest = Double.NaN;
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+    }
+
+    @Override
+    public synchronized void tuple(Tuple tuple) throws Exception {
+        final double rate = Double.parseDouble(tuple.getString(0));
+        if (Double.isNaN(highest) || rate > highest)
+            highest = rate;
+    }
+    
+    /**
+     * Highest throughput measured, NaN if no window has completed.
+     */
+    synchronized double highest() {
+        return highest;
+    }
+}
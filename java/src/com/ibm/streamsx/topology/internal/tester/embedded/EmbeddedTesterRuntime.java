@@ -7,6 +7,7 @@ package com.ibm.streamsx.topology.internal.tester.embedded;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
@@ -15,6 +16,7 @@ import java.util.concurrent.TimeoutException;
 import com.ibm.streams.flow.declare.OutputPortDeclaration;
 import com.ibm.streams.flow.handlers.StreamHandler;
 import com.ibm.streams.flow.javaprimitives.JavaTestableGraph;
+import com.ibm.streams.operator.StreamingData.Punctuation;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.builder.BOutput;
@@ -75,14 +77,44 @@ public final class EmbeddedTesterRuntime extends HandlerTesterRuntime {
             Set<StreamHandler<Tuple>> streamHandlers = handlers.get(stream);
 
             final BOutput output = stream.output();
-            final OutputPortDeclaration portDecl = eg.getOutputPort(output.name());
+            final List<OutputPortDeclaration> portDecls = eg.getOutputPorts(output.name());
 
             for (StreamHandler<Tuple> streamHandler : streamHandlers) {
-                tg.registerStreamHandler(portDecl, streamHandler);
+                if (portDecls.size() != 1)
+                    streamHandler = new ChannelsHandler(streamHandler, portDecls.size());
+                for (OutputPortDeclaration portDecl : portDecls)
+                    tg.registerStreamHandler(portDecl, streamHandler);
             }
         }
     }
     
+    /**
+     * Handler for a stream within a parallel region, called
+     * by the thread of each channel. The final marker is
+     * passed on once every channel has completed.
+     */
+    private static final class ChannelsHandler implements StreamHandler<Tuple> {
+        private final StreamHandler<Tuple> handler;
+        private int activeChannels;
+        
+        ChannelsHandler(StreamHandler<Tuple> handler, int channels) {
+            this.handler = handler;
+            this.activeChannels = channels;
+        }
+
+        @Override
+        public synchronized void tuple(Tuple tuple) throws Exception {
+            handler.tuple(tuple);
+        }
+
+        @Override
+        public synchronized void mark(Punctuation mark) throws Exception {
+            if (mark == Punctuation.FINAL_MARKER && --activeChannels > 0)
+                return;
+            handler.mark(mark);
+        }
+    }
+    
     @Override
     public TestState checkTestState(StreamsContext<?> context, Map<String, Object> config, Future<?> future,
             Condition<?> endCondition) throws Exception {
@@ -4,22 +4,30 @@
  */
 package com.ibm.streamsx.topology.internal.tester.fns;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class TupleContents<T> extends ConditionChecker<T> {
     private static final long serialVersionUID = 1L;
     
     private final List<T> expected;
     private final boolean ordered;
-    private List<T> got;
+    
+    /**
+     * Remaining count of each expected tuple for unordered contents.
+     */
+    private Map<T, int[]> remaining;
 
     public TupleContents(String name, boolean ordered, List<T> expected) {
         super(name);
         this.ordered = ordered;
         this.expected = expected;
-        if (!ordered)
-            got = new ArrayList<>(expected.size());
+        if (!ordered) {
+            remaining = new HashMap<>();
+            for (T tuple : expected)
+                remaining.computeIfAbsent(tuple, k -> new int[1])[0]++;
+        }
     }
 
     @Override
@@ -52,27 +60,16 @@ public final class TupleContents<T> extends ConditionChecker<T> {
     
     private void checkUnordered(T tuple) {
         
-        if (!expected.contains(tuple)) {
+        int[] count = remaining.get(tuple);
+        if (count == null || count[0] == 0) {
             failUnexpectedTuple(tuple, expected);
             return;
         }
+        count[0]--;
         
-        got.add(tuple);
-        
-        if (got.size() == expected.size()) {
-            
-            // Copy expected to avoid modifying it.
-            List<T> ce = new ArrayList<>(expected.size());
-            ce.addAll(expected);
-            
-            for (T t : got) {
-                if (!ce.remove(t)) {
-                    setFailed(String.format("Expected %s Received %s.", got, expected));
-                    return;
-                }   
-            }
+        // Every tuple so far has been matched to a distinct expected tuple.
+        if (tupleCount() == expected.size())
             setValid();
-        }
     }
     
     @Override
@@ -0,0 +1,33 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.fns;
+
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.logic.WrapperFunction;
+
+/**
+ * Returns the latency in milliseconds of each tuple from the
+ * time it was stamped upstream, as returned by {@code timestamp},
+ * to the time it is seen on the stream under test.
+ */
+public final class TupleLatency<T> implements Function<T, String>, WrapperFunction {
+    private static final long serialVersionUID = 1L;
+    
+    private final Function<T, Long> timestamp;
+
+    public TupleLatency(Function<T, Long> timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public Object getWrappedFunction() {
+        return timestamp;
+    }
+
+    @Override
+    public String apply(T tuple) {
+        return Long.toString(System.currentTimeMillis() - timestamp.apply(tuple));
+    }
+}
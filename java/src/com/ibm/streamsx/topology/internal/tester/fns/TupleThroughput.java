@@ -0,0 +1,45 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.fns;
+
+import com.ibm.streamsx.topology.function.Function;
+
+/**
+ * Measures the throughput of a stream over consecutive windows
+ * starting at its first tuple. The rate in tuples per second is
+ * returned for the tuple that ends a window, otherwise {@code null}.
+ */
+public final class TupleThroughput<T> implements Function<T, String> {
+    private static final long serialVersionUID = 1L;
+    
+    private final long windowNanos;
+    private transient boolean started;
+    private transient long start;
+    private transient long count;
+
+    public TupleThroughput(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    @Override
+    public String apply(T tuple) {
+        final long now = System.nanoTime();
+        if (!started) {
+            started = true;
+            start = now;
+            count = 0;
+        }
+        count++;
+        
+        final long elapsed = now - start;
+        if (elapsed < windowNanos)
+            return null;
+        
+        final double rate = count * 1e9 / elapsed;
+        start = now;
+        count = 0;
+        return Double.toString(rate);
+    }
+}
@@ -6,9 +6,10 @@ package com.ibm.streamsx.topology.internal.tester.ops;
 
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.mina.core.future.WriteFuture;
 
@@ -24,7 +25,18 @@ import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.samples.patterns.TupleConsumer;
 import com.ibm.streamsx.topology.internal.tester.tcp.TCPTestClient;
 import com.ibm.streamsx.topology.internal.tester.tcp.TestTuple;
-
+import com.ibm.streamsx.topology.internal.tester.tcp.TestTuples;
+
+/**
+ * Sends tuples to the tester's TCP server.
+ * <P>
+ * Tuples are batched and each batch for a port is
+ * sent as a single frame. Tuples are encoded into a buffer
+ * reused for each batch, and a number of frames can be
+ * written without waiting for earlier writes to complete.
+ * A batch is sent once it is full or after a short timeout.
+ * </P>
+ */
 @PrimitiveOperator
 @InputPortSet
 @Libraries("opt/apache-mina-2.0.2/dist/*")
@@ -34,48 +46,117 @@ public class TesterSink extends TupleConsumer {
 
     private String host;
     private int port;
+    /**
+     * Maximum number of tuples sent in a single frame.
+     */
+    static final int BATCH_SIZE = 1000;
+    
+    /**
+     * Maximum time in milliseconds a tuple waits to be sent.
+     */
+    static final long BATCH_TIMEOUT = 50;
+    
+    /**
+     * Maximum number of frames for a port being written.
+     */
+    static final int MAX_PENDING_WRITES = 16;
+
     private BinaryEncoding[] encoders;
     private TCPTestClient[] clients;
+    private ByteBuffer[] frames;
+    private Deque<WriteFuture>[] pending;
 
+    @SuppressWarnings("unchecked")
     @Override
     public void initialize(OperatorContext context) throws Exception {
         super.initialize(context);
 
-        setBatchSize(1);
+        setBatchSize(BATCH_SIZE);
+        setBatchTimeout(BATCH_TIMEOUT, TimeUnit.MILLISECONDS);
         setPreserveOrder(true);
 
         InetSocketAddress addr = new InetSocketAddress(getHost(), getPort());
-        clients = new TCPTestClient[context.getNumberOfStreamingInputs()];
-        encoders = new BinaryEncoding[context.getNumberOfStreamingInputs()];
+        final int ports = context.getNumberOfStreamingInputs();
+        clients = new TCPTestClient[ports];
+        encoders = new BinaryEncoding[ports];
+        frames = new ByteBuffer[ports];
+        pending = new Deque[ports];
         for (StreamingInput<Tuple> input : context.getStreamingInputs()) {
+            final int portIndex = input.getPortNumber();
             TCPTestClient client = new TCPTestClient(addr);
             client.connect();
-            clients[input.getPortNumber()] = client;
+            clients[portIndex] = client;
 
-            encoders[input.getPortNumber()] = input.getStreamSchema()
+            encoders[portIndex] = input.getStreamSchema()
                     .newNativeBinaryEncoding();
+            frames[portIndex] = ByteBuffer.allocate(8192);
+            pending[portIndex] = new ArrayDeque<>();
         }
     }
 
     @Override
     protected boolean processBatch(Queue<BatchedTuple> batch) throws Exception {
-        List<WriteFuture> futures = new ArrayList<>(batch.size());
         for (BatchedTuple bt : batch) {
             int portIndex = bt.getStream().getPortNumber();
-            TCPTestClient client = clients[portIndex];
-
-            BinaryEncoding be = encoders[portIndex];
-            byte[] tupleData = new byte[(int) be.getEncodedSize(bt.getTuple())];
-            be.encodeTuple(bt.getTuple(), ByteBuffer.wrap(tupleData));
-            TestTuple tt = new TestTuple(portIndex, tupleData);
-            futures.add(client.writeTuple(tt));
+            encode(portIndex, bt.getTuple());
         }
-        for (WriteFuture future : futures) {
-            future.await();
+        for (int portIndex = 0; portIndex < frames.length; portIndex++) {
+            ByteBuffer frame = frames[portIndex];
+            if (frame.position() == 0)
+                continue;
+            frame.flip();
+            byte[] tuplesData = new byte[frame.remaining()];
+            frame.get(tuplesData);
+            frame.clear();
+            write(portIndex, new TestTuples(portIndex, tuplesData));
         }
         return false;
     }
 
+    /**
+     * Encode a tuple into its port's frame, preceded by its length.
+     */
+    private void encode(int portIndex, Tuple tuple) {
+        BinaryEncoding be = encoders[portIndex];
+        final int size = (int) be.getEncodedSize(tuple);
+
+        ByteBuffer frame = frames[portIndex];
+        if (frame.remaining() < 4 + size) {
+            ByteBuffer larger = ByteBuffer.allocate(
+                    Math.max(frame.capacity() * 2, frame.position() + 4 + size));
+            frame.flip();
+            larger.put(frame);
+            frames[portIndex] = frame = larger;
+        }
+
+        frame.putInt(size);
+        ByteBuffer tupleData = frame.slice();
+        tupleData.limit(size);
+        be.encodeTuple(tuple, tupleData);
+        frame.position(frame.position() + size);
+    }
+
+    /**
+     * Write a frame, waiting for the oldest write
+     * to complete when too many are pending.
+     */
+    private void write(int portIndex, Object frame) throws InterruptedException {
+        Deque<WriteFuture> writes = pending[portIndex];
+        synchronized (writes) {
+            writes.addLast(clients[portIndex].writeTuple(frame));
+            while (writes.size() > MAX_PENDING_WRITES)
+                writes.removeFirst().await();
+        }
+    }
+
+    private void awaitWrites(int portIndex) throws InterruptedException {
+        Deque<WriteFuture> writes = pending[portIndex];
+        synchronized (writes) {
+            while (!writes.isEmpty())
+                writes.removeFirst().await();
+        }
+    }
+
     @Override
     public void processPunctuation(StreamingInput<Tuple> port, Punctuation mark)
             throws Exception {
@@ -83,8 +164,8 @@ public class TesterSink extends TupleConsumer {
         if (mark == Punctuation.FINAL_MARKER) {
             int portIndex = port.getPortNumber();
             TestTuple finalTupleMarker = new TestTuple(portIndex, new byte[0]);
-            TCPTestClient client = clients[portIndex];
-            client.writeTuple(finalTupleMarker).await();
+            write(portIndex, finalTupleMarker);
+            awaitWrites(portIndex);
         }
     }
 
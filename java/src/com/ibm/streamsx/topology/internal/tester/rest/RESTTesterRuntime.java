@@ -132,7 +132,7 @@ public class RESTTesterRuntime extends TesterRuntime {
             condition = new MetricCondition<Object>(name, (UserCondition<Object>) userCondition);
         }
         
-        if (metricsChecker == null)
+        if (metricsChecker == null || fn == null)
             throw new UnsupportedOperationException(userCondition.toString());
         
         TStream<Object> os = (TStream<Object>) stream;
@@ -10,13 +10,11 @@ import org.apache.mina.filter.codec.CumulativeProtocolDecoder;
 import org.apache.mina.filter.codec.ProtocolDecoderOutput;
 
 /**
- * Decode network bytes into a tuple for a specific output port using natural
- * Java mappings for all supported attributes. The schema of the output port
- * must match the incoming data, thus all tuple attributes must be present in
- * the raw bytes.
- * <P>
- * Handles a subset of the SPADE types, see the code for doDecode.
+ * Decode frames of network bytes into tuples for a tester.
+ * A frame contains one or more tuples, each is passed to
+ * the next handler as a {@link TestTuple}.
  * 
+ * @see TestTupleEncoder
  */
 public class TestTupleDecoder extends CumulativeProtocolDecoder {
 
@@ -24,45 +22,30 @@ public class TestTupleDecoder extends CumulativeProtocolDecoder {
     }
 
     /**
-     * Decode bytes an attribute at a time, once enough information exists to
-     * maintain a tuple This code maintains state in the session as attributes,
-     * namely:
-     * <UL>
-     * <LI>tuple - The partially initialized tuple to be sent to the next
-     * handler in the chain.
-     * <LI>attributeIndex - The next attribute to be decoded
-     * </UL>
+     * Decode a frame once all of its bytes have been received,
+     * otherwise leave the bytes to be accumulated.
      */
     @Override
     protected boolean doDecode(IoSession session, IoBuffer in,
             ProtocolDecoderOutput out) throws Exception {
 
-        Integer testerId = null;
-
-        if (!session.containsAttribute("testerId")) {
-            if (in.remaining() < 4)
-                return false;
-
-            testerId = in.getInt();
-        }
+        if (in.remaining() < 8)
+            return false;
 
+        final int start = in.position();
+        final int testerId = in.getInt();
         if (!in.prefixedDataAvailable(4)) {
-            if (testerId != null)
-                session.setAttribute("testerId", testerId);
+            in.position(start);
             return false;
         }
 
-        if (testerId == null) {
-            testerId = (Integer) session.removeAttribute("testerId");
+        final int frameLength = in.getInt();
+        final int end = in.position() + frameLength;
+        while (in.position() < end) {
+            byte[] tupleData = new byte[in.getInt()];
+            in.get(tupleData);
+            out.write(new TestTuple(testerId, tupleData));
         }
-
-        int tupleLength = in.getInt();
-
-        byte[] tupleData = new byte[tupleLength];
-        in.get(tupleData);
-
-        out.write(new TestTuple(testerId, tupleData));
-
-        return in.remaining() >= 4;
+        return true;
     }
 }
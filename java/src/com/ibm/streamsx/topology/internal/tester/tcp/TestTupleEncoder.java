@@ -10,13 +10,9 @@ import org.apache.mina.filter.codec.ProtocolEncoderAdapter;
 import org.apache.mina.filter.codec.ProtocolEncoderOutput;
 
 /**
- * Decode network bytes into a tuple for a specific output port using natural
- * Java mappings for all supported attributes. The schema of the output port
- * must match the incoming data, thus all tuple attributes must be present in
- * the raw bytes.
- * <P>
- * Handles a subset of the SPADE types, see the code for doDecode.
- * 
+ * Encode a single tuple or a batch of tuples for a tester as a frame.
+ * A frame is the tester identifier and the length of the frame's
+ * data, followed by each tuple as its length and encoded bytes.
  */
 public class TestTupleEncoder extends ProtocolEncoderAdapter {
 
@@ -27,13 +23,21 @@ public class TestTupleEncoder extends ProtocolEncoderAdapter {
     public void encode(IoSession session, Object message,
             ProtocolEncoderOutput out) throws Exception {
 
-        TestTuple tuple = (TestTuple) message;
-
-        IoBuffer buffer = IoBuffer
-                .allocate(4 + 4 + tuple.getTupleData().length);
-        buffer.putInt(tuple.getTesterId());
-        buffer.putInt(tuple.getTupleData().length);
-        buffer.put(tuple.getTupleData());
+        IoBuffer buffer;
+        if (message instanceof TestTuples) {
+            TestTuples tuples = (TestTuples) message;
+            buffer = IoBuffer.allocate(4 + 4 + tuples.getTuplesData().length);
+            buffer.putInt(tuples.getTesterId());
+            buffer.putInt(tuples.getTuplesData().length);
+            buffer.put(tuples.getTuplesData());
+        } else {
+            TestTuple tuple = (TestTuple) message;
+            buffer = IoBuffer.allocate(4 + 4 + 4 + tuple.getTupleData().length);
+            buffer.putInt(tuple.getTesterId());
+            buffer.putInt(4 + tuple.getTupleData().length);
+            buffer.putInt(tuple.getTupleData().length);
+            buffer.put(tuple.getTupleData());
+        }
         buffer.flip();
 
         out.write(buffer);
@@ -0,0 +1,28 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.tcp;
+
+/**
+ * Batch of encoded tuples for a tester, sent as a single frame.
+ * Each tuple is preceded by its length as a four byte integer.
+ */
+public class TestTuples {
+
+    private final Integer testerId;
+    private final byte[] tuplesData;
+
+    public TestTuples(Integer testerId, byte[] tuplesData) {
+        this.testerId = testerId;
+        this.tuplesData = tuplesData;
+    }
+
+    public byte[] getTuplesData() {
+        return tuplesData;
+    }
+
+    public Integer getTesterId() {
+        return testerId;
+    }
+}
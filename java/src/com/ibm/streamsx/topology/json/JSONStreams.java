@@ -4,6 +4,11 @@
  */
 package com.ibm.streamsx.topology.json;
 
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_JSON_DESERIALIZE;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_JSON_SERIALIZE;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_JSON_TO_SPL;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctional.conversion;
+
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -111,7 +116,7 @@ public class JSONStreams {
      */
     public static SPLStream toSPL(TStream<JSONObject> stream) {
         
-        return SPLStreams.convertStream(stream, 
+        return conversion(SPLStreams.convertStream(stream, 
                 new BiFunction<JSONObject, OutputTuple, OutputTuple>() {
                     private static final long serialVersionUID = 1L;
 
@@ -124,7 +129,7 @@ public class JSONStreams {
                             return null;
                         }
                     }
-        }, JSONSchemas.JSON);
+        }, JSONSchemas.JSON), CONVERSION_JSON_TO_SPL);
     }
 
     /**
@@ -135,7 +140,7 @@ public class JSONStreams {
      * @return Stream that will contain the serialized JSON values.
      */
     public static TStream<String> serialize(TStream<JSONObject> stream) {
-        return stream.transform(new SerializeJSON());
+        return conversion(stream.transform(new SerializeJSON()), CONVERSION_JSON_SERIALIZE);
     }
 
     /**
@@ -149,7 +154,7 @@ public class JSONStreams {
      * @return Stream that will contain the JSON objects.
      */
     public static TStream<JSONObject> deserialize(TStream<String> stream) {
-        return stream.transform(new DeserializeJSON());
+        return conversion(stream.transform(new DeserializeJSON()), CONVERSION_JSON_DESERIALIZE);
     }
     
     /**
@@ -7,9 +7,12 @@ package com.ibm.streamsx.topology.spl;
 import static com.ibm.streamsx.topology.spl.SPLStreams.stringToSPLStream;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.file.CSVFileReader;
 
 /**
  * Creation of SPLStreams that relate to files.
@@ -62,4 +65,84 @@ public class FileSPLStreams {
                 outputSchema,
                 Collections.singletonMap("compression", compression));
     }
+
+    /**
+     * Create an {@link SPLStream} that reads CSV records from files
+     * with names delivered by {@code fileNames} using multiple threads.
+     * <P>
+     * Each file is memory-mapped and split at line boundaries into
+     * blocks that are parsed in parallel by {@code parallelism} threads.
+     * Each field is converted to the type of the attribute at the same
+     * position in {@code outputSchema}, attributes must be strings,
+     * integers, floats or booleans. Fields for attributes that are not
+     * strings are trimmed and a field that is then empty leaves the attribute's
+     * default value, a value out of the range of its attribute fails.
+     * Fields may be quoted but a record may not contain a line separator.
+     * </P>
+     * <P>
+     * To read the records as Java objects convert the returned stream
+     * with {@link SPLStream#convert(com.ibm.streamsx.topology.function.Function)}.
+     * </P>
+     * 
+     * @param fileNames
+     *            Stream containing the file names to be read.
+     * @param outputSchema
+     *            SPL Schema of the CSV records and the returned stream.
+     * @param header
+     *            {@code true} if the first line of each file is a header to skip.
+     * @param parallelism
+     *            Number of threads parsing each file.
+     * @param ordered
+     *            {@code true} to output records in file order.
+     * @return Stream containing CSV records for the files present on fileNames.
+     * 
+     * @since 2.2
+     */
+    public static SPLStream csvReader(TStream<String> fileNames,
+            StreamSchema outputSchema, boolean header, int parallelism, boolean ordered) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException(Integer.toString(parallelism));
+
+        Map<String,Object> params = new HashMap<>();
+        params.put("header", header);
+        params.put("parallelism", parallelism);
+        params.put("ordered", ordered);
+
+        return JavaPrimitive.invokeJavaPrimitive(CSVFileReader.class,
+                stringToSPLStream(fileNames), outputSchema, params);
+    }
+
+    /**
+     * Create an {@link SPLStream} that reads CSV records from compressed
+     * files with names delivered by {@code fileNames}, decompressing each
+     * file as it is read.
+     * <P>
+     * Records are parsed as {@link #csvReader(TStream, StreamSchema, boolean, int, boolean)}
+     * parses them. Only {@code gzip} and {@code zlib} compression are supported.
+     * </P>
+     * 
+     * @param fileNames
+     *            Stream containing the file names to be read.
+     * @param outputSchema
+     *            SPL Schema of the CSV records and the returned stream.
+     * @param header
+     *            {@code true} if the first line of each file is a header to skip.
+     * @param compression
+     *            Compression of the files.
+     * @return Stream containing CSV records for the files present on fileNames.
+     * 
+     * @since 2.2
+     */
+    public static SPLStream csvCompressedReader(TStream<String> fileNames,
+            StreamSchema outputSchema, boolean header, Compression compression) {
+        if (compression == Compression.bzip2)
+            throw new IllegalArgumentException(compression.name());
+
+        Map<String,Object> params = new HashMap<>();
+        params.put("header", header);
+        params.put("compression", compression.name());
+
+        return JavaPrimitive.invokeJavaPrimitive(CSVFileReader.class,
+                stringToSPLStream(fileNames), outputSchema, params);
+    }
 }
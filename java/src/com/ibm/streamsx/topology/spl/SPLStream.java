@@ -108,6 +108,12 @@ public interface SPLStream extends TStream<Tuple>, SPLInput {
     @Override
     SPLStream lowLatency();
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    SPLStream costHint(double cost);
+    
     /**
      * {@inheritDoc}
      */
@@ -5,6 +5,8 @@
 package com.ibm.streamsx.topology.spl;
 
 import static com.ibm.streams.operator.Type.Factory.getStreamSchema;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_SPL_TO_JSON;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctional.conversion;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
@@ -62,9 +64,10 @@ class SPLStreamImpl extends StreamImpl<Tuple> implements SPLStream {
 
     @Override
     public TStream<JSONObject> toJSON() {
-        return transform(
-                JSONSchemas.JSON.equals(getSchema()) ?
-                        new JSONTopoRuntime.JsonString2JSON() : new JSONTopoRuntime.Tuple2JSON());
+        if (JSONSchemas.JSON.equals(getSchema()))
+            return conversion(transform(new JSONTopoRuntime.JsonString2JSON()),
+                    CONVERSION_SPL_TO_JSON);
+        return transform(new JSONTopoRuntime.Tuple2JSON());
     }
 
     @Override
@@ -114,6 +117,11 @@ class SPLStreamImpl extends StreamImpl<Tuple> implements SPLStream {
         return asSPL(super.endLowLatency());
     }
     @Override
+    public SPLStream costHint(double cost) {
+        super.costHint(cost);
+        return this;
+    }
+    @Override
     public SPLStream autonomous() {
     	return asSPL(super.autonomous());
     }
@@ -4,6 +4,9 @@
  */
 package com.ibm.streamsx.topology.spl;
 
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_SPL_TO_STRING;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONVERSION_STRING_TO_SPL;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctional.conversion;
 import static com.ibm.streamsx.topology.spl.SPLStreamImpl.newSPLStream;
 import static java.util.Objects.requireNonNull;
 
@@ -159,7 +162,7 @@ public class SPLStreams {
      */
     public static TStream<String> toStringStream(SPLStream stream) {
 
-        return stream.convert(new Function<Tuple, String>() {
+        return conversion(stream.convert(new Function<Tuple, String>() {
 
             /**
              * 
@@ -170,7 +173,7 @@ public class SPLStreams {
             public String apply(Tuple tuple) {
                 return tuple.getString(0);
             }
-        });
+        }), CONVERSION_SPL_TO_STRING);
     }
     
     /**
@@ -210,7 +213,7 @@ public class SPLStreams {
      * @return {@code SPLStream} representation of {@code stream}.
      */
     public static SPLStream stringToSPLStream(TStream<String> stream) {
-        return convertStream(stream,
+        return conversion(convertStream(stream,
                 new BiFunction<String, OutputTuple, OutputTuple>() {
                     private static final long serialVersionUID = 1L;
 
@@ -219,7 +222,7 @@ public class SPLStreams {
                         v2.setString(0, v1);
                         return v2;
                     }
-                }, SPLSchemas.STRING);
+                }, SPLSchemas.STRING), CONVERSION_STRING_TO_SPL);
     }
 
     /**
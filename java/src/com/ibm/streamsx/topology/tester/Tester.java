@@ -13,6 +13,7 @@ import com.ibm.streams.operator.Tuple;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.context.StreamsContext;
+import com.ibm.streamsx.topology.function.Function;
 import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.spl.SPLStream;
 
@@ -219,6 +220,83 @@ public interface Tester {
      */
     Condition<String> stringTupleTester(TStream<String> stream, Predicate<String> tester);
     
+    /**
+     * Return a condition that evaluates if {@code stream} has
+     * a throughput of at least {@code tuplesPerSecond}.
+     * <P>
+     * Throughput is measured next to {@code stream} within the topology
+     * over consecutive windows of {@code window} starting at the first tuple.
+     * The condition is valid once the throughput over any window has been
+     * at least {@code tuplesPerSecond}, thus {@code window} should be
+     * sufficiently long to smooth out any start up or batching effects.
+     * A final window that does not reach its full length is not measured.
+     * </P>
+     * <P>
+     * The {@link Condition#getResult() result} of the returned {@code Condition}
+     * is the highest throughput in tuples per second measured over a window.
+     * </P>
+     * <P>
+     * Not supported when testing using the REST api, such as with
+     * {@link com.ibm.streamsx.topology.context.StreamsContext.Type#STREAMING_ANALYTICS_SERVICE_TESTER STREAMING_ANALYTICS_SERVICE_TESTER}.
+     * </P>
+     * 
+     * @param stream Stream to be tested.
+     * @param tuplesPerSecond Minimum expected throughput.
+     * @param window Period throughput is measured over.
+     * @param unit Unit for {@code window}.
+     * @return Throughput condition.
+     * 
+     * @throws IllegalArgumentException {@code tuplesPerSecond} or {@code window} is not positive.
+     * 
+     * @since 2.2
+     */
+    Condition<Double> throughputAtLeast(TStream<?> stream, double tuplesPerSecond, long window, TimeUnit unit);
+    
+    /**
+     * Return a condition that evaluates if the {@code percentile}
+     * latency of tuples on {@code stream} is below {@code latency}.
+     * <P>
+     * Tuples are stamped at a chosen upstream point with the current time,
+     * as returned by {@code System.currentTimeMillis()}, that is carried
+     * in the tuple and returned by {@code timestamp}. The latency of
+     * a tuple is measured next to {@code stream} within the topology
+     * as the time since it was stamped, with a resolution of milliseconds.
+     * For example:
+     * <pre>
+     * <code>
+     * TStream&lt;Reading> readings = topology.source(...); // Sets reading.created
+     * TStream&lt;Reading> results = ...;
+     * 
+     * // 99% of readings processed in under 20ms.
+     * tester.latencyPercentileBelow(results, r -> r.created, 99, 20, TimeUnit.MILLISECONDS);
+     * </code>
+     * </pre>
+     * </P>
+     * <P>
+     * The {@link Condition#getResult() result} of the returned {@code Condition}
+     * is the measured {@code percentile} latency in milliseconds,
+     * or {@code -1} if no tuples have been seen.
+     * </P>
+     * <P>
+     * Not supported when testing using the REST api, such as with
+     * {@link com.ibm.streamsx.topology.context.StreamsContext.Type#STREAMING_ANALYTICS_SERVICE_TESTER STREAMING_ANALYTICS_SERVICE_TESTER}.
+     * </P>
+     * 
+     * @param stream Stream to be tested.
+     * @param timestamp Function returning the time a tuple was stamped upstream.
+     * @param percentile Percentile, greater than zero and at most 100.
+     * @param latency Latency the percentile must be below.
+     * @param unit Unit for {@code latency}.
+     * @return Latency percentile condition.
+     * 
+     * @throws IllegalArgumentException {@code percentile} is out of range or {@code latency}
+     * is less than a millisecond.
+     * 
+     * @since 2.2
+     */
+    <T> Condition<Long> latencyPercentileBelow(TStream<T> stream, Function<T, Long> timestamp,
+            double percentile, long latency, TimeUnit unit);
+    
     /**
      * Create a condition that randomly resets consistent regions.
      * 
@@ -0,0 +1,67 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ibm.json.java.JSONArray;
+import com.ibm.json.java.JSONObject;
+import com.ibm.streamsx.topology.json.JSONStreams;
+
+/**
+ * Serialization and deserialization of JSON tuples
+ * using the functions of {@link JSONStreams}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class JSONBenchmark {
+    
+    private final JSONStreams.SerializeJSON serializer = new JSONStreams.SerializeJSON();
+    private final JSONStreams.DeserializeJSON deserializer = new JSONStreams.DeserializeJSON();
+    
+    private JSONObject object;
+    private String serialized;
+    private String serializedArray;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() {
+        object = new JSONObject();
+        object.put("id", "sensor42");
+        object.put("time", 1234567890L);
+        object.put("value", 21.5);
+        JSONArray tags = new JSONArray();
+        tags.add("temperature");
+        tags.add("outdoor");
+        object.put("tags", tags);
+        
+        serialized = serializer.apply(object);
+        serializedArray = "[" + serialized + "," + serialized + "]";
+    }
+    
+    @Benchmark
+    public String serialize() {
+        return serializer.apply(object);
+    }
+    
+    @Benchmark
+    public JSONObject deserialize() {
+        return deserializer.apply(serialized);
+    }
+    
+    @Benchmark
+    public JSONObject deserializeArray() {
+        return deserializer.apply(serializedArray);
+    }
+}
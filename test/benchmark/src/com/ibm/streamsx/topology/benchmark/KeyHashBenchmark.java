@@ -0,0 +1,51 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ibm.streamsx.topology.function.ToIntFunction;
+import com.ibm.streamsx.topology.internal.logic.KeyFunctionHasher;
+
+/**
+ * Routing of tuples to channels of a partitioned parallel
+ * region using the hash of a key function.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class KeyHashBenchmark {
+    
+    private static final int TUPLES = 1024;
+    
+    @Param({"4", "32"})
+    public int channels;
+    
+    private ToIntFunction<Reading> hasher;
+    private final Reading[] readings = new Reading[TUPLES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        hasher = new KeyFunctionHasher<Reading, String>(Reading::getId);
+        for (int i = 0; i < TUPLES; i++)
+            readings[i] = new Reading("sensor" + i, i, i);
+    }
+    
+    @Benchmark
+    public int route() {
+        final Reading reading = readings[next++ & (TUPLES - 1)];
+        return Math.floorMod(hasher.applyAsInt(reading), channels);
+    }
+}
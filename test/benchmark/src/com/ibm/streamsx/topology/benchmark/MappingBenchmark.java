@@ -0,0 +1,87 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.types.ValueFactory;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+import com.ibm.streamsx.topology.internal.spljava.Schemas;
+
+/**
+ * Conversion of Java tuples to and from SPL tuples,
+ * as performed at each functional operator's ports.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class MappingBenchmark {
+    
+    private SPLMapping<String> strings;
+    private SPLMapping<Object> objects;
+    private SPLMapping<Object> references;
+    
+    private final String string = "A typical string tuple of moderate length";
+    private final Reading reading = new Reading("sensor42", 1234567890L, 21.5);
+    
+    private Tuple stringTuple;
+    private Tuple objectTuple;
+    private Tuple serializedTuple;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() throws Exception {
+        strings = (SPLMapping<String>) Schemas.getSPLMapping(Schemas.getSPLMappingSchema(String.class));
+        objects = (SPLMapping<Object>) Schemas.getSPLMapping(Schemas.getSPLMappingSchema(Reading.class));
+        references = (SPLMapping<Object>) Schemas.getSPLMapping(Schemas.getSPLMappingSchema(Reading.class), true);
+        
+        stringTuple = strings.convertTo(string);
+        objectTuple = objects.convertTo(reading);
+        
+        // A tuple as received from another PE, holding the serialized object.
+        final byte[] data = objectTuple.getBlob(0).getData();
+        serializedTuple = objectTuple.getStreamSchema().getTuple(new Object[] {
+                ValueFactory.newBlob(data, 0, data.length) });
+    }
+    
+    @Benchmark
+    public Tuple stringTo() {
+        return strings.convertTo(string);
+    }
+    
+    @Benchmark
+    public String stringFrom() {
+        return strings.convertFrom(stringTuple);
+    }
+    
+    @Benchmark
+    public Tuple objectTo() {
+        return objects.convertTo(reading);
+    }
+    
+    @Benchmark
+    public Object objectFrom() {
+        return objects.convertFrom(objectTuple);
+    }
+    
+    @Benchmark
+    public Object objectFromSerialized() {
+        return objects.convertFrom(serializedTuple);
+    }
+    
+    @Benchmark
+    public Object objectByReference() {
+        return references.convertFrom(references.convertTo(reading));
+    }
+}
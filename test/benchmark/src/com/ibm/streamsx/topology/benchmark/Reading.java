@@ -0,0 +1,47 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Typical small object tuple used by the benchmarks.
+ */
+public class Reading implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final String id;
+    private final long time;
+    private final double value;
+    
+    public Reading(String id, long time, double value) {
+        this.id = id;
+        this.time = time;
+        this.value = value;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    public long getTime() {
+        return time;
+    }
+    public double getValue() {
+        return value;
+    }
+    
+    void write(DataOutput out) throws IOException {
+        out.writeUTF(id);
+        out.writeLong(time);
+        out.writeDouble(value);
+    }
+    
+    static Reading read(DataInput in) throws IOException {
+        return new Reading(in.readUTF(), in.readLong(), in.readDouble());
+    }
+}
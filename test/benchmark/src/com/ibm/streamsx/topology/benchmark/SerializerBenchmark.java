@@ -0,0 +1,82 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Serialization of object tuples, as performed when
+ * a tuple crosses a PE boundary, using the default
+ * {@code JavaSerializer} and a hand written alternative.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class SerializerBenchmark {
+    
+    /**
+     * Alternative serializer that writes the fields directly.
+     */
+    static final class ReadingSerializer implements TupleSerializer {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void serialize(Object tuple, OutputStream output) throws IOException {
+            DataOutputStream out = new DataOutputStream(output);
+            ((Reading) tuple).write(out);
+            out.flush();
+        }
+
+        @Override
+        public Object deserialize(InputStream input) throws IOException {
+            return Reading.read(new DataInputStream(input));
+        }
+    }
+    
+    @Param({"java", "fields"})
+    public String serializer;
+    
+    private TupleSerializer tupleSerializer;
+    private final Reading reading = new Reading("sensor42", 1234567890L, 21.5);
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws Exception {
+        tupleSerializer = "java".equals(serializer) ?
+                TupleSerializer.JAVA_SERIALIZER : new ReadingSerializer();
+        serialized = serialize();
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        tupleSerializer.serialize(reading, out);
+        return out.toByteArray();
+    }
+    
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return tupleSerializer.deserialize(new ByteArrayInputStream(serialized));
+    }
+}
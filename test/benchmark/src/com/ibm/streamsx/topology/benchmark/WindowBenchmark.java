@@ -0,0 +1,65 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.StreamsContextFactory;
+
+/**
+ * Updates of the sliding window state maintained by {@code SlidingSet}
+ * for a count based window aggregate. Each invocation executes an
+ * embedded topology that passes a fixed number of tuples through
+ * the window, with a trivial aggregate function so that the window
+ * update dominates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class WindowBenchmark {
+    
+    private static final int TUPLES = 100000;
+    
+    @Param({"10", "1000"})
+    public int count;
+    
+    @Param({"false", "true"})
+    public boolean keyed;
+    
+    private Topology topology;
+
+    // Declaring the topology is not part of the measurement.
+    @Setup(Level.Invocation)
+    public void declare() {
+        topology = new Topology("WindowBenchmark");
+        TStream<Long> s = topology.limitedSourceN(n -> n, TUPLES);
+        
+        if (keyed)
+            s.last(count).key(n -> n % 100).aggregate(List::size).forEach(n -> {});
+        else
+            s.last(count).aggregate(List::size).forEach(n -> {});
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TUPLES)
+    public void slidingAggregate() throws Exception {
+        StreamsContextFactory.getEmbedded().submit(topology).get();
+    }
+}
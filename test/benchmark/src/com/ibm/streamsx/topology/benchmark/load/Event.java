@@ -0,0 +1,52 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.io.Serializable;
+
+/**
+ * Synthetic event passed through the load topologies.
+ * <P>
+ * Each event carries the time it was created by the source
+ * as returned by {@code System.nanoTime()}. Since embedded and
+ * standalone applications execute in a single process, the
+ * latency of an event at any stage is the time since it was stamped.
+ * </P>
+ */
+public class Event implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final long seq;
+    private final int key;
+    private final double value;
+    private final long stamp;
+    
+    public Event(long seq, int key, double value, long stamp) {
+        this.seq = seq;
+        this.key = key;
+        this.value = value;
+        this.stamp = stamp;
+    }
+    
+    public long getSeq() {
+        return seq;
+    }
+    public int getKey() {
+        return key;
+    }
+    public double getValue() {
+        return value;
+    }
+    public long getStamp() {
+        return stamp;
+    }
+    
+    /**
+     * Event derived from this event with a new value, keeping its stamp.
+     */
+    public Event withValue(double value) {
+        return new Event(seq, key, value, stamp);
+    }
+}
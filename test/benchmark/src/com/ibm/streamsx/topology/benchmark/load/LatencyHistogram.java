@@ -0,0 +1,98 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.io.PrintStream;
+import java.io.Serializable;
+
+/**
+ * Histogram of latencies with logarithmic buckets of
+ * eight linear sub-buckets each, giving a relative error
+ * of at most 12.5% with microsecond resolution.
+ */
+public class LatencyHistogram implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int BUCKETS = LINEAR + (64 - 4) * (1 << SUB_BITS);
+    
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+    
+    static int index(long micros) {
+        if (micros < LINEAR)
+            return (int) Math.max(0, micros);
+        final int exp = 63 - Long.numberOfLeadingZeros(micros);
+        final int sub = (int) (micros >>> (exp - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return LINEAR + ((exp - 4) << SUB_BITS) + sub;
+    }
+    
+    /**
+     * Smallest latency in microseconds held by a bucket.
+     */
+    static long lowest(int index) {
+        if (index < LINEAR)
+            return index;
+        final int exp = ((index - LINEAR) >> SUB_BITS) + 4;
+        final int sub = (index - LINEAR) & ((1 << SUB_BITS) - 1);
+        return ((long) ((1 << SUB_BITS) + sub)) << (exp - SUB_BITS);
+    }
+    
+    public void record(long nanos) {
+        final long micros = nanos / 1000;
+        counts[index(micros)]++;
+        count++;
+        if (micros > max)
+            max = micros;
+    }
+    
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] += other.counts[i];
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Maximum latency in microseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+    
+    /**
+     * Latency in microseconds at {@code percentile}, using the
+     * lower bound of the bucket holding the nearest rank.
+     */
+    public long percentile(double percentile) {
+        if (count == 0)
+            return 0;
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(lowest(i), max);
+        }
+        return max;
+    }
+    
+    /**
+     * Write the non-empty buckets as CSV lines of
+     * {@code prefix}, lowest latency in microseconds and count.
+     */
+    public void write(PrintStream out, String prefix) {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0)
+                out.println(prefix + "," + lowest(i) + "," + counts[i]);
+        }
+    }
+}
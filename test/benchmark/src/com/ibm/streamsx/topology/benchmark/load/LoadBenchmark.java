@@ -0,0 +1,118 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.benchmark.load.LoadTopologies.Scenario;
+import com.ibm.streamsx.topology.context.ContextProperties;
+import com.ibm.streamsx.topology.context.StreamsContext;
+import com.ibm.streamsx.topology.context.StreamsContextFactory;
+
+/**
+ * Runs load topologies and prints a summary of the
+ * throughput and latency of each stage.
+ * <P>
+ * Arguments are {@code name=value} pairs:
+ * <UL>
+ * <LI>{@code scenario} - Comma separated {@link Scenario scenarios}, defaults to all.</LI>
+ * <LI>{@code context} - {@code EMBEDDED} (default) or {@code STANDALONE}.</LI>
+ * <LI>{@code count} - Number of events submitted by the source.</LI>
+ * <LI>{@code rate} - Events per second, zero (default) runs the source flat out.</LI>
+ * <LI>{@code keys} - Number of distinct keys.</LI>
+ * <LI>{@code width} - Number of branches or channels.</LI>
+ * <LI>{@code window} - Count of window tuples per key.</LI>
+ * <LI>{@code queue} - Capacity of each {@code EMBEDDED} queue, defaults to 1000,
+ * see {@link ContextProperties#EMBEDDED_QUEUE_SIZE}. With zero an {@code EMBEDDED}
+ * topology executes on the source's thread, so {@code width} adds no threads.</LI>
+ * <LI>{@code results} - Directory for the stage results and latency
+ * histograms, defaults to a temporary directory.</LI>
+ * </UL>
+ * </P>
+ */
+public class LoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        List<Scenario> scenarios = new ArrayList<>();
+        StreamsContext.Type type = StreamsContext.Type.EMBEDDED;
+        File results = null;
+        int queue = 1000;
+        
+        LoadTopologies params = new LoadTopologies(null);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq == -1)
+                throw new IllegalArgumentException(arg);
+            String name = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+            case "scenario":
+                for (String scenario : value.split(","))
+                    scenarios.add(Scenario.valueOf(scenario.trim().toUpperCase()));
+                break;
+            case "context":
+                type = StreamsContext.Type.valueOf(value.toUpperCase());
+                break;
+            case "count": params.count = Long.parseLong(value); break;
+            case "rate": params.rate = Long.parseLong(value); break;
+            case "keys": params.keys = Integer.parseInt(value); break;
+            case "width": params.width = Integer.parseInt(value); break;
+            case "window": params.window = Integer.parseInt(value); break;
+            case "queue": queue = Integer.parseInt(value); break;
+            case "results": results = new File(value); break;
+            default:
+                throw new IllegalArgumentException(arg);
+            }
+        }
+        if (type != StreamsContext.Type.EMBEDDED && type != StreamsContext.Type.STANDALONE)
+            throw new IllegalArgumentException(type.name());
+        if (scenarios.isEmpty())
+            for (Scenario scenario : Scenario.values())
+                scenarios.add(scenario);
+        if (results == null)
+            results = Files.createTempDirectory("load").toFile();
+        
+        Map<String,Object> config = new HashMap<>();
+        String threading = "";
+        if (type == StreamsContext.Type.EMBEDDED) {
+            if (queue > 0)
+                config.put(ContextProperties.EMBEDDED_QUEUE_SIZE, queue);
+            threading = queue > 0 ? " queue=" + queue : " queue=0 (single-threaded)";
+        }
+        
+        for (Scenario scenario : scenarios) {
+            File scenarioResults = new File(results, scenario.name());
+            
+            LoadTopologies topologies = new LoadTopologies(scenarioResults);
+            topologies.count = params.count;
+            topologies.rate = params.rate;
+            topologies.keys = params.keys;
+            topologies.width = params.width;
+            topologies.window = params.window;
+            
+            Topology topology = topologies.declare(scenario);
+            
+            final long start = System.currentTimeMillis();
+            StreamsContextFactory.getStreamsContext(type).submit(topology, new HashMap<>(config)).get();
+            final long elapsed = System.currentTimeMillis() - start;
+            
+            LoadReport report = new LoadReport(scenarioResults, topologies.getStages());
+            report.print(System.out, String.format(
+                    "%s %s%s count=%d rate=%s keys=%d width=%d window=%d elapsed=%dms",
+                    scenario, type, threading, params.count, params.rate > 0 ? Long.toString(params.rate) : "max",
+                    params.keys, params.width, params.window, elapsed));
+            File histograms = new File(scenarioResults, "histograms.csv");
+            report.writeHistograms(histograms);
+            System.out.println("Latency histograms: " + histograms);
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the results written by each {@link Meter}
+ * and prints a summary per stage.
+ */
+public class LoadReport {
+    
+    private final Map<String, StageResult> stages = new LinkedHashMap<>();
+    
+    /**
+     * Read the results for {@code stageNames} from {@code results}.
+     * Results from the channels of a parallel stage are merged.
+     */
+    LoadReport(File results, List<String> stageNames) throws IOException, ClassNotFoundException {
+        for (String stage : stageNames)
+            stages.put(stage, new StageResult(stage));
+        
+        File[] files = results.listFiles((dir, name) -> name.endsWith(Meter.SUFFIX));
+        if (files == null)
+            return;
+        for (File file : files) {
+            String name = file.getName();
+            name = name.substring(0, name.length() - Meter.SUFFIX.length());
+            int dot = name.indexOf('.');
+            String stage = dot == -1 ? name : name.substring(0, dot);
+            
+            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+                StageResult result = (StageResult) in.readObject();
+                StageResult merged = stages.get(stage);
+                if (merged == null)
+                    stages.put(stage, merged = new StageResult(stage));
+                merged.add(result);
+            }
+        }
+    }
+    
+    Map<String, StageResult> getStages() {
+        return stages;
+    }
+    
+    void print(PrintStream out, String title) {
+        out.println(title);
+        out.println(String.format("%-10s %12s %14s %10s %10s %10s %10s",
+                "stage", "events", "events/s", "p50(us)", "p90(us)", "p99(us)", "max(us)"));
+        for (StageResult result : stages.values()) {
+            LatencyHistogram latency = result.getLatency();
+            out.println(String.format("%-10s %12d %14.0f %10d %10d %10d %10d",
+                    result.getStage(),
+                    latency.getCount(),
+                    result.getThroughput(),
+                    latency.percentile(50),
+                    latency.percentile(90),
+                    latency.percentile(99),
+                    latency.getMax()));
+        }
+    }
+    
+    /**
+     * Write the latency histogram of every stage as CSV.
+     */
+    void writeHistograms(File file) throws IOException {
+        try (PrintStream out = new PrintStream(new FileOutputStream(file), false, "UTF-8")) {
+            out.println("stage,latency_us,count");
+            for (StageResult result : stages.values())
+                result.getLatency().write(out, result.getStage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ibm.streamsx.topology.function.Supplier;
+
+/**
+ * Synthetic source of {@link Event events} that runs at a fixed
+ * rate or flat out.
+ * <P>
+ * Events are stamped as they are submitted, and when running at
+ * a fixed rate the source paces itself against the time the
+ * run started, so a slow downstream shows up as latency rather
+ * than as a lower offered rate.
+ * </P>
+ */
+public class LoadSource implements Supplier<Iterable<Event>> {
+    private static final long serialVersionUID = 1L;
+    
+    private final long count;
+    private final int keys;
+    private final long rate;
+
+    /**
+     * @param count Number of events to submit.
+     * @param keys Number of distinct keys, assigned round robin.
+     * @param rate Events per second, zero or negative to run flat out.
+     */
+    public LoadSource(long count, int keys, long rate) {
+        this.count = count;
+        this.keys = keys;
+        this.rate = rate;
+    }
+
+    @Override
+    public Iterable<Event> get() {
+        return () -> new Iterator<Event>() {
+            private final long start = System.nanoTime();
+            private long seq;
+
+            @Override
+            public boolean hasNext() {
+                return seq < count;
+            }
+
+            @Override
+            public Event next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                if (rate > 0) {
+                    final long due = start + seq * 1_000_000_000L / rate;
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0)
+                        LockSupport.parkNanos(wait);
+                }
+                final long n = seq++;
+                return new Event(n, (int) (n % keys), n, System.nanoTime());
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.function.Function;
+
+/**
+ * Parameterised topologies driven by a {@link LoadSource},
+ * with a {@link Meter} after each stage.
+ */
+public class LoadTopologies {
+    
+    public enum Scenario {
+        /** Source fanned out to {@code width} isolated maps that are unioned. */
+        FANOUT,
+        /** Keyed count window aggregate. */
+        WINDOW,
+        /** Keyed join against a window of a second stream. */
+        JOIN,
+        /** Keyed parallel region of {@code width} channels. */
+        PARALLEL,
+        /** Keyed parallel region with per-key state, checkpointed periodically. */
+        STATEFUL,
+    }
+    
+    private final File results;
+    private final List<String> stages = new ArrayList<>();
+    
+    // Parameters
+    long count = 1_000_000;
+    long rate;
+    int keys = 100;
+    int width = 4;
+    int window = 100;
+    long checkpointSeconds = 10;
+    
+    LoadTopologies(File results) {
+        this.results = results;
+    }
+    
+    /**
+     * Stage names in the order they were declared.
+     */
+    List<String> getStages() {
+        return stages;
+    }
+    
+    private TStream<Event> meter(TStream<Event> stream, String stage) {
+        stages.add(stage);
+        return stream.modify(new Meter(results, stage));
+    }
+    
+    Topology declare(Scenario scenario) {
+        Topology topology = new Topology("Load" + scenario);
+        TStream<Event> events = meter(
+                topology.source(new LoadSource(count, keys, rate)), "source");
+        
+        TStream<Event> end;
+        switch (scenario) {
+        case FANOUT:
+            end = fanOut(events);
+            break;
+        case WINDOW:
+            end = window(events);
+            break;
+        case JOIN:
+            end = join(events);
+            break;
+        case PARALLEL:
+            end = parallel(events);
+            break;
+        case STATEFUL:
+            topology.checkpointPeriod(checkpointSeconds, TimeUnit.SECONDS);
+            end = stateful(events);
+            break;
+        default:
+            throw new IllegalArgumentException(scenario.name());
+        }
+        end.forEach(e -> {});
+        return topology;
+    }
+    
+    private TStream<Event> fanOut(TStream<Event> events) {
+        Set<TStream<Event>> branches = new HashSet<>();
+        for (int i = 1; i < width; i++) {
+            final int factor = i;
+            branches.add(meter(events.isolate().map(e -> e.withValue(e.getValue() * factor)), "branch" + i));
+        }
+        TStream<Event> first = meter(events.isolate().map(e -> e.withValue(-e.getValue())), "branch0");
+        return meter(first.union(branches), "fanin");
+    }
+    
+    private TStream<Event> window(TStream<Event> events) {
+        TStream<Event> averages = events.last(window).key(Event::getKey).aggregate(list -> {
+            double sum = 0;
+            for (Event e : list)
+                sum += e.getValue();
+            // Latest event drives the aggregation.
+            return list.get(list.size() - 1).withValue(sum / list.size());
+        });
+        return meter(averages, "window");
+    }
+    
+    private TStream<Event> join(TStream<Event> events) {
+        TStream<Event> reference = events.filter(e -> e.getSeq() % 2 == 0);
+        TStream<Event> probes = events.filter(e -> e.getSeq() % 2 == 1);
+        
+        TStream<Event> joined = probes.join(Event::getKey,
+                reference.last(window).key(Event::getKey),
+                (e, matches) -> e.withValue(matches.size()));
+        return meter(joined, "join");
+    }
+    
+    private TStream<Event> parallel(TStream<Event> events) {
+        TStream<Event> channels = events.parallel(() -> width, Event::getKey)
+                .map(e -> e.withValue(Math.sqrt(e.getValue())));
+        return meter(meter(channels, "channel").endParallel(), "merge");
+    }
+    
+    /**
+     * Running sum per key, the function's state.
+     */
+    static final class RunningSum implements Function<Event, Event> {
+        private static final long serialVersionUID = 1L;
+        private final Map<Integer, double[]> sums = new HashMap<>();
+
+        @Override
+        public Event apply(Event e) {
+            double[] sum = sums.computeIfAbsent(e.getKey(), k -> new double[1]);
+            sum[0] += e.getValue();
+            return e.withValue(sum[0]);
+        }
+    }
+    
+    private TStream<Event> stateful(TStream<Event> events) {
+        TStream<Event> sums = events.parallel(() -> width, Event::getKey)
+                .map(new RunningSum());
+        return meter(meter(sums, "state").endParallel(), "merge");
+    }
+}
@@ -0,0 +1,61 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+
+import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.function.Initializable;
+import com.ibm.streamsx.topology.function.UnaryOperator;
+
+/**
+ * Pass through that measures the throughput and latency of a stage.
+ * <P>
+ * When the topology completes the measurements are written to
+ * a file in the results directory named by the stage and, within
+ * a parallel region, the channel. {@link LoadReport} merges the
+ * files for a stage.
+ * </P>
+ */
+public class Meter implements UnaryOperator<Event>, Initializable, AutoCloseable {
+    private static final long serialVersionUID = 1L;
+    
+    static final String SUFFIX = ".stage";
+    
+    private final String results;
+    private final String stage;
+    private transient StageResult result;
+    private transient String fileName;
+    
+    public Meter(File results, String stage) {
+        this.results = results.getAbsolutePath();
+        this.stage = stage;
+    }
+
+    @Override
+    public void initialize(FunctionContext functionContext) throws Exception {
+        result = new StageResult(stage);
+        final int channel = functionContext.getChannel();
+        fileName = channel == -1 ? stage : stage + "." + channel;
+    }
+
+    @Override
+    public synchronized Event apply(Event event) {
+        result.record(System.nanoTime(), event.getStamp());
+        return event;
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        File dir = new File(results);
+        dir.mkdirs();
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new FileOutputStream(new File(dir, fileName + SUFFIX)))) {
+            out.writeObject(result);
+        }
+    }
+}
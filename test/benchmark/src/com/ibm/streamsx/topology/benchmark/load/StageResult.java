@@ -0,0 +1,59 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.benchmark.load;
+
+import java.io.Serializable;
+
+/**
+ * Measurements of a stage of a load topology.
+ */
+public class StageResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final String stage;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long first = -1;
+    private long last;
+    
+    public StageResult(String stage) {
+        this.stage = stage;
+    }
+    
+    public String getStage() {
+        return stage;
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    void record(long now, long stamp) {
+        if (first == -1)
+            first = now;
+        last = now;
+        latency.record(now - stamp);
+    }
+    
+    /**
+     * Merge the results of another channel of the same stage.
+     */
+    public void add(StageResult other) {
+        if (other.first == -1)
+            return;
+        latency.add(other.latency);
+        first = first == -1 ? other.first : Math.min(first, other.first);
+        last = Math.max(last, other.last);
+    }
+    
+    /**
+     * Events per second seen by the stage between its first and last event.
+     */
+    public double getThroughput() {
+        final long elapsed = last - first;
+        if (elapsed <= 0)
+            return 0;
+        return latency.getCount() * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+
+/**
+ * Handoff of tuples through the {@link FunctionalQueue} used by
+ * functional operators with a queued input port. Each invocation
+ * submits a batch of tuples and waits for the queue's thread
+ * to have processed them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class FunctionalQueueBenchmark {
+    
+    private static final int BATCH = 10000;
+    
+    @Param({"100", "1000"})
+    public int queueSize;
+    
+    private final AtomicLong processed = new AtomicLong();
+    private FunctionalQueue<Object> queue;
+    private final Object tuple = new Object();
+    private long submitted;
+
+    @Setup
+    public void setup() {
+        // Only the thread factory of the operator context is used.
+        OperatorContext context = (OperatorContext) Proxy.newProxyInstance(
+                OperatorContext.class.getClassLoader(),
+                new Class<?>[] {OperatorContext.class},
+                (proxy, method, args) -> {
+                    if ("getThreadFactory".equals(method.getName()))
+                        return Executors.defaultThreadFactory();
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        
+        queue = new FunctionalQueue<>(context, queueSize, new StreamHandler<Object>() {
+            @Override
+            public void tuple(Object tuple) {
+                processed.incrementAndGet();
+            }
+            @Override
+            public void mark(Punctuation mark) {
+            }
+        });
+    }
+    
+    @TearDown
+    public void tearDown() {
+        queue.stop();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void handoff() throws Exception {
+        for (int i = 0; i < BATCH; i++)
+            queue.tuple(tuple);
+        submitted += BATCH;
+        while (processed.get() < submitted)
+            Thread.yield();
+    }
+}
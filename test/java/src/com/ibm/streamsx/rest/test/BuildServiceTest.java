@@ -0,0 +1,251 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+
+package com.ibm.streamsx.rest.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.ibm.streamsx.rest.build.Artifact;
+import com.ibm.streamsx.rest.build.Build;
+import com.ibm.streamsx.rest.build.BuildService;
+import com.ibm.streamsx.topology.internal.context.remote.SubmissionResultsKeys;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the build client's status polling and asynchronous
+ * requests against a local server that simulates the build service.
+ */
+public class BuildServiceTest {
+
+    private static final String BUILDS = "/streams/v1/builds";
+    private static final String BUILD = BUILDS + "/1";
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String url;
+
+    /** Status returned for each status check, the last is repeated. */
+    private volatile List<String> statuses;
+    private final List<Long> checkTimes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger deletes = new AtomicInteger();
+    private final CountDownLatch downloads = new CountDownLatch(2);
+    private volatile boolean concurrentDownloads;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        url = "http://localhost:" + server.getAddress().getPort();
+
+        server.createContext(BUILDS, this::handle);
+        server.createContext("/sab/", exchange -> {
+            // Both downloads must be in progress at the same time.
+            downloads.countDown();
+            try {
+                concurrentDownloads = downloads.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+            }
+            String name = exchange.getRequestURI().getPath().substring("/sab/".length());
+            respond(exchange, "application/octet-stream", name.getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final String method = exchange.getRequestMethod();
+        JsonObject response = new JsonObject();
+
+        if ("DELETE".equals(method)) {
+            deletes.incrementAndGet();
+        } else if (BUILDS.equals(path)) {
+            response.addProperty("build", url + BUILD);
+        } else if ((BUILD + "/artifacts").equals(path)) {
+            JsonArray artifacts = new JsonArray();
+            for (String name : new String[] {"a.sab", "b.sab"}) {
+                JsonObject artifact = new JsonObject();
+                artifact.addProperty("name", name);
+                artifact.addProperty("size", name.length());
+                artifact.addProperty("applicationBundle", url + "/sab/" + name);
+                artifacts.add(artifact);
+            }
+            response.add("artifacts", artifacts);
+        } else {
+            String status = "submitted";
+            if ("GET".equals(method)) {
+                synchronized (checkTimes) {
+                    checkTimes.add(System.nanoTime());
+                    status = statuses.get(Math.min(checkTimes.size(), statuses.size()) - 1);
+                }
+            }
+            response.addProperty("self", url + BUILD);
+            response.addProperty("status", status);
+            response.addProperty("artifacts", url + BUILD + "/artifacts");
+        }
+        respond(exchange, "application/json", response.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getRequestBody().close();
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Build createBuild() throws IOException {
+        JsonObject connectionInfo = new JsonObject();
+        connectionInfo.addProperty("serviceRestEndpoint", url + "/streams/v1/roots");
+        connectionInfo.addProperty("serviceBuildEndpoint", url + BUILDS);
+        JsonObject service = new JsonObject();
+        service.add("connection_info", connectionInfo);
+        service.addProperty("service_token", "dGVzdA==");
+        service.addProperty("service_token_expire", Long.MAX_VALUE);
+
+        BuildService buildService = BuildService.ofServiceDefinition(service, false);
+        return buildService.createBuild("test", null);
+    }
+
+    /**
+     * Status checks start at 250ms and double.
+     */
+    @Test
+    public void testPollBackoff() throws Exception {
+        statuses = Arrays.asList("building", "building", "building", "built");
+
+        Build build = createBuild();
+        build.submit();
+        assertEquals("built", build.waitForBuild());
+        assertTrue(build.getMetrics().has(SubmissionResultsKeys.SUBMIT_TOTAL_BUILD_TIME));
+
+        assertEquals(4, checkTimes.size());
+        long expected = 250;
+        for (int i = 1; i < checkTimes.size(); i++) {
+            long gap = TimeUnit.NANOSECONDS.toMillis(checkTimes.get(i) - checkTimes.get(i - 1));
+            assertTrue("Check " + i + " after " + gap + "ms", gap >= expected - 20);
+            expected *= 2;
+        }
+        assertEquals(0, deletes.get());
+    }
+
+    /**
+     * Interrupting waitForBuild leaves the build in place,
+     * callers such as edge image builds decide whether to delete it.
+     */
+    @Test
+    public void testInterruptedWaitKeepsBuild() throws Exception {
+        statuses = Collections.singletonList("building");
+
+        Build build = createBuild();
+        build.submit();
+        assertInterrupted(() -> build.waitForBuild());
+        assertEquals(0, deletes.get());
+    }
+
+    /**
+     * Interrupting uploadArchiveAndBuild deletes the build it created.
+     */
+    @Test
+    public void testInterruptedUploadDeletesBuild() throws Exception {
+        statuses = Collections.singletonList("building");
+        File archive = File.createTempFile("build", ".zip");
+        try {
+            Build build = createBuild();
+            assertInterrupted(() -> build.uploadArchiveAndBuild(archive));
+            assertEquals(1, deletes.get());
+        } finally {
+            archive.delete();
+        }
+    }
+
+    private interface Wait {
+        void run() throws Exception;
+    }
+
+    private static void assertInterrupted(Wait wait) throws Exception {
+        final Exception[] thrown = new Exception[1];
+        Thread waiter = new Thread(() -> {
+            try {
+                wait.run();
+            } catch (Exception e) {
+                thrown[0] = e;
+            }
+        });
+        waiter.start();
+        Thread.sleep(400);
+        waiter.interrupt();
+        waiter.join(10_000);
+        assertTrue(thrown[0] instanceof InterruptedException);
+    }
+
+    /**
+     * A build and its artifact downloads complete asynchronously,
+     * with the downloads in progress at the same time.
+     */
+    @Test
+    public void testAsyncBuildAndDownloads() throws Exception {
+        statuses = Collections.singletonList("built");
+        File archive = File.createTempFile("build", ".zip");
+        File dir = Files.createTempDirectory("sabs").toFile();
+        try {
+            Build build = createBuild().uploadArchiveAndBuildAsync(archive).get(30, TimeUnit.SECONDS);
+            assertEquals("built", build.getStatus());
+
+            List<Artifact> artifacts = build.getArtifacts();
+            assertEquals(2, artifacts.size());
+            List<CompletableFuture<File>> files = new ArrayList<>();
+            for (Artifact artifact : artifacts)
+                files.add(artifact.downloadAsync(dir));
+            for (int i = 0; i < files.size(); i++) {
+                File sab = files.get(i).get(30, TimeUnit.SECONDS);
+                assertEquals(artifacts.get(i).getName(), sab.getName());
+                assertArrayEquals(sab.getName().getBytes(StandardCharsets.UTF_8),
+                        Files.readAllBytes(sab.toPath()));
+            }
+            if (!concurrentDownloads)
+                fail("Artifacts were not downloaded concurrently");
+        } finally {
+            archive.delete();
+            for (File f : dir.listFiles())
+                f.delete();
+            dir.delete();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+
+package com.ibm.streamsx.rest.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.http.client.fluent.Executor;
+import org.apache.http.client.fluent.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.streamsx.rest.internal.RestUtils;
+import com.ibm.streamsx.rest.internal.SharedHttpClients;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the HTTP clients shared by REST connections
+ * against a local server.
+ */
+public class SharedHttpClientsTest {
+
+    private HttpServer server;
+    private String url;
+
+    private final List<String> cookies = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<>());
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        url = "http://localhost:" + server.getAddress().getPort() + "/";
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            List<String> cookie = exchange.getRequestHeaders().get("Cookie");
+            if (cookie != null)
+                cookies.addAll(cookie);
+
+            // Every response tries to start a session.
+            exchange.getResponseHeaders().add("Set-Cookie", "session=" + System.nanoTime() + "; Path=/");
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getRequestBody().close();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Executors for different connections share a client
+     * and reuse its kept alive connection.
+     */
+    @Test
+    public void testClientReuse() throws Exception {
+        final long before = SharedHttpClients.getMetrics().get("requests").getAsLong();
+
+        Executor first = RestUtils.createExecutor(false);
+        Executor second = RestUtils.createExecutor(false);
+        for (int i = 0; i < 3; i++) {
+            first.execute(Request.Get(url)).returnContent();
+            second.execute(Request.Get(url)).returnContent();
+        }
+
+        assertEquals("Connections: " + clientPorts, 1, clientPorts.size());
+        assertTrue(SharedHttpClients.getMetrics().get("requests").getAsLong() >= before + 6);
+    }
+
+    /**
+     * A cookie set by a response to one connection is never
+     * sent by any connection sharing the client.
+     */
+    @Test
+    public void testCookieIsolation() throws Exception {
+        Executor first = RestUtils.createExecutor(false);
+        Executor second = RestUtils.createExecutor(false);
+        Executor insecure = RestUtils.createExecutor(true);
+        for (int i = 0; i < 3; i++) {
+            first.execute(Request.Get(url)).returnContent();
+            second.execute(Request.Get(url)).returnContent();
+            insecure.execute(Request.Get(url)).returnContent();
+        }
+
+        assertTrue("Cookies sent: " + cookies, cookies.isEmpty());
+    }
+}
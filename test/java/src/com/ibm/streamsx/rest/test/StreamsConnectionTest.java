@@ -15,9 +15,12 @@ import static org.junit.Assume.assumeTrue;
 import static org.junit.Assume.assumeNotNull;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
@@ -28,6 +31,7 @@ import com.ibm.streamsx.rest.InputPort;
 import com.ibm.streamsx.rest.Instance;
 import com.ibm.streamsx.rest.Job;
 import com.ibm.streamsx.rest.Metric;
+import com.ibm.streamsx.rest.MetricsSnapshot;
 import com.ibm.streamsx.rest.Operator;
 import com.ibm.streamsx.rest.OutputPort;
 import com.ibm.streamsx.rest.PEInputPort;
@@ -214,6 +218,45 @@ public class StreamsConnectionTest {
         validateProcessingElements();
     }
 
+    @Test
+    public void testMetricsSnapshot() throws Exception {
+        setupJob();
+
+        MetricsSnapshot snapshot = job.getMetricsSnapshot();
+        assertTrue(snapshot.size() > 0);
+
+        // Every element of the job has system metrics
+        Set<MetricsSnapshot.OwnerType> ownerTypes = EnumSet.noneOf(MetricsSnapshot.OwnerType.class);
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertEquals(jobId, snapshot.getJobId(i));
+            assertNameValid(snapshot.getOwner(i));
+            assertNameValid(snapshot.getName(i));
+            assertTrue(snapshot.getLastTimeRetrieved(i) > 0);
+            ownerTypes.add(snapshot.getOwnerType(i));
+        }
+        assertEquals(EnumSet.allOf(MetricsSnapshot.OwnerType.class), ownerTypes);
+
+        int nTuples = snapshot.indexOf(jobId, MetricsSnapshot.OwnerType.OPERATOR_OUTPUT_PORT,
+                "IntegerPeriodicMultiSource", 0, "nTuplesSubmitted");
+        assertTrue(nTuples >= 0);
+
+        // No metrics have changed against the same snapshot.
+        assertEquals(0, snapshot.changedSince(snapshot).size());
+        assertSame(snapshot, snapshot.changedSince(null));
+
+        // Metrics are updated by Streams every few seconds.
+        Thread.sleep(3500);
+        MetricsSnapshot changed = job.getMetricsSnapshot(snapshot);
+        assertTrue(changed.size() > 0);
+        assertTrue(changed.size() <= instance.getMetricsSnapshot(Collections.singletonList(job)).size());
+        for (int i = 0; i < changed.size(); i++) {
+            int pi = snapshot.indexOf(jobId, changed.getOwnerType(i), changed.getOwner(i),
+                    changed.getPortIndex(i), changed.getName(i));
+            if (pi != -1)
+                assertTrue(snapshot.getLastTimeRetrieved(pi) != changed.getLastTimeRetrieved(i));
+        }
+    }
+
     @Test
     public void testCancelSpecificJob() throws Exception {
     	setupJob();
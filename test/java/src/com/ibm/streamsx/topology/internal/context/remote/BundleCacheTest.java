@@ -0,0 +1,91 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.context.remote;
+
+import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.BUNDLE_FINGERPRINT;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.ibm.streamsx.topology.context.ContextProperties;
+
+public class BundleCacheTest {
+
+    private Path cacheDir;
+    private Path toolkit;
+    private Path jar;
+
+    @Before
+    public void createDirectories() throws IOException {
+        cacheDir = Files.createTempDirectory("depcache");
+        toolkit = Files.createTempDirectory("tk");
+        jar = Files.createTempFile("dep", ".jar");
+        Files.write(jar, "jar contents".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void deleteDirectories() throws IOException {
+        for (Path dir : new Path[] {cacheDir, toolkit}) {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+        Files.deleteIfExists(jar);
+    }
+
+    private String fingerprint(DependencyCache cache) throws Exception {
+        JsonObject deploy = deploy();
+        JsonObject graph = new JsonObject();
+        graph.add("config", new JsonObject());
+        BundleCache.setFingerprint(deploy, graph, toolkit.toFile(), cache);
+        return jstring(deploy, BUNDLE_FINGERPRINT);
+    }
+
+    private JsonObject deploy() {
+        JsonObject deploy = new JsonObject();
+        deploy.addProperty(ContextProperties.DEPENDENCY_CACHE_DIR, cacheDir.toString());
+        deploy.addProperty(ContextProperties.REUSE_BUNDLE, true);
+        return deploy;
+    }
+
+    /**
+     * A dependency jar placed through the dependency cache contributes
+     * the hash calculated when it was placed, it is not read again.
+     * Other files in the toolkit contribute their contents.
+     */
+    @Test
+    public void testFingerprintUsesPlacedHashes() throws Exception {
+        Path spl = toolkit.resolve("App.spl");
+        Files.write(spl, "composite App {}".getBytes(StandardCharsets.UTF_8));
+        Path target = Files.createDirectories(toolkit.resolve("opt")).resolve("dep.jar");
+
+        DependencyCache cache = DependencyCache.cache(deploy());
+        cache.addJar(jar, target);
+        final String fingerprint = fingerprint(cache);
+        assertNotNull(fingerprint);
+
+        // Replace the placed link so the cached jar is unchanged.
+        Files.delete(target);
+        Files.write(target, "other contents".getBytes(StandardCharsets.UTF_8));
+        assertEquals(fingerprint, fingerprint(cache));
+
+        Files.write(spl, "composite Other {}".getBytes(StandardCharsets.UTF_8));
+        assertFalse(fingerprint.equals(fingerprint(cache)));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MetricHistogramTest {
+
+    /**
+     * Buckets cover every non-negative value without gaps,
+     * each bucket's upper bound is the value before
+     * the first value of the next bucket.
+     */
+    @Test
+    public void testBucketBounds() {
+        assertEquals(0, MetricHistogram.bucket(0));
+        assertEquals(0, MetricHistogram.upper(0));
+        for (int i = 0; i < MetricHistogram.BUCKETS - 1; i++) {
+            final long upper = MetricHistogram.upper(i);
+            assertEquals("upper " + upper, i, MetricHistogram.bucket(upper));
+            assertEquals("next " + (upper + 1), i + 1, MetricHistogram.bucket(upper + 1));
+        }
+        assertEquals(MetricHistogram.BUCKETS - 1, MetricHistogram.bucket(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, MetricHistogram.upper(MetricHistogram.BUCKETS - 1));
+    }
+
+    /**
+     * Small values are exact, larger values are
+     * within 12.5% of their bucket's upper bound.
+     */
+    @Test
+    public void testBucketError() {
+        for (long v = 0; v < 8; v++)
+            assertEquals(v, MetricHistogram.upper(MetricHistogram.bucket(v)));
+
+        final Random r = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            final long v = (r.nextLong() >>> 1) >>> r.nextInt(63);
+            final long upper = MetricHistogram.upper(MetricHistogram.bucket(v));
+            assertTrue(v + " " + upper, upper >= v);
+            assertTrue(v + " " + upper, upper - v <= v / 8);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final MetricHistogram histogram = new MetricHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(0, histogram.percentile(100));
+
+        // Negative values are recorded as zero.
+        histogram.accept(-5);
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.percentile(100));
+
+        for (long v = 1; v <= 99; v++)
+            histogram.accept(v);
+        histogram.accept(Long.MAX_VALUE);
+
+        assertEquals(101, histogram.count());
+        assertEquals(0, histogram.percentile(0));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(100));
+        assertEquals(MetricHistogram.upper(MetricHistogram.bucket(50)), histogram.percentile(50));
+        assertEquals(MetricHistogram.upper(MetricHistogram.bucket(99)), histogram.percentile(99));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.ProcessingElement;
+import com.ibm.streams.operator.state.Checkpoint;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
+
+/**
+ * Tests that the state of key groups follows its keys
+ * when the width of a parallel region is changed.
+ * <P>
+ * Channels of a region share the key group store in the
+ * application's data directory, so the handlers of each
+ * width are created with the same logical name and data directory,
+ * using fakes of the operator and checkpoint contexts.
+ * </P>
+ */
+public class KeyGroupFunctionalHandlerTest {
+
+    private static final int KEY_GROUPS = 4;
+
+    private Path dataDir;
+
+    @Before
+    public void createDataDirectory() throws IOException {
+        dataDir = Files.createTempDirectory("keyGroups");
+    }
+
+    @After
+    public void deleteDataDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(dataDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Counts the tuples it is called for.
+     */
+    public static class Counter implements Function<Integer,Integer> {
+        private static final long serialVersionUID = 1L;
+        private int count;
+
+        @Override
+        public Integer apply(Integer group) {
+            return ++count;
+        }
+    }
+
+    @Test
+    public void testWidthChangeMovesKeyGroups() throws Exception {
+        final String logic = ObjectUtils.serializeLogic(new Counter());
+
+        // Width 2, even groups are routed to channel 0 and odd groups to channel 1.
+        KeyGroupFunctionalHandler<Function<Integer,Integer>> channel0 = handler(logic);
+        KeyGroupFunctionalHandler<Function<Integer,Integer>> channel1 = handler(logic);
+        channel0.resetToInitialState();
+        channel1.resetToInitialState();
+        for (int i = 1; i <= 3; i++) {
+            for (int group = 0; group < KEY_GROUPS; group++)
+                assertEquals(i, apply(group % 2 == 0 ? channel0 : channel1, group));
+        }
+
+        final byte[] state = checkpoint(channel0, 7);
+        checkpoint(channel1, 7);
+
+        // Not checkpointed, so lost when the region is reset.
+        assertEquals(4, apply(channel1, 1));
+
+        // Width 1, the region is reset and all groups are routed to
+        // a single channel which restores each group's checkpointed state.
+        KeyGroupFunctionalHandler<Function<Integer,Integer>> single = handler(logic);
+        single.reset(checkpoint(7, state));
+        for (int group = 0; group < KEY_GROUPS; group++)
+            assertEquals(4, apply(single, group));
+
+        // Width 2, groups return to their original channels
+        // with the state from the single channel.
+        final byte[] singleState = checkpoint(single, 8);
+        channel0 = handler(logic);
+        channel1 = handler(logic);
+        channel0.reset(checkpoint(8, singleState));
+        channel1.reset(checkpoint(8, singleState));
+        for (int group = 0; group < KEY_GROUPS; group++)
+            assertEquals(5, apply(group % 2 == 0 ? channel0 : channel1, group));
+    }
+
+    private static int apply(KeyGroupFunctionalHandler<Function<Integer,Integer>> handler, int group) {
+        final int previous = KeyGroups.set(group);
+        try {
+            return handler.getLogic().apply(group);
+        } finally {
+            KeyGroups.set(previous);
+        }
+    }
+
+    private KeyGroupFunctionalHandler<Function<Integer,Integer>> handler(String logic) throws Exception {
+        Map<String,Object> pe = new HashMap<>();
+        pe.put("getDataDirectory", dataDir.toFile());
+        Map<String,Object> op = new HashMap<>();
+        op.put("getPE", fake(ProcessingElement.class, pe));
+        op.put("getLogicalName", "region.Counter");
+        OperatorContext context = fake(OperatorContext.class, op);
+
+        return new KeyGroupFunctionalHandler<>(context, new FunctionOperatorContext(context), logic, 0);
+    }
+
+    /**
+     * Checkpoint a handler, returning the state written to the checkpoint.
+     */
+    private static byte[] checkpoint(KeyGroupFunctionalHandler<?> handler, long id) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        Map<String,Object> values = new HashMap<>();
+        values.put("getSequenceId", id);
+        values.put("getOutputStream", out);
+        handler.checkpoint(fake(Checkpoint.class, values));
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Checkpoint to reset to.
+     */
+    private static Checkpoint checkpoint(long id, byte[] state) throws IOException {
+        Map<String,Object> values = new HashMap<>();
+        values.put("getSequenceId", id);
+        values.put("getInputStream", new ObjectInputStream(new ByteArrayInputStream(state)));
+        return fake(Checkpoint.class, values);
+    }
+
+    /**
+     * Fake implementation of an interface returning
+     * fixed values from the methods used by the test.
+     */
+    private static <T> T fake(Class<T> type, Map<String,Object> values) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class)
+                        return method.invoke(values, args);
+                    if (!values.containsKey(method.getName()))
+                        throw new UnsupportedOperationException(method.getName());
+                    return values.get(method.getName());
+                }));
+    }
+}
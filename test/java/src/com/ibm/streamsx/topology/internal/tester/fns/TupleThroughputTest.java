@@ -0,0 +1,34 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.internal.tester.fns;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
+
+public class TupleThroughputTest {
+
+    /**
+     * The first window starts at the first tuple
+     * seen by the deserialized function.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testWindowStartsAtFirstTuple() throws Exception {
+        TupleThroughput<String> throughput = (TupleThroughput<String>) ObjectUtils.deserializeLogic(
+                ObjectUtils.serializeLogic(new TupleThroughput<String>(TimeUnit.MILLISECONDS.toNanos(200))));
+
+        assertNull(throughput.apply("a"));
+        assertNull(throughput.apply("b"));
+        Thread.sleep(300);
+        assertNotNull(throughput.apply("c"));
+        assertNull(throughput.apply("d"));
+    }
+}
@@ -4,19 +4,31 @@
  */
 package com.ibm.streamsx.topology.test.api;
 
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.objectCreate;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.TStream.Routing;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.ContextProperties;
+import com.ibm.streamsx.topology.generator.spl.SPLGenerator;
+import com.ibm.streamsx.topology.logic.Logic;
+import com.ibm.streamsx.topology.spl.SPLStreams;
 import com.ibm.streamsx.topology.test.TestTopology;
 import com.ibm.streamsx.topology.tester.Condition;
 import com.ibm.streamsx.topology.tester.Tester;
@@ -48,6 +60,323 @@ public class CompGenerationTest extends TestTopology {
         assertTrue(validCount.valid());
     }
     
+    @Test
+    public void chainedFunctions() throws Exception {
+        assumeTrue(SC_OK);
+        assumeTrue(!isMainRun());
+        
+        Topology topo = new Topology();
+        
+        TStream<String> strings = topo.strings("1", "2", "3", "4", "5", "6");
+        
+        // Filter, Map, FlatMap and Filter are fused into a chain.
+        strings = strings.filter(v -> !"3".equals(v));
+        TStream<Integer> nums = strings.map(Integer::valueOf);
+        nums = nums.flatMap(v -> Arrays.asList(v, v * 10));
+        nums = nums.filter(v -> v != 40);
+        
+        // Isolate splits the chain.
+        nums = nums.isolate().map(v -> v + 1);
+        strings = nums.map(String::valueOf);
+        
+        Tester tester = topo.getTester();
+        Condition<List<String>> contents = tester.stringContents(strings,
+                "2", "11", "3", "21", "5", "6", "51", "7", "61");
+
+        complete(tester, contents, 10, TimeUnit.SECONDS);
+
+        assertTrue(contents.valid());
+    }
+    
+    @Test
+    public void passByReferenceFanOut() throws Exception {
+        assumeTrue(SC_OK);
+        assumeTrue(!isMainRun());
+
+        Topology topo = new Topology();
+
+        TStream<Integer> nums = topo.strings("1", "2", "3").map(Integer::valueOf);
+
+        // Objects are passed by reference to both consumers.
+        TStream<Integer> plusOne = nums.map(v -> v + 1);
+        TStream<Integer> timesTen = nums.map(v -> v * 10);
+        TStream<String> strings = plusOne.union(timesTen).map(String::valueOf);
+        getConfig().put(ContextProperties.SC_OPTIONS, MANUAL_THREADING);
+
+        Tester tester = topo.getTester();
+        Condition<List<String>> contents = tester.stringContentsUnordered(strings,
+                "2", "3", "4", "10", "20", "30");
+
+        complete(tester, contents, 10, TimeUnit.SECONDS);
+
+        assertTrue(contents.valid());
+    }
+
+    @Test
+    public void autoThreading() throws Exception {
+        assumeTrue(SC_OK);
+        assumeTrue(!isMainRun());
+
+        Topology topo = new Topology();
+
+        TStream<String> strings = topo.strings("1", "2", "3", "4");
+
+        // The maps costing 10 and 5 are given threaded ports,
+        // the filter's cost is below the threshold (20% of 16).
+        TStream<Integer> nums = strings.map(Integer::valueOf).costHint(10);
+        nums = nums.filter(v -> v != 3).costHint(1);
+        nums = nums.map(v -> v * 10).costHint(5);
+        strings = nums.map(String::valueOf);
+
+        getConfig().put(ContextProperties.AUTO_THREADING, true);
+
+        Tester tester = topo.getTester();
+        Condition<List<String>> contents = tester.stringContents(strings,
+                "10", "20", "40");
+
+        complete(tester, contents, 10, TimeUnit.SECONDS);
+
+        assertTrue(contents.valid());
+    }
+
+    /**
+     * Operators costing at least 20% of their PE's cost
+     * are given threaded ports.
+     */
+    @Test
+    public void autoThreadingGeneration() throws Exception {
+        Topology topo = new Topology();
+
+        TStream<String> strings = topo.strings("1", "2", "3", "4");
+        TStream<Integer> nums = strings.map(Integer::valueOf).costHint(10).invocationName("M10");
+        nums = nums.filter(v -> v != 3).costHint(1).invocationName("F1");
+        nums = nums.map(v -> v * 10).costHint(5).invocationName("M5");
+        nums.forEach(v -> {});
+
+        JsonObject graph = topo.builder()._complete();
+        objectCreate(graph, "config").addProperty(ContextProperties.AUTO_THREADING, true);
+        String spl = new SPLGenerator().generateSPL(graph);
+
+        assertTrue(invocation(spl, "M10").contains("threadedPort"));
+        assertFalse(invocation(spl, "F1").contains("threadedPort"));
+        assertTrue(invocation(spl, "M5").contains("threadedPort"));
+    }
+
+    /**
+     * Get the invocation of a named operator from generated SPL.
+     */
+    private static String invocation(String spl, String name) {
+        final int start = spl.indexOf("as " + name + " = ");
+        assertTrue(name, start != -1);
+        return spl.substring(start, spl.indexOf("\n  }\n", start));
+    }
+
+    @Test
+    public void removedConversions() throws Exception {
+        assumeTrue(SC_OK);
+        assumeTrue(!isMainRun());
+
+        Topology topo = new Topology();
+
+        TStream<String> strings = topo.strings("a", "b", "c");
+
+        // The round trip through SPL and the identity are removed.
+        strings = SPLStreams.toStringStream(SPLStreams.stringToSPLStream(strings));
+        strings = strings.modify(Logic.identity());
+
+        // Unused branch is pruned.
+        strings.filter(v -> !v.isEmpty()).map(String::length);
+        getConfig().put(ContextProperties.PRUNE_DEAD_BRANCHES, true);
+
+        Tester tester = topo.getTester();
+        Condition<List<String>> contents = tester.stringContents(strings,
+                "a", "b", "c");
+
+        complete(tester, contents, 10, TimeUnit.SECONDS);
+
+        assertTrue(contents.valid());
+    }
+
+    /**
+     * The round trip through SPL, the identity and the
+     * unused branch are not in the generated SPL, so the
+     * source feeds the sink directly.
+     */
+    @Test
+    public void removedConversionsGeneration() throws Exception {
+        Topology topo = new Topology();
+
+        TStream<String> strings = topo.strings("a", "b", "c");
+        strings = SPLStreams.toStringStream(SPLStreams.stringToSPLStream(strings));
+        strings = strings.modify(Logic.identity());
+        strings.filter(v -> !v.isEmpty()).map(String::length);
+        strings.forEach(v -> {});
+
+        JsonObject graph = topo.builder()._complete();
+        objectCreate(graph, "config").addProperty(ContextProperties.PRUNE_DEAD_BRANCHES, true);
+        String spl = new SPLGenerator().generateSPL(graph);
+
+        assertFalse(spl.contains("::ToSPL"));
+        assertFalse(spl.contains("::Map"));
+        assertFalse(spl.contains("::Filter"));
+        assertFalse(spl.contains("::Chain"));
+        assertTrue(spl.contains("::ForEach"));
+    }
+
+    /**
+     * Unused library conversions are always removed, unused
+     * application functions only when pruning is enabled.
+     */
+    @Test
+    public void prunedBranchGeneration() throws Exception {
+        String spl = new SPLGenerator().generateSPL(deadBranches(false));
+        assertFalse(spl.contains("::ToSPL"));
+        assertTrue(spl.contains("::Filter"));
+
+        spl = new SPLGenerator().generateSPL(deadBranches(true));
+        assertFalse(spl.contains("::ToSPL"));
+        assertFalse(spl.contains("::Filter"));
+    }
+
+    private static JsonObject deadBranches(boolean prune) {
+        Topology topo = new Topology();
+
+        TStream<String> strings = topo.strings("a", "b", "c");
+        strings.forEach(v -> {});
+        SPLStreams.stringToSPLStream(strings);
+        strings.filter(v -> !v.isEmpty());
+
+        JsonObject graph = topo.builder()._complete();
+        objectCreate(graph, "config").addProperty(ContextProperties.PRUNE_DEAD_BRANCHES, prune);
+        return graph;
+    }
+
+    @Test
+    public void passByReferenceQueuedConsumers() throws Exception {
+        assumeTrue(SC_OK);
+        assumeTrue(!isMainRun());
+
+        Topology topo = new Topology();
+
+        // Each producer submits several objects before its
+        // consumer processes the first, so a reused tuple
+        // would be seen with a later object.
+        TStream<String> isolated = topo.strings("1", "2", "3", "4")
+                .map(Integer::valueOf).isolate().map(v -> "i" + v);
+
+        TStream<String> windowed = topo.strings("1", "2", "3", "4")
+                .map(Integer::valueOf).last(2)
+                .aggregate(l -> "w" + l.stream().map(String::valueOf).collect(Collectors.joining()));
+
+        TStream<Integer> first = topo.strings("1", "2").map(Integer::valueOf);
+        TStream<Integer> second = topo.strings("3", "4").map(Integer::valueOf);
+        TStream<String> threaded = first.union(second).map(v -> "t" + v).costHint(10);
+        getConfig().put(ContextProperties.AUTO_THREADING, true);
+        getConfig().put(ContextProperties.SC_OPTIONS, MANUAL_THREADING);
+
+        TStream<String> strings = isolated.union(new HashSet<>(Arrays.asList(windowed, threaded)));
+
+        Tester tester = topo.getTester();
+        Condition<List<String>> contents = tester.stringContentsUnordered(strings,
+                "i1", "i2", "i3", "i4",
+                "w1", "w12", "w23", "w34",
+                "t1", "t2", "t3", "t4");
+
+        complete(tester, contents, 10, TimeUnit.SECONDS);
+
+        assertTrue(contents.valid());
+    }
+
+    private static final String MANUAL_THREADING = "--threading-model=manual";
+
+    /**
+     * Objects are not passed by reference to a port
+     * given the dynamic threading model, which queues tuples.
+     */
+    @Test
+    public void passByReferenceThreadedGeneration() throws Exception {
+        assertTrue(passesByReference(threadedUnion(false), MANUAL_THREADING));
+        assertFalse(passesByReference(threadedUnion(true), MANUAL_THREADING));
+    }
+
+    /**
+     * Objects are only passed by reference when the job
+     * is explicitly compiled with the manual threading model,
+     * the default automatic model may use the dynamic model.
+     */
+    @Test
+    public void passByReferenceThreadingModelGeneration() throws Exception {
+        assertFalse(passesByReference(threadedUnion(false)));
+        assertFalse(passesByReference(threadedUnion(false), "--threading-model=dynamic"));
+        assertFalse(passesByReference(threadedUnion(false), "--threading-model=automatic"));
+        assertTrue(passesByReference(threadedUnion(false), "-a", MANUAL_THREADING));
+        assertFalse(passesByReference(threadedUnion(false), MANUAL_THREADING, "--threading-model", "dynamic"));
+    }
+
+    /**
+     * Generate SPL for a graph with sc options, a single
+     * option is set as a string, otherwise as a list.
+     */
+    private static boolean passesByReference(JsonObject graph, String ...scOptions) throws Exception {
+        if (scOptions.length == 1)
+            objectCreate(graph, "config").addProperty(ContextProperties.SC_OPTIONS, scOptions[0]);
+        else if (scOptions.length != 0) {
+            JsonArray options = new JsonArray();
+            for (String option : scOptions)
+                options.add(new JsonPrimitive(option));
+            objectCreate(graph, "config").add(ContextProperties.SC_OPTIONS, options);
+        }
+        return new SPLGenerator().generateSPL(graph).contains("outputConnections");
+    }
+
+    /**
+     * Graph of two object streams unioned into an expensive map,
+     * automatic threading gives the map the dynamic threading model.
+     */
+    private static JsonObject threadedUnion(boolean autoThreading) {
+        Topology topo = new Topology();
+
+        TStream<Integer> first = topo.strings("1", "2").map(Integer::valueOf);
+        TStream<Integer> second = topo.strings("3", "4").map(Integer::valueOf);
+        first.union(second).map(v -> "t" + v).costHint(10).forEach(v -> {});
+
+        JsonObject graph = topo.builder()._complete();
+        objectCreate(graph, "config").addProperty(ContextProperties.AUTO_THREADING, autoThreading);
+        return graph;
+    }
+
+    /**
+     * With the dynamic threading model any input port may queue
+     * tuples, each object must still arrive at its consumer.
+     */
+    @Test
+    public void passByReferenceDynamicThreading() throws Exception {
+        assumeTrue(SC_OK);
+        assumeTrue(!isMainRun());
+
+        Topology topo = new Topology();
+
+        TStream<Integer> nums = topo.limitedSourceN(n -> n.intValue() * 2, 1000);
+        TStream<Integer> plusOne = nums.map(v -> v + 1);
+        TStream<Integer> timesTen = nums.map(v -> v * 10);
+        TStream<String> strings = plusOne.union(timesTen).map(String::valueOf);
+        getConfig().put(ContextProperties.SC_OPTIONS, "--threading-model=dynamic");
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add(String.valueOf(i * 2 + 1));
+            expected.add(String.valueOf(i * 20));
+        }
+
+        Tester tester = topo.getTester();
+        Condition<List<String>> contents = tester.stringContentsUnordered(strings,
+                expected.toArray(new String[0]));
+
+        complete(tester, contents, 30, TimeUnit.SECONDS);
+
+        assertTrue(contents.valid());
+    }
+
     @Test
     public void nestedUDPWithBroadcast() throws Exception {
         assumeTrue(SC_OK);
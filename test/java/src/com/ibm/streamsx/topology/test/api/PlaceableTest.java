@@ -12,6 +12,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
 import java.io.File;
@@ -21,8 +22,10 @@ import java.lang.ProcessBuilder.Redirect;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -37,6 +40,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
+import com.google.gson.JsonObject;
 import com.ibm.streamsx.topology.TSink;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
@@ -634,10 +638,52 @@ public class PlaceableTest extends TestTopology {
             ;
     }
 
+    @Test
+    public void testProfiledPlacement() throws Exception {
+        adlOk();
+        
+        Topology t = newTopology();
+        TStream<String> s = t.strings("3").invocationName("S");
+        TStream<String> a = s.modify(identity()).invocationName("A");
+        TStream<String> b = a.modify(identity()).invocationName("B");
+        // A windowed aggregate is not chained to B.
+        b.last(1).aggregate(l -> l.get(0)).invocationName("C");
+        
+        // Equal costs, most bytes flow S->A and B->C
+        JsonObject ops = new JsonObject();
+        ops.add("S", profile(1, 100));
+        ops.add("A", profile(1, 1));
+        ops.add("B", profile(1, 100));
+        ops.add("C", profile(1, 0));
+        JsonObject profile = new JsonObject();
+        profile.addProperty("peCount", 2);
+        profile.add("operators", ops);
+        
+        Map<String,Object> config = new HashMap<>();
+        config.put(ContextProperties.PLACEMENT_PROFILE, profile);
+        
+        // Two PEs, S with A and B with C.
+        Document adl = produceADL(t, config);
+        adlAssertColocated(adl, false, "S", "A");
+        adlAssertColocated(adl, false, "B", "C");
+        assertFalse(colocateId(adlOperator(adl, "S")).equals(colocateId(adlOperator(adl, "B"))));
+    }
+    
+    private static JsonObject profile(double cost, long bytes) {
+        JsonObject values = new JsonObject();
+        values.addProperty("cost", cost);
+        values.addProperty("bytes", bytes);
+        return values;
+    }
+
     public static Document produceADL(TopologyElement te) throws Exception {
+        return produceADL(te, Collections.emptyMap());
+    }
+    
+    public static Document produceADL(TopologyElement te, Map<String,Object> config) throws Exception {
         @SuppressWarnings("unchecked")
         StreamsContext<File> ctx = (StreamsContext<File>) StreamsContextFactory.getStreamsContext(StreamsContext.Type.TOOLKIT);
-        File tkDir = ctx.submit(te.topology()).get();
+        File tkDir = ctx.submit(te.topology(), config).get();
         
         System.out.println("TKDIR:" + tkDir);
         
@@ -743,6 +789,21 @@ public class PlaceableTest extends TestTopology {
         else
             assertFalse(colocateId, colocateId.contains("getChannel()"));
     }
+    /**
+     * Get the operator with the given name.
+     */
+    public static Node adlOperator(Document adl, String name) {
+        NodeList ops = adl.getElementsByTagName("primitiveOperInstance");
+        for (int i = 0; i < ops.getLength(); i++) {
+            Node op = ops.item(i);
+            String opName = attr(op, "name");
+            if (opName.substring(opName.lastIndexOf('.')+1).equals(name))
+                return op;
+        }
+        fail("No operator " + name);
+        return null;
+    }
+
     /**
      * Assert that no operators are colocated.
      */
@@ -21,6 +21,9 @@ import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
 
 import org.junit.Test;
 
@@ -411,6 +414,57 @@ public class StreamTest extends TestTopology {
         complete(tester, spCount, 20, TimeUnit.SECONDS);
     }
     
+    /**
+     * Ensure we can create counter, gauge and histogram metrics.
+     * Each tuple is only passed through unchanged if the metrics exist.
+     * @throws Exception
+     */
+    @Test
+    public void testMetricCreateRecorded() throws Exception {
+
+        final Topology topo = new Topology();
+        
+        TStream<String> strings = topo.strings("a", "b", "c");
+        strings = strings.modify(new RecordMetricTester());
+        Tester tester = topo.getTester();
+        
+        Condition<List<String>> contents = tester.stringContents(strings, "a", "b", "c");
+        complete(tester, contents, 20, TimeUnit.SECONDS);
+        assertTrue(contents.toString(), contents.valid());
+    }
+    
+    public static class RecordMetricTester implements UnaryOperator<String>, Initializable {
+        private static final long serialVersionUID = 1L;
+        
+        private static final List<String> METRICS = Arrays.asList(
+                "aLongAdder", "anAtomicLong",
+                "aHistogram.count", "aHistogram.max", "aHistogram.p50", "aHistogram.p99.9");
+        
+        private transient FunctionContext functionContext;
+        private transient LongAdder counter;
+        private transient AtomicLong gauge;
+        private transient LongConsumer histogram;
+
+        @Override
+        public String apply(String v) {
+            counter.increment();
+            gauge.set(v.hashCode());
+            histogram.accept(System.nanoTime() & 0xFFFF);
+            
+            List<String> missing = new ArrayList<>(METRICS);
+            missing.removeAll(functionContext.getCustomMetricNames());
+            return missing.isEmpty() ? v : v + " missing metrics " + missing;
+        }
+
+        @Override
+        public void initialize(FunctionContext functionContext) throws Exception {
+            this.functionContext = functionContext;
+            counter = functionContext.createCounterMetric("aLongAdder", "Counter desc.");
+            gauge = functionContext.createGaugeMetric("anAtomicLong", "Some gauge");
+            histogram = functionContext.createHistogramMetric("aHistogram", "Some values", 50, 99.9);
+        }
+    }
+    
     public static class CreateMetricTester<T> implements UnaryOperator<T>, Initializable {
         private static final long serialVersionUID = 1L;
 
@@ -4,20 +4,32 @@
  */
 package com.ibm.streamsx.topology.test.api;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.gson.JsonObject;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
 import com.ibm.streamsx.topology.context.StreamsContext.Type;
 import com.ibm.streamsx.topology.context.StreamsContextFactory;
+import com.ibm.streamsx.topology.internal.context.remote.BundleCache;
 import com.ibm.streamsx.topology.streams.StringStreams;
 import com.ibm.streamsx.topology.test.AllowAll;
 import com.ibm.streamsx.topology.test.TestTopology;
@@ -48,4 +60,103 @@ public class ToolkitTest extends TestTopology {
         assertTrue(tkRoot.exists());
     }
 
+    /**
+     * Test that a jar dependency is placed into the toolkit
+     * through the dependency cache, and a second submission
+     * reuses the cached jar.
+     */
+    @Test
+    public void testDependencyCache() throws Exception {
+        String resourceDir = System.getProperty("topology.test.resource_dir");
+        Path cacheDir = Files.createTempDirectory("depcache");
+
+        @SuppressWarnings("unchecked")
+        StreamsContext<File> tkContext = (StreamsContext<File>) StreamsContextFactory
+                .getStreamsContext(Type.TOOLKIT);
+        Map<String, Object> config = new HashMap<>();
+        config.put(ContextProperties.DEPENDENCY_CACHE_DIR, cacheDir.toString());
+
+        // Cached by the hash of its contents.
+        Path jar = Paths.get(resourceDir, "ThirdPartyResource.jar");
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        StringBuilder hash = new StringBuilder();
+        for (byte b : md.digest(Files.readAllBytes(jar)))
+            hash.append(String.format("%02x", b & 0xff));
+        File cachedJar = new File(cacheDir.toFile(), hash + ".jar");
+
+        // Other jars such as the one containing AllowAll are cached too.
+        int[] entries = new int[2];
+        for (int i = 0; i < 2; i++) {
+            final Topology topology = newTopology("TKDepCache");
+            topology.addJarDependency(jar.toString());
+            topology.strings("a").filter(new AllowAll<String>());
+
+            File tkRoot = tkContext.submit(topology, new HashMap<>(config)).get();
+            assertTrue(new File(tkRoot, "opt/streamsx.topology.depends/ThirdPartyResource.jar").isFile());
+            assertTrue(cachedJar.isFile());
+            entries[i] = cacheDir.toFile().list().length;
+        }
+        assertEquals(entries[0], entries[1]);
+    }
+
+    /**
+     * Test that a second build of the same application
+     * reuses the bundle from the first build.
+     */
+    @Test
+    public void testReuseBundle() throws Exception {
+        Path cacheDir = Files.createTempDirectory("depcache");
+
+        @SuppressWarnings("unchecked")
+        StreamsContext<File> bundleContext = (StreamsContext<File>) StreamsContextFactory
+                .getStreamsContext(Type.BUNDLE);
+        Map<String, Object> config = new HashMap<>();
+        config.put(ContextProperties.DEPENDENCY_CACHE_DIR, cacheDir.toString());
+        config.put(ContextProperties.REUSE_BUNDLE, true);
+
+        long[] sizes = new long[2];
+        for (int i = 0; i < 2; i++) {
+            final Topology topology = newTopology("TKReuseBundle");
+            topology.strings("a").filter(new AllowAll<String>());
+
+            File sab = bundleContext.submit(topology, new HashMap<>(config)).get();
+            assertTrue(sab.isFile());
+            sizes[i] = sab.length();
+            sab.delete();
+        }
+        assertEquals(sizes[0], sizes[1]);
+        assertEquals(1, new File(cacheDir.toFile(), "sab").list().length);
+    }
+
+    /**
+     * Test that a cached bundle is copied to exactly
+     * the file requested, leaving the cached bundle in place.
+     */
+    @Test
+    public void testBundleCacheCopy() throws Exception {
+        Path cacheDir = Files.createTempDirectory("depcache");
+        Path buildDir = Files.createTempDirectory("build");
+
+        JsonObject deploy = new JsonObject();
+        deploy.addProperty(ContextProperties.DEPENDENCY_CACHE_DIR, cacheDir.toString());
+        deploy.addProperty(ContextProperties.REUSE_BUNDLE, true);
+
+        BundleCache cache = BundleCache.cache(deploy);
+        assertNotNull(cache);
+        assertNull(cache.lookup("abc"));
+
+        File sab = buildDir.resolve("ns.App.sab").toFile();
+        Files.write(sab.toPath(), new byte[] {1, 2, 3});
+        cache.put("abc", sab);
+        sab.delete();
+
+        File target = buildDir.resolve("copy").resolve("ns.App.sab").toFile();
+        target.getParentFile().mkdirs();
+        assertEquals(target, cache.get("abc", target));
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(target.toPath()));
+
+        target.delete();
+        assertTrue(Files.isRegularFile(cache.lookup("abc")));
+        assertNull(cache.get("xyz", target));
+    }
 }
@@ -5,12 +5,20 @@
 package com.ibm.streamsx.topology.test.embedded;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -22,10 +30,15 @@ import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.Type;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
 import com.ibm.streamsx.topology.context.StreamsContextFactory;
+import com.ibm.streamsx.topology.function.Consumer;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.function.Initializable;
 import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.internal.spljava.Tracing;
 import com.ibm.streamsx.topology.spl.FileSPLStreams;
 import com.ibm.streamsx.topology.spl.SPLStream;
 import com.ibm.streamsx.topology.spl.SPLStreams;
@@ -164,6 +177,287 @@ public class SimpleEmbeddedTest extends TestTopology {
         assertTrue(sc.isSupported(topology));
     }
 
+    private static final Set<String> sourceThreads = ConcurrentHashMap.newKeySet();
+    private static final Set<String> isolatedThreads = ConcurrentHashMap.newKeySet();
+    
+    @Test
+    public void testQueuedRegions() throws Exception {
+
+        Topology topology = new Topology("testQueuedRegions");
+
+        TStream<String> hw = topology.strings("Hello", "World!", "Test!!");
+        hw = hw.modify(t -> {sourceThreads.add(Thread.currentThread().getName()); return t;});
+        
+        // Downstream of isolate is executed by its own thread, keeping order.
+        hw = hw.isolate().modify(t -> {isolatedThreads.add(Thread.currentThread().getName()); return t;});
+        TStream<String> hw2 = hw.parallel(3).transform(new AppendXform("!")).endParallel();
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> expectedContents = tester.stringContents(hw,
+                "Hello", "World!", "Test!!");
+        Condition<List<String>> expectedContents2 = tester.stringContentsUnordered(hw2,
+                "Hello!", "World!!", "Test!!!");
+
+        getConfig().put(ContextProperties.EMBEDDED_QUEUE_SIZE, 1);
+        StreamsContextFactory
+                .getStreamsContext(StreamsContext.Type.EMBEDDED_TESTER)
+                .submit(topology, getConfig()).get();
+
+        assertTrue(expectedContents.valid());
+        assertTrue(expectedContents2.valid());
+        
+        assertEquals(1, isolatedThreads.size());
+        assertFalse(sourceThreads.containsAll(isolatedThreads));
+    }
+
+    /**
+     * Objects passed by reference from a producer are
+     * not corrupted by the queues of isolated and parallel regions.
+     */
+    @Test
+    public void testOptimizedQueuedRegions() throws Exception {
+
+        Topology topology = new Topology("testOptimizedQueuedRegions");
+
+        List<String> values = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            values.add(Integer.toString(i));
+            expected.add(Integer.toString(i * 2));
+        }
+
+        // map is a by-reference producer when optimized.
+        TStream<Integer> ints = topology.constants(values).map(Integer::valueOf);
+        TStream<String> isolated = ints.isolate().map(i -> Integer.toString(i * 2));
+        TStream<String> channels = ints.parallel(3).map(i -> Integer.toString(i * 2)).endParallel();
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> isolatedContents = tester.stringContents(isolated,
+                expected.toArray(new String[0]));
+        Condition<List<String>> channelContents = tester.stringContentsUnordered(channels,
+                expected.toArray(new String[0]));
+
+        getConfig().put(ContextProperties.EMBEDDED_OPTIMIZE, true);
+        getConfig().put(ContextProperties.EMBEDDED_QUEUE_SIZE, 1);
+        StreamsContextFactory
+                .getStreamsContext(StreamsContext.Type.EMBEDDED_TESTER)
+                .submit(topology, getConfig()).get();
+
+        assertTrue(isolatedContents.toString(), isolatedContents.valid());
+        assertTrue(channelContents.toString(), channelContents.valid());
+    }
+
+    @Test
+    public void testQueuedRegionFailure() throws Exception {
+
+        Topology topology = new Topology("testQueuedRegionFailure");
+
+        TStream<String> hw = topology.strings("Hello", "World!", "Test!!");
+        hw.isolate().forEach(new FailOn("World!"));
+
+        getConfig().put(ContextProperties.EMBEDDED_QUEUE_SIZE, 1);
+        assertFailed(topology, "World!");
+    }
+
+    @Test
+    public void testChannelFailure() throws Exception {
+
+        Topology topology = new Topology("testChannelFailure");
+
+        TStream<String> hw = topology.strings("Hello", "World!", "Test!!");
+        hw.parallel(3).forEach(new FailOn("Test!!"));
+
+        getConfig().put(ContextProperties.EMBEDDED_QUEUE_SIZE, 1);
+        assertFailed(topology, "Test!!");
+    }
+
+    @SuppressWarnings("serial")
+    private static class FailOn implements Consumer<String> {
+        private final String value;
+
+        FailOn(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public void accept(String v) {
+            if (value.equals(v))
+                throw new IllegalStateException(v);
+        }
+    }
+
+    /**
+     * A failure downstream of a queue completes the
+     * submission exceptionally rather than hanging.
+     */
+    private void assertFailed(Topology topology, String message) throws Exception {
+        try {
+            StreamsContextFactory
+                    .getStreamsContext(StreamsContext.Type.EMBEDDED)
+                    .submit(topology, getConfig()).get(30, TimeUnit.SECONDS);
+            fail("Submission completed without the failure");
+        } catch (ExecutionException e) {
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof IllegalStateException && message.equals(t.getMessage()))
+                    return;
+            }
+            throw e;
+        }
+    }
+
+    private static final Set<String> metricNames = ConcurrentHashMap.newKeySet();
+    
+    @SuppressWarnings("serial")
+    private static class MetricNames implements Function<String, String>, Initializable {
+        @Override
+        public void initialize(FunctionContext functionContext) throws Exception {
+            metricNames.addAll(functionContext.getCustomMetricNames());
+        }
+
+        @Override
+        public String apply(String v) {
+            return v + "!";
+        }
+    }
+    
+    @Test
+    public void testOperatorMetrics() throws Exception {
+
+        Topology topology = new Topology("testOperatorMetrics");
+
+        TStream<String> hw = topology.strings("Hello", "World!", "Test!!");
+        hw = hw.map(new MetricNames());
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> expectedContents = tester.stringContents(hw,
+                "Hello!", "World!!", "Test!!!");
+
+        getConfig().put(ContextProperties.OPERATOR_METRICS, 1);
+        StreamsContextFactory
+                .getStreamsContext(StreamsContext.Type.EMBEDDED_TESTER)
+                .submit(topology, getConfig()).get();
+
+        assertTrue(expectedContents.valid());
+        
+        assertTrue(metricNames.contains("nTuplesIn"));
+        assertTrue(metricNames.contains("nTuplesOut"));
+        assertTrue(metricNames.contains("logicTimeNanos.p99"));
+        assertTrue(metricNames.contains("conversionTimeNanos.p99"));
+        assertTrue(metricNames.contains("submitTimeNanos.p99"));
+    }
+
+    private static final Set<String> sinkMetricNames = ConcurrentHashMap.newKeySet();
+    private static final List<String> tracedTuples = Collections.synchronizedList(new ArrayList<>());
+    
+    /**
+     * Records the tuples counted by the sink's {@code nTracedTuples}
+     * metric, those arriving with a stamp.
+     */
+    @SuppressWarnings("serial")
+    private static class TracedSink implements Consumer<String>, Initializable {
+        @Override
+        public void initialize(FunctionContext functionContext) throws Exception {
+            sinkMetricNames.addAll(functionContext.getCustomMetricNames());
+        }
+
+        @Override
+        public void accept(String v) {
+            if (Tracing.current() != 0)
+                tracedTuples.add(v);
+        }
+    }
+    
+    @Test
+    public void testTupleTracing() throws Exception {
+
+        Topology topology = new Topology("testTupleTracing");
+
+        TStream<String> hw = topology.strings("Hello", "World!", "Test!!");
+        // The stamp of the second tuple crosses the queue of the
+        // isolated region, strings have no __spl_jo blob to carry it.
+        hw = hw.isolate().map(v -> v + "!");
+        hw.forEach(new TracedSink());
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> expectedContents = tester.stringContents(hw,
+                "Hello!", "World!!", "Test!!!");
+
+        getConfig().put(ContextProperties.TUPLE_TRACING, 2);
+        getConfig().put(ContextProperties.EMBEDDED_QUEUE_SIZE, 10);
+        StreamsContextFactory
+                .getStreamsContext(StreamsContext.Type.EMBEDDED_TESTER)
+                .submit(topology, getConfig()).get();
+
+        assertTrue(expectedContents.valid());
+        assertTrue(sinkMetricNames.contains("nTracedTuples"));
+        assertTrue(sinkMetricNames.contains("traceLatencyNanos.p99"));
+        assertFalse(sinkMetricNames.contains("nTuplesIn"));
+        assertEquals(Collections.singletonList("World!!"), tracedTuples);
+    }
+
+    private static final Map<Integer, Set<Integer>> keyChannels = new ConcurrentHashMap<>();
+    private static final Set<String> channelThreads = ConcurrentHashMap.newKeySet();
+    
+    @SuppressWarnings("serial")
+    private static class KeyChannel implements Function<Integer, String>, Initializable {
+        private int channel = -1;
+        private int maxChannels;
+
+        @Override
+        public void initialize(FunctionContext functionContext) throws Exception {
+            channel = functionContext.getChannel();
+            maxChannels = functionContext.getMaxChannels();
+        }
+
+        @Override
+        public String apply(Integer key) {
+            keyChannels.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(channel);
+            channelThreads.add(Thread.currentThread().getName());
+            return key + ":" + maxChannels;
+        }
+    }
+    
+    @Test
+    public void testParallelChannels() throws Exception {
+
+        Topology topology = new Topology("testParallelChannels");
+        
+        List<Integer> keys = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add(i % 8);
+            expected.add((i % 8) + ":4");
+        }
+
+        TStream<String> channels = topology.constants(keys)
+                .parallel(() -> 4, k -> k)
+                .map(new KeyChannel())
+                .endParallel();
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> expectedContents = tester.stringContentsUnordered(channels,
+                expected.toArray(new String[0]));
+
+        getConfig().put(ContextProperties.EMBEDDED_QUEUE_SIZE, 100);
+        StreamsContextFactory
+                .getStreamsContext(StreamsContext.Type.EMBEDDED_TESTER)
+                .submit(topology, getConfig()).get();
+
+        assertTrue(expectedContents.valid());
+        
+        // Each key is always processed by the same channel.
+        Set<Integer> used = ConcurrentHashMap.newKeySet();
+        for (Set<Integer> kc : keyChannels.values()) {
+            assertEquals(1, kc.size());
+            used.addAll(kc);
+        }
+        assertEquals(8, keyChannels.size());
+        for (int channel : used)
+            assertTrue(channel >= 0 && channel < 4);
+        assertTrue(used.size() > 1);
+        assertEquals(4, channelThreads.size());
+    }
+
     @Test
     public void testIsSupportedNeg() throws Exception {
         
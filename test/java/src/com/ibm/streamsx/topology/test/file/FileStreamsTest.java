@@ -16,17 +16,23 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.Test;
 
 import com.ibm.streams.operator.PERuntime;
+import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streamsx.topology.TSink;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.JobProperties;
 import com.ibm.streamsx.topology.context.StreamsContext.Type;
 import com.ibm.streamsx.topology.file.FileStreams;
 import com.ibm.streamsx.topology.function.Consumer;
+import com.ibm.streamsx.topology.spl.FileSPLStreams;
+import com.ibm.streamsx.topology.spl.FileSPLStreams.Compression;
+import com.ibm.streamsx.topology.spl.SPLStream;
 import com.ibm.streamsx.topology.streams.BeaconStreams;
 import com.ibm.streamsx.topology.test.TestTopology;
 import com.ibm.streamsx.topology.tester.Condition;
@@ -196,4 +202,202 @@ public class FileStreamsTest extends TestTopology {
         
         tmpFile.toFile().delete();
     }
+    
+    /**
+     * Write enough lines that a file is split into multiple chunks.
+     */
+    private static String[] writeLines(Path tmpFile) throws Exception {
+        String[] lines = new String[200_000];
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(tmpFile.toFile()), StandardCharsets.UTF_8));
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "line " + i + (i % 7 == 0 ? " \u00e9t\u00e9" : "");
+            bw.write(lines[i]);
+            bw.write(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        bw.flush();
+        bw.close();
+        return lines;
+    }
+    
+    @Test
+    public void testTextFileReaderParallel() throws Exception {
+        assumeTrue(this.getTesterType() == Type.DISTRIBUTED_TESTER);
+        Path tmpFile = Files.createTempFile("test", "txt");
+        String[] lines = writeLines(tmpFile);
+        
+        final Topology t = new Topology("testTextFileReaderParallel");
+        t.addFileDependency(tmpFile.toAbsolutePath().toString(), "etc");
+        String fileLocation = "etc/" + tmpFile.getFileName().toString();
+        
+        TStream<String> fileName = t.strings(fileLocation);
+        TStream<String> contents = FileStreams.textFileReader(fileName, 4, true);
+        
+        Tester tester = t.getTester();
+        Condition<List<String>> expectedContents = tester.stringContents(contents, lines);
+
+        complete(tester, expectedContents, 60, TimeUnit.SECONDS);
+        assertTrue(expectedContents.toString(), expectedContents.valid());
+        
+        tmpFile.toFile().delete();
+    }
+    
+    @Test
+    public void testTextFileReaderChannels() throws Exception {
+        assumeTrue(this.getTesterType() == Type.DISTRIBUTED_TESTER);
+        Path tmpFile = Files.createTempFile("test", "txt");
+        String[] lines = writeLines(tmpFile);
+        
+        final Topology t = new Topology("testTextFileReaderChannels");
+        t.addFileDependency(tmpFile.toAbsolutePath().toString(), "etc");
+        String fileLocation = "etc/" + tmpFile.getFileName().toString();
+        
+        TStream<String> fileName = t.strings(fileLocation);
+        TStream<String> contents = FileStreams.textFileReader(fileName, 3, 2, false).endParallel();
+        
+        Tester tester = t.getTester();
+        Condition<List<String>> expectedContents = tester.stringContentsUnordered(contents, lines);
+
+        complete(tester, expectedContents, 60, TimeUnit.SECONDS);
+        assertTrue(expectedContents.toString(), expectedContents.valid());
+        
+        tmpFile.toFile().delete();
+    }
+    
+    /**
+     * Embedded execution with queues expands the region into
+     * channels, each must read only its share of the file.
+     */
+    @Test
+    public void testTextFileReaderChannelsEmbedded() throws Exception {
+        assumeTrue(isEmbedded());
+        Path tmpFile = Files.createTempFile("test", "txt");
+        String[] lines = writeLines(tmpFile);
+        
+        final Topology t = new Topology("testTextFileReaderChannelsEmbedded");
+        
+        TStream<String> fileName = t.strings(tmpFile.toAbsolutePath().toString());
+        TStream<String> contents = FileStreams.textFileReader(fileName, 3, 2, true).endParallel();
+        getConfig().put(ContextProperties.EMBEDDED_QUEUE_SIZE, 100);
+        
+        Tester tester = t.getTester();
+        Condition<Long> expectedCount = tester.tupleCount(contents, lines.length);
+        Condition<List<String>> expectedContents = tester.stringContentsUnordered(contents, lines);
+
+        complete(tester, expectedContents, 60, TimeUnit.SECONDS);
+        assertTrue(expectedCount.toString(), expectedCount.valid());
+        assertTrue(expectedContents.toString(), expectedContents.valid());
+        
+        tmpFile.toFile().delete();
+    }
+    
+    @Test
+    public void testTextFileReaderGzip() throws Exception {
+        assumeTrue(this.getTesterType() == Type.DISTRIBUTED_TESTER);
+        Path tmpFile = Files.createTempFile("test", "txt.gz");
+        
+        String[] lines = new String[10_000];
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(tmpFile.toFile())), StandardCharsets.UTF_8));
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "compressed line " + i;
+            bw.write(lines[i]);
+            bw.write("\n");
+        }
+        bw.close();
+        
+        final Topology t = new Topology("testTextFileReaderGzip");
+        t.addFileDependency(tmpFile.toAbsolutePath().toString(), "etc");
+        String fileLocation = "etc/" + tmpFile.getFileName().toString();
+        
+        TStream<String> fileName = t.strings(fileLocation);
+        TStream<String> contents = FileStreams.textFileReader(fileName, Compression.gzip);
+        
+        Tester tester = t.getTester();
+        Condition<List<String>> expectedContents = tester.stringContents(contents, lines);
+
+        complete(tester, expectedContents, 60, TimeUnit.SECONDS);
+        assertTrue(expectedContents.toString(), expectedContents.valid());
+        
+        tmpFile.toFile().delete();
+    }
+    
+    @Test
+    public void testCSVReaderParallel() throws Exception {
+        assumeTrue(this.getTesterType() == Type.DISTRIBUTED_TESTER);
+        Path tmpFile = Files.createTempFile("test", "csv");
+        
+        String[] records = new String[100_000];
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(tmpFile.toFile()), StandardCharsets.UTF_8));
+        bw.write("name,count,value\n");
+        for (int i = 0; i < records.length; i++) {
+            String name = i % 5 == 0 ? "n, \"" + i + "\"" : "n" + i;
+            records[i] = name + ":" + i + ":" + (i / 4.0);
+            if (i % 5 == 0)
+                bw.write("\"n, \"\"" + i + "\"\"\"");
+            else
+                bw.write(name);
+            bw.write("," + i + "," + (i / 4.0) + "\n");
+        }
+        bw.close();
+        
+        final Topology t = new Topology("testCSVReaderParallel");
+        t.addFileDependency(tmpFile.toAbsolutePath().toString(), "etc");
+        String fileLocation = "etc/" + tmpFile.getFileName().toString();
+        
+        StreamSchema schema = com.ibm.streams.operator.Type.Factory.getStreamSchema(
+                "tuple<rstring name, int32 count, float64 value>");
+        
+        TStream<String> fileName = t.strings(fileLocation);
+        SPLStream csv = FileSPLStreams.csvReader(fileName, schema, true, 4, true);
+        TStream<String> contents = csv.convert(
+                tuple -> tuple.getString("name") + ":" + tuple.getInt("count") + ":" + tuple.getDouble("value"));
+        
+        Tester tester = t.getTester();
+        Condition<List<String>> expectedContents = tester.stringContents(contents, records);
+
+        complete(tester, expectedContents, 60, TimeUnit.SECONDS);
+        assertTrue(expectedContents.toString(), expectedContents.valid());
+        
+        tmpFile.toFile().delete();
+    }
+    
+    @Test
+    public void testCSVReaderTypes() throws Exception {
+        assumeTrue(this.getTesterType() == Type.DISTRIBUTED_TESTER);
+        Path tmpFile = Files.createTempFile("test", "csv");
+        
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(tmpFile.toFile()), StandardCharsets.UTF_8));
+        bw.write("255,65535, 7 , 2.5 ,a\n");
+        // Whitespace only fields are empty, except for strings.
+        bw.write(" ,  , \t, , \n");
+        bw.write("0,0,,,\n");
+        bw.close();
+        
+        final Topology t = new Topology("testCSVReaderTypes");
+        t.addFileDependency(tmpFile.toAbsolutePath().toString(), "etc");
+        String fileLocation = "etc/" + tmpFile.getFileName().toString();
+        
+        StreamSchema schema = com.ibm.streams.operator.Type.Factory.getStreamSchema(
+                "tuple<uint8 small, uint16 medium, int32 count, float64 value, rstring name>");
+        
+        TStream<String> fileName = t.strings(fileLocation);
+        SPLStream csv = FileSPLStreams.csvReader(fileName, schema, false, 1, true);
+        TStream<String> contents = csv.convert(
+                tuple -> Byte.toUnsignedInt(tuple.getByte("small")) + ":"
+                        + Short.toUnsignedInt(tuple.getShort("medium")) + ":"
+                        + tuple.getInt("count") + ":" + tuple.getDouble("value")
+                        + ":[" + tuple.getString("name") + "]");
+        
+        Tester tester = t.getTester();
+        Condition<List<String>> expectedContents = tester.stringContents(contents,
+                "255:65535:7:2.5:[a]", "0:0:0:0.0:[ ]", "0:0:0:0.0:[]");
+
+        complete(tester, expectedContents, 60, TimeUnit.SECONDS);
+        assertTrue(expectedContents.toString(), expectedContents.valid());
+        
+        tmpFile.toFile().delete();
+    }
 }
@@ -0,0 +1,147 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2020
+ */
+package com.ibm.streamsx.topology.test.perf;
+
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.generator.spl.SPLGenerator;
+import com.ibm.streamsx.topology.test.TestTopology;
+
+/**
+ * Time to generate SPL for large topologies,
+ * and its consistency when generated concurrently.
+ */
+public class GeneratorPerfTest extends TestTopology {
+
+    @Test
+    public void testGenerateWide5000() throws Exception {
+        assumeTrue(PERF_OK);
+        assumeTrue(isMainRun());
+
+        System.err.println("Generate-Wide");
+        timeGenerate(() -> wide(new Topology("genWide"), 2500));
+    }
+
+    @Test
+    public void testGenerateLong5000() throws Exception {
+        assumeTrue(PERF_OK);
+        assumeTrue(isMainRun());
+
+        System.err.println("Generate-Long");
+        timeGenerate(() -> pipelines(new Topology("genLong"), 10, 500));
+    }
+
+    @Test
+    public void testGenerateParallel5000() throws Exception {
+        assumeTrue(PERF_OK);
+        assumeTrue(isMainRun());
+
+        System.err.println("Generate-Parallel");
+        timeGenerate(() -> parallel(new Topology("genParallel"), 50, 100));
+    }
+
+    /**
+     * SPL generated concurrently for large topologies
+     * is identical to SPL generated sequentially.
+     */
+    @Test
+    public void testParallelGenerationIdentical() throws Exception {
+        assumeTrue(isMainRun());
+
+        assertSameSPL(wide(new Topology("genWide"), 300));
+        assertSameSPL(pipelines(new Topology("genLong"), 5, 120));
+        assertSameSPL(parallel(new Topology("genParallel"), 10, 60));
+    }
+
+    private static void assertSameSPL(Topology t) throws Exception {
+        // Generation modifies the graph so each generator has a copy.
+        final String json = t.builder()._complete().toString();
+        JsonObject graph = new JsonParser().parse(json).getAsJsonObject();
+        assertTrue(array(graph, "operators").size() > 500);
+
+        String sequential = new SPLGenerator(Integer.MAX_VALUE).generateSPL(graph);
+        String concurrent = new SPLGenerator().generateSPL(
+                new JsonParser().parse(json).getAsJsonObject());
+        assertEquals(sequential, concurrent);
+    }
+
+    /**
+     * A single source fanning out to {@code n} map and sink pairs.
+     */
+    public static Topology wide(Topology t, int n) {
+        TStream<String> s = t.strings("a", "b", "c");
+        for (int i = 0; i < n; i++) {
+            final int v = i;
+            s.map(x -> x + v).forEach(x -> {});
+        }
+        return t;
+    }
+
+    /**
+     * {@code count} pipelines of {@code length} maps, every tenth
+     * stream isolated, unioned into a single sink.
+     */
+    public static Topology pipelines(Topology t, int count, int length) {
+        List<TStream<String>> ends = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            TStream<String> s = t.strings("a", "b", "c");
+            for (int i = 0; i < length; i++) {
+                if (i % 10 == 9)
+                    s = s.isolate();
+                final int v = i;
+                s = s.map(x -> x + v);
+            }
+            ends.add(s);
+        }
+        ends.get(0).union(new HashSet<>(ends.subList(1, ends.size()))).forEach(x -> {});
+        return t;
+    }
+
+    /**
+     * {@code count} parallel regions each containing {@code length} maps.
+     */
+    public static Topology parallel(Topology t, int count, int length) {
+        for (int p = 0; p < count; p++) {
+            TStream<String> s = t.strings("a", "b", "c").parallel(3);
+            for (int i = 0; i < length; i++) {
+                final int v = i;
+                s = s.map(x -> x + v);
+            }
+            s.endParallel().forEach(x -> {});
+        }
+        return t;
+    }
+
+    private interface TopologySupplier {
+        Topology get() throws Exception;
+    }
+
+    /**
+     * Generate SPL for a fresh topology (generation modifies the graph)
+     * a number of times, printing the time for each.
+     */
+    private static void timeGenerate(TopologySupplier topology) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Topology t = topology.get();
+            long start = System.currentTimeMillis();
+            String spl = new SPLGenerator().generateSPL(t.builder()._complete());
+            long end = System.currentTimeMillis();
+            System.err.println("Generated " + spl.length() + " characters in " + (end - start) + "ms");
+        }
+    }
+}
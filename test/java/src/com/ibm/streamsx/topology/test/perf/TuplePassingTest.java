@@ -7,11 +7,14 @@ package com.ibm.streamsx.topology.test.perf;
 import static org.junit.Assume.assumeTrue;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Test;
 
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext.Type;
 import com.ibm.streamsx.topology.context.StreamsContextFactory;
 import com.ibm.streamsx.topology.function.Consumer;
@@ -30,7 +33,7 @@ public class TuplePassingTest extends TestTopology {
 
         System.err.println("String");
         addTimer(stringWorkload(stringSource(t, 1000000), 5));
-        StreamsContextFactory.getEmbedded().submit(t).get();
+        StreamsContextFactory.getEmbedded().submit(t, optimized(true)).get();
     }
 
     @Test
@@ -42,7 +45,41 @@ public class TuplePassingTest extends TestTopology {
 
         System.err.println("Object(TestValue)");
         addTimer(objectWorkload(objectSource(t, 1000000), 5));
-        StreamsContextFactory.getEmbedded().submit(t).get();
+        StreamsContextFactory.getEmbedded().submit(t, optimized(true)).get();
+    }
+
+    /**
+     * Embedded with every functional operator passing tuples,
+     * for comparison with the optimized embedded execution.
+     */
+    @Test
+    public void testStringMillion5Tuples() throws Exception {
+        assumeTrue(PERF_OK);
+        assumeTrue(isMainRun());
+
+        Topology t = new Topology("t1m5StringTuples");
+
+        System.err.println("String-Tuples");
+        addTimer(stringWorkload(stringSource(t, 1000000), 5));
+        StreamsContextFactory.getEmbedded().submit(t, optimized(false)).get();
+    }
+
+    @Test
+    public void testObjectMillion5Tuples() throws Exception {
+        assumeTrue(PERF_OK);
+        assumeTrue(isMainRun());
+
+        Topology t = new Topology("t1m5ObjectTuples");
+
+        System.err.println("Object(TestValue)-Tuples");
+        addTimer(objectWorkload(objectSource(t, 1000000), 5));
+        StreamsContextFactory.getEmbedded().submit(t, optimized(false)).get();
+    }
+
+    private static Map<String, Object> optimized(boolean optimize) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ContextProperties.EMBEDDED_OPTIMIZE, optimize);
+        return config;
     }
 
     @Test
@@ -7,6 +7,7 @@ package com.ibm.streamsx.topology.test.tester;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
 
 import java.util.Arrays;
 import java.util.List;
@@ -222,4 +223,93 @@ public class ConditionTest extends TestTopology {
         assertFalse(contents.toString(), contents.valid());
         assertFalse(passed);
     }
+    
+    @Test
+    public void testStringContentsUnorderedDuplicatesBad() throws Exception {
+        final Topology topology = new Topology();
+        TStream<String> source = topology.strings("A", "B", "B", "C");
+
+        Condition<List<String>> contents = topology.getTester().stringContentsUnordered(source, "C", "A", "A", "B");
+
+        boolean passed = complete(topology.getTester(), contents, 10, TimeUnit.SECONDS);
+        assertFalse(contents.toString(), contents.valid());
+        assertTrue(contents.toString(), contents.failed());
+        assertFalse(passed);
+    }
+    
+    @Test
+    public void testStringContentsUnorderedLarge() throws Exception {
+        final int count = 100000;
+        final Topology topology = new Topology();
+        TStream<String> source = topology.limitedSourceN(n -> "T" + n, count);
+
+        String[] expected = new String[count];
+        for (int i = 0; i < count; i++)
+            expected[i] = "T" + (count - 1 - i);
+
+        Condition<List<String>> contents = topology.getTester().stringContentsUnordered(source, expected);
+
+        boolean passed = complete(topology.getTester(), contents, 60, TimeUnit.SECONDS);
+        assertTrue(contents.valid());
+        assertTrue(passed);
+    }
+    
+    @Test
+    public void testThroughputGood() throws Exception {
+        assumeFalse(isDistributedOrService());
+        final Topology topology = new Topology();
+        TStream<String> source = topology.limitedSourceN(n -> "T" + n, 1000000);
+
+        Condition<Long> count = topology.getTester().tupleCount(source, 1000000);
+        Condition<Double> throughput = topology.getTester().throughputAtLeast(source, 1000, 10, TimeUnit.MILLISECONDS);
+
+        boolean passed = complete(topology.getTester(), count, 60, TimeUnit.SECONDS);
+        assertTrue(throughput.toString(), throughput.valid());
+        assertTrue(throughput.getResult() >= 1000);
+        assertTrue(passed);
+    }
+    
+    @Test
+    public void testThroughputBad() throws Exception {
+        assumeFalse(isDistributedOrService());
+        final Topology topology = new Topology();
+        TStream<String> source = topology.periodicSource(() -> "T", 50, TimeUnit.MILLISECONDS);
+
+        Condition<Long> count = topology.getTester().atLeastTupleCount(source, 30);
+        Condition<Double> throughput = topology.getTester().throughputAtLeast(source, 1000, 500, TimeUnit.MILLISECONDS);
+
+        complete(topology.getTester(), count, 30, TimeUnit.SECONDS);
+        assertFalse(throughput.toString(), throughput.valid());
+    }
+    
+    @Test
+    public void testLatencyGood() throws Exception {
+        assumeFalse(isDistributedOrService());
+        final Topology topology = new Topology();
+        TStream<Long> source = topology.limitedSourceN(n -> System.currentTimeMillis(), 10000);
+        TStream<Long> stamped = source.filter(t -> true).isolate().filter(t -> true);
+
+        Condition<Long> count = topology.getTester().tupleCount(stamped, 10000);
+        Condition<Long> latency = topology.getTester().latencyPercentileBelow(stamped, t -> t, 50, 10, TimeUnit.SECONDS);
+
+        boolean passed = complete(topology.getTester(), count, 60, TimeUnit.SECONDS);
+        assertTrue(latency.toString(), latency.valid());
+        assertTrue(latency.getResult() >= 0);
+        assertTrue(passed);
+    }
+    
+    @Test
+    public void testLatencyBad() throws Exception {
+        assumeFalse(isDistributedOrService());
+        final Topology topology = new Topology();
+        // Stamp every tuple a minute in the past.
+        TStream<Long> source = topology.limitedSourceN(n -> System.currentTimeMillis() - 60000, 100);
+
+        Condition<Long> count = topology.getTester().tupleCount(source, 100);
+        Condition<Long> latency = topology.getTester().latencyPercentileBelow(source, t -> t, 90, 1, TimeUnit.SECONDS);
+
+        complete(topology.getTester(), count, 60, TimeUnit.SECONDS);
+        assertFalse(latency.toString(), latency.valid());
+        assertTrue(latency.getResult() >= 60000);
+    }
 }
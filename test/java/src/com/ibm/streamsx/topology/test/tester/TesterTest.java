@@ -44,6 +44,30 @@ public class TesterTest extends TestTopology {
         assertTrue(contents.valid());
     }
     
+    /**
+     * A stream with many tuples, sent in batches
+     * by the tester's sink, arrives complete and in order.
+     */
+    @Test
+    public void testLargeVolume() throws Exception {
+        final int count = 200000;
+        final Topology topology = new Topology("LargeVolume");
+        TStream<String> source = topology.limitedSourceN(n -> "tuple" + n, count);
+
+        String[] expected = new String[count];
+        for (int i = 0; i < count; i++)
+            expected[i] = "tuple" + i;
+
+        final Tester tester = topology.getTester();
+        Condition<Long> tupleCount = tester.tupleCount(source, count);
+        Condition<List<String>> contents = tester.stringContents(source, expected);
+
+        complete(tester, tupleCount, 60, SECONDS);
+
+        assertTrue(tupleCount.valid());
+        assertTrue(contents.valid());
+    }
+    
     @Test
     public void testComplete1() throws Exception {
         assumeSPLOk();